@@ -0,0 +1,150 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.examples.cache.benchmark;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Measures throughput of explicit pessimistic {@code lock/unlock} pairs on cache keys.
+ * Two scenarios are executed one after another:
+ * <ul>
+ * <li><b>Hot keys</b> - all threads contend on a small set of keys, so most locks
+ *      have several candidates queued at the same time.</li>
+ * <li><b>Cold keys</b> - every thread works on its own key range, so every lock
+ *      has exactly one candidate at a time.</li>
+ * </ul>
+ * You can execute this benchmark with or without remote nodes. Remote nodes should
+ * always be started with the same configuration file:
+ * <pre>
+ *     GRIDGAIN_HOME/bin/ggstart.sh examples/config/spring-cache.xml
+ * </pre>
+ * Optional arguments are: cache name, number of threads and duration of each
+ * scenario in seconds.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheLockBenchmark {
+    /** Default cache name. */
+    private static final String DFLT_CACHE_NAME = "partitioned";
+
+    /** Number of keys shared by all threads in hot scenario. */
+    private static final int HOT_KEYS = 4;
+
+    /** Number of keys per thread in cold scenario. */
+    private static final int COLD_KEYS_PER_THREAD = 10000;
+
+    /** Warmup duration in milliseconds. */
+    private static final long WARMUP = 5000;
+
+    /** Ensure singleton. */
+    private GridCacheLockBenchmark() {
+        // No-op.
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments: cache name, threads count and duration in seconds.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        String cacheName = args.length > 0 ? args[0] : DFLT_CACHE_NAME;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long duration = (args.length > 2 ? Long.parseLong(args[2]) : 30) * 1000;
+
+        Grid g = G.start("examples/config/spring-cache.xml");
+
+        try {
+            GridCache<Integer, Integer> cache = g.cache(cacheName);
+
+            X.println(">>> Cache lock benchmark started [cache=" + cacheName + ", threads=" + threads +
+                ", duration=" + duration + "ms]");
+
+            // Warmup.
+            run(cache, threads, WARMUP, true);
+            run(cache, threads, WARMUP, false);
+
+            long hot = run(cache, threads, duration, true);
+            long cold = run(cache, threads, duration, false);
+
+            X.println(">>> Hot keys:  " + hot * 1000 / duration + " lock/unlock per second.");
+            X.println(">>> Cold keys: " + cold * 1000 / duration + " lock/unlock per second.");
+        }
+        finally {
+            G.stop(true);
+        }
+    }
+
+    /**
+     * @param cache Cache.
+     * @param threads Number of threads.
+     * @param duration Duration in milliseconds.
+     * @param hot {@code True} for hot keys scenario.
+     * @return Number of completed lock/unlock pairs.
+     * @throws Exception If failed.
+     */
+    private static long run(final GridCache<Integer, Integer> cache, int threads, long duration,
+        final boolean hot) throws Exception {
+        final AtomicLong cnt = new AtomicLong();
+
+        final AtomicBoolean done = new AtomicBoolean();
+
+        ExecutorService exec = Executors.newFixedThreadPool(threads);
+
+        try {
+            Future<?>[] futs = new Future<?>[threads];
+
+            for (int i = 0; i < threads; i++) {
+                final int base = i * COLD_KEYS_PER_THREAD;
+
+                futs[i] = exec.submit(new Callable<Object>() {
+                    @Override public Object call() throws Exception {
+                        long ops = 0;
+
+                        for (int k = 0; !done.get(); k++) {
+                            Integer key = hot ? k % HOT_KEYS : base + k % COLD_KEYS_PER_THREAD;
+
+                            if (cache.lock(key, 0)) {
+                                try {
+                                    ops++;
+                                }
+                                finally {
+                                    cache.unlock(key);
+                                }
+                            }
+                        }
+
+                        cnt.addAndGet(ops);
+
+                        return null;
+                    }
+                });
+            }
+
+            Thread.sleep(duration);
+
+            done.set(true);
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            exec.shutdownNow();
+        }
+
+        return cnt.get();
+    }
+}
@@ -0,0 +1,216 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.examples.metrics;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.spi.discovery.*;
+import org.gridgain.grid.spi.discovery.tcp.*;
+import org.gridgain.grid.spi.discovery.tcp.internal.*;
+import org.gridgain.grid.spi.discovery.tcp.messages.*;
+import org.gridgain.grid.typedef.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Simulates heartbeat traffic of {@link GridTcpDiscoverySpi} in a ring of in-JVM nodes
+ * and prints number of bytes sent during one heartbeat cycle (two passes of heartbeat
+ * message around the ring) with full metrics in every heartbeat and with delta-encoded
+ * metrics. Simulation does not open any sockets, every hop is measured as size of
+ * serialized heartbeat message.
+ * <p>
+ * Every node runs a few jobs from time to time and its CPU load and heap usage
+ * fluctuate slightly. Simulation also checks that metrics decoded from delta-encoded
+ * heartbeats are the same as metrics published by every node.
+ * <p>
+ * Optional arguments are: number of nodes (default is {@code 200}) and number of
+ * heartbeat cycles (default is {@code 50}).
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridHeartbeatMetricsSimulation {
+    /** Probability that node job counters change between heartbeats. */
+    private static final double JOB_CHANGE_PROBABILITY = 0.1;
+
+    /** Random. */
+    private static final Random RND = new Random(1);
+
+    /**
+     * Ensure singleton.
+     */
+    private GridHeartbeatMetricsSimulation() {
+        // No-op.
+    }
+
+    /**
+     * Runs simulation.
+     *
+     * @param args Command line arguments: number of nodes and number of heartbeat cycles.
+     * @throws Exception If simulation failed.
+     */
+    public static void main(String[] args) throws Exception {
+        int nodeCnt = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        UUID[] ids = new UUID[nodeCnt];
+        GridDiscoveryMetricsAdapter[] metrics = new GridDiscoveryMetricsAdapter[nodeCnt];
+        GridTcpDiscoveryMetricsEncoder[] encoders = new GridTcpDiscoveryMetricsEncoder[nodeCnt];
+
+        // Remote nodes as they are seen by the coordinator.
+        GridTcpDiscoveryNode[] observed = new GridTcpDiscoveryNode[nodeCnt];
+
+        for (int i = 0; i < nodeCnt; i++) {
+            ids[i] = UUID.randomUUID();
+            metrics[i] = initialMetrics();
+            encoders[i] = new GridTcpDiscoveryMetricsEncoder(GridTcpDiscoverySpi.DFLT_METRICS_FULL_REFRESH_FREQ,
+                GridTcpDiscoverySpi.DFLT_METRICS_UPDATE_THRESHOLD);
+            observed[i] = new GridTcpDiscoveryNode();
+        }
+
+        long fullBytes = 0;
+        long deltaBytes = 0;
+
+        int mismatches = 0;
+
+        for (int c = 0; c < cycles; c++) {
+            // Every heartbeat publishes a snapshot of current node metrics.
+            GridNodeMetrics[] snapshots = new GridNodeMetrics[nodeCnt];
+
+            for (int i = 0; i < nodeCnt; i++) {
+                evolve(metrics[i]);
+
+                snapshots[i] = snapshot(metrics[i]);
+            }
+
+            // Heartbeat with full metrics of every node, as it was sent before delta encoding.
+            Map<UUID, GridNodeMetrics> full = new HashMap<UUID, GridNodeMetrics>();
+
+            for (int i = 0; i < nodeCnt; i++) {
+                full.put(ids[i], snapshots[i]);
+
+                fullBytes += size((Serializable)full);
+            }
+
+            for (int i = 0; i < nodeCnt; i++) {
+                full.remove(ids[i]);
+
+                fullBytes += size((Serializable)full);
+            }
+
+            // Heartbeat with delta-encoded metrics.
+            GridTcpDiscoveryHeartbeatMessage hb = new GridTcpDiscoveryHeartbeatMessage(ids[0]);
+
+            for (int i = 0; i < nodeCnt; i++) {
+                hb.setMetrics(ids[i], encoders[i].encode(snapshots[i]));
+
+                deltaBytes += size(hb);
+            }
+
+            // Coordinator decodes metrics when message arrives after the first pass.
+            for (int i = 0; i < nodeCnt; i++) {
+                GridNodeMetrics decoded = GridTcpDiscoveryMetricsEncoder.decode(observed[i],
+                    hb.metrics().get(ids[i]));
+
+                if (decoded == null || decoded.getTotalExecutedJobs() != snapshots[i].getTotalExecutedJobs() ||
+                    decoded.getCurrentActiveJobs() != snapshots[i].getCurrentActiveJobs())
+                    mismatches++;
+            }
+
+            for (int i = 0; i < nodeCnt; i++) {
+                hb.removeMetrics(ids[i]);
+
+                deltaBytes += size(hb);
+            }
+        }
+
+        X.println(">>> Heartbeat metrics simulation finished [nodes=" + nodeCnt + ", cycles=" + cycles + ']');
+        X.println(">>> Full metrics:          " + fullBytes / cycles + " bytes per heartbeat cycle.");
+        X.println(">>> Delta-encoded metrics: " + deltaBytes / cycles + " bytes per heartbeat cycle.");
+        X.println(">>> Job counter mismatches on receiving node: " + mismatches);
+    }
+
+    /**
+     * @return Initial node metrics.
+     */
+    private static GridDiscoveryMetricsAdapter initialMetrics() {
+        GridDiscoveryMetricsAdapter m = new GridDiscoveryMetricsAdapter();
+
+        long now = System.currentTimeMillis();
+
+        m.setAvailableProcessors(8);
+        m.setHeapMemoryInitialized(256L << 20);
+        m.setHeapMemoryMaximum(1024L << 20);
+        m.setHeapMemoryCommitted(512L << 20);
+        m.setHeapMemoryUsed(200L << 20);
+        m.setNonHeapMemoryUsed(40L << 20);
+        m.setCurrentCpuLoad(0.2);
+        m.setAverageCpuLoad(0.2);
+        m.setCurrentThreadCount(60);
+        m.setFileSystemTotalSpace(100L << 30);
+        m.setFileSystemUsableSpace(50L << 30);
+        m.setFileSystemFreeSpace(50L << 30);
+        m.setStartTime(now);
+        m.setNodeStartTime(now);
+
+        return m;
+    }
+
+    /**
+     * Changes metrics as they would change between two heartbeats.
+     *
+     * @param m Metrics.
+     */
+    private static void evolve(GridDiscoveryMetricsAdapter m) {
+        m.setUpTime(m.getUpTime() + GridTcpDiscoverySpi.DFLT_HEARTBEAT_FREQ);
+        m.setTotalIdleTime(m.getTotalIdleTime() + GridTcpDiscoverySpi.DFLT_HEARTBEAT_FREQ / 2);
+
+        // Small fluctuations which are below default threshold most of the time.
+        m.setCurrentCpuLoad(Math.max(0, Math.min(1, m.getCurrentCpuLoad() + (RND.nextDouble() - 0.5) * 0.04)));
+        m.setHeapMemoryUsed(m.getHeapMemoryUsed() + (long)((RND.nextDouble() - 0.5) * (4 << 20)));
+
+        if (RND.nextDouble() < JOB_CHANGE_PROBABILITY) {
+            int active = RND.nextInt(4);
+
+            m.setCurrentActiveJobs(active);
+            m.setMaximumActiveJobs(Math.max(active, m.getMaximumActiveJobs()));
+            m.setTotalExecutedJobs(m.getTotalExecutedJobs() + RND.nextInt(10));
+        }
+    }
+
+    /**
+     * @param m Metrics.
+     * @return Copy of metrics as they are at the moment.
+     */
+    private static GridNodeMetrics snapshot(GridNodeMetrics m) {
+        byte[] data = new byte[GridDiscoveryMetricsHelper.METRICS_SIZE];
+
+        GridDiscoveryMetricsHelper.serialize(data, 0, m);
+
+        return GridDiscoveryMetricsHelper.deserialize(data, 0);
+    }
+
+    /**
+     * @param obj Object to serialize.
+     * @return Serialized size in bytes.
+     * @throws IOException If failed.
+     */
+    private static int size(Serializable obj) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+
+        out.writeObject(obj);
+
+        out.close();
+
+        return bout.size();
+    }
+}
@@ -85,6 +85,12 @@ public interface GridConfiguration {
     /** Default cache size for missed resources. */
     public static final int DFLT_P2P_MISSED_RESOURCES_CACHE_SIZE = 100;
 
+    /** Default maximum number of class dependencies sent together with peer-loaded class. */
+    public static final int DFLT_P2P_PREFETCH_SIZE = 256;
+
+    /** Default parallel startup flag. */
+    public static final boolean DFLT_PARALLEL_STARTUP = true;
+
     /** Default SMTP port. */
     public static final int DFLT_SMTP_PORT = 25;
 
@@ -124,6 +130,9 @@ public interface GridConfiguration {
     /** */
     public static final int DFLT_METRICS_LOG_FREQ = 0;
 
+    /** Default event record batch size (events are recorded synchronously). */
+    public static final int DFLT_EVT_RECORD_BATCH_SIZE = 0;
+
     /**
      * Whether or not send email notifications on node start and stop. Note if enabled
      * email notifications will only be sent if SMTP is configured and at least one
@@ -666,6 +675,31 @@ public interface GridConfiguration {
      */
     public int getPeerClassLoadingMissedResourcesCacheSize();
 
+    /**
+     * Gets maximum number of class dependencies which remote node sends together with
+     * requested peer-loaded class. Dependencies are collected from class byte code
+     * transitively, so first execution of a task with many dependency classes takes
+     * a few network round trips instead of one round trip per class. If {@code 0},
+     * every class is requested separately.
+     * <p>
+     * If not provided, default value is {@link #DFLT_P2P_PREFETCH_SIZE}.
+     *
+     * @return Maximum number of class dependencies sent together with peer-loaded class.
+     */
+    public int getPeerClassLoadingPrefetchSize();
+
+    /**
+     * Gets path, either absolute or relative to {@code GRIDGAIN_HOME}, to folder where
+     * peer-loaded classes are stored. Classes are stored per remote class loader ID and
+     * user version, so node restarted while originating node is still alive loads
+     * classes from disk instead of network. Folder is not cleaned automatically.
+     * <p>
+     * If not provided, peer-loaded classes are not stored on disk.
+     *
+     * @return Peer class loading cache folder path or {@code null} if cache is disabled.
+     */
+    @Nullable public String getPeerClassLoadingCachePath();
+
     /**
      * Should return an instance of fully configured executor service which
      * is in charge of peer class loading requests/responses. If you don't use
@@ -736,6 +770,21 @@ public interface GridConfiguration {
      */
     @Nullable public int[] getExcludeEventTypes();
 
+    /**
+     * Gets maximum number of events passed to event storage SPI at once. If greater than
+     * {@code 0}, recorded events are passed to event storage SPI asynchronously by a
+     * background thread, so that threads generating events do not wait for SPI. In this
+     * case events may become visible to event queries with a small delay. Local event
+     * listeners are always notified synchronously.
+     * <p>
+     * If not provided, default value is {@link #DFLT_EVT_RECORD_BATCH_SIZE}, i.e. events
+     * are passed to event storage SPI synchronously.
+     *
+     * @return Maximum number of events passed to event storage SPI at once or {@code 0}
+     *      if events are recorded synchronously.
+     */
+    public int getEventRecordBatchSize();
+
     /**
      * Gets configuration (descriptors) for all caches.
      *
@@ -760,6 +809,19 @@ public interface GridConfiguration {
      */
     public boolean isDaemon();
 
+    /**
+     * Whether or not SPI managers which do not depend on each other should be started
+     * in parallel. Communication, event storage and discovery managers, as well as
+     * all processors and controllers, are always started sequentially in the
+     * same order. Disable parallel startup if your custom SPIs depend on start order
+     * of other SPIs.
+     * <p>
+     * If not provided, default value is {@link #DFLT_PARALLEL_STARTUP}.
+     *
+     * @return {@code True} if independent SPI managers should be started in parallel.
+     */
+    public boolean isParallelStartup();
+
     /**
      * Gets path, either absolute or relative to {@code GRIDGAIN_HOME}, to {@code Jetty}
      * XML configuration file. {@code Jetty} is used to support REST over HTTP protocol for
@@ -87,6 +87,9 @@ public class GridConfigurationAdapter implements GridConfiguration {
     /** Daemon flag. */
     private boolean daemon;
 
+    /** Parallel startup flag. */
+    private boolean parallelStartup = DFLT_PARALLEL_STARTUP;
+
     /** Jetty XML configuration path. */
     private String jettyPath;
 
@@ -105,6 +108,9 @@ public class GridConfigurationAdapter implements GridConfiguration {
     /** Events of these types should not be recorded. */
     private int[] exclEvtTypes;
 
+    /** Maximum number of events passed to event storage SPI at once. */
+    private int evtRecBatchSize = DFLT_EVT_RECORD_BATCH_SIZE;
+
     /** Maximum network requests timeout. */
     private long netTimeout = DFLT_NETWORK_TIMEOUT;
 
@@ -180,6 +186,12 @@ public class GridConfigurationAdapter implements GridConfiguration {
     /** Cache size of missed resources. */
     private int p2pMissedCacheSize = DFLT_P2P_MISSED_RESOURCES_CACHE_SIZE;
 
+    /** Maximum number of class dependencies sent together with peer-loaded class. */
+    private int p2pPrefetchSize = DFLT_P2P_PREFETCH_SIZE;
+
+    /** Peer class loading cache folder path. */
+    private String p2pCachePath;
+
     /** */
     private String smtpHost;
 
@@ -261,6 +273,7 @@ public class GridConfigurationAdapter implements GridConfiguration {
         deployMode = cfg.getDeploymentMode();
         discoStartupDelay = cfg.getDiscoveryStartupDelay();
         exclEvtTypes = cfg.getExcludeEventTypes();
+        evtRecBatchSize = cfg.getEventRecordBatchSize();
         execSvc = cfg.getExecutorService();
         ggHome = cfg.getGridGainHome();
         gridName = cfg.getGridName();
@@ -282,7 +295,10 @@ public class GridConfigurationAdapter implements GridConfiguration {
         nodeId = cfg.getNodeId();
         p2pEnabled = cfg.isPeerClassLoadingEnabled();
         p2pMissedCacheSize = cfg.getPeerClassLoadingMissedResourcesCacheSize();
+        p2pPrefetchSize = cfg.getPeerClassLoadingPrefetchSize();
+        p2pCachePath = cfg.getPeerClassLoadingCachePath();
         p2pSvc = cfg.getPeerClassLoadingExecutorService();
+        parallelStartup = cfg.isParallelStartup();
         restEnabled = cfg.isRestEnabled();
         restSecretKey = cfg.getRestSecretKey();
         segChkFreq = cfg.getSegmentCheckFrequency();
@@ -546,6 +562,24 @@ public class GridConfigurationAdapter implements GridConfiguration {
         this.daemon = daemon;
     }
 
+    /**
+     * Sets parallel startup flag. If {@code true}, SPI managers which do not
+     * depend on each other are started in parallel.
+     * <p>
+     * If not provided, default value is {@link #DFLT_PARALLEL_STARTUP}.
+     *
+     * @param parallelStartup Parallel startup flag.
+     * @see GridConfiguration#isParallelStartup()
+     */
+    public void setParallelStartup(boolean parallelStartup) {
+        this.parallelStartup = parallelStartup;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isParallelStartup() {
+        return parallelStartup;
+    }
+
     /**
      * Sets grid name. Note that {@code null} is a default grid name.
      *
@@ -1137,6 +1171,40 @@ public class GridConfigurationAdapter implements GridConfiguration {
         return p2pMissedCacheSize;
     }
 
+    /**
+     * Sets maximum number of class dependencies sent together with peer-loaded class.
+     * If {@code 0}, every class is requested separately.
+     * <p>
+     * If not provided, default value is {@link #DFLT_P2P_PREFETCH_SIZE}.
+     *
+     * @param p2pPrefetchSize Maximum number of class dependencies sent together with peer-loaded class.
+     * @see GridConfiguration#getPeerClassLoadingPrefetchSize()
+     */
+    public void setPeerClassLoadingPrefetchSize(int p2pPrefetchSize) {
+        this.p2pPrefetchSize = p2pPrefetchSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getPeerClassLoadingPrefetchSize() {
+        return p2pPrefetchSize;
+    }
+
+    /**
+     * Sets path, either absolute or relative to {@code GRIDGAIN_HOME}, to folder where
+     * peer-loaded classes are stored.
+     *
+     * @param p2pCachePath Peer class loading cache folder path.
+     * @see GridConfiguration#getPeerClassLoadingCachePath()
+     */
+    public void setPeerClassLoadingCachePath(String p2pCachePath) {
+        this.p2pCachePath = p2pCachePath;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String getPeerClassLoadingCachePath() {
+        return p2pCachePath;
+    }
+
     /** {@inheritDoc} */
     @Override public GridCacheConfiguration[] getCacheConfiguration() {
         return cacheCfg;
@@ -1182,6 +1250,24 @@ public class GridConfigurationAdapter implements GridConfiguration {
         this.exclEvtTypes = exclEvtTypes;
     }
 
+    /** {@inheritDoc} */
+    @Override public int getEventRecordBatchSize() {
+        return evtRecBatchSize;
+    }
+
+    /**
+     * Sets maximum number of events passed to event storage SPI at once. If greater than
+     * {@code 0}, events are passed to event storage SPI asynchronously.
+     * <p>
+     * If not provided, default value is {@link #DFLT_EVT_RECORD_BATCH_SIZE}.
+     *
+     * @param evtRecBatchSize Maximum number of events passed to event storage SPI at once.
+     * @see GridConfiguration#getEventRecordBatchSize()
+     */
+    public void setEventRecordBatchSize(int evtRecBatchSize) {
+        this.evtRecBatchSize = evtRecBatchSize;
+    }
+
     /**
      * Sets path, either absolute or relative to {@code GRIDGAIN_HOME}, to {@code JETTY}
      * XML configuration file. {@code JETTY} is used to support REST over HTTP protocol for
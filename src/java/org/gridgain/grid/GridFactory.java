@@ -1555,8 +1555,12 @@ public class GridFactory {
             myCfg.setMetricsExpireTime(cfg.getMetricsExpireTime());
             myCfg.setLifecycleBeans(cfg.getLifecycleBeans());
             myCfg.setPeerClassLoadingMissedResourcesCacheSize(cfg.getPeerClassLoadingMissedResourcesCacheSize());
+            myCfg.setPeerClassLoadingPrefetchSize(cfg.getPeerClassLoadingPrefetchSize());
+            myCfg.setPeerClassLoadingCachePath(cfg.getPeerClassLoadingCachePath());
             myCfg.setIncludeEventTypes(cfg.getIncludeEventTypes());
             myCfg.setExcludeEventTypes(cfg.getExcludeEventTypes());
+            myCfg.setEventRecordBatchSize(cfg.getEventRecordBatchSize());
+            myCfg.setParallelStartup(cfg.isParallelStartup());
             myCfg.setDaemon(cfg.isDaemon());
             myCfg.setIncludeProperties(cfg.getIncludeProperties());
             myCfg.setLifeCycleEmailNotification(cfg.isLifeCycleEmailNotification());
@@ -0,0 +1,48 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+/**
+ * Benchmark of a single hot path. Benchmark is set up once, then {@link #run()} is
+ * called repeatedly by one or more threads, and every call is measured as one operation.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ * @see GridBenchmarkRunner
+ */
+public interface GridBenchmark {
+    /**
+     * Gets benchmark name, which identifies benchmark results.
+     *
+     * @return Benchmark name.
+     */
+    public String name();
+
+    /**
+     * Prepares benchmark, e.g. starts grids and loads data.
+     *
+     * @throws Exception If failed.
+     */
+    public void setUp() throws Exception;
+
+    /**
+     * Performs single operation. Called concurrently if benchmark is run by several threads.
+     *
+     * @throws Exception If failed.
+     */
+    public void run() throws Exception;
+
+    /**
+     * Releases resources acquired by {@link #setUp()}.
+     *
+     * @throws Exception If failed.
+     */
+    public void tearDown() throws Exception;
+}
@@ -0,0 +1,70 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+
+/**
+ * Convenience adapter for {@link GridBenchmark} with no-op set up and tear down.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public abstract class GridBenchmarkAdapter implements GridBenchmark {
+    /** Benchmark name. */
+    private final String name;
+
+    /** Per-thread random, so that threads do not contend on a shared one. */
+    private final ThreadLocal<Random> rnd = new ThreadLocal<Random>() {
+        @Override protected Random initialValue() {
+            return new Random();
+        }
+    };
+
+    /**
+     * @param name Benchmark name.
+     */
+    protected GridBenchmarkAdapter(String name) {
+        assert name != null;
+
+        this.name = name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String name() {
+        return name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        // No-op.
+    }
+
+    /**
+     * @param max Upper bound (exclusive).
+     * @return Random number from {@code 0} to {@code max} taken from random of the current thread.
+     */
+    protected int nextInt(int max) {
+        return rnd.get().nextInt(max);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridBenchmarkAdapter.class, this);
+    }
+}
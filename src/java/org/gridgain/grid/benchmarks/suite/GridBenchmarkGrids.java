@@ -0,0 +1,92 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.spi.discovery.tcp.*;
+import org.gridgain.grid.spi.discovery.tcp.ipfinder.vm.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+
+/**
+ * Starts and stops grids benchmarks run on. All grids are started in the same JVM
+ * and discover each other through shared IP finder.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+final class GridBenchmarkGrids {
+    /** IP finder shared by all grids. */
+    private static final GridTcpDiscoveryVmIpFinder IP_FINDER = new GridTcpDiscoveryVmIpFinder(true);
+
+    /**
+     * Ensure singleton.
+     */
+    private GridBenchmarkGrids() {
+        // No-op.
+    }
+
+    /**
+     * Starts grids.
+     *
+     * @param name Benchmark name, used as prefix of grid names.
+     * @param cnt Number of grids.
+     * @param cacheCfgs Cache configurations.
+     * @return Started grids, the first one is the one benchmark is run from.
+     * @throws GridException If failed.
+     */
+    static List<Grid> start(String name, int cnt, GridCacheConfiguration... cacheCfgs) throws GridException {
+        List<Grid> grids = new ArrayList<Grid>(cnt);
+
+        boolean success = false;
+
+        try {
+            for (int i = 0; i < cnt; i++) {
+                GridConfigurationAdapter cfg = new GridConfigurationAdapter();
+
+                cfg.setGridName(name + '-' + i);
+
+                GridTcpDiscoverySpi disco = new GridTcpDiscoverySpi();
+
+                disco.setIpFinder(IP_FINDER);
+
+                cfg.setDiscoverySpi(disco);
+
+                cfg.setRestEnabled(false);
+
+                if (cacheCfgs.length > 0)
+                    cfg.setCacheConfiguration(cacheCfgs);
+
+                grids.add(G.start(cfg));
+            }
+
+            success = true;
+
+            return grids;
+        }
+        finally {
+            if (!success)
+                stop(grids);
+        }
+    }
+
+    /**
+     * Stops grids.
+     *
+     * @param grids Grids to stop.
+     */
+    static void stop(Collection<Grid> grids) {
+        for (Grid grid : grids)
+            G.stop(grid.name(), true);
+    }
+}
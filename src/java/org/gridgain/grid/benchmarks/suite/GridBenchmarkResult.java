@@ -0,0 +1,205 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+/**
+ * Result of a single benchmark run. Operation latencies are kept in a histogram of
+ * logarithmic buckets, each power of two split into {@code 16} linear sub-buckets,
+ * so reported percentiles are exact within about {@code 6%}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridBenchmarkResult {
+    /** Number of sub-buckets per power of two is {@code 2^SUB_BITS}. */
+    private static final int SUB_BITS = 4;
+
+    /** Number of sub-buckets per power of two. */
+    private static final int SUB_CNT = 1 << SUB_BITS;
+
+    /** Number of histogram buckets, enough for any positive long. */
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_CNT;
+
+    /** Header of CSV output. */
+    public static final String CSV_HEADER = "name,threads,ops,durationMs,opsPerSec,avgUs,p50Us,p99Us,p999Us,maxUs";
+
+    /** Benchmark name. */
+    private final String name;
+
+    /** Number of threads. */
+    private final int threads;
+
+    /** Number of operations. */
+    private final long ops;
+
+    /** Measurement duration in nanoseconds. */
+    private final long duration;
+
+    /** Total latency of all operations in nanoseconds. */
+    private final long totalLatency;
+
+    /** Maximum latency in nanoseconds. */
+    private final long maxLatency;
+
+    /** Latency histogram. */
+    @GridToStringExclude
+    private final long[] hist;
+
+    /**
+     * @param name Benchmark name.
+     * @param threads Number of threads.
+     * @param duration Measurement duration in nanoseconds.
+     * @param totalLatency Total latency of all operations in nanoseconds.
+     * @param maxLatency Maximum latency in nanoseconds.
+     * @param hist Latency histogram, see {@link #bucket(long)}.
+     */
+    GridBenchmarkResult(String name, int threads, long duration, long totalLatency, long maxLatency, long[] hist) {
+        assert hist.length == BUCKETS;
+
+        this.name = name;
+        this.threads = threads;
+        this.duration = duration;
+        this.totalLatency = totalLatency;
+        this.maxLatency = maxLatency;
+        this.hist = hist;
+
+        long ops = 0;
+
+        for (long cnt : hist)
+            ops += cnt;
+
+        this.ops = ops;
+    }
+
+    /**
+     * @param latency Latency in nanoseconds.
+     * @return Index of histogram bucket for given latency.
+     */
+    static int bucket(long latency) {
+        if (latency < SUB_CNT)
+            return latency < 0 ? 0 : (int)latency;
+
+        int msb = 63 - Long.numberOfLeadingZeros(latency);
+
+        return (msb - SUB_BITS + 1) * SUB_CNT + (int)((latency >>> (msb - SUB_BITS)) & (SUB_CNT - 1));
+    }
+
+    /**
+     * @param bucket Index of histogram bucket.
+     * @return Smallest latency in nanoseconds falling into given bucket.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_CNT)
+            return bucket;
+
+        int msb = bucket / SUB_CNT + SUB_BITS - 1;
+
+        return (long)(SUB_CNT + bucket % SUB_CNT) << (msb - SUB_BITS);
+    }
+
+    /**
+     * @return Benchmark name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Number of threads benchmark was run by.
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * @return Number of measured operations.
+     */
+    public long operations() {
+        return ops;
+    }
+
+    /**
+     * @return Measurement duration in milliseconds.
+     */
+    public long duration() {
+        return duration / 1000000;
+    }
+
+    /**
+     * @return Number of operations per second.
+     */
+    public double throughput() {
+        return duration == 0 ? 0 : ops * 1000000000.0d / duration;
+    }
+
+    /**
+     * @return Average operation latency in microseconds.
+     */
+    public double averageLatency() {
+        return ops == 0 ? 0 : totalLatency / 1000.0d / ops;
+    }
+
+    /**
+     * @return Maximum operation latency in microseconds.
+     */
+    public double maximumLatency() {
+        return maxLatency / 1000.0d;
+    }
+
+    /**
+     * @param percentile Percentile from {@code 0} to {@code 100}.
+     * @return Latency in microseconds which given percent of operations did not exceed.
+     */
+    public double latency(double percentile) {
+        assert percentile >= 0 && percentile <= 100;
+
+        if (ops == 0)
+            return 0;
+
+        long rank = (long)Math.ceil(ops * percentile / 100);
+
+        long cnt = 0;
+
+        for (int i = 0; i < hist.length; i++) {
+            cnt += hist[i];
+
+            if (cnt >= rank && cnt > 0)
+                return Math.min(lowerBound(i), maxLatency) / 1000.0d;
+        }
+
+        return maximumLatency();
+    }
+
+    /**
+     * @return Result as CSV line matching {@link #CSV_HEADER}.
+     */
+    public String toCsv() {
+        return name + ',' + threads + ',' + ops + ',' + duration() + ',' + format(throughput()) + ',' +
+            format(averageLatency()) + ',' + format(latency(50)) + ',' + format(latency(99)) + ',' +
+            format(latency(99.9)) + ',' + format(maximumLatency());
+    }
+
+    /**
+     * @param val Value.
+     * @return Value with two decimal digits.
+     */
+    private static String format(double val) {
+        return String.valueOf(Math.round(val * 100) / 100.0d);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridBenchmarkResult.class, this);
+    }
+}
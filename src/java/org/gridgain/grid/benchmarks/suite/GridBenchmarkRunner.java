@@ -0,0 +1,349 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Runs benchmarks and writes their results in CSV format, so that results of
+ * different versions and configurations can be compared by scripts.
+ * <p>
+ * Every benchmark is warmed up first, then measured for configured duration. Benchmarks
+ * run one after another, each by configured number of threads.
+ * <p>
+ * Runner can be started from command line with optional {@code name=value} arguments:
+ * <ul>
+ * <li>{@code out} - CSV file path (default is {@link #DFLT_PATH})</li>
+ * <li>{@code threads} - number of threads (default is {@link #DFLT_THREADS})</li>
+ * <li>{@code warmup} - warm up duration in milliseconds (default is {@link #DFLT_WARMUP})</li>
+ * <li>{@code duration} - measurement duration in milliseconds (default is {@link #DFLT_DURATION})</li>
+ * <li>{@code filter} - only benchmarks which names contain this string are run</li>
+ * </ul>
+ * For example:
+ * <pre>
+ * java org.gridgain.grid.benchmarks.suite.GridBenchmarkRunner threads=4 filter=cache- out=cache.csv
+ * </pre>
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridBenchmarkRunner {
+    /** Default number of threads (value is {@code 1}). */
+    public static final int DFLT_THREADS = 1;
+
+    /** Default warm up duration (value is {@code 10000}ms). */
+    public static final long DFLT_WARMUP = 10000;
+
+    /** Default measurement duration (value is {@code 30000}ms). */
+    public static final long DFLT_DURATION = 30000;
+
+    /** Default path of results file (value is {@code work/benchmarks/results.csv}). */
+    public static final String DFLT_PATH = "work/benchmarks/results.csv";
+
+    /** Number of threads. */
+    private int threads = DFLT_THREADS;
+
+    /** Warm up duration. */
+    private long warmup = DFLT_WARMUP;
+
+    /** Measurement duration. */
+    private long duration = DFLT_DURATION;
+
+    /**
+     * @param threads Number of threads running every benchmark.
+     */
+    public void setThreads(int threads) {
+        A.ensure(threads > 0, "threads > 0");
+
+        this.threads = threads;
+    }
+
+    /**
+     * @param warmup Warm up duration in milliseconds.
+     */
+    public void setWarmup(long warmup) {
+        A.ensure(warmup >= 0, "warmup >= 0");
+
+        this.warmup = warmup;
+    }
+
+    /**
+     * @param duration Measurement duration in milliseconds.
+     */
+    public void setDuration(long duration) {
+        A.ensure(duration > 0, "duration > 0");
+
+        this.duration = duration;
+    }
+
+    /**
+     * Runs benchmarks one after another.
+     *
+     * @param benches Benchmarks to run.
+     * @return Results in order of benchmarks.
+     * @throws Exception If any of benchmarks failed.
+     */
+    public List<GridBenchmarkResult> run(Iterable<? extends GridBenchmark> benches) throws Exception {
+        List<GridBenchmarkResult> res = new ArrayList<GridBenchmarkResult>();
+
+        for (GridBenchmark bench : benches)
+            res.add(run(bench));
+
+        return res;
+    }
+
+    /**
+     * Runs single benchmark.
+     *
+     * @param bench Benchmark to run.
+     * @return Benchmark result.
+     * @throws Exception If benchmark failed.
+     */
+    public GridBenchmarkResult run(GridBenchmark bench) throws Exception {
+        X.println(">>> Starting benchmark: " + bench.name());
+
+        bench.setUp();
+
+        try {
+            if (warmup > 0)
+                measure(bench, warmup);
+
+            GridBenchmarkResult res = measure(bench, duration);
+
+            X.println(">>> Finished benchmark [name=" + bench.name() + ", opsPerSec=" + res.throughput() +
+                ", avgUs=" + res.averageLatency() + ']');
+
+            return res;
+        }
+        finally {
+            bench.tearDown();
+        }
+    }
+
+    /**
+     * Runs benchmark by configured number of threads for given time.
+     *
+     * @param bench Benchmark.
+     * @param time Time in milliseconds.
+     * @return Result.
+     * @throws Exception If benchmark failed.
+     */
+    private GridBenchmarkResult measure(final GridBenchmark bench, long time) throws Exception {
+        final long[][] hists = new long[threads][GridBenchmarkResult.BUCKETS];
+
+        final long[] totals = new long[threads];
+        final long[] maxs = new long[threads];
+
+        final AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        final AtomicLong end = new AtomicLong();
+
+        Thread[] workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            final int idx = i;
+
+            workers[i] = new Thread("benchmark-" + bench.name() + '-' + i) {
+                @SuppressWarnings({"CatchGenericClass"})
+                @Override public void run() {
+                    long[] hist = hists[idx];
+
+                    long total = 0;
+                    long max = 0;
+
+                    try {
+                        startLatch.await();
+
+                        long endTime = end.get();
+
+                        for (long start = System.nanoTime(); start < endTime && err.get() == null; ) {
+                            bench.run();
+
+                            long now = System.nanoTime();
+
+                            long latency = now - start;
+
+                            hist[GridBenchmarkResult.bucket(latency)]++;
+
+                            total += latency;
+
+                            if (latency > max)
+                                max = latency;
+
+                            start = now;
+                        }
+                    }
+                    catch (Throwable e) {
+                        err.compareAndSet(null, e);
+                    }
+
+                    totals[idx] = total;
+                    maxs[idx] = max;
+                }
+            };
+
+            workers[i].start();
+        }
+
+        long start = System.nanoTime();
+
+        end.set(start + TimeUnit.MILLISECONDS.toNanos(time));
+
+        startLatch.countDown();
+
+        for (Thread worker : workers)
+            worker.join();
+
+        long elapsed = System.nanoTime() - start;
+
+        Throwable e = err.get();
+
+        if (e != null) {
+            if (e instanceof Exception)
+                throw (Exception)e;
+
+            throw new Exception("Benchmark failed: " + bench.name(), e);
+        }
+
+        long[] hist = new long[GridBenchmarkResult.BUCKETS];
+
+        long total = 0;
+        long max = 0;
+
+        for (int i = 0; i < threads; i++) {
+            for (int j = 0; j < hist.length; j++)
+                hist[j] += hists[i][j];
+
+            total += totals[i];
+            max = Math.max(max, maxs[i]);
+        }
+
+        return new GridBenchmarkResult(bench.name(), threads, elapsed, total, max, hist);
+    }
+
+    /**
+     * Writes results in CSV format.
+     *
+     * @param res Results.
+     * @param file File to write to.
+     * @throws IOException If failed.
+     */
+    public static void write(Iterable<GridBenchmarkResult> res, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+            throw new IOException("Failed to create directory: " + dir);
+
+        PrintWriter out = new PrintWriter(new FileWriter(file));
+
+        try {
+            out.println(GridBenchmarkResult.CSV_HEADER);
+
+            for (GridBenchmarkResult r : res)
+                out.println(r.toCsv());
+
+            if (out.checkError())
+                throw new IOException("Failed to write benchmark results: " + file);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return All benchmarks of the suite.
+     */
+    public static List<GridBenchmark> benchmarks() {
+        List<GridBenchmark> benches = new ArrayList<GridBenchmark>();
+
+        for (GridCacheMode mode : new GridCacheMode[] {LOCAL, REPLICATED, PARTITIONED})
+            for (GridCacheBenchmark.Operation op : GridCacheBenchmark.Operation.values())
+                benches.add(new GridCacheBenchmark(mode, op));
+
+        for (GridCacheEvictionBenchmark.Policy plc : GridCacheEvictionBenchmark.Policy.values())
+            benches.add(new GridCacheEvictionBenchmark(plc));
+
+        benches.add(new GridCacheQueryBenchmark());
+
+        for (GridMarshallerBenchmark.Type type : GridMarshallerBenchmark.Type.values())
+            benches.add(new GridMarshallerBenchmark(type));
+
+        benches.add(new GridMessagingBenchmark());
+        benches.add(new GridTaskBenchmark());
+
+        return benches;
+    }
+
+    /**
+     * Runs benchmark suite.
+     *
+     * @param args Optional {@code name=value} arguments, see class documentation.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        GridBenchmarkRunner runner = new GridBenchmarkRunner();
+
+        String path = DFLT_PATH;
+        String filter = null;
+
+        for (String arg : args) {
+            int idx = arg.indexOf('=');
+
+            if (idx <= 0)
+                throw new IllegalArgumentException("Invalid argument (expected name=value): " + arg);
+
+            String name = arg.substring(0, idx);
+            String val = arg.substring(idx + 1);
+
+            if ("out".equals(name))
+                path = val;
+            else if ("threads".equals(name))
+                runner.setThreads(Integer.parseInt(val));
+            else if ("warmup".equals(name))
+                runner.setWarmup(Long.parseLong(val));
+            else if ("duration".equals(name))
+                runner.setDuration(Long.parseLong(val));
+            else if ("filter".equals(name))
+                filter = val;
+            else
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+        }
+
+        List<GridBenchmark> benches = benchmarks();
+
+        if (filter != null)
+            for (Iterator<GridBenchmark> it = benches.iterator(); it.hasNext(); )
+                if (!it.next().name().contains(filter))
+                    it.remove();
+
+        List<GridBenchmarkResult> res = runner.run(benches);
+
+        write(res, new File(path));
+
+        X.println(">>> Benchmark results written to: " + new File(path).getAbsolutePath());
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridBenchmarkRunner.class, this);
+    }
+}
@@ -0,0 +1,155 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+import static org.gridgain.grid.cache.GridCacheTxConcurrency.*;
+import static org.gridgain.grid.cache.GridCacheTxIsolation.*;
+
+/**
+ * Benchmark of basic cache operations. Distributed caches are run on two grids,
+ * operations are invoked from the first one.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheBenchmark extends GridBenchmarkAdapter {
+    /** Number of distinct keys. */
+    private static final int KEYS = 100000;
+
+    /** Number of entries in a single {@code putAll(..)} batch. */
+    private static final int BATCH = 100;
+
+    /**
+     * Benchmarked operation.
+     */
+    public enum Operation {
+        /** Single key get. */
+        GET,
+
+        /** Single key put. */
+        PUT,
+
+        /** Put of {@link #BATCH} keys. */
+        PUT_ALL,
+
+        /** Pessimistic transaction reading and updating single key. */
+        TX
+    }
+
+    /** Cache mode. */
+    private final GridCacheMode mode;
+
+    /** Operation. */
+    private final Operation op;
+
+    /** Grids. */
+    private List<Grid> grids;
+
+    /** Cache operations are invoked on. */
+    private GridCache<Integer, Integer> cache;
+
+    /**
+     * @param mode Cache mode.
+     * @param op Benchmarked operation.
+     */
+    public GridCacheBenchmark(GridCacheMode mode, Operation op) {
+        super("cache-" + mode.name().toLowerCase() + '-' + op.name().toLowerCase());
+
+        this.mode = mode;
+        this.op = op;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+        cacheCfg.setCacheMode(mode);
+
+        grids = GridBenchmarkGrids.start(name(), mode == LOCAL ? 1 : 2, cacheCfg);
+
+        cache = grids.get(0).cache();
+
+        if (op == Operation.GET) {
+            Map<Integer, Integer> batch = new HashMap<Integer, Integer>(BATCH * 2, 1.0f);
+
+            for (int i = 0; i < KEYS; i++) {
+                batch.put(i, i);
+
+                if (batch.size() == BATCH || i == KEYS - 1) {
+                    cache.putAll(batch);
+
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        int key = nextInt(KEYS);
+
+        switch (op) {
+            case GET:
+                cache.get(key);
+
+                break;
+
+            case PUT:
+                cache.put(key, key);
+
+                break;
+
+            case PUT_ALL:
+                Map<Integer, Integer> batch = new TreeMap<Integer, Integer>();
+
+                for (int i = 0; i < BATCH; i++)
+                    batch.put((key + i) % KEYS, key);
+
+                cache.putAll(batch);
+
+                break;
+
+            case TX:
+                GridCacheTx tx = cache.txStart(PESSIMISTIC, REPEATABLE_READ);
+
+                try {
+                    Integer val = cache.get(key);
+
+                    cache.put(key, val == null ? 1 : val + 1);
+
+                    tx.commit();
+                }
+                finally {
+                    tx.end();
+                }
+
+                break;
+
+            default:
+                assert false : "Unknown operation: " + op;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (grids != null)
+            GridBenchmarkGrids.stop(grids);
+
+        grids = null;
+        cache = null;
+    }
+}
@@ -0,0 +1,121 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.eviction.*;
+import org.gridgain.grid.cache.eviction.fifo.*;
+import org.gridgain.grid.cache.eviction.lirs.*;
+import org.gridgain.grid.cache.eviction.lru.*;
+
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Benchmark of eviction policies. Keys are put into local cache which holds
+ * only a tenth of them, so that most of puts cause evictions.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheEvictionBenchmark extends GridBenchmarkAdapter {
+    /** Number of distinct keys. */
+    private static final int KEYS = 100000;
+
+    /** Maximum cache size. */
+    private static final int MAX_SIZE = KEYS / 10;
+
+    /**
+     * Benchmarked eviction policy.
+     */
+    public enum Policy {
+        /** {@link GridCacheLruEvictionPolicy}. */
+        LRU,
+
+        /** {@link GridCacheFifoEvictionPolicy}. */
+        FIFO,
+
+        /** {@link GridCacheLirsEvictionPolicy}. */
+        LIRS
+    }
+
+    /** Eviction policy. */
+    private final Policy plc;
+
+    /** Grids. */
+    private List<Grid> grids;
+
+    /** Cache operations are invoked on. */
+    private GridCache<Integer, Integer> cache;
+
+    /**
+     * @param plc Eviction policy.
+     */
+    public GridCacheEvictionBenchmark(Policy plc) {
+        super("eviction-" + plc.name().toLowerCase());
+
+        this.plc = plc;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        GridCacheEvictionPolicy<Integer, Integer> evictPlc;
+
+        switch (plc) {
+            case LRU:
+                evictPlc = new GridCacheLruEvictionPolicy<Integer, Integer>(MAX_SIZE);
+
+                break;
+
+            case FIFO:
+                evictPlc = new GridCacheFifoEvictionPolicy<Integer, Integer>(MAX_SIZE);
+
+                break;
+
+            case LIRS:
+                evictPlc = new GridCacheLirsEvictionPolicy<Integer, Integer>(MAX_SIZE);
+
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown eviction policy: " + plc);
+        }
+
+        GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+        cacheCfg.setCacheMode(LOCAL);
+        cacheCfg.setEvictionPolicy(evictPlc);
+
+        grids = GridBenchmarkGrids.start(name(), 1, cacheCfg);
+
+        cache = grids.get(0).cache();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        int key = nextInt(KEYS);
+
+        // Reads update recency of entries, so policies differ in what they keep.
+        if (cache.get(key) == null)
+            cache.put(key, key);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (grids != null)
+            GridBenchmarkGrids.stop(grids);
+
+        grids = null;
+        cache = null;
+    }
+}
@@ -0,0 +1,121 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.query.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+import static org.gridgain.grid.cache.query.GridCacheQueryType.*;
+
+/**
+ * Benchmark of SQL queries over indexed field of partitioned cache on two grids.
+ * Every query selects a narrow salary range, so that it is resolved by index.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueryBenchmark extends GridBenchmarkAdapter {
+    /** Number of persons. */
+    private static final int PERSONS = 100000;
+
+    /** Width of queried salary range. */
+    private static final int RANGE = 10;
+
+    /** Grids. */
+    private List<Grid> grids;
+
+    /** Cache queries are run on. */
+    private GridCache<Integer, Person> cache;
+
+    /**
+     * Creates benchmark.
+     */
+    public GridCacheQueryBenchmark() {
+        super("query-sql-partitioned");
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        GridCacheConfigurationAdapter cacheCfg = new GridCacheConfigurationAdapter();
+
+        cacheCfg.setCacheMode(PARTITIONED);
+        cacheCfg.setIndexMemoryOnly(true);
+
+        grids = GridBenchmarkGrids.start(name(), 2, cacheCfg);
+
+        cache = grids.get(0).cache();
+
+        Map<Integer, Person> batch = new HashMap<Integer, Person>();
+
+        for (int i = 0; i < PERSONS; i++) {
+            batch.put(i, new Person(i, i));
+
+            if (batch.size() == 1000 || i == PERSONS - 1) {
+                cache.putAll(batch);
+
+                batch.clear();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        int min = nextInt(PERSONS - RANGE);
+
+        GridCacheQuery<Integer, Person> qry = cache.createQuery(SQL, Person.class, "salary >= ? and salary < ?");
+
+        Collection<Map.Entry<Integer, Person>> res = qry.queryArguments(min, min + RANGE).execute(grids.get(0)).get();
+
+        assert res.size() == RANGE : "Unexpected query result size: " + res.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (grids != null)
+            GridBenchmarkGrids.stop(grids);
+
+        grids = null;
+        cache = null;
+    }
+
+    /**
+     * Queried value.
+     */
+    public static class Person implements Serializable {
+        /** Person ID. */
+        @GridCacheQuerySqlField(unique = true)
+        private int id;
+
+        /** Salary. */
+        @GridCacheQuerySqlField
+        private int salary;
+
+        /**
+         * @param id Person ID.
+         * @param salary Salary.
+         */
+        Person(int id, int salary) {
+            this.id = id;
+            this.salary = salary;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Person.class, this);
+        }
+    }
+}
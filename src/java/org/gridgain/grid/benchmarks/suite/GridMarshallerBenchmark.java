@@ -0,0 +1,124 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.managers.communication.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.marshaller.*;
+import org.gridgain.grid.marshaller.jboss.*;
+import org.gridgain.grid.marshaller.jdk.*;
+import org.gridgain.grid.marshaller.optimized.*;
+import org.gridgain.grid.marshaller.xstream.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+
+/**
+ * Benchmark of marshalling round trip, i.e. marshalling and unmarshalling back, of job
+ * execution response wrapped into communication message, as it is sent between nodes.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridMarshallerBenchmark extends GridBenchmarkAdapter {
+    /** Size of job result payload. */
+    private static final int PAYLOAD_SIZE = 1024;
+
+    /**
+     * Benchmarked marshaller.
+     */
+    public enum Type {
+        /** {@link GridOptimizedMarshaller}. */
+        OPTIMIZED,
+
+        /** {@link GridJdkMarshaller}. */
+        JDK,
+
+        /** {@link GridJBossMarshaller}. */
+        JBOSS,
+
+        /** {@link GridXstreamMarshaller}. */
+        XSTREAM
+    }
+
+    /** Marshaller type. */
+    private final Type type;
+
+    /** Marshaller. */
+    private GridMarshaller marsh;
+
+    /** Message. */
+    private GridIoMessage msg;
+
+    /** Class loader. */
+    private final ClassLoader clsLdr = getClass().getClassLoader();
+
+    /**
+     * @param type Marshaller type.
+     */
+    public GridMarshallerBenchmark(Type type) {
+        super("marshaller-" + type.name().toLowerCase());
+
+        this.type = type;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        switch (type) {
+            case OPTIMIZED:
+                marsh = new GridOptimizedMarshaller();
+
+                break;
+
+            case JDK:
+                marsh = new GridJdkMarshaller();
+
+                break;
+
+            case JBOSS:
+                marsh = new GridJBossMarshaller();
+
+                break;
+
+            case XSTREAM:
+                marsh = new GridXstreamMarshaller();
+
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown marshaller type: " + type);
+        }
+
+        UUID nodeId = UUID.randomUUID();
+
+        byte[] payload = new byte[PAYLOAD_SIZE];
+
+        new Random().nextBytes(payload);
+
+        GridJobExecuteResponse res = new GridJobExecuteResponse(nodeId, GridUuid.randomUuid(),
+            GridUuid.randomUuid(), null, U.marshal(marsh, payload), null, false);
+
+        msg = new GridIoMessage(nodeId, UUID.randomUUID(), "benchmark-topic", -1, U.marshal(marsh, res),
+            GridIoPolicy.PUBLIC_POOL);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        GridByteArrayList bytes = U.marshal(marsh, msg);
+
+        GridIoMessage msg0 = U.unmarshal(marsh, bytes, clsLdr);
+
+        GridJobExecuteResponse res = U.unmarshal(marsh, msg0.message(), clsLdr);
+
+        assert res.getJobId() != null;
+    }
+}
@@ -0,0 +1,117 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Benchmark of message round trip between two grids. The first grid sends a message
+ * to the second one, which sends it back. Operation completes when reply is received.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridMessagingBenchmark extends GridBenchmarkAdapter {
+    /** Reply timeout in milliseconds. */
+    private static final long TIMEOUT = 30000;
+
+    /** Grids. */
+    private List<Grid> grids;
+
+    /** Node messages are sent to. */
+    private GridRichNode rmt;
+
+    /** Message ID generator. */
+    private final AtomicLong idGen = new AtomicLong();
+
+    /** Latches of messages waiting for reply. */
+    private final ConcurrentMap<Long, CountDownLatch> pending = new ConcurrentHashMap<Long, CountDownLatch>();
+
+    /**
+     * Creates benchmark.
+     */
+    public GridMessagingBenchmark() {
+        super("messaging-round-trip");
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        grids = GridBenchmarkGrids.start(name(), 2);
+
+        final Grid loc = grids.get(0);
+        final Grid rmtGrid = grids.get(1);
+
+        rmt = loc.node(rmtGrid.localNode().id());
+
+        assert rmt != null;
+
+        rmtGrid.listen(new GridPredicate2<UUID, Long>() {
+            @Override public boolean apply(UUID nodeId, Long id) {
+                try {
+                    GridRichNode sender = rmtGrid.node(nodeId);
+
+                    if (sender != null)
+                        sender.send(id);
+                }
+                catch (GridException e) {
+                    U.error(rmtGrid.log(), "Failed to send benchmark reply: " + id, e);
+                }
+
+                return true;
+            }
+        });
+
+        loc.listen(new GridPredicate2<UUID, Long>() {
+            @Override public boolean apply(UUID nodeId, Long id) {
+                CountDownLatch latch = pending.remove(id);
+
+                if (latch != null)
+                    latch.countDown();
+
+                return true;
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        Long id = idGen.incrementAndGet();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        pending.put(id, latch);
+
+        rmt.send(id);
+
+        if (!latch.await(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            pending.remove(id);
+
+            throw new GridException("Failed to receive benchmark reply in time: " + id);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (grids != null)
+            GridBenchmarkGrids.stop(grids);
+
+        grids = null;
+        rmt = null;
+
+        pending.clear();
+    }
+}
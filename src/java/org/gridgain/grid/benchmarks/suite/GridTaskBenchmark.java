@@ -0,0 +1,84 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.benchmarks.suite;
+
+
+import org.gridgain.grid.*;
+
+import java.util.*;
+
+/**
+ * Benchmark of task execution round trip on two grids. Task is split into one
+ * job per node, jobs return constant results which are summed up on reduce.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridTaskBenchmark extends GridBenchmarkAdapter {
+    /** Grids. */
+    private List<Grid> grids;
+
+    /**
+     * Creates benchmark.
+     */
+    public GridTaskBenchmark() {
+        super("task-round-trip");
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setUp() throws Exception {
+        grids = GridBenchmarkGrids.start(name(), 2);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() throws Exception {
+        Integer res = grids.get(0).execute(BenchmarkTask.class, null).get();
+
+        assert res != null && res == grids.size() : "Unexpected task result: " + res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (grids != null)
+            GridBenchmarkGrids.stop(grids);
+
+        grids = null;
+    }
+
+    /**
+     * Task with one job per node.
+     */
+    public static class BenchmarkTask extends GridTaskSplitAdapter<Object, Integer> {
+        /** {@inheritDoc} */
+        @Override protected Collection<? extends GridJob> split(int gridSize, Object arg) {
+            Collection<GridJob> jobs = new ArrayList<GridJob>(gridSize);
+
+            for (int i = 0; i < gridSize; i++) {
+                jobs.add(new GridJobAdapterEx() {
+                    @Override public Object execute() {
+                        return 1;
+                    }
+                });
+            }
+
+            return jobs;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Integer reduce(List<GridJobResult> results) {
+            int sum = 0;
+
+            for (GridJobResult res : results)
+                sum += res.<Integer>getData();
+
+            return sum;
+        }
+    }
+}
@@ -198,20 +198,15 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * Will get a sequence from cache or create one with initial value of
      * {@code 0} if it has not been created yet. This method is analogous to
      * calling {@link #atomicSequence(String, long, boolean)} sequence(name, 0, false)}.
-     * <p>
-     * Note that sequence is only available in Enterprise Edition.
      *
      * @param name Sequence name.
      * @return Sequence.
      * @throws GridException If sequence could not be fetched or created.
      */
-    @GridEnterpriseFeature
     public GridCacheAtomicSequence atomicSequence(String name) throws GridException;
 
     /**
      * Will get an atomic sequence from cache and create one if it has not been created yet.
-     * <p>
-     * Note that sequence is only available in Enterprise Edition.
      *
      * @param name Sequence name.
      * @param initVal Initial value for sequence. If sequence already cached, {@code initVal} will be ignored.
@@ -220,39 +215,30 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * @return Sequence for the given name.
      * @throws GridException If sequence could not be fetched or created.
      */
-    @GridEnterpriseFeature
     public GridCacheAtomicSequence atomicSequence(String name, long initVal, boolean persistent) throws GridException;
 
     /**
      * Remove sequence from cache.
-     * <p>
-     * Note that sequence is only available in Enterprise Edition.
      *
      * @param name Sequence name.
      * @return {@code True} if sequence has been removed, {@code false} otherwise.
      * @throws GridException If remove failed.
      */
-    @GridEnterpriseFeature
     public boolean removeAtomicSequence(String name) throws GridException;
 
     /**
      * Will get a atomic long from cache or create one with initial value of
      * {@code 0} if it has not been created yet. This method is analogous to
      * calling {@link #atomicLong(String,long,boolean) atomicLong(name, 0, false)}.
-     * <p>
-     * Note that atomic long is only available in Enterprise Edition.
      *
      * @param name Atomic long name.
      * @return Atomic long for the given name.
      * @throws GridException If atomic long could not be fetched or created.
      */
-    @GridEnterpriseFeature
     public GridCacheAtomicLong atomicLong(String name) throws GridException;
 
     /**
      * Will get a atomic long from cache and create one if it has not been created yet.
-     * <p>
-     * Note that atomic long is only available in Enterprise Edition.
      *
      * @param name Name of atomic long.
      * @param initVal Initial value for atomic long. If atomic long already cached, {@code initVal}
@@ -262,19 +248,15 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * @return Atomic long.
      * @throws GridException If atomic long could not be fetched or created.
      */
-    @GridEnterpriseFeature
     public GridCacheAtomicLong atomicLong(String name, long initVal, boolean persistent) throws GridException;
 
     /**
      * Remove atomic long from cache.
-     * <p>
-     * Note that atomic long is only available in Enterprise Edition.
      *
      * @param name Name of atomic long.
      * @return {@code True} if atomic long has been removed, {@code false} otherwise.
      * @throws GridException If removing failed.
      */
-    @GridEnterpriseFeature
     public boolean removeAtomicLong(String name) throws GridException;
 
     /**
@@ -282,14 +264,11 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * If queue is present in cache already, queue properties will not be changed.
      * This method is analogous to calling {@link #queue(String,GridCacheQueueType, int, boolean)}
      * queue(name, FIFO, 0 , true)}.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name of queue.
      * @return Queue.
      * @throws GridException If removing failed.
      */
-    @GridEnterpriseFeature
     public <T> GridCacheQueue<T> queue(String name) throws GridException;
 
     /**
@@ -297,15 +276,12 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * If queue is present in cache already, queue properties will not be changed.
      * This method is analogous to calling {@link #queue(String,GridCacheQueueType, int, boolean)}
      * queue(name, type, 0, true)}.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name of queue.
      * @param type Type of queue.
      * @return Queue.
      * @throws GridException If removing failed.
      */
-    @GridEnterpriseFeature
     public <T> GridCacheQueue<T> queue(String name, GridCacheQueueType type) throws GridException;
 
     /**
@@ -313,8 +289,6 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * If queue is present in cache already, queue properties will not be changed.
      * This method is analogous to calling {@link #queue(String,GridCacheQueueType, int, boolean)}
      * queue(name, type, capacity, true)}.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name of queue.
      * @param type Type of queue.
@@ -322,7 +296,6 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * @return Queue.
      * @throws GridException If removing failed.
      */
-    @GridEnterpriseFeature
     public <T> GridCacheQueue<T> queue(String name, GridCacheQueueType type, int capacity) throws GridException;
 
     /**
@@ -333,8 +306,6 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * few very large queues, then you should consider turning off collocation as they simply
      * may not fit in a single node's memory. However note that in this case
      * to get a single element off the queue all nodes may have to be queried.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name of queue.
      * @param type Type of queue.
@@ -346,7 +317,6 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * @return Queue with given properties.
      * @throws GridException If remove failed.
      */
-    @GridEnterpriseFeature
     public <T> GridCacheQueue<T> queue(String name, GridCacheQueueType type, int capacity, boolean collocated)
         throws GridException;
 
@@ -356,14 +326,11 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * {@link #removeQueue(String, int)} which allows to specify batch size. In that case
      * transaction will be split into multiple transactions which will have upto {@code batchSize}
      * elements in it.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name queue.
      * @return {@code True} if queue has been removed and false if it's not cached.
      * @throws GridException If remove failed.
      */
-    @GridEnterpriseFeature
     public boolean removeQueue(String name) throws GridException;
 
     /**
@@ -371,15 +338,12 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * with no more than {@code batchSize} elements in them. For larger queues, this
      * method is preferrable over {@link #removeQueue(String)} which will create only
      * one transaction for the whole operation.
-     * <p>
-     * Note that queue is only available in Enterprise Edition.
      *
      * @param name Name queue.
      * @param batchSize Batch size.
      * @return {@code True} if queue has been removed and false if it's not cached.
      * @throws GridException If remove failed.
      */
-    @GridEnterpriseFeature
     public boolean removeQueue(String name, int batchSize) throws GridException;
 
     /**
@@ -47,6 +47,9 @@ public interface GridCacheConfiguration {
     /** Default atomic sequence reservation size. */
     public static final int DFLT_ATOMIC_SEQUENCE_RESERVE_SIZE = 1000;
 
+    /** Default value for 'atomicLongStriped' flag. */
+    public static final boolean DFLT_ATOMIC_LONG_STRIPED = false;
+
     /** Default size of preload thread pool. */
     public static final int DFLT_PRELOAD_THREAD_POOL_SIZE = 2;
 
@@ -92,6 +95,12 @@ public interface GridCacheConfiguration {
     /** Default value for 'nearEvictionEnabled' flag. */
     public static final boolean DFLT_NEAR_EVICTION_ENABLED = true;
 
+    /** Default near reader invalidation window (invalidations are sent with transaction messages). */
+    public static final long DFLT_NEAR_INVALIDATION_WINDOW = 0;
+
+    /** Default time to live for near entries (near readers are tracked and invalidated). */
+    public static final long DFLT_NEAR_ENTRY_TIME_TO_LIVE = 0;
+
     /** Default value for 'evictionEnabled' flag. */
     public static final boolean DFLT_EVICTION_ENABLED = true;
 
@@ -113,6 +122,18 @@ public interface GridCacheConfiguration {
     /** Default preload batch size in bytes. */
     public static final int DFLT_PRELOAD_BATCH_SIZE = 512 * 1024; // 512K
 
+    /** Default pause between preload batches in milliseconds (no pause). */
+    public static final long DFLT_PRELOAD_THROTTLE = 0;
+
+    /** Default preload rate limit in bytes per second (unlimited). */
+    public static final long DFLT_PRELOAD_RATE_LIMIT = 0;
+
+    /** Default order of preloaded partitions. */
+    public static final GridCachePreloadOrder DFLT_PRELOAD_ORDER = GridCachePreloadOrder.DEFAULT;
+
+    /** Default partition snapshot frequency (snapshots are written only on node stop). */
+    public static final long DFLT_PARTITION_SNAPSHOT_FREQUENCY = 0;
+
     /** Default value for 'idxFixedTyping' flag. */
     public static final boolean DFLT_IDX_FIXED_TYPING = true;
 
@@ -176,6 +197,12 @@ public interface GridCacheConfiguration {
     /** Default value for 'synchronousRollback' flag. */
     public static final boolean DFLT_SYNC_ROLLBACK = false;
 
+    /** Default value for 'replicatedPrimaryLocking' flag. */
+    public static final boolean DFLT_REPLICATED_PRIMARY_LOCKING = false;
+
+    /** Default number of replica commit acknowledgements, {@code -1} means all replicas. */
+    public static final int DFLT_REPLICATED_COMMIT_ACKS = -1;
+
     /** Default value for 'swapEnabled' flag. */
     public static final boolean DFLT_SWAP_ENABLED = false;
 
@@ -392,6 +419,36 @@ public interface GridCacheConfiguration {
      */
     public boolean isNearEnabled();
 
+    /**
+     * Gets time window in milliseconds within which invalidations of near readers are
+     * collected on primary node and then sent to every reader node in a single message.
+     * If greater than {@code 0}, near readers do not participate in updating transactions
+     * and get invalidated asynchronously after commit, so hot keys read from many near
+     * caches do not produce per-key, per-transaction messages. If {@code 0}, readers get
+     * updated within transaction messages.
+     * <p>
+     * Default value is {@link #DFLT_NEAR_INVALIDATION_WINDOW}.
+     * <p>
+     * Note that this property only makes sense for {@link GridCacheMode#PARTITIONED PARTITIONED} caches.
+     *
+     * @return Near reader invalidation window in milliseconds.
+     */
+    public long getNearInvalidationWindow();
+
+    /**
+     * Gets time to live in milliseconds for entries stored in near cache. If greater
+     * than {@code 0}, primary nodes do not track near readers at all and near entries
+     * simply expire after given time, so near cache may return stale values for at most
+     * this period. If {@code 0}, near readers are tracked and invalidated on updates.
+     * <p>
+     * Default value is {@link #DFLT_NEAR_ENTRY_TIME_TO_LIVE}.
+     * <p>
+     * Note that this property only makes sense for {@link GridCacheMode#PARTITIONED PARTITIONED} caches.
+     *
+     * @return Near entry time to live in milliseconds.
+     */
+    public long getNearEntryTimeToLive();
+
     /**
      * Gets underlying persistent storage for read-through and write-through operations.
      * If not provided, cache will not exhibit read-through or write-through behavior.
@@ -507,6 +564,40 @@ public interface GridCacheConfiguration {
      */
     public int getPreloadBatchSize();
 
+    /**
+     * Gets time in milliseconds supplying node waits after sending every preload batch.
+     * Throttling preloading leaves more network bandwidth and CPU to user operations
+     * while topology changes. Note that time between batches of a single partition must
+     * stay below {@link GridConfiguration#getNetworkTimeout()}, otherwise demanding node
+     * will time out and request partition again.
+     * <p>
+     * Default value is {@link #DFLT_PRELOAD_THROTTLE}, which means no pause.
+     *
+     * @return Pause between preload batches in milliseconds.
+     */
+    public long getPreloadThrottle();
+
+    /**
+     * Gets maximum number of bytes per second supplying node sends to all preloading nodes.
+     * Batches are delayed as needed to keep total preload traffic of this node within the limit.
+     * Note that {@link #getPreloadBatchSize()} divided by this limit must stay below
+     * {@link GridConfiguration#getNetworkTimeout()}.
+     * <p>
+     * Default value is {@link #DFLT_PRELOAD_RATE_LIMIT}, which means no limit.
+     *
+     * @return Preload rate limit in bytes per second, {@code 0} for no limit.
+     */
+    public long getPreloadRateLimit();
+
+    /**
+     * Gets order in which partitioned cache preloads partitions from other nodes.
+     * <p>
+     * Default value is {@link #DFLT_PRELOAD_ORDER}.
+     *
+     * @return Order of preloaded partitions.
+     */
+    public GridCachePreloadOrder getPreloadOrder();
+
     /**
      * Gets size of preloading thread pool. Note that size serves as a hint and implementation
      * may create more threads for preloading than specified here (but never less threads).
@@ -517,6 +608,31 @@ public interface GridCacheConfiguration {
      */
     public int getPreloadThreadPoolSize();
 
+    /**
+     * Absolute or relative to {@code GRIDGAIN_HOME} path for storing snapshots of locally
+     * owned partitions of partitioned cache. If provided, owned partitions are written to
+     * disk periodically (see {@link #getPartitionSnapshotFrequency()}) and on graceful
+     * node stop. After restart, partitions are loaded from disk and only entries updated
+     * after snapshot was taken are preloaded from other nodes.
+     * <p>
+     * Note that every node must use its own snapshot path. Default value is {@code null}
+     * which means that partition snapshots are disabled.
+     *
+     * @return Path for partition snapshots or {@code null} if snapshots are disabled.
+     */
+    public String getPartitionSnapshotPath();
+
+    /**
+     * Gets frequency in milliseconds at which owned partitions are written to
+     * {@link #getPartitionSnapshotPath() snapshot path}. If {@code 0}, then snapshots
+     * are written only on graceful node stop.
+     * <p>
+     * Default value is {@link #DFLT_PARTITION_SNAPSHOT_FREQUENCY}.
+     *
+     * @return Partition snapshot frequency in milliseconds.
+     */
+    public long getPartitionSnapshotFrequency();
+
     /**
      * Gets query types to use to auto index values of boxed and unboxed primitive types,
      * Strings and Dates.
@@ -704,6 +820,38 @@ public interface GridCacheConfiguration {
      */
     public boolean isSynchronousRollback();
 
+    /**
+     * Flag indicating whether {@link GridCacheMode#REPLICATED REPLICATED} cache acquires locks
+     * only on primary node of every key instead of all nodes. Primary node is chosen for
+     * every affinity key among all cache nodes, so that locks are spread evenly across the grid.
+     * Committed values are still sent to all nodes and reads stay local.
+     * <p>
+     * With this flag, lock and prepare message count and latency do not grow with grid size,
+     * and a slow node stalls only transactions on keys it is primary for.
+     * <p>
+     * Primary nodes change whenever nodes join or leave the grid, so transactions which
+     * locked keys before topology change are rolled back on commit and have to be retried.
+     * <p>
+     * Note that this property only makes sense for {@link GridCacheMode#REPLICATED REPLICATED} caches.
+     * Default value is {@link #DFLT_REPLICATED_PRIMARY_LOCKING}.
+     *
+     * @return {@code True} if locks are acquired on primary nodes only.
+     */
+    public boolean isReplicatedPrimaryLocking();
+
+    /**
+     * Gets number of non-primary replicas synchronous commit waits for when
+     * {@link #isReplicatedPrimaryLocking()} is enabled. Primary nodes are always waited for.
+     * {@code 0} means that values are pushed to other replicas asynchronously, and {@code -1}
+     * means that all replicas are waited for.
+     * <p>
+     * Note that this property only takes effect together with {@link #isSynchronousCommit()}.
+     * Default value is {@link #DFLT_REPLICATED_COMMIT_ACKS}.
+     *
+     * @return Number of replica commit acknowledgements.
+     */
+    public int getReplicatedCommitAcks();
+
     /**
      * Flag indicating whether GridGain should use swap storage by default. By default
      * swap is disabled which is defined via {@link #DFLT_SWAP_ENABLED} constant.
@@ -824,6 +972,19 @@ public interface GridCacheConfiguration {
      */
     public int getAtomicSequenceReserveSize();
 
+    /**
+     * Flag indicating whether {@link GridCacheAtomicLong} instances should be striped. Striped
+     * atomic long applies additions to per-node stripes, so concurrent updates from different
+     * nodes do not contend for a single key, while reading value sums up all stripes. Striping
+     * should be enabled when only the total value is needed, as values returned from additions
+     * may then not reflect concurrent updates from other nodes.
+     * <p>
+     * Default value is {@link #DFLT_ATOMIC_LONG_STRIPED}.
+     *
+     * @return {@code True} if atomic longs are striped.
+     */
+    public boolean isAtomicLongStriped();
+
     /**
      * Flag to enable/disable near cache eviction policy. Default is {@code true}, which means that
      * eviction policy for near cache is enabled. If set to {@code false}, then evictions for
@@ -41,6 +41,9 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Default batch size for all cache's sequences. */
     private int seqReserveSize = DFLT_ATOMIC_SEQUENCE_RESERVE_SIZE;
 
+    /** Atomic long striped flag. */
+    private boolean atomicLongStriped = DFLT_ATOMIC_LONG_STRIPED;
+
     /** Preload thread pool size. */
     private int preloadPoolSize = DFLT_PRELOAD_THREAD_POOL_SIZE;
 
@@ -107,6 +110,12 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Near eviction flag. */
     private boolean nearEvictEnabled = DFLT_NEAR_EVICTION_ENABLED;
 
+    /** Near reader invalidation window. */
+    private long nearInvalidationWindow = DFLT_NEAR_INVALIDATION_WINDOW;
+
+    /** Near entry time to live. */
+    private long nearEntryTtl = DFLT_NEAR_ENTRY_TIME_TO_LIVE;
+
     /** */
     private GridCacheStore<?, ?> store;
 
@@ -137,6 +146,21 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Preload batch size. */
     private int preloadBatchSize = DFLT_PRELOAD_BATCH_SIZE;
 
+    /** Pause between preload batches. */
+    private long preloadThrottle = DFLT_PRELOAD_THROTTLE;
+
+    /** Preload rate limit. */
+    private long preloadRateLimit = DFLT_PRELOAD_RATE_LIMIT;
+
+    /** Order of preloaded partitions. */
+    private GridCachePreloadOrder preloadOrder = DFLT_PRELOAD_ORDER;
+
+    /** Path to partition snapshots, snapshots are disabled if null. */
+    private String partSnapshotPath;
+
+    /** Partition snapshot frequency. */
+    private long partSnapshotFreq = DFLT_PARTITION_SNAPSHOT_FREQUENCY;
+
     /** */
     private Collection<GridCacheQueryType> autoIndexTypes;
 
@@ -179,6 +203,12 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Synchronous rollback. */
     private boolean syncRollback = DFLT_SYNC_ROLLBACK;
 
+    /** Replicated primary locking flag. */
+    private boolean replicatedPrimaryLocking = DFLT_REPLICATED_PRIMARY_LOCKING;
+
+    /** Number of replica commit acknowledgements. */
+    private int replicatedCommitAcks = DFLT_REPLICATED_COMMIT_ACKS;
+
     /** */
     private boolean swapEnabled = DFLT_SWAP_ENABLED;
 
@@ -273,12 +303,22 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         nearEnabled = cc.isNearEnabled();
         nearEvictEnabled = cc.isNearEvictionEnabled();
         nearEvictPolicy = cc.getNearEvictionPolicy();
+        nearInvalidationWindow = cc.getNearInvalidationWindow();
+        nearEntryTtl = cc.getNearEntryTimeToLive();
         evictMaxOverflowRatio = cc.getEvictMaxOverflowRatio();
         preloadMode = cc.getPreloadMode();
         preloadBatchSize = cc.getPreloadBatchSize();
+        preloadOrder = cc.getPreloadOrder();
+        preloadRateLimit = cc.getPreloadRateLimit();
+        preloadThrottle = cc.getPreloadThrottle();
         preloadPoolSize = cc.getPreloadThreadPoolSize();
+        partSnapshotPath = cc.getPartitionSnapshotPath();
+        partSnapshotFreq = cc.getPartitionSnapshotFrequency();
         refreshAheadRatio = cc.getRefreshAheadRatio();
+        replicatedCommitAcks = cc.getReplicatedCommitAcks();
+        replicatedPrimaryLocking = cc.isReplicatedPrimaryLocking();
         seqReserveSize = cc.getAtomicSequenceReserveSize();
+        atomicLongStriped = cc.isAtomicLongStriped();
         startSize = cc.getStartSize();
         store = cc.getStore();
         storeEnabled = cc.isStoreEnabled();
@@ -571,6 +611,37 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.nearEnabled = nearEnabled;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getNearInvalidationWindow() {
+        return nearInvalidationWindow;
+    }
+
+    /**
+     * Sets time window within which near reader invalidations are collected
+     * before being sent to reader nodes.
+     *
+     * @param nearInvalidationWindow Near reader invalidation window in milliseconds.
+     * @see #getNearInvalidationWindow()
+     */
+    public void setNearInvalidationWindow(long nearInvalidationWindow) {
+        this.nearInvalidationWindow = nearInvalidationWindow;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getNearEntryTimeToLive() {
+        return nearEntryTtl;
+    }
+
+    /**
+     * Sets time to live for entries stored in near cache.
+     *
+     * @param nearEntryTtl Near entry time to live in milliseconds.
+     * @see #getNearEntryTimeToLive()
+     */
+    public void setNearEntryTimeToLive(long nearEntryTtl) {
+        this.nearEntryTtl = nearEntryTtl;
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings({"unchecked"})
     @Override public <K, V> GridCacheStore<K, V> getStore() {
@@ -766,6 +837,81 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.preloadBatchSize = preloadBatchSize;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getPreloadThrottle() {
+        return preloadThrottle;
+    }
+
+    /**
+     * Sets pause between preload batches.
+     *
+     * @param preloadThrottle Pause between preload batches in milliseconds.
+     * @see #getPreloadThrottle()
+     */
+    public void setPreloadThrottle(long preloadThrottle) {
+        this.preloadThrottle = preloadThrottle;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadRateLimit() {
+        return preloadRateLimit;
+    }
+
+    /**
+     * Sets preload rate limit.
+     *
+     * @param preloadRateLimit Preload rate limit in bytes per second, {@code 0} for no limit.
+     * @see #getPreloadRateLimit()
+     */
+    public void setPreloadRateLimit(long preloadRateLimit) {
+        this.preloadRateLimit = preloadRateLimit;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCachePreloadOrder getPreloadOrder() {
+        return preloadOrder;
+    }
+
+    /**
+     * Sets order of preloaded partitions.
+     *
+     * @param preloadOrder Order of preloaded partitions.
+     * @see #getPreloadOrder()
+     */
+    public void setPreloadOrder(GridCachePreloadOrder preloadOrder) {
+        this.preloadOrder = preloadOrder;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String getPartitionSnapshotPath() {
+        return partSnapshotPath;
+    }
+
+    /**
+     * Sets absolute or relative to {@code GRIDGAIN_HOME} path for storing local
+     * partition snapshots. Snapshots are disabled if path is {@code null}.
+     *
+     * @param partSnapshotPath Path for partition snapshots.
+     */
+    public void setPartitionSnapshotPath(String partSnapshotPath) {
+        this.partSnapshotPath = partSnapshotPath;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPartitionSnapshotFrequency() {
+        return partSnapshotFreq;
+    }
+
+    /**
+     * Sets frequency in milliseconds at which owned partitions are written
+     * to disk. If {@code 0}, snapshots are written only on graceful node stop.
+     *
+     * @param partSnapshotFreq Partition snapshot frequency.
+     */
+    public void setPartitionSnapshotFrequency(long partSnapshotFreq) {
+        this.partSnapshotFreq = partSnapshotFreq;
+    }
+
     /** {@inheritDoc} */
     @Override public String getIndexPath() {
         return idxPath;
@@ -1023,6 +1169,36 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.syncRollback = syncRollback;
     }
 
+    /** {@inheritDoc} */
+    @Override public boolean isReplicatedPrimaryLocking() {
+        return replicatedPrimaryLocking;
+    }
+
+    /**
+     * Sets flag indicating whether replicated cache acquires locks only on primary nodes.
+     *
+     * @param replicatedPrimaryLocking {@code True} to acquire locks on primary nodes only.
+     * @see #isReplicatedPrimaryLocking()
+     */
+    public void setReplicatedPrimaryLocking(boolean replicatedPrimaryLocking) {
+        this.replicatedPrimaryLocking = replicatedPrimaryLocking;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getReplicatedCommitAcks() {
+        return replicatedCommitAcks;
+    }
+
+    /**
+     * Sets number of non-primary replicas synchronous commit waits for.
+     *
+     * @param replicatedCommitAcks Number of replica commit acknowledgements, {@code -1} for all replicas.
+     * @see #getReplicatedCommitAcks()
+     */
+    public void setReplicatedCommitAcks(int replicatedCommitAcks) {
+        this.replicatedCommitAcks = replicatedCommitAcks;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isSwapEnabled() {
         return swapEnabled;
@@ -1157,6 +1333,21 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.seqReserveSize = seqReserveSize;
     }
 
+    /** {@inheritDoc} */
+    @Override public boolean isAtomicLongStriped() {
+        return atomicLongStriped;
+    }
+
+    /**
+     * Sets flag indicating whether {@link GridCacheAtomicLong} instances should be striped.
+     *
+     * @param atomicLongStriped {@code True} if atomic longs should be striped.
+     * @see #isAtomicLongStriped()
+     */
+    public void setAtomicLongStriped(boolean atomicLongStriped) {
+        this.atomicLongStriped = atomicLongStriped;
+    }
+
     /** {@inheritDoc} */
     @Override public int getPreloadThreadPoolSize() {
         return preloadPoolSize;
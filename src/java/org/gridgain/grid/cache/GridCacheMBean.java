@@ -271,4 +271,71 @@ public interface GridCacheMBean {
      */
     @GridMBeanDescription("Count of cache entries that are waiting to be flushed.")
     public int getWriteFromBehindBufferSize();
+
+    /**
+     * Gets ratio of put and remove operations that were merged into already buffered values
+     * and thus did not result in a separate store update.
+     *
+     * @return Coalescing ratio from {@code 0} to {@code 1}.
+     */
+    @GridMBeanDescription("Ratio of store updates coalesced in write-from-behind buffer.")
+    public double getWriteFromBehindCoalescingRatio();
+
+    /**
+     * Gets average time of a single batch update of the underlying store.
+     *
+     * @return Average flush latency in milliseconds.
+     */
+    @GridMBeanDescription("Average time of write-from-behind batch update in milliseconds.")
+    public double getWriteFromBehindAverageFlushLatency();
+
+    /**
+     * Gets number of partitions assigned for preloading on local node after the last
+     * topology change. Only partitioned caches preload partitions, other caches return {@code -1}.
+     *
+     * @return Number of partitions assigned for preloading.
+     */
+    @GridMBeanDescription("Number of partitions assigned for preloading.")
+    public int getPreloadTotalPartitions();
+
+    /**
+     * Gets number of assigned partitions which have not been preloaded yet.
+     *
+     * @return Number of partitions left to preload.
+     */
+    @GridMBeanDescription("Number of partitions left to preload.")
+    public int getPreloadRemainingPartitions();
+
+    /**
+     * Gets number of bytes received from other nodes since partitions were assigned for preloading.
+     *
+     * @return Number of preloaded bytes.
+     */
+    @GridMBeanDescription("Number of bytes preloaded since the last topology change.")
+    public long getPreloadReceivedBytes();
+
+    /**
+     * Gets average preload rate since partitions were assigned for preloading.
+     *
+     * @return Preload rate in bytes per second.
+     */
+    @GridMBeanDescription("Preload rate in bytes per second.")
+    public long getPreloadRate();
+
+    /**
+     * Gets estimated time until preloading finishes, based on average time
+     * of partitions preloaded so far.
+     *
+     * @return Estimated time in milliseconds or {@code -1} if unknown.
+     */
+    @GridMBeanDescription("Estimated time in milliseconds until preloading finishes.")
+    public long getPreloadEstimatedTimeRemaining();
+
+    /**
+     * Gets number of bytes supplied by local node to other preloading nodes.
+     *
+     * @return Number of supplied bytes.
+     */
+    @GridMBeanDescription("Number of bytes supplied to other preloading nodes.")
+    public long getPreloadSuppliedBytes();
 }
@@ -0,0 +1,55 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+*  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+*  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+*  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+*  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+*/
+
+package org.gridgain.grid.cache;
+
+import org.jetbrains.annotations.*;
+
+/**
+ * Order in which partitioned cache preloads partitions from other nodes. This enumeration is
+ * used to configure preloading via {@link GridCacheConfiguration#getPreloadOrder()} configuration
+ * property. If not configured explicitly, then {@link GridCacheConfiguration#DFLT_PRELOAD_ORDER} is used.
+ * <p>
+ * Order is applied to partitions demanded from every node, and is re-evaluated every time
+ * the next partition is demanded.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public enum GridCachePreloadOrder {
+    /**
+     * Partitions are preloaded in order of their numbers.
+     */
+    DEFAULT,
+
+    /**
+     * Partitions which currently have least copies in the grid are preloaded first,
+     * so that data is least exposed to further node failures.
+     */
+    BACKUPS,
+
+    /**
+     * Partitions which are accessed most often on local node during preloading are
+     * preloaded first, so that fewer user requests wait for entries to be preloaded.
+     */
+    ACCESS;
+
+    /** Enumerated values. */
+    private static final GridCachePreloadOrder[] VALS = values();
+
+    /**
+     * Efficiently gets enumerated value from its ordinal.
+     *
+     * @param ord Ordinal value.
+     * @return Enumerated value or {@code null} if ordinal out of range.
+     */
+    @Nullable public static GridCachePreloadOrder fromOrdinal(byte ord) {
+        return ord >= 0 && ord < VALS.length ? VALS[ord] : null;
+    }
+}
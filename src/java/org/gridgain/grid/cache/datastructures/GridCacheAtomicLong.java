@@ -16,8 +16,6 @@ import org.gridgain.grid.lang.*;
 /**
  * This interface provides a rich API for working with distributedly cached atomic long value.
  * <p>
- * Note that atomic long is only available in <b>Enterprise Edition</b>.
- * <p>
  * <h1 class="header">Functionality</h1>
  * Distributed atomic long includes the following main functionality:
  * <ul>
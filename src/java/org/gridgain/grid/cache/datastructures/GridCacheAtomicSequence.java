@@ -15,8 +15,6 @@ import org.gridgain.grid.cache.*;
 /**
  * This interface provides a rich API for working with distributed atomic sequence.
  * <p>
- * Note that distributed atomic sequence is only available in <b>Enterprise Edition</b>.
- * <p>
  * <h1 class="header">Functionality</h1>
  * Distributed atomic sequence includes the following main functionality:
  * <ul>
@@ -19,8 +19,6 @@ import java.util.concurrent.*;
 /**
  * This interface provides a rich API for working with Data Grid-based distributed queues.
  * <p>
- * Note that queues are only available in <b>Enterprise Edition</b>.
- * <p>
  * <h1 class="header">Overview</h1>
  * Cache queue provides an access to cache elements using typical queue API. Cache queue also implements
  * {@link Collection} interface and provides all methods from collections including
@@ -80,6 +78,12 @@ import java.util.concurrent.*;
  * will be collocated on one node, otherwise items will be distributed through all grid nodes.
  * Unless explicitly specified, by default queues are {@code collocated}.
  * <p>
+ * {@code Non-collocated} queue is split into segments which are stored on different nodes, so
+ * that producers and consumers on different nodes mostly work with different segments. Queue
+ * order is maintained within every segment, but not across segments, and operations which
+ * depend on item position, such as {@link #position(Object)} and {@link #items(Integer...)},
+ * are supported only in {@code collocated} mode.
+ * <p>
  * Here is an example of how create {@code unbounded} {@link GridCacheQueueType#PRIORITY} queue
  * in non-collocated mode.
  * <pre name="code" class="java">
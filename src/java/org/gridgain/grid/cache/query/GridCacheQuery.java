@@ -10,7 +10,6 @@
 package org.gridgain.grid.cache.query;
 
 import org.gridgain.grid.*;
-import org.gridgain.grid.editions.*;
 import org.gridgain.grid.lang.*;
 import org.jetbrains.annotations.*;
 
@@ -192,6 +191,47 @@ public interface GridCacheQuery<K, V> extends GridCacheQueryBase<K, V> {
      */
     public GridCacheQuery<K, V> closureArguments(@Nullable Object... args);
 
+    /**
+     * Sets comparator which defines order of query results. Every queried node returns
+     * its results in this order and results from different nodes are merged on the
+     * querying node page by page, so whole result set never has to be collected
+     * in one place (unless {@link #keepAll(boolean)} flag is {@code true}).
+     * <p>
+     * For {@link GridCacheQueryType#SQL} queries rows are returned by queried nodes in
+     * order defined by {@code ORDER BY} section of query clause, so comparator must be
+     * consistent with it. For other query types queried nodes sort their results with
+     * given comparator. Note that comparator is sent to queried nodes, so it should be
+     * serializable.
+     *
+     * @param cmp Comparator of query results or {@code null} if results are not ordered.
+     */
+    public void orderBy(@Nullable Comparator<Map.Entry<K, V>> cmp);
+
+    /**
+     * Gets comparator which defines order of query results.
+     *
+     * @return Comparator of query results or {@code null} if results are not ordered.
+     */
+    @Nullable public Comparator<Map.Entry<K, V>> orderBy();
+
+    /**
+     * Sets maximum number of returned results. Every queried node stops query execution
+     * once it has found this number of results, and querying node cancels query on other
+     * nodes once this number of results was received. If {@link #orderBy(Comparator)}
+     * is set, first results according to given order are returned. {@code 0} means
+     * that number of results is not limited, which is the default.
+     *
+     * @param limit Maximum number of returned results.
+     */
+    public void limit(int limit);
+
+    /**
+     * Gets maximum number of returned results.
+     *
+     * @return Maximum number of returned results, {@code 0} if not limited.
+     */
+    public int limit();
+
     /**
      * Executes the query and returns the first result in the result set. If more
      * than one key-value pair are returned they will be ignored.
@@ -206,8 +246,6 @@ public interface GridCacheQuery<K, V> extends GridCacheQueryBase<K, V> {
      *      (if not provided, then the whole grid is used).
      * @return Future for the single query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridFuture<Map.Entry<K, V>> executeSingle(GridProjection... grid);
 
     /**
@@ -229,8 +267,6 @@ public interface GridCacheQuery<K, V> extends GridCacheQueryBase<K, V> {
      *      (if not provided, then the whole grid is used).
      * @return Future for the query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridCacheQueryFuture<Map.Entry<K, V>> execute(GridProjection... grid);
 
     /**
@@ -249,7 +285,5 @@ public interface GridCacheQuery<K, V> extends GridCacheQueryBase<K, V> {
      *      (if not provided, then the whole grid is used).
      * @return Future which will complete whenever visiting on all remote nodes completes or fails.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridFuture<?> visit(GridPredicate<Map.Entry<K, V>> vis, GridProjection... grid);
 }
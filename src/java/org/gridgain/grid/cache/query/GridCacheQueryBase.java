@@ -26,6 +26,9 @@ public interface GridCacheQueryBase<K, V> extends GridMetadataAware, Closeable {
     /** Default query page size. */
     public static final int DFLT_PAGE_SIZE = 1024;
 
+    /** Default maximum number of result pages each node sends ahead of consumer. */
+    public static final int DFLT_PAGES_IN_FLIGHT = 2;
+
     /**
      * Gets query id.
      *
@@ -83,6 +86,32 @@ public interface GridCacheQueryBase<K, V> extends GridMetadataAware, Closeable {
      */
     public int pageSize();
 
+    /**
+     * Sets maximum number of result pages each queried node sends before the
+     * querying node has consumed them. If not provided, {@link #DFLT_PAGES_IN_FLIGHT}
+     * will be used.
+     * <p>
+     * Nodes send next page only after one of previously sent pages has been read
+     * from query iterator, so memory of querying node is bounded by approximately
+     * {@code pagesInFlight * pageSize} results per node. This applies only if
+     * {@link #keepAll()} flag is {@code false}, otherwise all results are
+     * kept locally anyway and are sent without waiting for consumer.
+     * <p>
+     * If consumer does not read from query iterator for more than {@code 4}
+     * network timeouts (see {@link GridConfiguration#getNetworkTimeout()}),
+     * query execution is stopped and query future completes with error.
+     *
+     * @param pagesInFlight Maximum number of pages sent ahead of consumer.
+     */
+    public void pagesInFlight(int pagesInFlight);
+
+    /**
+     * Gets maximum number of result pages each queried node sends ahead of consumer.
+     *
+     * @return Maximum number of pages sent ahead of consumer.
+     */
+    public int pagesInFlight();
+
     /**
      * Sets query timeout. {@code 0} means there is no timeout. Default value
      * is {@code 30} seconds.
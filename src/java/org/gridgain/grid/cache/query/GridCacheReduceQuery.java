@@ -10,7 +10,6 @@
 package org.gridgain.grid.cache.query;
 
 import org.gridgain.grid.*;
-import org.gridgain.grid.editions.*;
 import org.gridgain.grid.lang.*;
 import org.jetbrains.annotations.*;
 
@@ -156,8 +155,6 @@ public interface GridCacheReduceQuery<K, V, R1, R2> extends GridCacheQueryBase<K
      * @param grid Grid projection to execute query on, if not provided, all grid nodes will be used.
      * @return Future for the reduced query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridFuture<R2> reduce(@Nullable GridProjection... grid);
 
     /**
@@ -174,7 +171,5 @@ public interface GridCacheReduceQuery<K, V, R1, R2> extends GridCacheQueryBase<K
      * @param grid Grid projection to execute query on, if not provided, all grid nodes will be used.
      * @return Future for the reduced query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridFuture<Collection<R1>> reduceRemote(GridProjection... grid);
 }
@@ -10,7 +10,6 @@
 package org.gridgain.grid.cache.query;
 
 import org.gridgain.grid.*;
-import org.gridgain.grid.editions.*;
 import org.gridgain.grid.lang.*;
 import org.jetbrains.annotations.*;
 
@@ -103,8 +102,6 @@ public interface GridCacheTransformQuery<K, V, T> extends GridCacheQueryBase<K,
      * @param grid Optional subgrid projection to execute this query on (if not provided, then the whole grid is used).
      * @return Future for the single query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridFuture<Map.Entry<K, T>> executeSingle(GridProjection... grid);
 
     /**
@@ -125,7 +122,5 @@ public interface GridCacheTransformQuery<K, V, T> extends GridCacheQueryBase<K,
      * @param grid Optional subgrid projection to execute this query on (if not provided, then the whole grid is used).
      * @return Future for the query result.
      */
-    @GridEnterpriseFeature("Distributed queries are enterprise-only feature " +
-        "(local queries are available in community edition)")
     public GridCacheQueryFuture<Map.Entry<K, T>> execute(GridProjection... grid);
 }
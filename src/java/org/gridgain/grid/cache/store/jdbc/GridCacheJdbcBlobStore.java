@@ -12,30 +12,44 @@ package org.gridgain.grid.cache.store.jdbc;
 import org.gridgain.grid.*;
 import org.gridgain.grid.cache.*;
 import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.lang.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.marshaller.*;
 import org.gridgain.grid.resources.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
+import javax.sql.*;
 import java.io.*;
+import java.nio.*;
 import java.sql.*;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 /**
  * {@link GridCacheStore} implementation backed by JDBC.
  * <p>
- * Note that this class is intended for test purposes only and it is
- * not recommended to use it in production environment since it may
- * slow down performance. Store that is aware of key and value types
- * should be implemented for production systems.
+ * Store keeps keys and values in marshalled form, so it cannot be queried by
+ * other applications. Store that is aware of key and value types may be
+ * implemented if database should keep data in its natural form.
  * <p>
  * Store will create table {@code ENTRIES} in the database to store data.
  * Table will have {@code key} and {@code val} fields.
  * <p>
+ * Connections are taken from provided {@link DataSource}, which is normally backed by
+ * connection pool. If data source is not provided, connections are opened with
+ * {@link DriverManager} for every operation or transaction.
+ * <p>
+ * Bulk operations are executed in batches of {@link #setBatchSize(int)} keys: {@code putAll(..)}
+ * and {@code removeAll(..)} use JDBC batch updates, and {@code loadAll(..)} for keys selects
+ * entries with {@code IN} clause. Loading whole cache with
+ * {@link #loadAll(String, GridInClosure2, Object...)} scans the table in one query, while
+ * entries are unmarshalled and put into cache by {@link #setLoadThreads(int)} threads.
+ * <p>
  * If custom DDL and DML statements are provided, table and field names have
  * to be consistent for all statements and sequence of parameters have to be
  * preserved.
@@ -46,6 +60,7 @@ import java.util.concurrent.atomic.*;
  * There are no mandatory configuration parameters.
  * <h2>Optional</h2>
  * <ul>
+ *     <li>Data source (see {@link #setDataSource(DataSource)})</li>
  *     <li>Connection URL (see {@link #setConnectionUrl(String)})</li>
  *     <li>User name (see {@link #setUser(String)})</li>
  *     <li>Password (see {@link #setPassword(String)})</li>
@@ -54,6 +69,10 @@ import java.util.concurrent.atomic.*;
  *     <li>Update entry query (see {@link #setUpdateQuery(String)})</li>
  *     <li>Insert entry query (see {@link #setInsertQuery(String)})</li>
  *     <li>Delete entry query (see {@link #setDeleteQuery(String)})</li>
+ *     <li>Load entries query (see {@link #setLoadAllQuery(String)})</li>
+ *     <li>Load cache query (see {@link #setLoadCacheQuery(String)})</li>
+ *     <li>Batch size (see {@link #setBatchSize(int)})</li>
+ *     <li>Number of load threads (see {@link #setLoadThreads(int)})</li>
  * </ul>
  * <h2>Java Example</h2>
  * <pre name="code" class="java">
@@ -97,6 +116,24 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Default delete entry query (value is <tt>delete from ENTRIES where key=?</tt>). */
     public static final String DFLT_DEL_QRY = "delete from ENTRIES where key=?";
 
+    /**
+     * Default load entries query (value is <tt>select * from ENTRIES where key in ({0})</tt>).
+     * Note that <tt>{0}</tt> is replaced with comma separated list of parameters.
+     */
+    public static final String DFLT_LOAD_ALL_QRY = "select * from ENTRIES where key in ({0})";
+
+    /** Default load cache query (value is <tt>select * from ENTRIES</tt>). */
+    public static final String DFLT_LOAD_CACHE_QRY = "select * from ENTRIES";
+
+    /** Default maximum number of keys in a single batch (value is <tt>512</tt>). */
+    public static final int DFLT_BATCH_SIZE = 512;
+
+    /** Default number of threads loading cache (value is <tt>1</tt>). */
+    public static final int DFLT_LOAD_THREADS = 1;
+
+    /** Placeholder for list of parameters in load entries query. */
+    private static final String PARAMS_PLACEHOLDER = "{0}";
+
     /** Connection attribute name. */
     private static final String ATTR_CONN = "JDBC_STORE_CONNECTION";
 
@@ -118,6 +155,21 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     /** Query to delete entries. */
     private String delQry = DFLT_DEL_QRY;
 
+    /** Query to load entries. */
+    private String loadAllQry = DFLT_LOAD_ALL_QRY;
+
+    /** Query to load all cache entries. */
+    private String loadCacheQry = DFLT_LOAD_CACHE_QRY;
+
+    /** Maximum number of keys in a single batch. */
+    private int batchSize = DFLT_BATCH_SIZE;
+
+    /** Number of threads loading cache. */
+    private int loadThreads = DFLT_LOAD_THREADS;
+
+    /** Data source. */
+    private DataSource dataSrc;
+
     /** User name for database access. */
     private String user;
 
@@ -192,7 +244,7 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next())
-                return marsh.<V>unmarshal(new ByteArrayInputStream(rs.getBytes(2)), getClass().getClassLoader());
+                return fromByteArray(rs.getBytes(2));
         }
         catch (SQLException e) {
             throw new GridException("Failed to load object: " + key, e);
@@ -244,6 +296,8 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
 
     /** {@inheritDoc} */
     @Override public void remove(@Nullable String cacheName, @Nullable GridCacheTx tx, K key) throws GridException {
+        init();
+
         if (log.isDebugEnabled())
             log.debug("Store remove [key=" + key + ", tx=" + tx + ']');
 
@@ -268,6 +322,335 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public void loadAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        @Nullable Collection<? extends K> keys, GridInClosure2<K, V> c) throws GridException {
+        init();
+
+        if (F.isEmpty(keys))
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store load all [keys=" + keys + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connection(tx);
+
+            Iterator<? extends K> it = keys.iterator();
+
+            while (it.hasNext()) {
+                // Keys by their marshalled form, which is returned by database.
+                Map<ByteBuffer, K> batch = new HashMap<ByteBuffer, K>();
+
+                while (it.hasNext() && batch.size() < batchSize) {
+                    K key = it.next();
+
+                    batch.put(ByteBuffer.wrap(toByteArray(key)), key);
+                }
+
+                // Statement is reused while batches are full.
+                if (stmt == null || batch.size() < batchSize) {
+                    U.closeQuiet(stmt);
+
+                    stmt = conn.prepareStatement(loadAllQuery(batch.size()));
+                }
+
+                int i = 1;
+
+                for (ByteBuffer keyBytes : batch.keySet())
+                    stmt.setObject(i++, keyBytes.array());
+
+                ResultSet rs = stmt.executeQuery();
+
+                try {
+                    while (rs.next()) {
+                        K key = batch.remove(ByteBuffer.wrap(rs.getBytes(1)));
+
+                        if (key != null)
+                            c.apply(key, this.<V>fromByteArray(rs.getBytes(2)));
+                    }
+                }
+                finally {
+                    U.closeQuiet(rs);
+                }
+
+                // Keys which were not found.
+                for (K key : batch.values())
+                    c.apply(key, null);
+            }
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to load objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void putAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        @Nullable Map<? extends K, ? extends V> map) throws GridException {
+        init();
+
+        if (F.isEmpty(map))
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store put all [map=" + map + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connection(tx);
+
+            // Marshalled keys and values, key goes first.
+            List<byte[][]> updates = new ArrayList<byte[][]>(map.size());
+
+            for (Map.Entry<? extends K, ? extends V> e : map.entrySet())
+                updates.add(new byte[][] {toByteArray(e.getKey()), toByteArray(e.getValue())});
+
+            stmt = conn.prepareStatement(updateQry);
+
+            List<byte[][]> inserts = new ArrayList<byte[][]>();
+
+            // Entries for which driver did not report row count.
+            List<byte[][]> unknown = new ArrayList<byte[][]>();
+
+            for (int from = 0; from < updates.size(); from += batchSize) {
+                List<byte[][]> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+
+                for (byte[][] e : batch) {
+                    stmt.setObject(1, e[1]);
+                    stmt.setObject(2, e[0]);
+
+                    stmt.addBatch();
+                }
+
+                int[] cnts = stmt.executeBatch();
+
+                // Entries which did not exist have to be inserted.
+                for (int i = 0; i < cnts.length; i++) {
+                    if (cnts[i] == 0)
+                        inserts.add(batch.get(i));
+                    else if (cnts[i] == Statement.SUCCESS_NO_INFO)
+                        unknown.add(batch.get(i));
+                }
+            }
+
+            // Updates are idempotent, so entries without row count are updated one by
+            // one to find out which of them have to be inserted.
+            for (byte[][] e : unknown) {
+                stmt.setObject(1, e[1]);
+                stmt.setObject(2, e[0]);
+
+                if (stmt.executeUpdate() == 0)
+                    inserts.add(e);
+            }
+
+            if (!inserts.isEmpty()) {
+                stmt.close();
+
+                stmt = conn.prepareStatement(insertQry);
+
+                int cnt = 0;
+
+                for (byte[][] e : inserts) {
+                    stmt.setObject(1, e[0]);
+                    stmt.setObject(2, e[1]);
+
+                    stmt.addBatch();
+
+                    if (++cnt % batchSize == 0)
+                        stmt.executeBatch();
+                }
+
+                if (cnt % batchSize != 0)
+                    stmt.executeBatch();
+            }
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to put objects: " + map.keySet(), e);
+        }
+        finally {
+            end(tx, conn, stmt);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void removeAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        @Nullable Collection<? extends K> keys) throws GridException {
+        init();
+
+        if (F.isEmpty(keys))
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store remove all [keys=" + keys + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connection(tx);
+
+            stmt = conn.prepareStatement(delQry);
+
+            int cnt = 0;
+
+            for (K key : keys) {
+                stmt.setObject(1, toByteArray(key));
+
+                stmt.addBatch();
+
+                if (++cnt % batchSize == 0)
+                    stmt.executeBatch();
+            }
+
+            if (cnt % batchSize != 0)
+                stmt.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to remove objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt);
+        }
+    }
+
+    /**
+     * Loads all entries of the table with {@link #setLoadCacheQuery(String) load cache query}.
+     * Rows are read by calling thread and handed over to {@link #setLoadThreads(int) load threads}
+     * which unmarshal entries and pass them to closure. Rows with the same key are always
+     * processed by the same thread.
+     *
+     * @param cacheName {@inheritDoc}
+     * @param c {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @throws GridException {@inheritDoc}
+     */
+    @Override public void loadAll(@Nullable String cacheName, GridInClosure2<K, V> c, @Nullable Object... args)
+        throws GridException {
+        init();
+
+        if (log.isDebugEnabled())
+            log.debug("Store load cache [threads=" + loadThreads + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        ExecutorService exec = null;
+
+        try {
+            conn = openConnection(true);
+
+            stmt = conn.prepareStatement(loadCacheQry);
+
+            stmt.setFetchSize(batchSize);
+
+            ResultSet rs = stmt.executeQuery();
+
+            try {
+                if (loadThreads <= 1) {
+                    while (rs.next())
+                        c.apply(this.<K>fromByteArray(rs.getBytes(1)), this.<V>fromByteArray(rs.getBytes(2)));
+
+                    return;
+                }
+
+                exec = Executors.newFixedThreadPool(loadThreads, new GridThreadFactory(null));
+
+                AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+                List<LoadWorker> workers = new ArrayList<LoadWorker>(loadThreads);
+
+                List<Future<?>> futs = new ArrayList<Future<?>>(loadThreads);
+
+                for (int i = 0; i < loadThreads; i++) {
+                    LoadWorker w = new LoadWorker(c, err);
+
+                    workers.add(w);
+
+                    futs.add(exec.submit(w));
+                }
+
+                try {
+                    while (err.get() == null && rs.next()) {
+                        byte[] keyBytes = rs.getBytes(1);
+
+                        int idx = (Arrays.hashCode(keyBytes) & Integer.MAX_VALUE) % workers.size();
+
+                        workers.get(idx).add(new byte[][] {keyBytes, rs.getBytes(2)});
+                    }
+                }
+                finally {
+                    for (LoadWorker w : workers)
+                        w.finish();
+                }
+
+                for (Future<?> fut : futs)
+                    fut.get();
+
+                if (err.get() != null)
+                    throw new GridException("Failed to load cache.", err.get());
+            }
+            finally {
+                U.closeQuiet(rs);
+            }
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to load cache.", e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new GridException("Thread has been interrupted.", e);
+        }
+        catch (ExecutionException e) {
+            throw new GridException("Failed to load cache.", e.getCause());
+        }
+        finally {
+            if (exec != null)
+                exec.shutdownNow();
+
+            U.closeQuiet(stmt);
+            U.closeQuiet(conn);
+        }
+    }
+
+    /**
+     * @param size Number of keys.
+     * @return Load entries query with given number of parameters.
+     */
+    private String loadAllQuery(int size) {
+        SB params = new SB();
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                params.a(',');
+
+            params.a('?');
+        }
+
+        return loadAllQry.replace(PARAMS_PLACEHOLDER, params.toString());
+    }
+
+    /**
+     * @param bytes Marshalled object.
+     * @return Unmarshalled object.
+     * @throws GridException If failed to unmarshal.
+     */
+    private <T> T fromByteArray(byte[] bytes) throws GridException {
+        return marsh.<T>unmarshal(new ByteArrayInputStream(bytes), getClass().getClassLoader());
+    }
+
     /**
      * @param obj Object to convert to byte array.
      * @return Byte array.
@@ -328,7 +711,7 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
      * @throws SQLException In case of error.
      */
     private Connection openConnection(boolean autocommit) throws SQLException {
-        Connection conn = DriverManager.getConnection(connUrl, user, passwd);
+        Connection conn = dataSrc != null ? dataSrc.getConnection() : DriverManager.getConnection(connUrl, user, passwd);
 
         conn.setAutoCommit(autocommit);
 
@@ -345,8 +728,17 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
             if (log.isDebugEnabled())
                 log.debug("Initializing cache store.");
 
-            if (F.isEmpty(connUrl))
-                throw new GridException("Failed to initialize cache store (connection URL is not provided).");
+            if (dataSrc == null && F.isEmpty(connUrl))
+                throw new GridException("Failed to initialize cache store (neither data source nor connection URL " +
+                    "is provided).");
+
+            if (batchSize <= 0)
+                throw new GridException("Failed to initialize cache store (batch size must be positive): " +
+                    batchSize);
+
+            if (!loadAllQry.contains(PARAMS_PLACEHOLDER))
+                throw new GridException("Failed to initialize cache store (load entries query must contain " +
+                    PARAMS_PLACEHOLDER + " placeholder): " + loadAllQry);
 
             if (F.isEmpty(createTblQry))
                 throw new GridException("Failed to initialize cache store (create table query is not provided).");
@@ -443,6 +835,55 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
         this.delQry = delQry;
     }
 
+    /**
+     * Sets load entries query. Query must contain {@code {0}} placeholder which is
+     * replaced with comma separated list of key parameters.
+     *
+     * @param loadAllQry Load entries query.
+     */
+    public void setLoadAllQuery(String loadAllQry) {
+        this.loadAllQry = loadAllQry;
+    }
+
+    /**
+     * Sets query which loads all cache entries.
+     *
+     * @param loadCacheQry Load cache query.
+     */
+    public void setLoadCacheQuery(String loadCacheQry) {
+        this.loadCacheQry = loadCacheQry;
+    }
+
+    /**
+     * Sets maximum number of keys in a single batch update or load query.
+     * Default value is {@link #DFLT_BATCH_SIZE}.
+     *
+     * @param batchSize Batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets number of threads unmarshalling entries and putting them into cache
+     * when whole cache is loaded. Default value is {@link #DFLT_LOAD_THREADS}.
+     *
+     * @param loadThreads Number of load threads.
+     */
+    public void setLoadThreads(int loadThreads) {
+        this.loadThreads = loadThreads;
+    }
+
+    /**
+     * Sets data source to take connections from. If data source is provided,
+     * connection URL, user name and password are ignored.
+     *
+     * @param dataSrc Data source.
+     */
+    public void setDataSource(DataSource dataSrc) {
+        this.dataSrc = dataSrc;
+    }
+
     /**
      * Sets user name for database access.
      *
@@ -465,4 +906,71 @@ public class GridCacheJdbcBlobStore<K, V> extends GridCacheStoreAdapter<K, V> {
     @Override public String toString() {
         return S.toString(GridCacheJdbcBlobStore.class, this, "passwd", passwd != null ? "*" : null);
     }
+
+    /**
+     * Unmarshals entries read from database and passes them to closure.
+     */
+    private class LoadWorker implements Callable<Object> {
+        /** Marker of the last entry. */
+        private final byte[][] last = new byte[0][];
+
+        /** Marshalled keys and values. */
+        private final BlockingQueue<byte[][]> queue = new ArrayBlockingQueue<byte[][]>(batchSize);
+
+        /** Closure. */
+        private final GridInClosure2<K, V> c;
+
+        /** Error of any worker. */
+        private final AtomicReference<Throwable> err;
+
+        /**
+         * @param c Closure.
+         * @param err Error of any worker.
+         */
+        LoadWorker(GridInClosure2<K, V> c, AtomicReference<Throwable> err) {
+            this.c = c;
+            this.err = err;
+        }
+
+        /**
+         * @param e Marshalled key and value.
+         * @throws InterruptedException If interrupted.
+         */
+        void add(byte[][] e) throws InterruptedException {
+            // Do not block reader if this worker has failed.
+            while (err.get() == null) {
+                if (queue.offer(e, 100, TimeUnit.MILLISECONDS))
+                    return;
+            }
+        }
+
+        /**
+         * Delivers end marker, so that worker always stops.
+         *
+         * @throws InterruptedException If interrupted.
+         */
+        void finish() throws InterruptedException {
+            while (!queue.offer(last, 100, TimeUnit.MILLISECONDS)) {
+                // Workers stop taking entries once any of them fails,
+                // so pending entries are dropped to make room for marker.
+                if (err.get() != null)
+                    queue.clear();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings({"ErrorNotRethrown"})
+        @Nullable @Override public Object call() throws Exception {
+            try {
+                for (byte[][] e = queue.take(); e != last && err.get() == null; e = queue.take())
+                    c.apply(GridCacheJdbcBlobStore.this.<K>fromByteArray(e[0]),
+                        GridCacheJdbcBlobStore.this.<V>fromByteArray(e[1]));
+            }
+            catch (Throwable e) {
+                err.compareAndSet(null, e);
+            }
+
+            return null;
+        }
+    }
 }
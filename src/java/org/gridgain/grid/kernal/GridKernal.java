@@ -50,6 +50,7 @@ import org.gridgain.grid.spi.failover.*;
 import org.gridgain.grid.spi.loadbalancing.*;
 import org.gridgain.grid.spi.swapspace.*;
 import org.gridgain.grid.spi.topology.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.*;
@@ -140,6 +141,9 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
     /** Kernal start timestamp. */
     private long startTime = System.currentTimeMillis();
 
+    /** Component start durations in milliseconds, in start order. */
+    private final Map<String, Long> compStartTimes = new LinkedHashMap<String, Long>();
+
     /** Spring context, potentially {@code null}. */
     private ApplicationContext springCtx;
 
@@ -598,6 +602,8 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
 
         Map<String, Object> attrs = createNodeAttributes(cfg);
 
+        long compStart = System.currentTimeMillis();
+
         // Spin out SPIs & managers.
         try {
             GridKernalContextImpl ctx = new GridKernalContextImpl(this, cfg, gw);
@@ -642,15 +648,18 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
             // NOTE: that order matters as there are dependencies between managers.
             startManager(ctx, new GridLocalMetricsManager(ctx), attrs);
             startManager(ctx, new GridIoManager(ctx), attrs);
-            startManager(ctx, new GridCheckpointManager(ctx), attrs);
-
             startManager(ctx, new GridEventStorageManager(ctx), attrs);
-            startManager(ctx, new GridDeploymentManager(ctx), attrs);
-            startManager(ctx, new GridLoadBalancerManager(ctx), attrs);
-            startManager(ctx, new GridFailoverManager(ctx), attrs);
-            startManager(ctx, new GridCollisionManager(ctx), attrs);
-            startManager(ctx, new GridTopologyManager(ctx), attrs);
-            startManager(ctx, new GridSwapSpaceManager(ctx), attrs);
+
+            // Managers below depend only on managers above and not on each other,
+            // so they may be started in parallel.
+            startManagers(ctx, attrs,
+                new GridCheckpointManager(ctx),
+                new GridDeploymentManager(ctx),
+                new GridLoadBalancerManager(ctx),
+                new GridFailoverManager(ctx),
+                new GridCollisionManager(ctx),
+                new GridTopologyManager(ctx),
+                new GridSwapSpaceManager(ctx));
 
             // Create the controllers. Order is important.
             startController(ctx, GridLicenseController.class);
@@ -701,6 +710,8 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
             throw new GridException(e);
         }
 
+        ackStartTimes(System.currentTimeMillis() - compStart);
+
         // Mark start timestamp.
         startTime = System.currentTimeMillis();
 
@@ -1251,6 +1262,95 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
      * @throws GridException Throw in case of any errors.
      */
     private void startManager(GridKernalContextImpl ctx, GridManager mgr, Map<String, Object> attrs)
+        throws GridException {
+        registerManager(ctx, mgr, attrs);
+
+        long start = System.currentTimeMillis();
+
+        try {
+            mgr.start();
+        }
+        catch (GridException e) {
+            throw new GridException("Failed to start manager: " + mgr, e);
+        }
+
+        compStartTimes.put(mgr.getClass().getSimpleName(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Starts managers which do not depend on each other. If parallel startup is enabled,
+     * every manager is started in its own thread, otherwise managers are started
+     * one by one in given order.
+     *
+     * @param ctx Kernal context.
+     * @param attrs SPI attributes to set.
+     * @param mgrs Managers to start.
+     * @throws GridException Thrown in case of any errors.
+     */
+    private void startManagers(GridKernalContextImpl ctx, Map<String, Object> attrs, final GridManager... mgrs)
+        throws GridException {
+        if (!cfg.isParallelStartup() || mgrs.length == 1) {
+            for (GridManager mgr : mgrs)
+                startManager(ctx, mgr, attrs);
+
+            return;
+        }
+
+        // Register managers in given order, so that order of start and stop
+        // callbacks does not depend on threads scheduling.
+        for (GridManager mgr : mgrs)
+            registerManager(ctx, mgr, attrs);
+
+        ExecutorService exec = Executors.newFixedThreadPool(mgrs.length, new GridThreadFactory(gridName));
+
+        try {
+            List<Future<Long>> futs = new ArrayList<Future<Long>>(mgrs.length);
+
+            for (final GridManager mgr : mgrs)
+                futs.add(exec.submit(new Callable<Long>() {
+                    @Override public Long call() throws GridException {
+                        long start = System.currentTimeMillis();
+
+                        mgr.start();
+
+                        return System.currentTimeMillis() - start;
+                    }
+                }));
+
+            GridException err = null;
+
+            // Wait for all managers, even if some failed, so that
+            // none of them is still starting when startup is rolled back.
+            for (int i = 0; i < mgrs.length; i++) {
+                try {
+                    compStartTimes.put(mgrs[i].getClass().getSimpleName(), futs.get(i).get());
+                }
+                catch (ExecutionException e) {
+                    if (err == null)
+                        err = new GridException("Failed to start manager: " + mgrs[i], e.getCause());
+                }
+            }
+
+            if (err != null)
+                throw err;
+        }
+        catch (InterruptedException e) {
+            throw new GridInterruptedException("Interrupted while starting managers.", e);
+        }
+        finally {
+            exec.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds manager SPI attributes to node attributes and adds manager to registry.
+     *
+     * @param ctx Kernal context.
+     * @param mgr Manager to register.
+     * @param attrs SPI attributes to set.
+     * @throws GridException Throw in case of any errors.
+     */
+    private void registerManager(GridKernalContextImpl ctx, GridManager mgr, Map<String, Object> attrs)
         throws GridException {
         mgr.addSpiAttributes(attrs);
 
@@ -1263,13 +1363,6 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
         // cases when manager is started but registry does not
         // have it yet.
         ctx.add(mgr);
-
-        try {
-            mgr.start();
-        }
-        catch (GridException e) {
-            throw new GridException("Failed to start manager: " + mgr, e);
-        }
     }
 
     /**
@@ -1280,12 +1373,16 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
     private void startProcessor(GridKernalContextImpl ctx, GridComponent proc) throws GridException {
         ctx.add(proc);
 
+        long start = System.currentTimeMillis();
+
         try {
             proc.start();
         }
         catch (GridException e) {
             throw new GridException("Failed to start processor: " + proc, e);
         }
+
+        compStartTimes.put(proc.getClass().getSimpleName(), System.currentTimeMillis() - start);
     }
 
     /**
@@ -1313,6 +1410,8 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
 
         GridController ctrl = null;
 
+        long start = System.currentTimeMillis();
+
         try {
             cls = Class.forName(pkg.getName() + ".impl." + itf.getSimpleName() + "Impl");
         }
@@ -1357,9 +1456,30 @@ public class GridKernal extends GridProjectionAdapter implements Grid, GridKerna
 
         ctx.add(ctrl);
 
+        compStartTimes.put(itf.getSimpleName(), System.currentTimeMillis() - start);
+
         return (T)ctrl;
     }
 
+    /**
+     * Prints start duration of every component in info mode.
+     *
+     * @param total Total duration of components startup.
+     */
+    private void ackStartTimes(long total) {
+        assert log != null;
+
+        if (log.isInfoEnabled()) {
+            SB sb = new SB("Components started in " + total + "ms [parallel=" + onOff(cfg.isParallelStartup()) +
+                ']');
+
+            for (Map.Entry<String, Long> e : compStartTimes.entrySet())
+                sb.a(U.nl()).a("  ^-- ").a(e.getKey()).a(": ").a(e.getValue()).a("ms");
+
+            log.info(sb.toString());
+        }
+    }
+
     /**
      * Gets "on" or "off" string for given boolean value.
      *
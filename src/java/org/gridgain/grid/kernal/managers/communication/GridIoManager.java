@@ -50,15 +50,32 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     /** */
     static final int RETRY_SEND_CNT = 50;
 
-    /** */
-    private final ConcurrentMap<String, GridConcurrentHashSet<GridFilteredMessageListener>> lsnrMap =
-        new ConcurrentHashMap<String, GridConcurrentHashSet<GridFilteredMessageListener>>();
+    /** System topics by name. */
+    private static final Map<String, GridTopic> SYS_TOPICS = new HashMap<String, GridTopic>();
+
+    static {
+        for (GridTopic topic : GridTopic.values())
+            SYS_TOPICS.put(topic.name(), topic);
+    }
+
+    /**
+     * Listeners by topic name. Listener arrays are never modified, they are replaced
+     * under {@link #mux} instead, so that messages are dispatched without locking.
+     */
+    private final ConcurrentMap<String, GridFilteredMessageListener[]> lsnrMap =
+        new ConcurrentHashMap<String, GridFilteredMessageListener[]>();
+
+    /** Listeners of system topics indexed by {@link GridTopic} ordinal, replaced on every change. */
+    private volatile GridFilteredMessageListener[][] sysLsnrs = new GridFilteredMessageListener[SYS_TOPICS.size()][];
+
+    /** Public executor service. */
+    private Executor pubExec;
 
-    /** Internal worker pool. */
-    private GridWorkerPool workerPool;
+    /** P2P executor service. */
+    private Executor p2pExec;
 
-    /** Internal P2P pool. */
-    private GridWorkerPool p2pPool;
+    /** System executor service. */
+    private Executor sysExec;
 
     /** Internal system pool. */
     private GridWorkerPool sysPool;
@@ -66,16 +83,23 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     /** */
     private GridLocalEventListener discoLsnr;
 
-    /** */
-    private final Map<String, Map<UUID, GridCommunicationMessageSet>> msgSetMap =
-        new HashMap<String, Map<UUID, GridCommunicationMessageSet>>();
+    /** Ordered message sets. Sets are created and removed only under {@link #mux}. */
+    private final ConcurrentMap<String, ConcurrentMap<UUID, GridCommunicationMessageSet>> msgSetMap =
+        new ConcurrentHashMap<String, ConcurrentMap<UUID, GridCommunicationMessageSet>>();
 
     /** */
     private final ConcurrentMap<String, ConcurrentMap<UUID, AtomicLong>> msgIdMap =
         new ConcurrentHashMap<String, ConcurrentMap<UUID, AtomicLong>>();
 
-    /** Finished job topic names queue with the fixed size. */
-    private final Collection<String> closedTopics = new GridBoundedLinkedHashSet<String>(MAX_CLOSED_TOPICS);
+    /** Finished job topic names with the fixed size, eldest topics are evicted first. */
+    private final GridConcurrentLinkedHashMap<String, Boolean> closedTopics =
+        new GridConcurrentLinkedHashMap<String, Boolean>(128, 0.75f, 16, false,
+            new P2<GridConcurrentLinkedHashMap<String, Boolean>, GridConcurrentLinkedHashMap.HashEntry<String, Boolean>>() {
+                @Override public boolean apply(GridConcurrentLinkedHashMap<String, Boolean> map,
+                    GridConcurrentLinkedHashMap.HashEntry<String, Boolean> e) {
+                    return map.sizex() > MAX_CLOSED_TOPICS;
+                }
+            });
 
     /** Local node ID. */
     private final UUID locNodeId;
@@ -87,15 +111,21 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     private final Map<UUID, List<GridIoMessage>> discoWaitMap =
         new HashMap<UUID, List<GridIoMessage>>();
 
+    /** Whether {@link #discoWaitMap} may be not empty, checked without locking. */
+    private volatile boolean discoWaitPending;
+
     /** Communication message listener. */
     @SuppressWarnings("deprecation")
     private GridMessageListener msgLsnr;
 
-    /** */
-    private int callCnt;
+    /** Number of listener calls in progress. */
+    private final AtomicInteger callCnt = new AtomicInteger();
 
     /** */
-    private boolean stopping;
+    private volatile boolean stopping;
+
+    /** Busy lock held by message processing tasks while they notify listeners. */
+    private final GridBusyLock busyLock = new GridBusyLock();
 
     /** Mutex. */
     private final Object mux = new Object();
@@ -140,9 +170,11 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
         startSpi();
 
-        workerPool = new GridWorkerPool(ctx.config().getExecutorService(), log);
-        p2pPool = new GridWorkerPool(ctx.config().getPeerClassLoadingExecutorService(), log);
-        sysPool = new GridWorkerPool(ctx.config().getSystemExecutorService(), log);
+        pubExec = ctx.config().getExecutorService();
+        p2pExec = ctx.config().getPeerClassLoadingExecutorService();
+        sysExec = ctx.config().getSystemExecutorService();
+
+        sysPool = new GridWorkerPool(sysExec, log);
 
         getSpi().setListener(msgLsnr = new GridMessageListener() {
             @SuppressWarnings("deprecation")
@@ -184,42 +216,43 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                 // Get the same ID instance as the node.
                 commMsg.senderId(nodeId = node == null ? nodeId : node.id());
 
-                boolean isCalled = false;
+                callCnt.incrementAndGet();
 
                 try {
-                    synchronized (mux) {
-                        if (stopping) {
-                            if (log.isDebugEnabled())
-                                log.debug("Received communication message while stopping grid: " + msg);
-
-                            return;
-                        }
+                    // Stopping flag is checked after call is counted, so that stopping
+                    // thread either sees this call or this call sees the flag.
+                    if (stopping) {
+                        if (log.isDebugEnabled())
+                            log.debug("Received communication message while stopping grid: " + msg);
 
-                        // Although we check closed topics prior to processing
-                        // every message, we still check it here to avoid redundant
-                        // placement of messages on wait list whenever possible.
-                        if (closedTopics.contains(commMsg.topic())) {
-                            if (log.isDebugEnabled())
-                                log.debug("Message is ignored as it came for the closed topic: " + msg);
-
-                            return;
-                        }
+                        return;
+                    }
 
-                        callCnt++;
+                    // Although we check closed topics prior to processing
+                    // every message, we still check it here to avoid redundant
+                    // placement of messages on wait list whenever possible.
+                    if (closedTopics.containsKey(commMsg.topic())) {
+                        if (log.isDebugEnabled())
+                            log.debug("Message is ignored as it came for the closed topic: " + msg);
 
-                        isCalled = true;
+                        return;
+                    }
 
-                        // Remove expired messages from wait list.
-                        processWaitList();
+                    if (node == null || discoWaitPending) {
+                        synchronized (mux) {
+                            // Remove expired messages from wait list.
+                            processWaitList();
 
-                        // Received message before a node got discovered or after it left.
-                        if (ctx.discovery().node(nodeId) == null) {
-                            if (log.isDebugEnabled())
-                                log.debug("Adding message to waiting list [senderId=" + nodeId + ", msg=" + msg + ']');
+                            // Received message before a node got discovered or after it left.
+                            if (ctx.discovery().node(nodeId) == null) {
+                                if (log.isDebugEnabled())
+                                    log.debug("Adding message to waiting list [senderId=" + nodeId + ", msg=" +
+                                        msg + ']');
 
-                            addToWaitList(commMsg);
+                                addToWaitList(commMsg);
 
-                            return;
+                                return;
+                            }
                         }
                     }
 
@@ -245,13 +278,11 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                     }
                 }
                 finally {
-                    if (isCalled)
+                    if (callCnt.decrementAndGet() == 0 && stopping) {
                         synchronized (mux) {
-                            callCnt--;
-
-                            if (callCnt == 0)
-                                mux.notifyAll();
+                            mux.notifyAll();
                         }
+                    }
                 }
             }
         });
@@ -307,6 +338,8 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                             // in this code. In this case we don't care about it
                             // and will let those messages naturally expire.
                             waitList = discoWaitMap.remove(nodeId);
+
+                            discoWaitPending = !discoWaitMap.isEmpty();
                         }
 
                         if (waitList != null)
@@ -331,13 +364,15 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                             // Remove messages waiting for this node to join.
                             List<GridIoMessage> waitList = discoWaitMap.remove(nodeId);
 
+                            discoWaitPending = !discoWaitMap.isEmpty();
+
                             if (log.isDebugEnabled())
                                 log.debug("Removed messages from discovery startup delay list " +
                                     "(sender node left topology): " + waitList);
 
                             // Clean up ordered messages.
-                            for (Iterator<Map<UUID, GridCommunicationMessageSet>> iter = msgSetMap.values().iterator();
-                                 iter.hasNext();) {
+                            for (Iterator<ConcurrentMap<UUID, GridCommunicationMessageSet>> iter =
+                                 msgSetMap.values().iterator(); iter.hasNext();) {
                                 Map<UUID, GridCommunicationMessageSet> map = iter.next();
 
                                 GridCommunicationMessageSet set = map.remove(nodeId);
@@ -351,7 +386,7 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
                                     // Node may still send stale messages for this topic
                                     // even after discovery notification is done.
-                                    closedTopics.add(set.getTopic());
+                                    closedTopics.put(set.getTopic(), Boolean.TRUE);
                                 }
 
                                 if (map.isEmpty())
@@ -376,8 +411,8 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         // manager start and kernal start.
         synchronized (mux) {
             // Clean up ordered messages.
-            F.drop(msgSetMap.values(), new P1<Map<UUID, GridCommunicationMessageSet>>() {
-                @Override public boolean apply(Map<UUID, GridCommunicationMessageSet> map) {
+            F.drop(msgSetMap.values(), new P1<ConcurrentMap<UUID, GridCommunicationMessageSet>>() {
+                @Override public boolean apply(ConcurrentMap<UUID, GridCommunicationMessageSet> map) {
                     F.drop(map.values(), new P1<GridCommunicationMessageSet>() {
                         @Override public boolean apply(GridCommunicationMessageSet set) {
                             // If message set belongs to failed or left node.
@@ -390,7 +425,7 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
                                 // Node may still send stale messages for this topic
                                 // even after discovery notification is done.
-                                closedTopics.add(set.getTopic());
+                                closedTopics.put(set.getTopic(), Boolean.TRUE);
 
                                 return true;
                             }
@@ -419,6 +454,8 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         assert list != null;
 
         list.add(newMsg);
+
+        discoWaitPending = true;
     }
 
     /**
@@ -452,6 +489,8 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                 return msgs.isEmpty();
             }
         });
+
+        discoWaitPending = !discoWaitMap.isEmpty();
     }
 
     /** {@inheritDoc} */
@@ -466,17 +505,15 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
             // Wait for all method calls to complete. Note that we can only
             // do it after interrupting all tasks.
             while (true) {
-                assert callCnt >= 0;
+                int cnt = callCnt.get();
+
+                assert cnt >= 0;
 
-                // This condition is taken out of the loop to avoid
-                // potentially wrong optimization by the compiler of
-                // moving field access out of the loop causing this loop
-                // to never exit.
-                if (callCnt == 0)
+                if (cnt == 0)
                     break;
 
                 if (log.isDebugEnabled())
-                    log.debug("Waiting for communication listener to finish: " + callCnt);
+                    log.debug("Waiting for communication listener to finish: " + cnt);
 
                 try {
                     // Release mux.
@@ -498,18 +535,14 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     @Override public void stop(boolean cancel, boolean wait) throws GridException {
         stopSpi();
 
-        // Stop should be done in proper order.
-        // First we stop regular workers,
-        // Then ordered and urgent at the end.
-        if (workerPool != null)
-            workerPool.join(true);
+        // Messages are dispatched directly to executor services, which may be not
+        // stopped by the kernal, so wait for tasks in progress and prevent queued
+        // tasks from notifying listeners.
+        busyLock.block();
 
         if (sysPool != null)
             sysPool.join(true);
 
-        if (p2pPool != null)
-            p2pPool.join(true);
-
         // Clear cache.
         cacheMsg.set(null);
 
@@ -518,19 +551,19 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     }
 
     /**
-     * Gets execution pool for policy.
+     * Gets executor service for policy.
      *
      * @param policy Policy.
-     * @return Execution pool.
+     * @return Executor service.
      */
-    private GridWorkerPool getPool(GridIoPolicy policy) {
+    private Executor executor(GridIoPolicy policy) {
         switch (policy) {
             case P2P_POOL:
-                return p2pPool;
+                return p2pExec;
             case SYSTEM_POOL:
-                return sysPool;
+                return sysExec;
             case PUBLIC_POOL:
-                return workerPool;
+                return pubExec;
 
             default: {
                 assert false : "Invalid communication policy: " + policy;
@@ -542,120 +575,133 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     }
 
     /**
-     * @param nodeId Node ID.
-     * @param msg Urgent message.
+     * Hands message processing task over to executor service for policy. Task is executed
+     * in the listener thread if executor service rejects it.
+     *
+     * @param policy Execution policy.
+     * @param task Message processing task.
      */
-    @SuppressWarnings("deprecation")
-    private void processP2PMessage(final UUID nodeId, final GridIoMessage msg) {
-        assert msg.policy() == P2P_POOL;
+    private void execute(GridIoPolicy policy, Runnable task) {
+        if (stopping) {
+            if (log.isDebugEnabled())
+                log.debug("Ignoring message processing task because grid is stopping: " + task);
 
-        final Set<GridFilteredMessageListener> lsnrs;
+            return;
+        }
 
-        synchronized (mux) {
-            if (closedTopics.contains(msg.topic())) {
-                if (log.isDebugEnabled())
-                    log.debug("Message is ignored because it came for the closed topic: " + msg);
+        try {
+            executor(policy).execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            U.error(log, "Failed to process message due to execution rejection. Increase the upper bound " +
+                "on executor service for policy " + policy + " provided in 'GridConfiguration'. " +
+                "Will attempt to process message in the listener thread instead.", e);
 
-                return;
-            }
+            task.run();
+        }
+    }
+
+    /**
+     * Gets listeners of message topic. Messages sent to {@link GridTopic} carry topic
+     * ordinal and are resolved without hashing topic name.
+     *
+     * @param topic Topic name.
+     * @param topicOrd Topic ordinal or {@code -1} for string topics.
+     * @return Listeners or {@code null} if there are none.
+     */
+    @Nullable private GridFilteredMessageListener[] listeners(String topic, int topicOrd) {
+        if (topicOrd >= 0) {
+            GridFilteredMessageListener[][] sysLsnrs = this.sysLsnrs;
 
-            lsnrs = lsnrMap.get(msg.topic());
+            if (topicOrd < sysLsnrs.length)
+                return sysLsnrs[topicOrd];
         }
 
-        // Note, that since listeners are stored in unmodifiable collection, we
-        // don't have to hold synchronization lock during event notifications.
-        if (!F.isEmpty(lsnrs)) {
-            final Runnable closure = new Runnable() {
-                @Override public void run() {
-                    try {
-                        Object obj = unmarshal(msg);
+        return lsnrMap.get(topic);
+    }
 
-                        for (GridMessageListener lsnr : lsnrs)
-                            lsnr.onMessage(nodeId, obj);
-                    }
-                    catch (GridException e) {
-                        U.error(log, "Failed to deserialize P2P communication message:" + msg, e);
-                    }
-                }
-            };
+    /**
+     * Replaces listeners of given topic.
+     *
+     * @param topic Topic name.
+     * @param lsnrs New listeners or {@code null} to remove all listeners.
+     * @return Previous listeners.
+     */
+    @Nullable private GridFilteredMessageListener[] listeners(String topic,
+        @Nullable GridFilteredMessageListener[] lsnrs) {
+        assert Thread.holdsLock(mux);
 
-            try {
-                p2pPool.execute(new GridWorker(ctx.config().getGridName(), "comm-mgr-urgent-worker", log) {
-                    @Override protected void body() {
-                        closure.run();
-                    }
-                });
-            }
-            catch (GridExecutionRejectedException e) {
-                U.error(log, "Failed to process P2P message due to execution rejection. Increase the upper bound " +
-                    "on 'ExecutorService' provided by 'GridConfiguration.getPeerClassLoadingExecutorService()'. " +
-                    "Will attempt to process message in the listener thread instead.", e);
+        GridFilteredMessageListener[] old = lsnrs != null ? lsnrMap.put(topic, lsnrs) : lsnrMap.remove(topic);
 
-                closure.run();
-            }
-            catch (GridException e) {
-                U.error(log, "Failed to process P2P message due to system error.", e);
-            }
+        GridTopic sysTopic = SYS_TOPICS.get(topic);
+
+        if (sysTopic != null) {
+            GridFilteredMessageListener[][] sysLsnrs = this.sysLsnrs.clone();
+
+            sysLsnrs[sysTopic.ordinal()] = lsnrs;
+
+            this.sysLsnrs = sysLsnrs;
         }
+
+        return old;
     }
 
     /**
-     * @param nodeId Node ID.
-     * @param msg Regular message.
-     * @param policy Execution policy.
+     * @param lsnrs Listeners.
+     * @param lsnr Listener to look for.
+     * @return Index of listener or {@code -1} if not found.
      */
-    @SuppressWarnings("deprecation")
-    private void processRegularMessage(final UUID nodeId, final GridIoMessage msg, GridIoPolicy policy) {
-        assert !msg.isOrdered();
+    private static int indexOf(GridFilteredMessageListener[] lsnrs, GridFilteredMessageListener lsnr) {
+        for (int i = 0; i < lsnrs.length; i++)
+            if (lsnrs[i].equals(lsnr))
+                return i;
 
-        final Set<GridFilteredMessageListener> lsnrs;
+        return -1;
+    }
 
-        synchronized (mux) {
-            if (closedTopics.contains(msg.topic())) {
-                if (log.isDebugEnabled())
-                    log.debug("Message is ignored because it came for the closed topic: " + msg);
+    /**
+     * @param nodeId Node ID.
+     * @param msg Urgent message.
+     */
+    private void processP2PMessage(UUID nodeId, GridIoMessage msg) {
+        assert msg.policy() == P2P_POOL;
 
-                return;
-            }
+        if (closedTopics.containsKey(msg.topic())) {
+            if (log.isDebugEnabled())
+                log.debug("Message is ignored because it came for the closed topic: " + msg);
 
-            lsnrs = lsnrMap.get(msg.topic());
+            return;
         }
 
-        if (!F.isEmpty(lsnrs)) {
-            final Runnable closure = new Runnable() {
-                @Override public void run() {
-                    try {
-                        Object obj = unmarshal(msg);
+        GridFilteredMessageListener[] lsnrs = listeners(msg.topic(), msg.topicOrdinal());
 
-                        for (GridMessageListener lsnr : lsnrs)
-                            lsnr.onMessage(nodeId, obj);
-                    }
-                    catch (GridException e) {
-                        U.error(log, "Failed to deserialize regular communication message: " + msg, e);
-                    }
-                }
-            };
+        // Note, that since listeners are stored in immutable array, we
+        // don't have to hold synchronization lock during event notifications.
+        if (lsnrs != null)
+            execute(P2P_POOL, new MessageTask(nodeId, msg, lsnrs));
+    }
 
-            // Note, that since listeners are stored in unmodifiable collection, we
-            // don't have to hold synchronization lock during event notifications.
-            try {
-                getPool(policy).execute(new GridWorker(ctx.config().getGridName(), "comm-mgr-unordered-worker", log) {
-                    @Override protected void body() {
-                        closure.run();
-                    }
-                });
-            }
-            catch (GridExecutionRejectedException e) {
-                U.error(log, "Failed to process regular message due to execution rejection. Increase the upper bound " +
-                    "on 'ExecutorService' provided by 'GridConfiguration.getExecutorService()'. " +
-                    "Will attempt to process message in the listener thread instead.", e);
+    /**
+     * @param nodeId Node ID.
+     * @param msg Regular message.
+     * @param policy Execution policy.
+     */
+    private void processRegularMessage(UUID nodeId, GridIoMessage msg, GridIoPolicy policy) {
+        assert !msg.isOrdered();
 
-                closure.run();
-            }
-            catch (GridException e) {
-                U.error(log, "Failed to process regular message due to system error.", e);
-            }
+        if (closedTopics.containsKey(msg.topic())) {
+            if (log.isDebugEnabled())
+                log.debug("Message is ignored because it came for the closed topic: " + msg);
+
+            return;
         }
+
+        GridFilteredMessageListener[] lsnrs = listeners(msg.topic(), msg.topicOrdinal());
+
+        // Note, that since listeners are stored in immutable array, we
+        // don't have to hold synchronization lock during event notifications.
+        if (lsnrs != null)
+            execute(policy, new MessageTask(nodeId, msg, lsnrs));
     }
 
     /**
@@ -669,70 +715,60 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
         assert msg.timeout() > 0 : "Message timeout of 0 should never be sent: " + msg;
 
-        long endTime = msg.timeout() + System.currentTimeMillis();
+        if (closedTopics.containsKey(msg.topic())) {
+            if (log.isDebugEnabled())
+                log.debug("Message is ignored as it came for the closed topic: " + msg);
 
-        // Account for overflow.
-        if (endTime < 0)
-            endTime = Long.MAX_VALUE;
+            return;
+        }
 
-        final GridCommunicationMessageSet msgSet;
+        Map<UUID, GridCommunicationMessageSet> map = msgSetMap.get(msg.topic());
 
-        boolean isNew = false;
+        GridCommunicationMessageSet msgSet = map != null ? map.get(nodeId) : null;
 
-        synchronized (mux) {
-            if (closedTopics.contains(msg.topic())) {
-                if (log.isDebugEnabled())
-                    log.debug("Message is ignored as it came for the closed topic: " + msg);
+        if (msgSet == null) {
+            long endTime = msg.timeout() + System.currentTimeMillis();
 
-                return;
-            }
+            // Account for overflow.
+            if (endTime < 0)
+                endTime = Long.MAX_VALUE;
 
-            Map<UUID, GridCommunicationMessageSet> map = F.addIfAbsent(msgSetMap, msg.topic(),
-                F.<UUID, GridCommunicationMessageSet>newMap());
+            boolean isNew = false;
 
-            assert map != null;
+            synchronized (mux) {
+                if (closedTopics.containsKey(msg.topic())) {
+                    if (log.isDebugEnabled())
+                        log.debug("Message is ignored as it came for the closed topic: " + msg);
 
-            GridCommunicationMessageSet set = map.get(nodeId);
+                    return;
+                }
 
-            if (set == null) {
-                map.put(nodeId, set = new GridCommunicationMessageSet(policy, msg.topic(), nodeId, endTime));
+                map = F.addIfAbsent(msgSetMap, msg.topic(), new ConcurrentHashMap<UUID, GridCommunicationMessageSet>());
 
-                isNew = true;
-            }
+                assert map != null;
 
-            msgSet = set;
-        }
+                msgSet = map.get(nodeId);
 
-        if (isNew && endTime != Long.MAX_VALUE)
-            ctx.timeout().addTimeoutObject(msgSet);
+                if (msgSet == null) {
+                    map.put(nodeId, msgSet = new GridCommunicationMessageSet(policy, msg.topic(), msg.topicOrdinal(),
+                        nodeId, endTime));
 
-        final Set<GridFilteredMessageListener> lsnrs;
+                    isNew = true;
+                }
+            }
+
+            if (isNew && endTime != Long.MAX_VALUE)
+                ctx.timeout().addTimeoutObject(msgSet);
+        }
 
         synchronized (msgSet) {
             msgSet.add(msg);
-
-            lsnrs = lsnrMap.get(msg.topic());
         }
 
-        if (!F.isEmpty(lsnrs)) {
-            try {
-                getPool(policy).execute(new GridWorker(ctx.config().getGridName(), "comm-mgr-ordered-worker", log) {
-                    @Override protected void body() {
-                        unwindMessageSet(msgSet, lsnrs);
-                    }
-                });
-            }
-            catch (GridExecutionRejectedException e) {
-                U.error(log, "Failed to process ordered message due to execution rejection. Increase the upper bound " +
-                    "on system executor service provided by 'GridConfiguration.getSystemExecutorService()'). Will " +
-                    "attempt to process message in the listener thread instead.", e);
-
-                unwindMessageSet(msgSet, lsnrs);
-            }
-            catch (GridException e) {
-                U.error(log, "Failed to process ordered message due to system error.", e);
-            }
-        }
+        // Listeners are looked up after message is added, so that either this thread
+        // sees newly registered listener, or listener registration sees the message.
+        if (listeners(msg.topic(), msg.topicOrdinal()) != null)
+            execute(policy, msgSet);
         else {
             // Note that we simply keep messages if listener is not
             // registered yet, until one will be registered.
@@ -744,10 +780,9 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
     /**
      * @param msgSet Message set to unwind.
-     * @param lsnrs Listeners to notify.
      */
     @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter", "deprecation"})
-    private void unwindMessageSet(GridCommunicationMessageSet msgSet, Iterable<GridFilteredMessageListener> lsnrs) {
+    private void unwindMessageSet(GridCommunicationMessageSet msgSet) {
         // Loop until message set is empty or
         // another thread owns the reservation.
         while (true) {
@@ -771,13 +806,20 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                         return;
                 }
 
-                if (!orderedMsgs.isEmpty()) {
+                // Listeners are taken after reservation, so that messages
+                // are not delivered to listeners that were removed.
+                GridFilteredMessageListener[] lsnrs = listeners(msgSet.getTopic(), msgSet.getTopicOrdinal());
+
+                if (lsnrs == null) {
+                    if (log.isDebugEnabled())
+                        log.debug("Ignoring ordered messages as there are no listeners: " + msgSet);
+                }
+                else {
                     for (GridIoMessage msg : orderedMsgs) {
                         try {
                             Object obj = unmarshal(msg);
 
-                            // Don't synchronize on listeners as the collection
-                            // is immutable.
+                            // Don't synchronize on listeners as the array is immutable.
                             for (GridMessageListener lsnr : lsnrs) {
                                 // Notify messages without synchronizing on msgSet.
                                 lsnr.onMessage(msgSet.getNodeId(), obj);
@@ -788,8 +830,6 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                         }
                     }
                 }
-                else if (log.isDebugEnabled())
-                    log.debug("No messages were unwound: " + msgSet);
             }
             finally {
                 if (selfReserved) {
@@ -1236,24 +1276,13 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
 
         Collection<GridCommunicationMessageSet> msgSets;
 
-        final GridFilteredMessageListener filteredLsnr = new GridFilteredMessageListener(lsnr, p);
+        GridFilteredMessageListener filteredLsnr = new GridFilteredMessageListener(lsnr, p);
 
         synchronized (mux) {
-            GridConcurrentHashSet<GridFilteredMessageListener> temp = lsnrMap.get(topic);
-
-            if (temp == null) {
-                GridConcurrentHashSet<GridFilteredMessageListener> lsnrs =
-                    new GridConcurrentHashSet<GridFilteredMessageListener>(1);
+            GridFilteredMessageListener[] lsnrs = lsnrMap.get(topic);
 
-                lsnrs.add(filteredLsnr);
-
-                temp = lsnrMap.putIfAbsent(topic, lsnrs);
-
-                if (temp != null) {
-                    lsnrs = temp;
-
-                    lsnrs.add(filteredLsnr);
-                }
+            if (lsnrs == null) {
+                listeners(topic, new GridFilteredMessageListener[] {filteredLsnr});
 
                 Map<UUID, GridCommunicationMessageSet> map = msgSetMap.get(topic);
 
@@ -1265,33 +1294,19 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
             else {
                 msgSets = null;
 
-                temp.add(filteredLsnr);
-            }
-        }
+                if (indexOf(lsnrs, filteredLsnr) < 0) {
+                    GridFilteredMessageListener[] newLsnrs = Arrays.copyOf(lsnrs, lsnrs.length + 1);
 
-        if (msgSets != null)
-            try {
-                for (final GridCommunicationMessageSet msgSet : msgSets)
-                    getPool(msgSet.getPolicy()).execute(
-                        new GridWorker(ctx.config().getGridName(), "comm-mgr-ordered-worker", log) {
-                            @Override protected void body() {
-                                unwindMessageSet(msgSet, Collections.singletonList(filteredLsnr));
-                            }
-                        }
-                    );
-            }
-            catch (GridExecutionRejectedException e) {
-                U.error(log, "Failed to process delayed message due to execution rejection. Increase the upper bound " +
-                    "on executor service provided in 'GridConfiguration.getExecutorService()'). Will attempt to " +
-                    "process message in the listener thread instead instead.", e);
+                    newLsnrs[lsnrs.length] = filteredLsnr;
 
-                for (GridCommunicationMessageSet msgSet : msgSets) {
-                    unwindMessageSet(msgSet, Collections.singletonList(filteredLsnr));
+                    listeners(topic, newLsnrs);
                 }
             }
-            catch (GridException e) {
-                U.error(log, "Failed to process delayed message due to system error.", e);
-            }
+        }
+
+        if (msgSets != null)
+            for (GridCommunicationMessageSet msgSet : msgSets)
+                execute(msgSet.getPolicy(), msgSet);
     }
 
     /**
@@ -1337,7 +1352,7 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         synchronized (mux) {
             // If listener is null, then remove all listeners.
             if (lsnr == null) {
-                removed = lsnrMap.remove(topic) != null;
+                removed = listeners(topic, null) != null;
 
                 Map<UUID, GridCommunicationMessageSet> map = msgSetMap.remove(topic);
 
@@ -1345,10 +1360,10 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                     msgSets = map.values();
                 }
 
-                closedTopics.add(topic);
+                closedTopics.put(topic, Boolean.TRUE);
             }
             else {
-                GridConcurrentHashSet<GridFilteredMessageListener> lsnrs = lsnrMap.get(topic);
+                GridFilteredMessageListener[] lsnrs = lsnrMap.get(topic);
 
                 // If removing listener before subscription happened.
                 if (lsnrs == null) {
@@ -1358,38 +1373,40 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                         msgSets = map.values();
                     }
 
-                    closedTopics.add(topic);
+                    closedTopics.put(topic, Boolean.TRUE);
 
                     removed = false;
                 }
                 else {
-                    GridFilteredMessageListener filteredLsnr = new GridFilteredMessageListener(lsnr);
+                    int idx = indexOf(lsnrs, new GridFilteredMessageListener(lsnr));
 
-                    if (lsnrs.contains(filteredLsnr)) {
+                    if (idx >= 0) {
                         // If removing last subscribed listener.
-                        if (lsnrs.size() == 1) {
+                        if (lsnrs.length == 1) {
                             Map<UUID, GridCommunicationMessageSet> map = msgSetMap.remove(topic);
 
                             if (map != null) {
                                 msgSets = map.values();
                             }
 
-                            lsnrMap.remove(topic);
+                            listeners(topic, null);
 
-                            closedTopics.add(topic);
+                            closedTopics.put(topic, Boolean.TRUE);
                         }
                         // Remove the specified listener and leave
                         // other subscribed listeners untouched.
                         else {
-                            lsnrs.remove(filteredLsnr);
+                            GridFilteredMessageListener[] newLsnrs = new GridFilteredMessageListener[lsnrs.length - 1];
+
+                            System.arraycopy(lsnrs, 0, newLsnrs, 0, idx);
+                            System.arraycopy(lsnrs, idx + 1, newLsnrs, idx, newLsnrs.length - idx);
+
+                            listeners(topic, newLsnrs);
                         }
                     }
-                    // Nothing to remove. Put listeners back.
-                    else {
+                    // Nothing to remove.
+                    else
                         removed = false;
-
-                        lsnrMap.put(topic, lsnrs);
-                    }
                 }
             }
         }
@@ -1721,17 +1738,17 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
     /** {@inheritDoc} */
     @Override public void printMemoryStats() {
         int msgSetMapSize;
-        int closedTopicsSize;
         int discoWaitMapSize;
         int syncReqMapSize;
 
         synchronized (mux) {
             msgSetMapSize = msgSetMap.size();
-            closedTopicsSize = closedTopics.size();
             discoWaitMapSize = discoWaitMap.size();
             syncReqMapSize = syncReqMap.size();
         }
 
+        int closedTopicsSize = closedTopics.sizex();
+
         X.println(">>>");
         X.println(">>> IO manager memory stats [grid=" + ctx.gridName() + ']');
         X.println(">>>  lsnrMapSize: " + lsnrMap.size());
@@ -1890,13 +1907,74 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         }
     }
 
+    /**
+     * Task delivering unordered message to listeners.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.13012012
+     */
+    @SuppressWarnings("deprecation")
+    private class MessageTask implements Runnable {
+        /** Sender node ID. */
+        private final UUID nodeId;
+
+        /** Message. */
+        private final GridIoMessage msg;
+
+        /** Listeners. */
+        private final GridFilteredMessageListener[] lsnrs;
+
+        /**
+         * @param nodeId Sender node ID.
+         * @param msg Message.
+         * @param lsnrs Listeners.
+         */
+        MessageTask(UUID nodeId, GridIoMessage msg, GridFilteredMessageListener[] lsnrs) {
+            this.nodeId = nodeId;
+            this.msg = msg;
+            this.lsnrs = lsnrs;
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings({"CatchGenericClass"})
+        @Override public void run() {
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Ignoring message because communication manager has stopped: " + msg);
+
+                return;
+            }
+
+            try {
+                Object obj = unmarshal(msg);
+
+                for (GridMessageListener lsnr : lsnrs)
+                    lsnr.onMessage(nodeId, obj);
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to deserialize communication message: " + msg, e);
+            }
+            catch (Throwable e) {
+                U.error(log, "Runtime error caught during communication message processing: " + msg, e);
+            }
+            finally {
+                busyLock.leaveBusy();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(MessageTask.class, this);
+        }
+    }
+
     /**
      * Ordered communication message set.
      *
      * @author 2012 Copyright (C) GridGain Systems
      * @version 3.6.0c.13012012
      */
-    private class GridCommunicationMessageSet implements GridTimeoutObject {
+    private class GridCommunicationMessageSet implements GridTimeoutObject, Runnable {
         /** */
         private final UUID nodeId;
 
@@ -1909,6 +1987,9 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         /** */
         private final String topic;
 
+        /** Topic ordinal, {@code -1} for string topics. */
+        private final int topicOrd;
+
         /** */
         private final GridIoPolicy policy;
 
@@ -1925,10 +2006,11 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
         /**
          * @param policy Communication policy.
          * @param topic Communication topic.
+         * @param topicOrd Topic ordinal, {@code -1} for string topics.
          * @param nodeId Node ID.
          * @param endTime endTime.
          */
-        GridCommunicationMessageSet(GridIoPolicy policy, String topic, UUID nodeId, long endTime) {
+        GridCommunicationMessageSet(GridIoPolicy policy, String topic, int topicOrd, UUID nodeId, long endTime) {
             assert nodeId != null;
             assert topic != null;
             assert policy != null;
@@ -1936,6 +2018,7 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
             this.policy = policy;
             this.nodeId = nodeId;
             this.topic = topic;
+            this.topicOrd = topicOrd;
             this.endTime = endTime;
 
             timeoutId = GridUuid.randomUuid();
@@ -1959,10 +2042,10 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
                 log.debug("Removing message set due to timeout: " + this);
 
             synchronized (mux) {
-                Map<UUID, GridCommunicationMessageSet> map = msgSetMap.get(topic);
+                ConcurrentMap<UUID, GridCommunicationMessageSet> map = msgSetMap.get(topic);
 
                 if (map != null) {
-                    map.remove(nodeId);
+                    map.remove(nodeId, this);
 
                     if (map.isEmpty()) {
                         msgSetMap.remove(topic);
@@ -1992,6 +2075,36 @@ public class GridIoManager extends GridManagerAdapter<GridCommunicationSpi> {
             return topic;
         }
 
+        /**
+         * @return Topic ordinal, {@code -1} for string topics.
+         */
+        int getTopicOrdinal() {
+            return topicOrd;
+        }
+
+        /**
+         * Delivers messages of this set which are next in order.
+         */
+        @SuppressWarnings({"CatchGenericClass"})
+        @Override public void run() {
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Ignoring ordered messages because communication manager has stopped: " + this);
+
+                return;
+            }
+
+            try {
+                unwindMessageSet(this);
+            }
+            catch (Throwable e) {
+                U.error(log, "Runtime error caught during ordered message processing: " + this, e);
+            }
+            finally {
+                busyLock.leaveBusy();
+            }
+        }
+
         /**
          * @return {@code True} if successful.
          */
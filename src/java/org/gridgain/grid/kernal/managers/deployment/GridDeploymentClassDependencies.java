@@ -0,0 +1,325 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.managers.deployment;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * Collects class dependencies from class byte code. Dependencies are all classes referenced
+ * from constant pool of the class file, either directly or from field and method descriptors.
+ * Dependency closure of a peer-deployed class is sent together with the class, so that
+ * remote node does not have to request every dependency separately.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+final class GridDeploymentClassDependencies {
+    /** Class file magic number. */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /** Class path roots of JDK and GridGain classes, which are never sent. */
+    private static final Collection<String> SYS_ROOTS = new ArrayList<String>(2);
+
+    /**
+     *
+     */
+    static {
+        addRoot(Object.class);
+        addRoot(GridDeploymentClassDependencies.class);
+    }
+
+    /**
+     * Ensure singleton.
+     */
+    private GridDeploymentClassDependencies() {
+        // No-op.
+    }
+
+    /**
+     * @param cls Class which class path root should be registered as system one.
+     */
+    private static void addRoot(Class<?> cls) {
+        String path = U.classNameToResourceName(cls.getName());
+
+        URL url = cls.getClassLoader() == null ? ClassLoader.getSystemResource(path) :
+            cls.getClassLoader().getResource(path);
+
+        if (url != null) {
+            String s = url.toString();
+
+            SYS_ROOTS.add(s.substring(0, s.length() - path.length()));
+        }
+    }
+
+    /**
+     * Collects dependency closure of given class.
+     *
+     * @param ldr Class loader to load dependencies with.
+     * @param path Resource name of the class.
+     * @param bytes Class byte code.
+     * @param max Maximum number of collected dependencies.
+     * @param log Logger.
+     * @return Map of dependencies resource names to their byte code.
+     */
+    static Map<String, byte[]> closure(ClassLoader ldr, String path, GridByteArrayList bytes, int max,
+        GridLogger log) {
+        assert ldr != null;
+        assert path != null;
+        assert bytes != null;
+        assert max > 0;
+
+        Map<String, byte[]> res = new LinkedHashMap<String, byte[]>();
+
+        Collection<String> visited = new HashSet<String>();
+
+        visited.add(path);
+
+        LinkedList<byte[]> queue = new LinkedList<byte[]>();
+
+        queue.add(bytes.getEntireArray());
+
+        try {
+            while (!queue.isEmpty()) {
+                for (String clsName : referencedClasses(queue.poll())) {
+                    String depPath = U.classNameToResourceName(clsName);
+
+                    if (!visited.add(depPath))
+                        continue;
+
+                    byte[] dep = read(ldr, clsName, depPath, log);
+
+                    if (dep != null) {
+                        res.put(depPath, dep);
+
+                        if (res.size() >= max)
+                            return res;
+
+                        queue.add(dep);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            if (log.isDebugEnabled())
+                log.debug("Failed to parse class dependencies (will send collected ones) [path=" + path +
+                    ", err=" + e + ']');
+        }
+
+        return res;
+    }
+
+    /**
+     * @param ldr Class loader.
+     * @param clsName Class name.
+     * @param path Class resource name.
+     * @param log Logger.
+     * @return Class byte code or {@code null} if class should not be sent.
+     */
+    @Nullable private static byte[] read(ClassLoader ldr, String clsName, String path, GridLogger log) {
+        URL url = ldr.getResource(path);
+
+        if (url == null || isSystem(url))
+            return null;
+
+        try {
+            if (U.getAnnotation(Class.forName(clsName, false, ldr), GridNotPeerDeployable.class) != null)
+                return null;
+        }
+        catch (ClassNotFoundException ignored) {
+            return null;
+        }
+        catch (LinkageError ignored) {
+            return null;
+        }
+
+        InputStream in = null;
+
+        try {
+            in = url.openStream();
+
+            GridByteArrayList bytes = new GridByteArrayList(1024);
+
+            bytes.readAll(in);
+
+            return bytes.getEntireArray();
+        }
+        catch (IOException e) {
+            if (log.isDebugEnabled())
+                log.debug("Failed to read class dependency (will skip) [path=" + path + ", err=" + e + ']');
+
+            return null;
+        }
+        finally {
+            U.close(in, log);
+        }
+    }
+
+    /**
+     * @param url Class resource URL.
+     * @return {@code True} if class comes from JDK or GridGain class path.
+     */
+    private static boolean isSystem(URL url) {
+        String s = url.toString();
+
+        if (s.startsWith("jrt:"))
+            return true;
+
+        for (String root : SYS_ROOTS)
+            if (s.startsWith(root))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Parses constant pool of the class file.
+     *
+     * @param bytes Class byte code.
+     * @return Names of referenced classes.
+     * @throws IOException If class file is malformed.
+     */
+    static Collection<String> referencedClasses(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        if (in.readInt() != MAGIC)
+            throw new IOException("Invalid class file magic number.");
+
+        // Minor and major versions.
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+
+        int cnt = in.readUnsignedShort();
+
+        String[] utf = new String[cnt];
+
+        int[] clsIdxs = new int[cnt];
+        int clsCnt = 0;
+
+        int[] descIdxs = new int[cnt];
+        int descCnt = 0;
+
+        for (int i = 1; i < cnt; i++) {
+            int tag = in.readUnsignedByte();
+
+            switch (tag) {
+                case 1: // Utf8.
+                    utf[i] = in.readUTF();
+
+                    break;
+
+                case 7: // Class.
+                    clsIdxs[clsCnt++] = in.readUnsignedShort();
+
+                    break;
+
+                case 12: // NameAndType.
+                    in.readUnsignedShort();
+
+                    descIdxs[descCnt++] = in.readUnsignedShort();
+
+                    break;
+
+                case 16: // MethodType.
+                    descIdxs[descCnt++] = in.readUnsignedShort();
+
+                    break;
+
+                case 8: // String.
+                case 19: // Module.
+                case 20: // Package.
+                    in.readUnsignedShort();
+
+                    break;
+
+                case 15: // MethodHandle.
+                    in.skipBytes(3);
+
+                    break;
+
+                case 3: // Integer.
+                case 4: // Float.
+                case 9: // Fieldref.
+                case 10: // Methodref.
+                case 11: // InterfaceMethodref.
+                case 17: // Dynamic.
+                case 18: // InvokeDynamic.
+                    in.skipBytes(4);
+
+                    break;
+
+                case 5: // Long.
+                case 6: // Double.
+                    in.skipBytes(8);
+
+                    // Takes two constant pool entries.
+                    i++;
+
+                    break;
+
+                default:
+                    throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+
+        Collection<String> res = new HashSet<String>();
+
+        for (int i = 0; i < clsCnt; i++) {
+            String name = utf[clsIdxs[i]];
+
+            if (name == null)
+                continue;
+
+            if (name.charAt(0) == '[')
+                parseDescriptor(name, res);
+            else
+                res.add(name.replace('/', '.'));
+        }
+
+        for (int i = 0; i < descCnt; i++) {
+            String desc = utf[descIdxs[i]];
+
+            if (desc != null)
+                parseDescriptor(desc, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param desc Field or method descriptor.
+     * @param res Collection to add referenced class names to.
+     */
+    private static void parseDescriptor(String desc, Collection<String> res) {
+        int i = 0;
+
+        while (i < desc.length()) {
+            if (desc.charAt(i) == 'L') {
+                int end = desc.indexOf(';', i);
+
+                if (end < 0)
+                    return;
+
+                res.add(desc.substring(i + 1, end).replace('/', '.'));
+
+                i = end + 1;
+            }
+            else
+                i++;
+        }
+    }
+}
@@ -76,6 +76,17 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
     @GridToStringExclude
     private final ConcurrentMap<String, byte[]> byteMap;
 
+    /** Byte code of classes received together with other classes, but not loaded yet. */
+    @GridToStringExclude
+    private final ConcurrentMap<String, byte[]> prefetched = new ConcurrentHashMap<String, byte[]>();
+
+    /** Maximum number of class dependencies requested together with class. */
+    private final int prefetchSize;
+
+    /** On-disk cache of peer-loaded classes. */
+    @GridToStringExclude
+    private final GridDeploymentDiskCache diskCache;
+
     /** User version. */
     private final String usrVer;
 
@@ -158,6 +169,9 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
             new GridBoundedLinkedHashSet<String>(missedResourcesCacheSize) : null;
 
         byteMap = clsBytesCacheEnabled ? new ConcurrentHashMap<String, byte[]>() : null;
+
+        prefetchSize = ctx.config().getPeerClassLoadingPrefetchSize();
+        diskCache = ctx.deploy().diskCache();
     }
 
     /**
@@ -229,6 +243,9 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
             new GridBoundedLinkedHashSet<String>(missedResourcesCacheSize) : null;
 
         byteMap = clsBytesCacheEnabled ? new ConcurrentHashMap<String, byte[]>() : null;
+
+        prefetchSize = ctx.config().getPeerClassLoadingPrefetchSize();
+        diskCache = ctx.deploy().diskCache();
     }
 
     /** {@inheritDoc} */
@@ -478,7 +495,10 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
 
         String path = U.classNameToResourceName(name);
 
-        GridByteArrayList byteSrc = sendClassRequest(name, path);
+        GridByteArrayList byteSrc = localClassBytes(path);
+
+        if (byteSrc == null)
+            byteSrc = sendClassRequest(name, path);
 
         synchronized (this) {
             Class<?> cls = findLoadedClass(name);
@@ -509,6 +529,63 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
         }
     }
 
+    /**
+     * Gets class byte code received together with previously loaded classes
+     * or stored on disk, so that class does not have to be requested from network.
+     *
+     * @param path Class path.
+     * @return Class byte source or {@code null} if class is not available locally.
+     */
+    @Nullable private GridByteArrayList localClassBytes(String path) {
+        byte[] bytes = prefetched.remove(path);
+
+        if (bytes != null) {
+            if (log.isDebugEnabled())
+                log.debug("Got class definition from prefetched classes: " + path);
+
+            return new GridByteArrayList(bytes);
+        }
+
+        if (diskCache != null && diskCache.enabled()) {
+            for (GridUuid ldrId : registeredClassLoaderIds()) {
+                bytes = diskCache.read(ldrId, usrVer, path);
+
+                if (bytes != null)
+                    return new GridByteArrayList(bytes);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores class byte code and byte code of its dependencies received from remote node.
+     *
+     * @param ldrId Remote class loader ID.
+     * @param path Class path.
+     * @param res Response.
+     */
+    private void onClassReceived(GridUuid ldrId, String path, GridDeploymentResponse res) {
+        Map<String, byte[]> deps = res.dependencies();
+
+        boolean store = diskCache != null && diskCache.enabled();
+
+        if (store)
+            diskCache.write(ldrId, usrVer, path, res.byteSource().getEntireArray());
+
+        if (deps != null) {
+            for (Map.Entry<String, byte[]> e : deps.entrySet()) {
+                prefetched.putIfAbsent(e.getKey(), e.getValue());
+
+                if (store)
+                    diskCache.write(ldrId, usrVer, e.getKey(), e.getValue());
+            }
+
+            if (log.isDebugEnabled())
+                log.debug("Received class dependencies [path=" + path + ", deps=" + deps.size() + ']');
+        }
+    }
+
     /**
      * Computes end time based on timeout value passed in.
      *
@@ -576,7 +653,7 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
             }
 
             try {
-                GridDeploymentResponse res = comm.sendResourceRequest(path, ldrId, node, endTime);
+                GridDeploymentResponse res = comm.sendResourceRequest(path, ldrId, node, endTime, prefetchSize);
 
                 if (res == null) {
                     String msg = "Failed to send class-loading node request to node (is node alive?) [node=" +
@@ -590,8 +667,11 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
                     continue;
                 }
 
-                if (res.success())
+                if (res.success()) {
+                    onClassReceived(ldrId, path, res);
+
                     return res.byteSource();
+                }
 
                 // In case of shared resources/classes all nodes should have it.
                 if (log.isDebugEnabled())
@@ -642,6 +722,13 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
             }
         }
 
+        if (name.endsWith(".class")) {
+            byte[] bytes = prefetched.get(name);
+
+            if (bytes != null)
+                return new ByteArrayInputStream(bytes);
+        }
+
         InputStream in = ClassLoader.getSystemResourceAsStream(name);
 
         if (in == null)
@@ -700,7 +787,7 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
 
             try {
                 // Request is sent with timeout that is why we can use synchronization here.
-                GridDeploymentResponse res = comm.sendResourceRequest(name, ldrId, node, endTime);
+                GridDeploymentResponse res = comm.sendResourceRequest(name, ldrId, node, endTime, 0);
 
                 if (res == null) {
                     U.warn(log, "Failed to get resource from node (is node alive?) [nodeId=" +
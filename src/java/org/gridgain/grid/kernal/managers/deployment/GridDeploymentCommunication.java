@@ -228,6 +228,21 @@ class GridDeploymentCommunication {
 
                     res.success(true);
                     res.byteSource(bytes);
+
+                    // Only originating node has byte code of dependencies locally.
+                    if (req.prefetchSize() > 0 && req.resourceName().endsWith(".class") &&
+                        !(ldr instanceof GridDeploymentClassLoader)) {
+                        Map<String, byte[]> deps = GridDeploymentClassDependencies.closure(ldr, req.resourceName(),
+                            bytes, req.prefetchSize(), log);
+
+                        if (!deps.isEmpty()) {
+                            res.dependencies(deps);
+
+                            if (log.isDebugEnabled())
+                                log.debug("Sending class dependencies with peer class loading response [rsrc=" +
+                                    req.resourceName() + ", deps=" + deps.size() + ']');
+                        }
+                    }
                 }
                 catch (IOException e) {
                     String errMsg = "Failed to read resource due to IO failure: " + req.resourceName();
@@ -312,12 +327,14 @@ class GridDeploymentCommunication {
      * @param dstNode Remote node request should be sent to.
      * @param threshold Time in milliseconds when request is decided to
      *      be obsolete.
+     * @param prefetchSize Maximum number of class dependencies remote node should
+     *      send together with requested class, {@code 0} if none.
      * @return Either response value or {@code null} if timeout occurred.
      * @throws GridException Thrown if there is no connection with remote node.
      */
     @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter"})
     GridDeploymentResponse sendResourceRequest(final String rsrcName, GridUuid clsLdrId,
-        final GridNode dstNode, long threshold) throws GridException {
+        final GridNode dstNode, long threshold, int prefetchSize) throws GridException {
         assert rsrcName != null;
         assert dstNode != null;
         assert clsLdrId != null;
@@ -345,6 +362,7 @@ class GridDeploymentCommunication {
         GridDeploymentRequest req = new GridDeploymentRequest(clsLdrId, rsrcName, false);
 
         req.responseTopic(resTopic);
+        req.prefetchSize(prefetchSize);
 
         // Send node IDs chain with request.
         req.nodeIds(nodeIds);
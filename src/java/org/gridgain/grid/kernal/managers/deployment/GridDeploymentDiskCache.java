@@ -0,0 +1,180 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.managers.deployment;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+
+/**
+ * On-disk cache of peer-loaded class byte code. Classes are stored in a folder per remote
+ * class loader ID and user version, so that node restarted while originating node is still
+ * alive does not have to load classes from network again.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridDeploymentDiskCache {
+    /** Logger. */
+    @GridToStringExclude
+    private final GridLogger log;
+
+    /** Cache folder, {@code null} if cache is disabled. */
+    private final File dir;
+
+    /**
+     * @param path Cache folder path, either absolute or relative to {@code GRIDGAIN_HOME}.
+     * @param log Logger.
+     */
+    GridDeploymentDiskCache(@Nullable String path, GridLogger log) {
+        this.log = log.getLogger(getClass());
+
+        if (path != null) {
+            File root = new File(path);
+
+            if (!root.isAbsolute())
+                root = !F.isEmpty(U.getGridGainHome()) ? new File(U.getGridGainHome(), path) :
+                    new File(System.getProperty("java.io.tmpdir"), path);
+
+            dir = root;
+        }
+        else
+            dir = null;
+    }
+
+    /**
+     * @return {@code True} if cache is enabled.
+     */
+    boolean enabled() {
+        return dir != null;
+    }
+
+    /**
+     * @throws GridException If cache folder could not be created.
+     */
+    void start() throws GridException {
+        if (!enabled())
+            return;
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new GridException("Failed to create peer class loading cache folder: " + dir.getAbsolutePath());
+
+        if (log.isDebugEnabled())
+            log.debug("Started peer class loading cache: " + dir.getAbsolutePath());
+    }
+
+    /**
+     * @param ldrId Remote class loader ID.
+     * @param usrVer User version.
+     * @param path Resource name.
+     * @return Cached byte code or {@code null} if there is none.
+     */
+    @Nullable byte[] read(GridUuid ldrId, String usrVer, String path) {
+        File file = file(ldrId, usrVer, path);
+
+        if (file == null || !file.exists())
+            return null;
+
+        InputStream in = null;
+
+        try {
+            in = new FileInputStream(file);
+
+            GridByteArrayList bytes = new GridByteArrayList((int)file.length());
+
+            bytes.readAll(in);
+
+            if (log.isDebugEnabled())
+                log.debug("Read class from peer class loading cache [ldrId=" + ldrId + ", path=" + path + ']');
+
+            return bytes.getEntireArray();
+        }
+        catch (IOException e) {
+            U.warn(log, "Failed to read class from peer class loading cache (will load from remote node) " +
+                "[file=" + file.getAbsolutePath() + ", err=" + e + ']');
+
+            return null;
+        }
+        finally {
+            U.close(in, log);
+        }
+    }
+
+    /**
+     * @param ldrId Remote class loader ID.
+     * @param usrVer User version.
+     * @param path Resource name.
+     * @param bytes Byte code.
+     */
+    void write(GridUuid ldrId, String usrVer, String path, byte[] bytes) {
+        File file = file(ldrId, usrVer, path);
+
+        if (file == null || file.exists())
+            return;
+
+        File parent = file.getParentFile();
+
+        if (!parent.exists() && !parent.mkdirs()) {
+            U.warn(log, "Failed to create peer class loading cache folder: " + parent.getAbsolutePath());
+
+            return;
+        }
+
+        // Temporary file name is unique per thread, so concurrent writers do not clash.
+        File tmp = new File(parent, file.getName() + '.' + Thread.currentThread().getId() + ".tmp");
+
+        OutputStream out = null;
+
+        try {
+            out = new FileOutputStream(tmp);
+
+            out.write(bytes);
+        }
+        catch (IOException e) {
+            U.warn(log, "Failed to write class to peer class loading cache [file=" + file.getAbsolutePath() +
+                ", err=" + e + ']');
+
+            return;
+        }
+        finally {
+            U.close(out, log);
+        }
+
+        // Concurrent writer may have already renamed its file, which has the same content.
+        if (!tmp.renameTo(file) && !tmp.delete())
+            U.warn(log, "Failed to delete temporary peer class loading cache file: " + tmp.getAbsolutePath());
+    }
+
+    /**
+     * @param ldrId Remote class loader ID.
+     * @param usrVer User version.
+     * @param path Resource name.
+     * @return Cache file or {@code null} if cache is disabled or resource name is not allowed.
+     */
+    @Nullable private File file(GridUuid ldrId, String usrVer, String path) {
+        if (dir == null || path.contains(".."))
+            return null;
+
+        String ver = usrVer == null ? "" : usrVer.replaceAll("[^A-Za-z0-9._-]", "_");
+
+        return new File(new File(dir, ldrId + "_" + ver), path);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDeploymentDiskCache.class, this);
+    }
+}
@@ -41,6 +41,9 @@ public class GridDeploymentManager extends GridManagerAdapter<GridDeploymentSpi>
     /** */
     private GridDeploymentCommunication comm;
 
+    /** On-disk cache of peer-loaded classes. */
+    private GridDeploymentDiskCache diskCache;
+
     /**
      * @param ctx Grid kernal context.
      */
@@ -52,8 +55,14 @@ public class GridDeploymentManager extends GridManagerAdapter<GridDeploymentSpi>
     @Override public void start() throws GridException {
         GridProtocolHandler.registerDeploymentManager(this);
 
-        if (ctx.config().isPeerClassLoadingEnabled())
+        if (ctx.config().isPeerClassLoadingEnabled()) {
             assertParameter(ctx.config().getNetworkTimeout() > 0, "networkTimeout > 0");
+            assertParameter(ctx.config().getPeerClassLoadingPrefetchSize() >= 0, "peerClassLoadingPrefetchSize >= 0");
+        }
+
+        diskCache = new GridDeploymentDiskCache(ctx.config().getPeerClassLoadingCachePath(), log);
+
+        diskCache.start();
 
         startSpi();
 
@@ -73,6 +82,13 @@ public class GridDeploymentManager extends GridManagerAdapter<GridDeploymentSpi>
             log.debug(startInfo());
     }
 
+    /**
+     * @return On-disk cache of peer-loaded classes.
+     */
+    GridDeploymentDiskCache diskCache() {
+        return diskCache;
+    }
+
     /** {@inheritDoc} */
     @Override public void stop(boolean cancel, boolean wait) throws GridException {
         GridProtocolHandler.deregisterDeploymentManager();
@@ -35,6 +35,9 @@ class GridDeploymentRequest implements Externalizable {
     /** Undeploy flag. */
     private boolean isUndeploy;
 
+    /** Maximum number of class dependencies to send together with requested class. */
+    private int prefetchSize;
+
     /** Nodes participating in request (chain). */
     @GridToStringInclude
     private Collection<UUID> nodeIds;
@@ -108,6 +111,20 @@ class GridDeploymentRequest implements Externalizable {
         return isUndeploy;
     }
 
+    /**
+     * @return Maximum number of class dependencies to send together with requested class.
+     */
+    int prefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * @param prefetchSize Maximum number of class dependencies to send together with requested class.
+     */
+    void prefetchSize(int prefetchSize) {
+        this.prefetchSize = prefetchSize;
+    }
+
     /**
      * @return Node IDs chain which is updated as request jumps
      *      from node to node.
@@ -127,6 +144,7 @@ class GridDeploymentRequest implements Externalizable {
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         out.writeBoolean(isUndeploy);
+        out.writeInt(prefetchSize);
         U.writeString(out, resTopic);
         U.writeString(out, rsrcName);
         U.writeGridUuid(out, ldrId);
@@ -136,6 +154,7 @@ class GridDeploymentRequest implements Externalizable {
     /** {@inheritDoc} */
     @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         isUndeploy = in.readBoolean();
+        prefetchSize = in.readInt();
         resTopic = U.readString(in);
         rsrcName = U.readString(in);
         ldrId = U.readGridUuid(in);
@@ -11,7 +11,11 @@ package org.gridgain.grid.kernal.managers.deployment;
 
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
 import java.io.*;
+import java.util.*;
 
 /**
  * Grid deployment response containing requested resource bytes.
@@ -29,6 +33,10 @@ class GridDeploymentResponse implements Externalizable {
     /** Raw class/resource/task. */
     private GridByteArrayList byteSrc;
 
+    /** Byte code of requested class dependencies by resource name. */
+    @GridToStringExclude
+    private Map<String, byte[]> deps;
+
     /**
      * No-op constructor to support {@link Externalizable} interface.
      * This constructor is not meant to be used for other purposes.
@@ -55,6 +63,20 @@ class GridDeploymentResponse implements Externalizable {
         return byteSrc;
     }
 
+    /**
+     * @param deps Byte code of requested class dependencies by resource name.
+     */
+    void dependencies(Map<String, byte[]> deps) {
+        this.deps = deps;
+    }
+
+    /**
+     * @return Byte code of requested class dependencies by resource name.
+     */
+    @Nullable Map<String, byte[]> dependencies() {
+        return deps;
+    }
+
     /**
      * Tests whether corresponding request was processed successful of not.
      *
@@ -100,6 +122,15 @@ class GridDeploymentResponse implements Externalizable {
         out.writeBoolean(success);
 
         U.writeString(out, errMsg);
+
+        out.writeInt(deps == null ? -1 : deps.size());
+
+        if (deps != null) {
+            for (Map.Entry<String, byte[]> e : deps.entrySet()) {
+                U.writeString(out, e.getKey());
+                U.writeByteArray(out, e.getValue());
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -108,10 +139,19 @@ class GridDeploymentResponse implements Externalizable {
         success = in.readBoolean();
 
         errMsg = U.readString(in);
+
+        int size = in.readInt();
+
+        if (size >= 0) {
+            deps = new HashMap<String, byte[]>(size * 2);
+
+            for (int i = 0; i < size; i++)
+                deps.put(U.readString(in), U.readByteArray(in));
+        }
     }
 
     /** {@inheritDoc} */
     @Override public String toString() {
-        return S.toString(GridDeploymentResponse.class, this);
+        return S.toString(GridDeploymentResponse.class, this, "deps", deps == null ? 0 : deps.size());
     }
 }
@@ -20,9 +20,11 @@ import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.spi.*;
 import org.gridgain.grid.spi.eventstorage.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.worker.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
@@ -48,6 +50,18 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     /** Events that are never passed into SPI, i.e. hidden from system. */
     private static final int[] HIDDEN_EVTS;
 
+    /**
+     * Number of event types covered by precomputed bit sets. Covers all reserved
+     * types and first user-defined ones, other types are checked by array scans.
+     */
+    private static final int BITS_CNT = 2048;
+
+    /** Maximum number of batches waiting to be recorded asynchronously. */
+    private static final int MAX_QUEUED_BATCHES = 64;
+
+    /** Asynchronous recording thread name. */
+    private static final String REC_THREAD_NAME = "event-record-worker";
+
     /**
      * Initialize internally used and hidden events.
      * <p>
@@ -75,9 +89,12 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         HIDDEN_EVTS[0] = EVT_NODE_METRICS_UPDATED;
     }
 
-    /** */
-    private final ConcurrentMap<Integer, Set<GridLocalEventListener>> lsnrs =
-        new ConcurrentHashMap<Integer, Set<GridLocalEventListener>>();
+    /** Local listeners by event type. Arrays are copied on every change under {@link #lsnrMux}. */
+    private final ConcurrentMap<Integer, GridLocalEventListener[]> lsnrs =
+        new ConcurrentHashMap<Integer, GridLocalEventListener[]>();
+
+    /** Mutex for listener changes. */
+    private final Object lsnrMux = new Object();
 
     /** */
     private RequestListener msgLsnr;
@@ -94,6 +111,24 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     /** Is local node daemon? */
     private boolean isDaemon;
 
+    /** Types of events which are internal or user-recordable. */
+    private long[] recBits;
+
+    /** Types of events which are passed to SPI. */
+    private long[] spiBits;
+
+    /** Types of events which are either passed to SPI or have local listeners. */
+    private volatile long[] interestBits;
+
+    /** Events waiting to be passed to SPI, {@code null} if events are recorded synchronously. */
+    private BlockingQueue<GridEvent> recQueue;
+
+    /** Maximum number of events passed to SPI by asynchronous recording thread at once. */
+    private int recBatchSize;
+
+    /** Asynchronous recording thread. */
+    private GridThread recThread;
+
     /**
      * Constructs manager.
      *
@@ -101,6 +136,25 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
      */
     public GridEventStorageManager(GridKernalContext ctx) {
         super(GridEventStorageSpi.class, ctx, ctx.config().getEventStorageSpi());
+
+        isDaemon = ctx.isDaemon();
+
+        inclEvtTypes = ctx.config().getIncludeEventTypes();
+        exclEvtTypes = ctx.config().getExcludeEventTypes();
+
+        // Precompute bits here so that events recorded before start are filtered as well.
+        recBits = new long[BITS_CNT >>> 6];
+        spiBits = new long[BITS_CNT >>> 6];
+
+        for (int type = 0; type < BITS_CNT; type++) {
+            if (isInternalEvent(type) || isUserRecordable(type))
+                set(recBits, type);
+
+            if ((isDaemon || isUserRecordable(type)) && !isHiddenEvent(type))
+                set(spiBits, type);
+        }
+
+        interestBits = spiBits.clone();
     }
 
     /** {@inheritDoc} */
@@ -108,6 +162,7 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         X.println(">>>");
         X.println(">>> Event storage manager memory stats [grid=" + ctx.gridName() + ']');
         X.println(">>>  lsnrsSize: " + lsnrs.size());
+        X.println(">>>  recQueueSize: " + (recQueue == null ? 0 : recQueue.size()));
     }
 
     /**
@@ -141,11 +196,27 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
         msgLsnr = null;
 
-        lsnrs.clear();
+        synchronized (lsnrMux) {
+            lsnrs.clear();
+
+            updateInterest();
+        }
     }
 
     /** {@inheritDoc} */
     @Override public void stop(boolean cancel, boolean wait) throws GridException {
+        if (recThread != null) {
+            U.interrupt(recThread);
+            U.join(recThread, log);
+
+            // Events which have not been taken by recording thread.
+            Collection<GridEvent> rest = new ArrayList<GridEvent>(recQueue.size());
+
+            recQueue.drainTo(rest);
+
+            recordToSpi(rest);
+        }
+
         stopSpi();
 
         if (log.isDebugEnabled())
@@ -154,15 +225,15 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
     /** {@inheritDoc} */
     @Override public void start() throws GridException {
-        isDaemon = ctx.isDaemon();
-
-        inclEvtTypes = ctx.config().getIncludeEventTypes();
-        exclEvtTypes = ctx.config().getExcludeEventTypes();
-
         if (!ArrayUtils.isEmpty(inclEvtTypes) && !ArrayUtils.isEmpty(exclEvtTypes))
             throw new GridException("Both 'include' event types and 'exclude' event types cannot be provided " +
                 "in configuration.");
 
+        recBatchSize = ctx.config().getEventRecordBatchSize();
+
+        if (recBatchSize < 0)
+            throw new GridException("Event record batch size cannot be negative: " + recBatchSize);
+
         Map<GridLocalEventListener, int[]> evtLsnrs = ctx.config().getLocalEventListeners();
 
         if (evtLsnrs != null) {
@@ -172,6 +243,14 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
         startSpi();
 
+        if (recBatchSize > 0) {
+            recQueue = new LinkedBlockingQueue<GridEvent>(recBatchSize * MAX_QUEUED_BATCHES);
+
+            recThread = new GridThread(new RecordWorker());
+
+            recThread.start();
+        }
+
         msgLsnr = new RequestListener();
 
         ctx.io().addMessageListener(TOPIC_EVENT, msgLsnr);
@@ -195,13 +274,21 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
             int type = evt.type();
 
             // Override user recordable settings for daemon node.
-            if ((isDaemon || isUserRecordable(type)) && !isHiddenEvent(type))
-                try {
-                    getSpi().record(evt);
-                }
-                catch (GridSpiException e) {
-                    U.error(log, "Failed to record event: " + evt, e);
+            if (isSpiRecordable(type)) {
+                if (recQueue != null) {
+                    try {
+                        // Blocks if recording thread falls behind.
+                        recQueue.put(evt);
+                    }
+                    catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+
+                        recordToSpi(evt);
+                    }
                 }
+                else
+                    recordToSpi(evt);
+            }
 
             if (isRecordable(type))
                 notifyListeners(evt);
@@ -211,6 +298,84 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         }
     }
 
+    /**
+     * @param evt Event to pass to SPI.
+     */
+    private void recordToSpi(GridEvent evt) {
+        try {
+            getSpi().record(evt);
+        }
+        catch (GridSpiException e) {
+            U.error(log, "Failed to record event: " + evt, e);
+        }
+    }
+
+    /**
+     * @param evts Events to pass to SPI.
+     */
+    private void recordToSpi(Iterable<GridEvent> evts) {
+        for (GridEvent evt : evts)
+            recordToSpi(evt);
+    }
+
+    /**
+     * Checks whether event of given type will be either passed to SPI or delivered
+     * to at least one local listener. Callers on hot paths should check this before
+     * creating event object, as it is cheaper than creating and discarding it.
+     *
+     * @param type Event type to check.
+     * @return {@code True} if event of given type is needed by anyone.
+     */
+    public boolean hasInterest(int type) {
+        if (type >= 0 && type < BITS_CNT)
+            return get(interestBits, type);
+
+        return isSpiRecordable(type) || (isRecordable(type) && lsnrs.containsKey(type));
+    }
+
+    /**
+     * @param type Event type.
+     * @return {@code True} if event of given type should be passed to SPI.
+     */
+    private boolean isSpiRecordable(int type) {
+        if (type >= 0 && type < BITS_CNT)
+            return get(spiBits, type);
+
+        return (isDaemon || isUserRecordable(type)) && !isHiddenEvent(type);
+    }
+
+    /**
+     * Recalculates types of events with interest. Must be called under {@link #lsnrMux}.
+     */
+    private void updateInterest() {
+        assert Thread.holdsLock(lsnrMux);
+
+        long[] bits = spiBits.clone();
+
+        for (Integer type : lsnrs.keySet())
+            if (type >= 0 && type < BITS_CNT && get(recBits, type))
+                set(bits, type);
+
+        interestBits = bits;
+    }
+
+    /**
+     * @param bits Bit set.
+     * @param type Event type.
+     * @return {@code True} if bit for given type is set.
+     */
+    private static boolean get(long[] bits, int type) {
+        return (bits[type >>> 6] & (1L << type)) != 0;
+    }
+
+    /**
+     * @param bits Bit set.
+     * @param type Event type.
+     */
+    private static void set(long[] bits, int type) {
+        bits[type >>> 6] |= 1L << type;
+    }
+
     /**
      *
      * @param type Event type.
@@ -250,6 +415,9 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
      * @return Whether or not this event type should be recorded.
      */
     public boolean isRecordable(int type) {
+        if (type >= 0 && type < BITS_CNT)
+            return get(recBits, type);
+
         return isInternalEvent(type) || isUserRecordable(type);
     }
 
@@ -268,8 +436,12 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
         if (enterBusy())
             try {
-                for (int t : types)
-                    getOrCreate(t).add(lsnr);
+                synchronized (lsnrMux) {
+                    for (int t : types)
+                        addListener0(t, lsnr);
+
+                    updateInterest();
+                }
             }
             finally {
                 leaveBusy();
@@ -282,10 +454,14 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
         if (enterBusy())
             try {
-                getOrCreate(type).add(lsnr);
+                synchronized (lsnrMux) {
+                    addListener0(type, lsnr);
 
-                for (int t : types)
-                    getOrCreate(t).add(lsnr);
+                    for (int t : types)
+                        addListener0(t, lsnr);
+
+                    updateInterest();
+                }
             }
             finally {
                 leaveBusy();
@@ -293,24 +469,48 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     }
 
     /**
+     * Adds listener to listeners array of given event type. Must be called under {@link #lsnrMux}.
+     *
      * @param type Event type.
-     * @return Listeners for given event type.
+     * @param lsnr Listener to add.
      */
-    private Collection<GridLocalEventListener> getOrCreate(Integer type) {
-        Set<GridLocalEventListener> set = lsnrs.get(type);
+    private void addListener0(int type, GridLocalEventListener lsnr) {
+        assert Thread.holdsLock(lsnrMux);
 
-        if (set == null) {
-            set = new GridConcurrentHashSet<GridLocalEventListener>();
+        GridLocalEventListener[] arr = lsnrs.get(type);
 
-            Set<GridLocalEventListener> prev = lsnrs.putIfAbsent(type, set);
+        if (arr == null)
+            lsnrs.put(type, new GridLocalEventListener[] {lsnr});
+        else if (!ArrayUtils.contains(arr, lsnr))
+            lsnrs.put(type, (GridLocalEventListener[])ArrayUtils.add(arr, lsnr));
+    }
 
-            if (prev != null)
-                set = prev;
-        }
+    /**
+     * Removes listener from listeners array of given event type. Must be called under {@link #lsnrMux}.
+     *
+     * @param type Event type.
+     * @param lsnr Listener to remove.
+     * @return {@code True} if listener was removed.
+     */
+    private boolean removeListener0(int type, GridLocalEventListener lsnr) {
+        assert Thread.holdsLock(lsnrMux);
+
+        GridLocalEventListener[] arr = lsnrs.get(type);
+
+        if (arr == null)
+            return false;
 
-        assert set != null;
+        int idx = ArrayUtils.indexOf(arr, lsnr);
 
-        return set;
+        if (idx < 0)
+            return false;
+
+        if (arr.length == 1)
+            lsnrs.remove(type);
+        else
+            lsnrs.put(type, (GridLocalEventListener[])ArrayUtils.remove(arr, idx));
+
+        return true;
     }
 
     /**
@@ -326,20 +526,22 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
         boolean found = false;
 
-        if (F.isEmpty(types)) {
-            for (Set<GridLocalEventListener> set : lsnrs.values())
-                if (set.remove(lsnr))
-                    found = true;
-        }
-        else {
-            assert types != null;
-
-            for (int type : types) {
-                Set<GridLocalEventListener> set = lsnrs.get(type);
+        synchronized (lsnrMux) {
+            if (F.isEmpty(types)) {
+                for (Integer type : lsnrs.keySet())
+                    if (removeListener0(type, lsnr))
+                        found = true;
+            }
+            else {
+                assert types != null;
 
-                if (set != null && set.remove(lsnr))
-                    found = true;
+                for (int type : types)
+                    if (removeListener0(type, lsnr))
+                        found = true;
             }
+
+            if (found)
+                updateInterest();
         }
 
         return found;
@@ -413,16 +615,14 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     }
 
     /**
-     * @param set Set of listeners.
+     * @param arr Array of listeners.
      * @param evt Grid event.
      */
-    private void notifyListeners(@Nullable Collection<GridLocalEventListener> set, GridEvent evt) {
+    private void notifyListeners(@Nullable GridLocalEventListener[] arr, GridEvent evt) {
         assert evt != null;
 
-        if (!F.isEmpty(set)) {
-            assert set != null;
-
-            for (GridLocalEventListener lsnr : set)
+        if (arr != null) {
+            for (GridLocalEventListener lsnr : arr)
                 try {
                     lsnr.onEvent(evt);
                 }
@@ -628,6 +828,33 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         return evts;
     }
 
+    /**
+     * Passes queued events to SPI in batches.
+     */
+    private class RecordWorker extends GridWorker {
+        /**
+         * Default constructor.
+         */
+        private RecordWorker() {
+            super(ctx.gridName(), REC_THREAD_NAME, log);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, GridInterruptedException {
+            Collection<GridEvent> batch = new ArrayList<GridEvent>(recBatchSize);
+
+            while (!isCancelled()) {
+                batch.add(recQueue.take());
+
+                recQueue.drainTo(batch, recBatchSize - 1);
+
+                recordToSpi(batch);
+
+                batch.clear();
+            }
+        }
+    }
+
     /**
      *
      */
@@ -105,9 +105,18 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
      * @param ctx Cache registry.
      * @param startSize Start size.
      */
-    @SuppressWarnings({"OverriddenMethodCallDuringObjectConstruction"})
     protected GridCacheAdapter(GridCacheContext<K, V> ctx, int startSize) {
+        this(ctx, new GridCacheConcurrentMap<K, V>(ctx, startSize, 0.75F));
+    }
+
+    /**
+     * @param ctx Cache registry.
+     * @param map Concurrent map.
+     */
+    @SuppressWarnings({"OverriddenMethodCallDuringObjectConstruction"})
+    protected GridCacheAdapter(GridCacheContext<K, V> ctx, GridCacheConcurrentMap<K, V> map) {
         assert ctx != null;
+        assert map != null;
 
         this.ctx = ctx;
 
@@ -116,7 +125,7 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
         locNodeId = ctx.gridConfig().getNodeId();
 
-        map = new GridCacheConcurrentMap<K, V>(ctx, startSize, 0.75F);
+        this.map = map;
 
         log = ctx.gridConfig().getGridLogger().getLogger(getClass());
 
@@ -66,6 +66,9 @@ public class GridCacheConcurrentMap<K, V> {
     /** The segments, each of which is a specialized hash table. */
     private final Segment[] segs;
 
+    /** Number of partitions if map is segmented by partition, {@code 0} otherwise. */
+    private final int parts;
+
     /** */
     private GridCacheMapEntryFactory<K, V> factory;
 
@@ -120,13 +123,16 @@ public class GridCacheConcurrentMap<K, V> {
     }
 
     /**
-     * Returns the segment that should be used for key with given hash
+     * Returns the segment that should be used for key with given hash. If map
+     * is segmented by partition, then segment is chosen by key partition.
      *
+     * @param key The key.
      * @param hash The hash code for the key.
      * @return The segment.
      */
-    private Segment segmentFor(int hash) {
-        return segs[(hash >>> segShift) & segMask];
+    @SuppressWarnings({"unchecked"})
+    private Segment segmentFor(Object key, int hash) {
+        return parts > 0 ? segs[ctx.partition((K)key)] : segs[(hash >>> segShift) & segMask];
     }
 
     /**
@@ -142,16 +148,19 @@ public class GridCacheConcurrentMap<K, V> {
      * @param concurrencyLevel the estimated number of concurrently
      *      updating threads. The implementation performs internal sizing
      *      to try to accommodate this many threads.
+     * @param parts Number of partitions to segment map by, or {@code 0}
+     *      if segments should be chosen by key hash.
      * @throws IllegalArgumentException if the initial capacity is
      *      negative or the load factor or concurrencyLevel are
      *      non-positive.
      */
     @SuppressWarnings({"unchecked"})
     private GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, float loadFactor,
-        int concurrencyLevel) {
+        int concurrencyLevel, int parts) {
         this.ctx = ctx;
+        this.parts = parts;
 
-        if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0)
+        if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0 || parts < 0 || parts > MAX_SEGS)
             throw new IllegalArgumentException();
 
         if (concurrencyLevel > MAX_SEGS)
@@ -168,6 +177,11 @@ public class GridCacheConcurrentMap<K, V> {
 
         segShift = 32 - sshift;
         segMask = ssize - 1;
+
+        // Partitioned map has exactly one segment per partition.
+        if (parts > 0)
+            ssize = parts;
+
         segs = (Segment[])Array.newInstance(Segment.class, ssize);
 
         if (initialCapacity > MAX_CAP)
@@ -204,7 +218,28 @@ public class GridCacheConcurrentMap<K, V> {
      *      elements is negative or the load factor is non-positive.
      */
     public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, float loadFactor) {
-        this(ctx, initialCapacity, loadFactor, DFLT_CONCUR_LEVEL);
+        this(ctx, initialCapacity, loadFactor, DFLT_CONCUR_LEVEL, 0);
+    }
+
+    /**
+     * Creates a new, empty map segmented by key partition, so that all entries
+     * of the same partition reside in the same segment and can be accessed
+     * without scanning the whole map.
+     *
+     * @param ctx Cache context.
+     * @param initialCapacity The implementation performs internal
+     *      sizing to accommodate this many elements.
+     * @param loadFactor  the load factor threshold, used to control resizing.
+     * @param parts Number of partitions.
+     * @throws IllegalArgumentException if the initial capacity of
+     *      elements is negative, the load factor or number of partitions
+     *      is non-positive.
+     */
+    public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, float loadFactor, int parts) {
+        this(ctx, initialCapacity, loadFactor, DFLT_CONCUR_LEVEL, parts);
+
+        if (parts == 0)
+            throw new IllegalArgumentException();
     }
 
     /**
@@ -218,7 +253,7 @@ public class GridCacheConcurrentMap<K, V> {
      *      elements is negative.
      */
     public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity) {
-        this(ctx, initialCapacity, DFLT_LOAD_FACTOR, DFLT_CONCUR_LEVEL);
+        this(ctx, initialCapacity, DFLT_LOAD_FACTOR, DFLT_CONCUR_LEVEL, 0);
     }
 
     /**
@@ -271,6 +306,19 @@ public class GridCacheConcurrentMap<K, V> {
         return mapPubSize.get();
     }
 
+    /**
+     * Gets snapshot of entries in given partition, including internal entries
+     * and obsolete entries which have not been removed from map yet.
+     *
+     * @param part Partition.
+     * @return Entries of partition.
+     */
+    public Collection<GridCacheMapEntry<K, V>> partitionEntries(int part) {
+        assert parts > 0 : "Map is not segmented by partition.";
+
+        return segs[part].entries();
+    }
+
     /**
      * @param key Key.
      * @return {@code True} if map contains mapping for provided key.
@@ -278,7 +326,7 @@ public class GridCacheConcurrentMap<K, V> {
     public boolean containsKey(Object key) {
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).containsKey(key, hash);
+        return segmentFor(key, hash).containsKey(key, hash);
     }
 
     /**
@@ -342,7 +390,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).get(key, hash);
+        return segmentFor(key, hash).get(key, hash);
     }
 
     /**
@@ -357,7 +405,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).put(key, hash, val, topVer, ttl);
+        return segmentFor(key, hash).put(key, hash, val, topVer, ttl);
     }
 
     /**
@@ -375,7 +423,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).putIfObsolete(key, hash, val, topVer, ttl, create);
+        return segmentFor(key, hash).putIfObsolete(key, hash, val, topVer, ttl, create);
     }
 
     /**
@@ -405,7 +453,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, null);
+        return segmentFor(key, hash).remove(key, hash, null);
     }
 
     /**
@@ -421,7 +469,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, same(e)) != null;
+        return segmentFor(key, hash).remove(key, hash, same(e)) != null;
     }
 
     /**
@@ -450,7 +498,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, obsolete);
+        return segmentFor(key, hash).remove(key, hash, obsolete);
     }
 
     /**
@@ -1281,6 +1329,25 @@ public class GridCacheConcurrentMap<K, V> {
             return segPubSize;
         }
 
+        /**
+         * @return Snapshot of all entries within segment.
+         */
+        Collection<GridCacheMapEntry<K, V>> entries() {
+            Bucket<K, V>[] tab = table;
+
+            Collection<GridCacheMapEntry<K, V>> entries = new ArrayList<GridCacheMapEntry<K, V>>(segSize);
+
+            for (Bucket<K, V> bucket : tab) {
+                if (bucket == null)
+                    continue;
+
+                for (HashEntry<K, V> e = bucket.entry(); e != null; e = e.next)
+                    entries.add(e.val);
+            }
+
+            return entries;
+        }
+
         /**
          * @return Random cache map entry from this segment.
          */
@@ -1414,6 +1414,14 @@ public class GridCacheContext<K, V> implements Externalizable {
 
     }
 
+    /**
+     * @return {@code True} if near readers are invalidated in batches after commit
+     *      instead of being mapped to transactions.
+     */
+    public boolean isNearInvalidationBatched() {
+        return cacheCfg.getNearInvalidationWindow() > 0;
+    }
+
     /**
      * @return {@code true} if synchronous commit is enabled.
      */
@@ -1446,7 +1454,8 @@ public class GridCacheContext<K, V> implements Externalizable {
         if (log.isDebugEnabled())
             log.debug("Mapping entry to DHT nodes [nodes=" + U.nodeIds(dhtNodes) + ", entry=" + entry + ']');
 
-        Collection<UUID> readers = entry.readers();
+        // Batched invalidations are sent to readers after commit.
+        Collection<UUID> readers = isNearInvalidationBatched() ? null : entry.readers();
 
         Collection<GridNode> nearNodes = null;
 
@@ -1505,6 +1514,16 @@ public class GridCacheContext<K, V> implements Externalizable {
         return timeout < 0 ? Long.MAX_VALUE : timeout;
     }
 
+    /**
+     * @return Time node executing query waits for querying node to consume previously sent
+     * result pages before query is stopped. We make it {@code 4} times bigger than network timeout.
+     */
+    public long queryIdleTimeout() {
+        long timeout = gridConfig().getNetworkTimeout() * 4;
+
+        return timeout <= 0 ? Long.MAX_VALUE : timeout;
+    }
+
     /**
      * Waits for partition locks and transactions release.
      *
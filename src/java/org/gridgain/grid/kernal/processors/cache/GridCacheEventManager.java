@@ -52,6 +52,17 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         cctx.gridEvents().removeLocalEventListener(lsnr);
     }
 
+    /**
+     * Checks whether event of given type is needed by event storage SPI or local
+     * listeners, so that event object is not created in vain.
+     *
+     * @param type Event type.
+     * @return {@code True} if event of given type should be created.
+     */
+    public boolean isRecordable(int type) {
+        return cctx.gridEvents().hasInterest(type);
+    }
+
     /**
      * @param part Partition.
      * @param key Key for the event.
@@ -93,6 +104,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
      */
     public void addEvent(int part, K key, UUID evtNodeId, GridCacheMvccCandidate<K> owner,
         int type, V newVal, V oldVal) {
+        if (!isRecordable(type))
+            return;
+
         GridCacheTx tx = owner == null ? null : cctx.tm().tx(owner.version());
 
         addEvent(part, key, evtNodeId, tx == null ? null : tx.xid(), owner == null ? null : owner.id(), type,
@@ -114,7 +128,7 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         assert key != null;
 
         // Events are not made for internal entry.
-        if (!(key instanceof GridCacheInternal))
+        if (!(key instanceof GridCacheInternal) && isRecordable(type))
             cctx.gridEvents().record(new GridCacheEvent(cctx.name(), cctx.nodeId(), evtNodeId,
                 "Cache event.", type, part, cctx.isNear(), key, xid, lockId, newVal, oldVal));
     }
@@ -134,6 +148,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         assert discoType > 0;
         assert discoTimestamp > 0;
 
+        if (!isRecordable(type))
+            return;
+
         cctx.gridEvents().record(new GridCachePreloadEvent(cctx.name(), locNodeId, "Cache preloading event.",
             type, part, discoNode, discoType, discoTimestamp));
     }
@@ -11,6 +11,8 @@ package org.gridgain.grid.kernal.processors.cache;
 
 import org.gridgain.grid.*;
 import org.gridgain.grid.cache.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader.*;
+import org.jetbrains.annotations.*;
 
 /**
  * Management bean that provides access to {@link GridCache}.
@@ -199,4 +201,66 @@ class GridCacheMBeanAdapter implements GridCacheMBean {
     @Override public int getWriteFromBehindBufferSize() {
         return store != null ? store.getWriteFromBehindBufferSize() : -1;
     }
+
+    /** {@inheritDoc} */
+    @Override public double getWriteFromBehindCoalescingRatio() {
+        return store != null ? store.getWriteFromBehindCoalescingRatio() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getWriteFromBehindAverageFlushLatency() {
+        return store != null ? store.getWriteFromBehindAverageFlushLatency() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getPreloadTotalPartitions() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadTotalPartitions() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getPreloadRemainingPartitions() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadRemainingPartitions() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadReceivedBytes() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadReceivedBytes() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadRate() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadRate() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadEstimatedTimeRemaining() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadEstimatedTimeRemaining() : -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getPreloadSuppliedBytes() {
+        GridDhtPreloader<?, ?> preloader = preloader();
+
+        return preloader != null ? preloader.preloadSuppliedBytes() : -1;
+    }
+
+    /**
+     * @return DHT preloader or {@code null} if cache is not partitioned.
+     */
+    @Nullable private GridDhtPreloader<?, ?> preloader() {
+        if (cctx.isNear())
+            return dhtCtx.dht().dhtPreloader();
+
+        return cctx.isDht() ? cctx.dht().dhtPreloader() : null;
+    }
 }
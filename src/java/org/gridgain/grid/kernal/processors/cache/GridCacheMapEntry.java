@@ -704,9 +704,9 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
                 assert tx == null || tx.ownsLock(this) : "Transaction does not own lock for update [entry=" + this +
                     ", tx=" + tx + ']';
 
-                // For EVENTUALLY_CONSISTENT transactions change state only if the
-                // version is higher.
-                if (tx != null && tx.ec() && tx.commitVersion().compareTo(ver) < 0)
+                // For EVENTUALLY_CONSISTENT transactions and for replicated caches locked
+                // on primary nodes only, change state only if the version is higher.
+                if (tx != null && versionOrdered(tx) && tx.commitVersion().compareTo(ver) < 0)
                     return new T2<Boolean, V>(true, this.val);
 
                 // Load and remove from swap if it is new.
@@ -781,9 +781,9 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
                 assert tx == null || tx.ownsLock(this) : "Transaction does not own lock for remove [entry=" + this +
                     ", tx=" + tx + ']';
 
-                // For EVENTUALLY_CONSISTENT transactions change state only if the
-                // version is higher.
-                if (tx != null && tx.ec() && tx.commitVersion().compareTo(ver) < 0)
+                // For EVENTUALLY_CONSISTENT transactions and for replicated caches locked
+                // on primary nodes only, change state only if the version is higher.
+                if (tx != null && versionOrdered(tx) && tx.commitVersion().compareTo(ver) < 0)
                     return new T2<Boolean, V>(true, val);
 
                 // Release swap if needed.
@@ -973,9 +973,19 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         return markObsolete(ver, false);
     }
 
+    /**
+     * Callback invoked outside of entry lock once entry has become obsolete. It is
+     * invoked exactly once per entry and is not invoked for entries which are already obsolete.
+     */
+    protected void onMarkedObsolete() {
+        // No-op.
+    }
+
     /** {@inheritDoc} */
     @Override public boolean markObsolete(GridCacheVersion ver, boolean clear) {
         if (ver != null) {
+            boolean marked = false;
+
             lock();
 
             try {
@@ -986,17 +996,22 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
                 if (mvcc.isEmpty(ver)) {
                     obsoleteVer = ver;
 
+                    marked = true;
+
                     if (clear) {
                         val = null;
                         valBytes = null;
                     }
                 }
-
-                return obsoleteVer != null;
             }
             finally {
                 unlock();
             }
+
+            if (marked)
+                onMarkedObsolete();
+
+            return marked;
         }
         else {
             lock();
@@ -1208,6 +1223,18 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         return expireTime;
     }
 
+    /**
+     * Checks whether updates of given transaction are applied in order of commit versions.
+     * Replicas of caches locked on primary nodes only may receive commits of concurrent
+     * transactions in different order, so older commit must not override newer one.
+     *
+     * @param tx Transaction.
+     * @return {@code True} if update is skipped when entry has newer version.
+     */
+    private boolean versionOrdered(GridCacheTxEx<K, V> tx) {
+        return tx.ec() || (cctx.isReplicated() && cctx.config().isReplicatedPrimaryLocking());
+    }
+
     /**
      * @throws GridCacheEntryRemovedException If entry is obsolete.
      */
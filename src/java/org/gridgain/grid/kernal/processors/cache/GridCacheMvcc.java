@@ -42,11 +42,19 @@ public final class GridCacheMvcc<K> {
     @GridToStringExclude
     private final GridLogger log;
 
-    /** Local queue. */
+    /** Single local candidate, set only while there is no local queue. */
+    @GridToStringInclude
+    private GridCacheMvccCandidate<K> loc;
+
+    /** Local queue, created only when more than one local candidate is present. */
     @GridToStringInclude
     private LinkedList<GridCacheMvccCandidate<K>> locs;
 
-    /** Remote queue. */
+    /** Single remote candidate, set only while there is no remote queue. */
+    @GridToStringInclude
+    private GridCacheMvccCandidate<K> rmt;
+
+    /** Remote queue, created only when more than one remote candidate is present. */
     @GridToStringInclude
     private LinkedList<GridCacheMvccCandidate<K>> rmts;
 
@@ -78,15 +86,9 @@ public final class GridCacheMvcc<K> {
      *      as <tt>'used'</tt>.
      */
     @Nullable public GridCacheMvccCandidate<K> remoteOwner() {
-        if (rmts != null) {
-            assert !rmts.isEmpty();
-
-            GridCacheMvccCandidate<K> first = rmts.getFirst();
+        GridCacheMvccCandidate<K> first = firstRemote();
 
-            return first.used() && first.owner() ? first : null;
-        }
-
-        return null;
+        return first != null && first.used() && first.owner() ? first : null;
     }
 
     /**
@@ -94,15 +96,9 @@ public final class GridCacheMvcc<K> {
      *      as <tt>'owner'</tt>.
      */
     @Nullable public GridCacheMvccCandidate<K> localOwner() {
-        if (locs != null) {
-            assert !locs.isEmpty();
-
-            GridCacheMvccCandidate<K> first = locs.getFirst();
-
-            return first.owner() ? first : null;
-        }
+        GridCacheMvccCandidate<K> first = firstLocal();
 
-        return null;
+        return first != null && first.owner() ? first : null;
     }
 
     /**
@@ -129,6 +125,9 @@ public final class GridCacheMvcc<K> {
      * @return Local candidate for the thread.
      */
     @Nullable private GridCacheMvccCandidate<K> localCandidate(long threadId, boolean reentry) {
+        if (loc != null)
+            return loc.threadId() == threadId && (!loc.reentry() || reentry) ? loc : null;
+
         if (locs != null)
             for (GridCacheMvccCandidate<K> cand : locs) {
                 if (cand.threadId() == threadId) {
@@ -150,8 +149,17 @@ public final class GridCacheMvcc<K> {
 
         // Local.
         if (cand.local()) {
-            if (locs == null)
-                locs = new LinkedList<GridCacheMvccCandidate<K>>();
+            // Uncontended case: keep the only candidate inline.
+            if (loc == null && locs == null) {
+                loc = cand;
+
+                if (cand.ec())
+                    reassign();
+
+                return;
+            }
+
+            inflateLocals();
 
             if (!locs.isEmpty()) {
                 GridCacheMvccCandidate<K> c = locs.getFirst();
@@ -207,13 +215,11 @@ public final class GridCacheMvcc<K> {
         }
         // Remote.
         else {
-            if (rmts == null)
-                rmts = new LinkedList<GridCacheMvccCandidate<K>>();
-
             assert cand.ec() || !cand.owner() || localOwner() == null : "Cannot have local and remote owners " +
-                "at the same time [cand=" + cand + ", locs=" + locs + ", rmts=" + rmts + ']';
+                "at the same time [cand=" + cand + ", loc=" + loc + ", locs=" + locs + ", rmt=" + rmt +
+                ", rmts=" + rmts + ']';
 
-            GridCacheMvccCandidate<K> cur = candidate(rmts, cand.version());
+            GridCacheMvccCandidate<K> cur = remoteCandidate(cand.version());
 
             // For existing candidates, we only care about owners and keys.
             if (cur != null) {
@@ -223,6 +229,18 @@ public final class GridCacheMvcc<K> {
                 return;
             }
 
+            // Uncontended case: keep the only candidate inline.
+            if (rmt == null && rmts == null) {
+                rmt = cand;
+
+                if (cand.ec())
+                    reassign();
+
+                return;
+            }
+
+            inflateRemotes();
+
             // Only add if one does not exist yet.
             for (ListIterator<GridCacheMvccCandidate<K>> it = rmts.listIterator(); it.hasNext(); ) {
                 GridCacheMvccCandidate<K> c = it.next();
@@ -253,41 +271,54 @@ public final class GridCacheMvcc<K> {
      */
     private void remove0(GridCacheVersion ver, boolean preferLocal) {
         if (preferLocal) {
-            if (!remove0(locs, ver))
-                remove0(rmts, ver);
+            if (!remove0(true, ver))
+                remove0(false, ver);
         }
-        else if (!remove0(rmts, ver))
-            remove0(locs, ver);
-
-        if (locs != null && locs.isEmpty())
-            locs = null;
-
-        if (rmts != null && rmts.isEmpty())
-            rmts = null;
+        else if (!remove0(false, ver))
+            remove0(true, ver);
     }
 
     /**
-     * Removes candidate from collection.
+     * Removes local or remote candidate.
      *
-     * @param col Collection.
+     * @param local {@code True} to remove local candidate, {@code false} to remove remote one.
      * @param ver Version of the candidate to remove.
      * @return {@code True} if candidate was removed.
      */
-    private boolean remove0(Collection<GridCacheMvccCandidate<K>> col, GridCacheVersion ver) {
+    private boolean remove0(boolean local, GridCacheVersion ver) {
+        GridCacheMvccCandidate<K> single = local ? loc : rmt;
+
+        if (single != null) {
+            if (!single.version().equals(ver))
+                return false;
+
+            if (local)
+                loc = null;
+            else
+                rmt = null;
+
+            onRemoved(single);
+
+            return true;
+        }
+
+        Collection<GridCacheMvccCandidate<K>> col = local ? locs : rmts;
+
         if (col != null) {
             for (Iterator<GridCacheMvccCandidate<K>> it = col.iterator(); it.hasNext(); ) {
                 GridCacheMvccCandidate<K> cand = it.next();
 
                 if (cand.version().equals(ver)) {
-                    cand.setUsed();
-                    cand.setRemoved();
-
                     it.remove();
 
-                    reassign();
+                    if (col.isEmpty()) {
+                        if (local)
+                            locs = null;
+                        else
+                            rmts = null;
+                    }
 
-                    if (cand.local())
-                        cctx.mvcc().removeLocal(cand);
+                    onRemoved(cand);
 
                     return true;
                 }
@@ -297,21 +328,67 @@ public final class GridCacheMvcc<K> {
         return false;
     }
 
+    /**
+     * @param cand Candidate that has just been removed from this MVCC.
+     */
+    private void onRemoved(GridCacheMvccCandidate<K> cand) {
+        cand.setUsed();
+        cand.setRemoved();
+
+        reassign();
+    }
+
+    /**
+     * Moves inline local candidate, if any, into local queue.
+     */
+    private void inflateLocals() {
+        if (locs == null) {
+            locs = new LinkedList<GridCacheMvccCandidate<K>>();
+
+            if (loc != null) {
+                locs.add(loc);
+
+                loc = null;
+            }
+        }
+    }
+
+    /**
+     * Moves inline remote candidate, if any, into remote queue.
+     */
+    private void inflateRemotes() {
+        if (rmts == null) {
+            rmts = new LinkedList<GridCacheMvccCandidate<K>>();
+
+            if (rmt != null) {
+                rmts.add(rmt);
+
+                rmt = null;
+            }
+        }
+    }
+
     /**
      *
      * @param exclude Versions to exclude form check.
      * @return {@code True} if lock is empty.
      */
     public boolean isEmpty(GridCacheVersion... exclude) {
-        if (locs == null && rmts == null)
+        if (loc == null && locs == null && rmt == null && rmts == null)
             return true;
 
+        if (F.isEmpty(exclude))
+            return false;
+
+        if (loc != null && !U.containsObjectArray(exclude, loc.version()))
+            return false;
+
+        if (rmt != null && !U.containsObjectArray(exclude, rmt.version()))
+            return false;
+
         if (locs != null) {
             assert !locs.isEmpty();
 
-            if (F.isEmpty(exclude))
-                return false;
-
             for (GridCacheMvccCandidate<K> cand : locs)
                 if (!U.containsObjectArray(exclude, cand.version()))
                     return false;
@@ -320,9 +397,6 @@ public final class GridCacheMvcc<K> {
         if (rmts != null) {
             assert !rmts.isEmpty();
 
-            if (F.isEmpty(exclude))
-                return false;
-
             for (GridCacheMvccCandidate<K> cand : rmts)
                 if (!U.containsObjectArray(exclude, cand.version()))
                     return false;
@@ -345,7 +419,32 @@ public final class GridCacheMvcc<K> {
         Collection<GridCacheVersion> committedVers, Collection<GridCacheVersion> rolledbackVers) {
         assert baseVer != null;
 
-        if (rmts != null && !F.isEmpty(committedVers)) {
+        if (rmt != null && !F.isEmpty(committedVers)) {
+            // With only one remote candidate there is nothing to reorder.
+            if (committedVers.contains(rmt.version())) {
+                // If base is completed, then set it to owner too.
+                if (rmt.version().equals(baseVer))
+                    rmt.setOwner();
+                // EC transactions don't become owners here.
+                else if (!rmt.ec()) {
+                    rmt.setOwner();
+
+                    assert localOwner() == null : "Cannot not have local owner and remote completed " +
+                        "transactions at the same time [baseVer=" + baseVer + ", committedVers=" + committedVers +
+                        ", rolledbackVers=" + rolledbackVers + ", localOwner=" + localOwner() + ", loc=" + loc +
+                        ", locs=" + locs + ", rmt=" + rmt + ']';
+                }
+            }
+
+            if (!F.isEmpty(rolledbackVers) && rolledbackVers.contains(rmt.version())) {
+                rmt.setUsed(); // Mark as used to be consistent, even though we are about to remove it.
+
+                rmt = null;
+            }
+            else if (rmt.ec())
+                reassign();
+        }
+        else if (rmts != null && !F.isEmpty(committedVers)) {
             Deque<GridCacheMvccCandidate<K>> mvAfter = null;
 
             int maxIdx = -1;
@@ -517,7 +616,7 @@ public final class GridCacheMvcc<K> {
         // If there are pending locks and timeout is negative,
         // then we give up right away.
         if (timeout < 0) {
-            if (locs != null || rmts != null) {
+            if (!isEmpty()) {
                 GridCacheMvccCandidate<K> owner = localOwner();
 
                 // Only proceed if this is a re-entry.
@@ -532,8 +631,6 @@ public final class GridCacheMvcc<K> {
         GridCacheMvccCandidate<K> cand = new GridCacheMvccCandidate<K>(parent, locNodeId, nearNodeId, nearVer, threadId,
             ver, timeout, /*local*/true, /*reenter*/false, ec, tx, implicitSingle, /*near-local*/false, dhtLocal);
 
-        cctx.mvcc().addLocal(cand);
-
         if (ec)
             cand.setReady();
 
@@ -630,7 +727,7 @@ public final class GridCacheMvcc<K> {
         if (log.isDebugEnabled())
             log.debug("Setting remote candidate to done [mvcc=" + this + ", ver=" + ver + "]");
 
-        GridCacheMvccCandidate<K> cand = candidate(rmts, ver);
+        GridCacheMvccCandidate<K> cand = remoteCandidate(ver);
 
         if (cand != null) {
             assert !cand.local() : "Remote candidate is marked as local: " + cand;
@@ -638,8 +735,8 @@ public final class GridCacheMvcc<K> {
             cand.setOwner();
             cand.setUsed();
 
-            if (cand.nearLocal()) {
-                assert rmts != null;
+            // Reordering is only needed if there are other remote candidates.
+            if (cand.nearLocal() && rmts != null) {
                 assert !rmts.isEmpty();
 
                 List<GridCacheMvccCandidate<K>> mvAfter = null;
@@ -676,9 +773,19 @@ public final class GridCacheMvcc<K> {
      * Assigns local lock.
      */
     private void reassign() {
-        GridCacheMvccCandidate<K> firstRmt = null;
+        GridCacheMvccCandidate<K> firstRmt = rmt;
 
-        if (rmts != null) {
+        if (rmt != null) {
+            // If there is a remote owner, then local cannot be an owner,
+            // so no reassignment happens.
+            if (rmt.owner()) {
+                if (rmt.ec())
+                    rmt.setUsed();
+
+                return;
+            }
+        }
+        else if (rmts != null) {
             for (GridCacheMvccCandidate<K> cand : rmts) {
                 if (firstRmt == null)
                     firstRmt = cand;
@@ -697,7 +804,23 @@ public final class GridCacheMvcc<K> {
             }
         }
 
-        if (locs != null) {
+        if (loc != null) {
+            if (loc.owner())
+                return;
+
+            if (loc.ready()) {
+                GridCacheMvccCandidate<K> prev = nonRollbackPrevious(loc);
+
+                // If previous has not been acquired, this candidate cannot acquire lock yet.
+                if (prev == null || prev.owner()) {
+                    // No need to reposition the only local candidate.
+                    assignLocal(loc, prev, firstRmt);
+
+                    return;
+                }
+            }
+        }
+        else if (locs != null) {
             for (ListIterator<GridCacheMvccCandidate<K>> it = locs.listIterator(); it.hasNext(); ) {
                 GridCacheMvccCandidate<K> cand = it.next();
 
@@ -712,94 +835,108 @@ public final class GridCacheMvcc<K> {
                     if (prev != null && !prev.owner())
                         continue;
 
-                    boolean assigned = false;
-
-                    if (firstRmt != null && cand.version().isGreater(firstRmt.version())) {
-                        // Check previous candidates for 2 cases:
-                        // 1. If this candidate is waiting for a smaller remote version,
-                        //    then we must check if previous candidate is the owner and
-                        //    has the same remote candidate version. In that case, we can
-                        //    safely set this candidate to owner as well.
-                        // 2. If this candidate is waiting for a smaller remote version,
-                        //    then we must check if previous candidate is the owner and
-                        //    any of the local candidates with versions smaller than first
-                        //    remote version have the same key as the previous owner. In
-                        //    that case, we can safely set this candidate to owner as well.
-                        while (prev != null && prev.owner()) {
-                            for (GridCacheMvccCandidate<K> c : prev.parent().remoteMvccSnapshot()) {
-                                if (c.version().equals(firstRmt.version())) {
-                                    cand.setOwner();
-
-                                    assigned = true;
-
-                                    break; // For.
-                                }
-                            }
-
-                            if (!assigned) {
-                                for (GridCacheMvccCandidate<K> c : locs) {
-                                    if (c == cand || c.version().isGreater(firstRmt.version()))
-                                        break;
+                    if (assignLocal(cand, prev, firstRmt)) {
+                        it.remove();
 
-                                    for (GridCacheMvccCandidate<K> p = c.previous(); p != null; p = p.previous()) {
-                                        if (p.key().equals(prev.key())) {
-                                            cand.setOwner();
+                        // Owner must be first in the list.
+                        locs.addFirst(cand);
+                    }
 
-                                            assigned = true;
+                    return;
+                }
+            }
+        }
 
-                                            break; // For.
-                                        }
-                                    }
+        // Automatically assign EC locks.
+        if (firstRmt != null && firstRmt.ec()) {
+            firstRmt.setOwner();
+            firstRmt.setUsed();
+        }
+    }
 
-                                    if (assigned)
-                                        break; // For.
-                                }
-                            }
+    /**
+     * Tries to make ready local candidate an owner.
+     *
+     * @param cand Ready local candidate.
+     * @param prev First predecessor of the candidate that is owner or is not used.
+     * @param firstRmt First remote candidate.
+     * @return {@code True} if candidate was assigned ownership.
+     */
+    private boolean assignLocal(GridCacheMvccCandidate<K> cand, @Nullable GridCacheMvccCandidate<K> prev,
+        @Nullable GridCacheMvccCandidate<K> firstRmt) {
+        boolean assigned = false;
+
+        if (firstRmt != null && cand.version().isGreater(firstRmt.version())) {
+            // Check previous candidates for 2 cases:
+            // 1. If this candidate is waiting for a smaller remote version,
+            //    then we must check if previous candidate is the owner and
+            //    has the same remote candidate version. In that case, we can
+            //    safely set this candidate to owner as well.
+            // 2. If this candidate is waiting for a smaller remote version,
+            //    then we must check if previous candidate is the owner and
+            //    any of the local candidates with versions smaller than first
+            //    remote version have the same key as the previous owner. In
+            //    that case, we can safely set this candidate to owner as well.
+            while (prev != null && prev.owner()) {
+                for (GridCacheMvccCandidate<K> c : prev.parent().remoteMvccSnapshot()) {
+                    if (c.version().equals(firstRmt.version())) {
+                        cand.setOwner();
 
-                            if (assigned)
-                                break; // While.
+                        assigned = true;
 
-                            prev = prev.previous();
-                        }
+                        break; // For.
                     }
+                }
 
-                    if (!assigned) {
-                        if (firstRmt != null) {
-                            if (cand.version().isLess(firstRmt.version())) {
+                // Single local candidate has no local predecessors to check.
+                if (!assigned && locs != null) {
+                    for (GridCacheMvccCandidate<K> c : locs) {
+                        if (c == cand || c.version().isGreater(firstRmt.version()))
+                            break;
+
+                        for (GridCacheMvccCandidate<K> p = c.previous(); p != null; p = p.previous()) {
+                            if (p.key().equals(prev.key())) {
                                 cand.setOwner();
 
                                 assigned = true;
-                            }
-                            // Automatically assign EC locks.
-                            else if (firstRmt.ec()) {
-                                firstRmt.setOwner();
-                                firstRmt.setUsed();
+
+                                break; // For.
                             }
                         }
-                        else {
-                            cand.setOwner();
 
-                            assigned = true;
-                        }
+                        if (assigned)
+                            break; // For.
                     }
+                }
 
-                    if (assigned) {
-                        it.remove();
+                if (assigned)
+                    break; // While.
 
-                        // Owner must be first in the list.
-                        locs.addFirst(cand);
-                    }
+                prev = prev.previous();
+            }
+        }
 
-                    return;
+        if (!assigned) {
+            if (firstRmt != null) {
+                if (cand.version().isLess(firstRmt.version())) {
+                    cand.setOwner();
+
+                    assigned = true;
+                }
+                // Automatically assign EC locks.
+                else if (firstRmt.ec()) {
+                    firstRmt.setOwner();
+                    firstRmt.setUsed();
                 }
             }
-        }
+            else {
+                cand.setOwner();
 
-        // Automatically assign EC locks.
-        if (firstRmt != null && firstRmt.ec()) {
-            firstRmt.setOwner();
-            firstRmt.setUsed();
+                assigned = true;
+            }
         }
+
+        return assigned;
     }
 
     /**
@@ -873,7 +1010,15 @@ public final class GridCacheMvcc<K> {
      * @return Current owner.
      */
     @Nullable public GridCacheMvccCandidate<K> removeExplicitNodeCandidates(UUID nodeId) {
-        if (rmts != null) {
+        if (rmt != null) {
+            if (rmt.nodeId().equals(nodeId) && !rmt.tx()) {
+                rmt.setUsed(); // Mark as used to be consistent.
+                rmt.setRemoved();
+
+                rmt = null;
+            }
+        }
+        else if (rmts != null) {
             for (Iterator<GridCacheMvccCandidate<K>> it = rmts.iterator(); it.hasNext(); ) {
                 GridCacheMvccCandidate<K> cand = it.next();
 
@@ -901,14 +1046,26 @@ public final class GridCacheMvcc<K> {
      * @return Candidate or <tt>null</tt> if there is no candidate for given ID.
      */
     @Nullable public GridCacheMvccCandidate<K> candidate(GridCacheVersion ver) {
-        GridCacheMvccCandidate<K> cand = candidate(locs, ver);
+        GridCacheMvccCandidate<K> cand = loc != null ? (loc.version().equals(ver) ? loc : null) :
+            candidate(locs, ver);
 
         if (cand == null)
-            cand = candidate(rmts, ver);
+            cand = remoteCandidate(ver);
 
         return cand;
     }
 
+    /**
+     * @param ver Lock version.
+     * @return Remote candidate or <tt>null</tt> if there is no remote candidate for given version.
+     */
+    @Nullable private GridCacheMvccCandidate<K> remoteCandidate(GridCacheVersion ver) {
+        if (rmt != null)
+            return rmt.version().equals(ver) ? rmt : null;
+
+        return candidate(rmts, ver);
+    }
+
     /**
      * Gets candidate for lock ID.
      *
@@ -926,6 +1083,9 @@ public final class GridCacheMvcc<K> {
      * @return Remote candidate.
      */
     @Nullable public GridCacheMvccCandidate<K> remoteCandidate(UUID nodeId, long threadId) {
+        if (rmt != null)
+            return rmt.nodeId().equals(nodeId) && rmt.threadId() == threadId ? rmt : null;
+
         if (rmts != null)
             for (GridCacheMvccCandidate<K> c : rmts)
                 if (c.nodeId().equals(nodeId) && c.threadId() == threadId)
@@ -944,7 +1104,7 @@ public final class GridCacheMvcc<K> {
     }
 
     public List<GridCacheMvccCandidate<K>> localCandidatesNoCopy(boolean reentry) {
-        return candidates(locs, reentry, false, cctx.emptyVersion());
+        return candidates(loc, locs, reentry, false, cctx.emptyVersion());
     }
 
     /**
@@ -952,7 +1112,7 @@ public final class GridCacheMvcc<K> {
      * @return Collection of local candidates.
      */
     public Collection<GridCacheMvccCandidate<K>> localCandidates(GridCacheVersion... excludeVers) {
-        return candidates(locs, false, true, excludeVers);
+        return candidates(loc, locs, false, true, excludeVers);
     }
 
     /**
@@ -962,7 +1122,7 @@ public final class GridCacheMvcc<K> {
      */
     public List<GridCacheMvccCandidate<K>> localCandidates(boolean reentries,
         GridCacheVersion... excludeVers) {
-        return candidates(locs, reentries, true, excludeVers);
+        return candidates(loc, locs, reentries, true, excludeVers);
     }
 
     /**
@@ -970,18 +1130,33 @@ public final class GridCacheMvcc<K> {
      * @return Collection of remote candidates.
      */
     public List<GridCacheMvccCandidate<K>> remoteCandidates(GridCacheVersion... excludeVers) {
-        return candidates(rmts, false, true, excludeVers);
+        return candidates(rmt, rmts, false, true, excludeVers);
     }
 
     /**
+     * @param single Single inline candidate.
      * @param col Collection of candidates.
      * @param reentries Reentry flag.
      * @param cp Whether to copy or not.
      * @param excludeVers Exclude versions.
      * @return Collection of candidates minus the exclude versions.
      */
-    private List<GridCacheMvccCandidate<K>> candidates(List<GridCacheMvccCandidate<K>> col,
-        boolean reentries, boolean cp, GridCacheVersion... excludeVers) {
+    private List<GridCacheMvccCandidate<K>> candidates(@Nullable GridCacheMvccCandidate<K> single,
+        @Nullable List<GridCacheMvccCandidate<K>> col, boolean reentries, boolean cp,
+        GridCacheVersion... excludeVers) {
+        if (single != null) {
+            if (!cp && F.isEmpty(excludeVers))
+                return Collections.singletonList(single);
+
+            List<GridCacheMvccCandidate<K>> cands = new ArrayList<GridCacheMvccCandidate<K>>(1);
+
+            // Don't include reentries.
+            if ((!single.reentry() || reentries) && !U.containsObjectArray(excludeVers, single.version()))
+                cands.add(single);
+
+            return cands;
+        }
+
         if (col == null)
             return Collections.emptyList();
 
@@ -1064,14 +1239,14 @@ public final class GridCacheMvcc<K> {
      * @return First remote entry or <tt>null</tt>.
      */
     @Nullable public GridCacheMvccCandidate<K> firstRemote() {
-        return rmts == null ? null : rmts.getFirst();
+        return rmt != null ? rmt : rmts == null ? null : rmts.getFirst();
     }
 
     /**
      * @return First local entry or <tt>null</tt>.
      */
     @Nullable public GridCacheMvccCandidate<K> firstLocal() {
-        return locs == null ? null : locs.getFirst();
+        return loc != null ? loc : locs == null ? null : locs.getFirst();
     }
 
     /**
@@ -46,9 +46,6 @@ public class GridCacheMvccManager<K, V> extends GridCacheManager<K, V> {
     private Collection<GridCacheVersion> rmvLocks =
         new GridBoundedConcurrentOrderedSet<GridCacheVersion>(MAX_REMOVED_LOCKS);
 
-    /** Current local candidates. */
-    private Collection<GridCacheMvccCandidate<K>> dhtLocCands = new ConcurrentSkipListSet<GridCacheMvccCandidate<K>>();
-
     /** Locked keys. */
     @GridToStringExclude
     private final ConcurrentMap<K, GridDistributedCacheEntry<K, V>> locked = newMap();
@@ -490,43 +487,10 @@ public class GridCacheMvccManager<K, V> extends GridCacheManager<K, V> {
     }
 
     /**
-     * @param cand Local lock.
-     * @return {@code True} if added.
-     */
-    public boolean addLocal(GridCacheMvccCandidate<K> cand) {
-        assert cand.key() != null;
-        assert cand.local();
-
-        if (cand.dhtLocal() && dhtLocCands.add(cand)) {
-            if (log.isDebugEnabled())
-                log.debug("Added local candidate: " + cand);
-
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
+     * Collects versions of DHT-local candidates that are less than {@code base}. Candidates
+     * are looked up through locked entries for given keys, so no global ordered set of
+     * local candidates has to be maintained on every lock acquisition and release.
      *
-     * @param cand Local candidate to remove.
-     * @return {@code True} if removed.
-     */
-    public boolean removeLocal(GridCacheMvccCandidate<K> cand) {
-        assert cand.key() != null;
-        assert cand.local();
-
-        if (cand.dhtLocal() && dhtLocCands.remove(cand)) {
-            if (log.isDebugEnabled())
-                log.debug("Removed local candidate: " + cand);
-
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
      * @param keys Keys.
      * @param base Base version.
      * @return Versions that are less than {@code base} whose keys are in the {@code keys} collection.
@@ -534,13 +498,22 @@ public class GridCacheMvccManager<K, V> extends GridCacheManager<K, V> {
     public Collection<GridCacheVersion> localDhtPendingVersions(Collection<K> keys, GridCacheVersion base) {
         Collection<GridCacheVersion> lessPending = new GridLeanSet<GridCacheVersion>(5);
 
-        for (GridCacheMvccCandidate<K> cand : dhtLocCands) {
-            if (cand.version().isLess(base)) {
-                if (keys.contains(cand.key()))
-                    lessPending.add(cand.version());
+        for (K key : keys) {
+            GridDistributedCacheEntry<K, V> entry = locked.get(key);
+
+            if (entry == null)
+                continue;
+
+            try {
+                for (GridCacheMvccCandidate<K> cand : entry.localCandidates()) {
+                    if (cand.dhtLocal() && cand.version().isLess(base))
+                        lessPending.add(cand.version());
+                }
+            }
+            catch (GridCacheEntryRemovedException ignore) {
+                if (log.isDebugEnabled())
+                    log.debug("Got removed entry when collecting pending versions (will ignore): " + entry);
             }
-            else
-                break;
         }
 
         return lessPending;
@@ -634,7 +607,6 @@ public class GridCacheMvccManager<K, V> extends GridCacheManager<K, V> {
         X.println(">>> ");
         X.println(">>> Mvcc manager memory stats [grid=" + cctx.gridName() + ", cache=" + cctx.name() + ']');
         X.println(">>>   rmvLocksSize: " + rmvLocks.size());
-        X.println(">>>   dhtLocCandsSize: " + dhtLocCands.size());
         X.println(">>>   lockedSize: " + locked.size());
         X.println(">>>   futsSize: " + futs.size());
         X.println(">>>   near2dhtSize: " + near2dht.size());
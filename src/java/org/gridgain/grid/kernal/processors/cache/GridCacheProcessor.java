@@ -167,8 +167,40 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         if (cfg.getPreloadMode() != NONE) {
             assertParameter(cfg.getPreloadThreadPoolSize() > 0, "preloadThreadPoolSize > 0");
             assertParameter(cfg.getPreloadBatchSize() > 0, "preloadBatchSize > 0");
+            assertParameter(cfg.getPreloadThrottle() >= 0, "preloadThrottle >= 0");
+            assertParameter(cfg.getPreloadRateLimit() >= 0, "preloadRateLimit >= 0");
+            assertParameter(cfg.getPreloadOrder() != null, "preloadOrder != null");
+
+            long netTimeout = ctx.config().getNetworkTimeout();
+
+            if (cfg.getPreloadThrottle() >= netTimeout || (cfg.getPreloadRateLimit() > 0 &&
+                cfg.getPreloadBatchSize() * 1000L / cfg.getPreloadRateLimit() >= netTimeout))
+                U.warn(log, "Preload batches will be sent slower than network timeout and preloading may " +
+                    "never finish (increase 'preloadRateLimit' or decrease 'preloadThrottle' and " +
+                    "'preloadBatchSize') [cacheName=" + cfg.getName() + ", networkTimeout=" + netTimeout + ']');
         }
 
+        assertParameter(cfg.getPartitionSnapshotFrequency() >= 0, "partitionSnapshotFrequency >= 0");
+
+        if (cfg.getPartitionSnapshotPath() != null && cfg.getCacheMode() != PARTITIONED)
+            U.warn(log, "Partition snapshots are supported only for PARTITIONED cache ('partitionSnapshotPath' " +
+                "will be ignored) [cacheName=" + cfg.getName() + ']');
+
+        if (cfg.isReplicatedPrimaryLocking()) {
+            if (cfg.getCacheMode() != REPLICATED)
+                U.warn(log, "Primary locking is supported only for REPLICATED cache ('replicatedPrimaryLocking' " +
+                    "will be ignored) [cacheName=" + cfg.getName() + ']');
+
+            assertParameter(cfg.getReplicatedCommitAcks() >= -1, "replicatedCommitAcks >= -1");
+        }
+
+        assertParameter(cfg.getNearInvalidationWindow() >= 0, "nearInvalidationWindow >= 0");
+        assertParameter(cfg.getNearEntryTimeToLive() >= 0, "nearEntryTimeToLive >= 0");
+
+        if (cfg.getNearInvalidationWindow() > 0 && cfg.getNearEntryTimeToLive() > 0)
+            U.warn(log, "Near readers are not tracked when near entry time to live is set " +
+                "('nearInvalidationWindow' will be ignored) [cacheName=" + cfg.getName() + ']');
+
         if (!cfg.isTxSerializableEnabled() && cfg.getDefaultTxIsolation() == SERIALIZABLE)
             U.warn(log,
                 "Serializable transactions are disabled while default transaction isolation is SERIALIZABLE " +
@@ -901,6 +933,7 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         store.setFlushThreadCount(cfg.getWriteFromBehindFlushThreadCount());
         store.setFlushFrequency(cfg.getWriteFromBehindFlushFrequency());
         store.setBatchSize(cfg.getWriteFromBehindBatchSize());
+        store.setAffinity(cfg.getAffinity(), cfg.getAffinityMapper());
 
         return store;
     }
@@ -11,21 +11,19 @@ package org.gridgain.grid.kernal.processors.cache;
 
 import org.gridgain.grid.*;
 import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.affinity.*;
 import org.gridgain.grid.cache.store.*;
 import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.thread.*;
-import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
 import org.gridgain.grid.util.worker.*;
 import org.jetbrains.annotations.*;
 
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
-import java.util.concurrent.locks.*;
 
 /**
  * Internal wrapper for a {@link GridCacheStore} that enables write-from-behind logic.
@@ -36,6 +34,11 @@ import java.util.concurrent.locks.*;
  * if size of a pending map exceeded some pre-configured value. Another performance gain
  * is achieved due to combining a group of similar operations to a single batch update.
  * <p/>
+ * Pending map is split into shards by key partition, each shard is flushed by its own
+ * flusher thread, so updates of the same key always reach the underlying store in order.
+ * Repeated updates of a buffered key are coalesced in place. Pause between flushes
+ * shrinks as shard fills up, but is never shorter than recent store latency.
+ * <p/>
  * The essential flush size for the write-from-behind cache should be at least the estimated
  * count of simultaneously written keys. In case of significantly smaller value there would
  * be triggered a lot of flush events that will result in a high cache store load.
@@ -56,6 +59,15 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     /** Default concurrency level of write cache. */
     public static final int DFLT_CONCUR_LVL = 64;
 
+    /** Weight of the last store call in average store latency. */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    /** Minimal delay before retrying failed store update (ms). */
+    private static final long MIN_RETRY_DELAY = 100;
+
+    /** Time writer waits for buffer space before checking that flusher is still alive (ms). */
+    private static final long CAPACITY_CHECK_FREQ = 1000;
+
     /** Write cache initial capacity. */
     private int initialCap = DFLT_INITIAL_CAPACITY;
 
@@ -65,10 +77,10 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     /** When cache size exceeds this value eldest entry will be stored to the underlying store. */
     private int cacheMaxSize = GridCacheConfiguration.DFLT_WRITE_FROM_BEHIND_FLUSH_SIZE;
 
-    /** Critical cache size. If cache size exceeds this value, data flush performed synchronously. */
+    /** Critical cache size. If cache size exceeds this value, writers wait for flush to catch up. */
     private int cacheCriticalSize;
 
-    /** Count of worker threads performing underlying store updates. */
+    /** Count of worker threads performing underlying store updates, one per shard. */
     private int flushThreadCnt = GridCacheConfiguration.DFLT_WRITE_FROM_BEHIND_FLUSH_THREAD_CNT;
 
     /** Cache flush frequency. All pending operations will be performed in not less then this value ms. */
@@ -86,8 +98,14 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     /** Underlying store. */
     private GridCacheStore<K, V> store;
 
-    /** Write cache. */
-    private GridConcurrentLinkedHashMap<K, StatefulValue<V>> writeCache;
+    /** Cache affinity used to split keys to shards. */
+    private GridCacheAffinity<Object> aff;
+
+    /** Cache affinity mapper. */
+    private GridCacheAffinityMapper<Object> affMapper;
+
+    /** Write cache shards. */
+    private Shard[] shards;
 
     /** Flusher threads. */
     private GridWorker[] flushThreads;
@@ -95,12 +113,6 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     /** Atomic flag indicating store shutdown. */
     private AtomicBoolean stopping = new AtomicBoolean(true);
 
-    /** Flush lock. */
-    private Lock flushLock = new ReentrantLock();
-
-    /** Condition to determine records available for flush. */
-    private Condition canFlush = flushLock.newCondition();
-
     /** Variable for counting total cache overflows. */
     private AtomicInteger cacheTotalOverflowCntr = new AtomicInteger();
 
@@ -110,6 +122,18 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     /** Variable for counting key-value pairs that are in {@link ValueStatus#RETRY} state. */
     private AtomicInteger retryEntriesCnt = new AtomicInteger();
 
+    /** Count of put and remove operations received. */
+    private AtomicLong updCnt = new AtomicLong();
+
+    /** Count of operations which were merged into already buffered values. */
+    private AtomicLong coalescedCnt = new AtomicLong();
+
+    /** Count of batches applied to the underlying store. */
+    private AtomicLong flushCnt = new AtomicLong();
+
+    /** Total time spent in underlying store updates (ns). */
+    private AtomicLong flushTime = new AtomicLong();
+
     /** Log. */
     private GridLogger log;
 
@@ -157,7 +181,8 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     }
 
     /**
-     * Sets the number of threads that will perform store update operations.
+     * Sets the number of threads that will perform store update operations. Write cache
+     * is split into the same number of shards.
      *
      * @param flushThreadCnt Count of worker threads.
      */
@@ -214,6 +239,18 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
         return batchSize;
     }
 
+    /**
+     * Sets cache affinity and affinity mapper. If set, keys of the same partition are
+     * buffered in the same shard, otherwise shard is chosen by key hash code.
+     *
+     * @param aff Cache affinity.
+     * @param affMapper Cache affinity mapper.
+     */
+    public void setAffinity(@Nullable GridCacheAffinity<Object> aff, @Nullable GridCacheAffinityMapper<Object> affMapper) {
+        this.aff = aff;
+        this.affMapper = affMapper;
+    }
+
     /**
      * Gets count of entries that were processed by the write-from-behind store and have not been
      * flushed to the underlying store yet.
@@ -221,7 +258,35 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
      * @return Total count of entries in cache store internal buffer.
      */
     public int getWriteFromBehindBufferSize() {
-        return writeCache.sizex();
+        int size = 0;
+
+        for (Shard shard : shards)
+            size += shard.size();
+
+        return size;
+    }
+
+    /**
+     * Gets ratio of put and remove operations that were merged into already buffered values
+     * and thus did not result in a separate store update.
+     *
+     * @return Coalescing ratio from {@code 0} to {@code 1}.
+     */
+    public double getWriteFromBehindCoalescingRatio() {
+        long upd = updCnt.get();
+
+        return upd == 0 ? 0 : (double)coalescedCnt.get() / upd;
+    }
+
+    /**
+     * Gets average time of a single batch update of the underlying store.
+     *
+     * @return Average flush latency in milliseconds.
+     */
+    public double getWriteFromBehindAverageFlushLatency() {
+        long cnt = flushCnt.get();
+
+        return cnt == 0 ? 0 : flushTime.get() / 1000000.0 / cnt;
     }
 
     /**
@@ -246,6 +311,7 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
      *
      * @throws GridException If cache cannot be started due to some reasons.
      */
+    @SuppressWarnings({"unchecked"})
     public void start() throws GridException {
         assert cacheFlushFreq != 0 || cacheMaxSize != 0;
 
@@ -258,21 +324,26 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
             if (cacheCriticalSize == 0)
                 cacheCriticalSize = GridCacheConfiguration.DFLT_WRITE_FROM_BEHIND_CRITICAL_SIZE;
 
+            shards = new GridCacheWriteFromBehindStore.Shard[flushThreadCnt];
             flushThreads = new GridWorker[flushThreadCnt];
 
-            writeCache = new GridConcurrentLinkedHashMap<K, StatefulValue<V>>(initialCap, 0.75f, concurLvl);
+            for (int i = 0; i < shards.length; i++)
+                shards[i] = new Shard();
 
             for (int i = 0; i < flushThreads.length; i++) {
-                flushThreads[i] = new Flusher(gridName, "flusher-" + i, log);
+                Flusher flusher = new Flusher(gridName, "flusher-" + i, log, shards[i]);
 
-                new GridThread(flushThreads[i]).start();
+                shards[i].flusher = flusher;
+                flushThreads[i] = flusher;
+
+                new GridThread(flusher).start();
             }
         }
     }
 
     /**
      * Gets count of write buffer overflow events since initialization. Each overflow event causes
-     * the ongoing flush operation to be performed synchronously.
+     * the writing thread to wait until flusher frees buffer space.
      *
      * @return Count of cache overflow events since start.
      */
@@ -282,7 +353,7 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
 
     /**
      * Gets count of write buffer overflow events in progress at the moment. Each overflow event causes
-     * the ongoing flush operation to be performed synchronously.
+     * the writing thread to wait until flusher frees buffer space.
      *
      * @return Count of cache overflow events since start.
      */
@@ -312,7 +383,8 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
             if (log.isDebugEnabled())
                 log.debug("Stopping write-from-behind store for cache '" + cacheName + '\'');
 
-            wakeUp();
+            for (Shard shard : shards)
+                shard.wakeUp();
 
             boolean graceful = true;
 
@@ -349,12 +421,10 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
         Collection<K> remaining = new LinkedList<K>();
 
         for (K key : keys) {
-            StatefulValue<V> val = writeCache.get(key);
+            StatefulValue<V> val = shard(key).map.get(key);
 
             if (val != null) {
-                val.readLock().lock();
-
-                try {
+                synchronized (val) {
                     switch (val.operation()) {
                         case PUT:
                             c.apply(key, val.value());
@@ -370,9 +440,6 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
                             assert false : "Unexpected operation: " + val.status();
                     }
                 }
-                finally {
-                    val.readLock().unlock();
-                }
             }
             else
                 remaining.add(key);
@@ -388,12 +455,10 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
         if (log.isDebugEnabled())
             log.debug("Store load [key=" + key + ", tx=" + tx + ']');
 
-        StatefulValue<V> val = writeCache.get(key);
+        StatefulValue<V> val = shard(key).map.get(key);
 
         if (val != null) {
-            val.readLock().lock();
-
-            try {
+            synchronized (val) {
                 switch (val.operation()) {
                     case PUT:
                         return val.value();
@@ -405,9 +470,6 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
                         assert false : "Unexpected operation: " + val.status();
                 }
             }
-            finally {
-                val.readLock().unlock();
-            }
         }
 
         return store.load(cacheName, null, key);
@@ -454,166 +516,164 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     }
 
     /**
-     * Performs flush-consistent cache update for the given key.
-     *
-     * @param key Key for which update is performed.
-     * @param val New value, may be null for remove operation.
-     * @param operation Updated value status
-     * @throws GridInterruptedException If interrupted while waiting for value to be flushed.
+     * @param key Key.
+     * @return Shard buffering given key.
      */
-    private void updateCache(K key, @Nullable V val, StoreOperation operation) throws GridInterruptedException {
-        StatefulValue<V> newVal = new StatefulValue<V>(val, operation);
+    private Shard shard(K key) {
+        if (shards.length == 1)
+            return shards[0];
 
-        StatefulValue<V> prev;
+        int h;
 
-        while ((prev = writeCache.putIfAbsent(key, newVal)) != null) {
-            prev.writeLock().lock();
-
-            try {
-                if (prev.status() == ValueStatus.PENDING) {
-                    // Flush process in progress, try again.
-                    prev.waitForFlush();
-
-                    continue;
-                }
-                else if (prev.status() == ValueStatus.FLUSHED)
-                    // This entry was deleted from map before we acquired the lock.
-                    continue;
-                else if (prev.status() == ValueStatus.RETRY)
-                    // New value has come, old value is no longer in RETRY state,
-                    retryEntriesCnt.decrementAndGet();
-
-                assert prev.status() == ValueStatus.NEW || prev.status() == ValueStatus.RETRY;
-
-                prev.update(val, operation, ValueStatus.NEW);
+        if (aff != null && aff.partitions() > 1)
+            h = aff.partition(affMapper != null ? affMapper.affinityKey(key) : key);
+        else {
+            h = key.hashCode();
 
-                break;
-            }
-            finally {
-                prev.writeLock().unlock();
-            }
+            // Spread bits, so that keys with close hash codes fall to different shards.
+            h ^= (h >>> 20) ^ (h >>> 12);
+            h ^= (h >>> 7) ^ (h >>> 4);
         }
 
-        // Now check the map size
-        if (writeCache.sizex() > cacheCriticalSize)
-            // Perform single store update in the same thread.
-            flushSingleValue();
-        else if (cacheMaxSize > 0 && writeCache.sizex() > cacheMaxSize)
-            wakeUp();
+        return shards[(h & Integer.MAX_VALUE) % shards.length];
     }
 
     /**
-     * Flushes one upcoming value to the underlying store. Called from
-     * {@link #updateCache(Object, Object, StoreOperation)} method in case when current map size exceeds
-     * critical size.
+     * Performs flush-consistent cache update for the given key. Value which is not yet captured
+     * by flusher is updated in place. If flusher is writing value at the moment, it is replaced
+     * with a new one, which will be written by the same flusher afterwards.
+     *
+     * @param key Key for which update is performed.
+     * @param val New value, may be null for remove operation.
+     * @param operation Updated value status
+     * @throws GridInterruptedException If interrupted while waiting for buffer space.
      */
-    private void flushSingleValue() {
-        cacheOverflowCntr.incrementAndGet();
+    private void updateCache(K key, @Nullable V val, StoreOperation operation) throws GridInterruptedException {
+        Shard shard = shard(key);
 
-        try {
-            Map<K, StatefulValue<V>> batch = null;
+        updCnt.incrementAndGet();
 
-            for (Map.Entry<K, StatefulValue<V>> e : writeCache.entrySet()) {
-                StatefulValue<V> val = e.getValue();
+        StatefulValue<V> newVal = null;
 
-                val.writeLock().lock();
+        while (true) {
+            StatefulValue<V> prev = shard.map.get(key);
 
-                try {
-                    ValueStatus status = val.status();
+            if (prev == null) {
+                if (newVal == null)
+                    newVal = new StatefulValue<V>(val, operation);
 
-                    if (acquired(status))
-                        // Another thread is helping us, continue to the next entry.
-                        continue;
+                if (shard.map.putIfAbsent(key, newVal) == null)
+                    break;
 
-                    if (val.status() == ValueStatus.RETRY)
+                continue;
+            }
+
+            synchronized (prev) {
+                ValueStatus status = prev.status();
+
+                if (status == ValueStatus.FLUSHED)
+                    // This entry was deleted from map before we acquired the lock.
+                    continue;
+
+                if (status == ValueStatus.NEW || status == ValueStatus.RETRY) {
+                    if (status == ValueStatus.RETRY)
+                        // New value has come, old value is no longer in RETRY state,
                         retryEntriesCnt.decrementAndGet();
 
-                    assert retryEntriesCnt.get() >= 0;
+                    prev.update(val, operation, ValueStatus.NEW);
 
-                    val.status(ValueStatus.PENDING);
+                    coalescedCnt.incrementAndGet();
 
-                    batch = Collections.singletonMap(e.getKey(), val);
-                }
-                finally {
-                    val.writeLock().unlock();
+                    break;
                 }
 
-                if (batch != null && !batch.isEmpty()) {
-                    applyBatch(batch);
+                assert status == ValueStatus.PENDING;
+            }
+
+            // Flush is in progress, value will be replaced from the map once it's done.
+            if (newVal == null)
+                newVal = new StatefulValue<V>(val, operation);
 
-                    cacheTotalOverflowCntr.incrementAndGet();
+            if (shard.map.replace(key, prev, newVal)) {
+                synchronized (prev) {
+                    // Flush of replaced value has failed, it will not be retried as newer value is buffered.
+                    if (prev.status() == ValueStatus.RETRY) {
+                        prev.status(ValueStatus.FLUSHED);
 
-                    return;
+                        retryEntriesCnt.decrementAndGet();
+                    }
                 }
+
+                break;
             }
         }
-        finally {
-            cacheOverflowCntr.decrementAndGet();
-        }
+
+        int size = shard.size();
+
+        if (size > shard.criticalSize)
+            shard.awaitCapacity();
+        else if (shard.flushSize > 0 && size > shard.flushSize)
+            shard.wakeUp();
     }
 
     /**
      * Performs batch operation on underlying store.
      *
+     * @param shard Shard.
+     * @param operation Batch operation.
      * @param valMap Batch map.
+     * @return {@code True} if batch was applied.
      */
-    private void applyBatch(Map<K, StatefulValue<V>> valMap) {
+    private boolean applyBatch(Shard shard, StoreOperation operation, Map<K, StatefulValue<V>> valMap) {
         assert valMap.size() <= batchSize;
 
-        StoreOperation operation = null;
-
         // Construct a map for underlying store
-        Map<K, V> batch = new HashMap<K, V>(valMap.size());
+        Map<K, V> batch = new LinkedHashMap<K, V>(valMap.size(), 1.0f);
 
         for (Map.Entry<K, StatefulValue<V>> e : valMap.entrySet()) {
-            if (operation == null)
-                operation = e.getValue().operation();
-
             assert operation == e.getValue().operation();
-
             assert e.getValue().status() == ValueStatus.PENDING;
 
             batch.put(e.getKey(), e.getValue().value());
         }
 
-        if (updateStore(operation, batch)) {
-            for (Map.Entry<K, StatefulValue<V>> e : valMap.entrySet()) {
-                StatefulValue<V> val = e.getValue();
-
-                val.writeLock().lock();
+        long start = System.nanoTime();
 
-                try {
-                    val.status(ValueStatus.FLUSHED);
+        boolean res = updateStore(shard, operation, batch);
 
-                    StatefulValue<V> prev = writeCache.remove(e.getKey());
+        shard.onFlushed(System.nanoTime() - start);
 
-                    // Additional check to ensure consistency.
-                    assert prev == val : "Map value for key " + e.getKey() + " was updated during flush";
+        if (res) {
+            for (Map.Entry<K, StatefulValue<V>> e : valMap.entrySet()) {
+                StatefulValue<V> val = e.getValue();
 
-                    val.signalFlushed();
-                }
-                finally {
-                    val.writeLock().unlock();
+                synchronized (val) {
+                    val.status(ValueStatus.FLUSHED);
                 }
+
+                // Value could have been replaced by a newer one during flush.
+                shard.map.remove(e.getKey(), val);
             }
         }
         else {
             // Exception occurred, we must set RETRY status
-            for (StatefulValue<V> val : valMap.values()) {
-                val.writeLock().lock();
-
-                try {
-                    val.status(ValueStatus.RETRY);
+            for (Map.Entry<K, StatefulValue<V>> e : valMap.entrySet()) {
+                StatefulValue<V> val = e.getValue();
 
-                    retryEntriesCnt.incrementAndGet();
+                synchronized (val) {
+                    // Value could have been replaced by a newer one during flush, no need to retry it.
+                    if (shard.map.get(e.getKey()) == val) {
+                        val.status(ValueStatus.RETRY);
 
-                    val.signalFlushed();
-                }
-                finally {
-                    val.writeLock().unlock();
+                        retryEntriesCnt.incrementAndGet();
+                    }
+                    else
+                        val.status(ValueStatus.FLUSHED);
                 }
             }
         }
+
+        return res;
     }
 
     /**
@@ -624,12 +684,13 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
      * be lost. If map size does not exceed critical value, it will return false and value will
      * be retained in write cache.
      *
+     * @param shard Shard.
      * @param operation Status indicating operation that should be performed.
      * @param vals Key-Value map.
      * @return {@code true} if value may be deleted from the write cache,
      *         {@code false} otherwise
      */
-    private boolean updateStore(StoreOperation operation, Map<K, V> vals) {
+    private boolean updateStore(Shard shard, StoreOperation operation, Map<K, V> vals) {
         try {
             switch (operation) {
                 case PUT:
@@ -648,10 +709,11 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
 
             return true;
         }
-        catch (GridException e) {
+        catch (Throwable e) {
+            // Store may throw unchecked exceptions as well, treat them as failed update.
             LT.warn(log, e, "Unable to update underlying store: " + store);
 
-            if (writeCache.sizex() > cacheCriticalSize || stopping.get()) {
+            if (shard.size() > shard.criticalSize || stopping.get()) {
                 for (Map.Entry<K, V> entry : vals.entrySet())
                     log.warning("Failed to update store (value will be lost as current buffer size is greater " +
                         "than 'cacheCriticalSize' or node has been stopped before store was repaired) [key=" +
@@ -665,86 +727,216 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     }
 
     /**
-     * Wakes up flushing threads if map size exceeded maximum value or in case of shutdown.
+     * Part of write cache flushed by a single thread.
      */
-    private void wakeUp() {
-        flushLock.lock();
+    private class Shard {
+        /** Buffered values in order of their first update. */
+        private final GridConcurrentLinkedHashMap<K, StatefulValue<V>> map =
+            new GridConcurrentLinkedHashMap<K, StatefulValue<V>>(Math.max(initialCap / flushThreadCnt, 16), 0.75f,
+                concurLvl);
 
-        try {
-            canFlush.signalAll();
+        /** Shard size that triggers flush. */
+        private final int flushSize = (cacheMaxSize + flushThreadCnt - 1) / flushThreadCnt;
+
+        /** Shard size after which writers wait for flusher. */
+        private final int criticalSize = Math.max((cacheCriticalSize + flushThreadCnt - 1) / flushThreadCnt, 1);
+
+        /** Average store update time of this shard (ns). */
+        private volatile double latency;
+
+        /** Delay before retrying failed update (ms), {@code 0} if last update succeeded. */
+        private long retryDelay;
+
+        /** Flusher thread of this shard. */
+        private Flusher flusher;
+
+        /**
+         * @return Number of buffered values.
+         */
+        int size() {
+            return map.sizex();
         }
-        finally {
-            flushLock.unlock();
+
+        /**
+         * Records store update time.
+         *
+         * @param time Update time in nanoseconds.
+         */
+        void onFlushed(long time) {
+            flushCnt.incrementAndGet();
+            flushTime.addAndGet(time);
+
+            double latency = this.latency;
+
+            this.latency = latency == 0 ? time : latency + LATENCY_WEIGHT * (time - latency);
         }
-    }
 
+        /**
+         * Calculates time to wait before next flush. The more values are buffered, the sooner
+         * flush happens, but flusher always waits at least as long as store update takes, so that
+         * slow store is not updated at the rate it cannot sustain.
+         *
+         * @return Delay in milliseconds, {@code 0} if flush should happen immediately or {@code -1}
+         *      if flusher should wait until woken up.
+         */
+        long flushDelay() {
+            int size = size();
 
-    /**
-     * Thread that performs time-based flushing of written values to the underlying storage.
-     */
-    private class Flusher extends GridWorker {
-        /** {@inheritDoc */
-        protected Flusher(String gridName, String name, GridLogger log) {
-            super(gridName, name, log);
+            if (retryDelay > 0 && size > 0)
+                return retryDelay;
+
+            if (flushSize > 0 && size >= flushSize)
+                return 0;
+
+            if (cacheFlushFreq == 0)
+                return -1;
+
+            long delay = flushSize > 0 ? cacheFlushFreq * (flushSize - size) / flushSize : cacheFlushFreq;
+
+            return Math.max(delay, (long)(latency / 1000000));
         }
 
-        /** {@inheritDoc} */
-        @Override protected void body() throws InterruptedException, GridInterruptedException {
-            while (!stopping.get() || writeCache.sizex() > 0) {
-                awaitOperationsAvailable();
+        /**
+         * Updates retry delay after store update.
+         *
+         * @param failed {@code True} if store update failed.
+         */
+        void onFlushResult(boolean failed) {
+            if (!failed)
+                retryDelay = 0;
+            else {
+                long max = cacheFlushFreq > 0 ? cacheFlushFreq :
+                    GridCacheConfiguration.DFLT_WRITE_FROM_BEHIND_FLUSH_FREQUENCY;
 
-                flushCache(writeCache.entrySet().iterator());
+                retryDelay = retryDelay == 0 ? Math.max((long)(latency / 1000000), MIN_RETRY_DELAY) :
+                    retryDelay * 2;
+
+                retryDelay = Math.min(retryDelay, Math.max(max, MIN_RETRY_DELAY));
             }
         }
 
         /**
-         * This method awaits until enough elements in map are available or given timeout is over.
+         * Waits until flusher brings shard size below critical value. If flusher thread
+         * has terminated, shard is flushed synchronously by the calling thread.
          *
-         * @throws InterruptedException If awaiting was interrupted.
+         * @throws GridInterruptedException If interrupted.
          */
-        private void awaitOperationsAvailable() throws InterruptedException {
-            flushLock.lock();
+        void awaitCapacity() throws GridInterruptedException {
+            cacheOverflowCntr.incrementAndGet();
+            cacheTotalOverflowCntr.incrementAndGet();
 
             try {
-                do {
-                    if (writeCache.sizex() <= cacheMaxSize || cacheMaxSize == 0) {
-                        if (cacheFlushFreq > 0)
-                            canFlush.await(cacheFlushFreq, TimeUnit.MILLISECONDS);
-                        else
-                            canFlush.await();
+                boolean flushSync = false;
+
+                synchronized (this) {
+                    notifyAll();
+
+                    while (size() > criticalSize && !stopping.get()) {
+                        if (flusher.isDone()) {
+                            flushSync = true;
+
+                            break;
+                        }
+
+                        wait(CAPACITY_CHECK_FREQ);
                     }
                 }
-                while (writeCache.sizex() == 0 && !stopping.get());
+
+                if (flushSync) {
+                    U.warn(log, "Flusher thread has terminated, flushing write-from-behind store synchronously " +
+                        "[cacheName=" + cacheName + ", flusher=" + flusher.name() + ']');
+
+                    flusher.flushCache();
+                }
+            }
+            catch (InterruptedException e) {
+                throw new GridInterruptedException(e);
             }
             finally {
-                flushLock.unlock();
+                cacheOverflowCntr.decrementAndGet();
             }
         }
 
         /**
-         * Removes values from the write cache and performs corresponding operation
-         * on the underlying store.
+         * Wakes up flusher and writers waiting for buffer space.
+         */
+        synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        /**
+         * Waits until there are values to flush.
          *
-         * @param it Iterator for write cache.
+         * @throws InterruptedException If interrupted.
          */
-        private void flushCache(Iterator<Map.Entry<K,StatefulValue<V>>> it) {
-            StoreOperation operation = null;
+        synchronized void awaitOperationsAvailable() throws InterruptedException {
+            do {
+                long delay = flushDelay();
+
+                if (delay > 0)
+                    wait(delay);
+                else if (delay < 0)
+                    wait();
+            }
+            while (size() == 0 && !stopping.get());
+        }
+    }
 
-            Map<K, StatefulValue<V>> batch = null;
-            Map<K, StatefulValue<V>> pending  = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+    /**
+     * Thread that performs flushing of written values of a single shard to the underlying storage.
+     */
+    private class Flusher extends GridWorker {
+        /** Shard flushed by this thread. */
+        private final Shard shard;
 
-            while (it.hasNext()) {
-                Map.Entry<K, StatefulValue<V>> e = it.next();
+        /**
+         * @param gridName Grid name.
+         * @param name Thread name.
+         * @param log Logger.
+         * @param shard Shard flushed by this thread.
+         */
+        protected Flusher(String gridName, String name, GridLogger log, Shard shard) {
+            super(gridName, name, log);
 
-                StatefulValue<V> val = e.getValue();
+            this.shard = shard;
+        }
 
-                val.writeLock().lock();
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, GridInterruptedException {
+            while (!stopping.get() || shard.size() > 0) {
+                shard.awaitOperationsAvailable();
 
                 try {
+                    flushCache();
+                }
+                catch (Throwable e) {
+                    // Keep flusher alive, otherwise writers of this shard would wait for it forever.
+                    U.error(log, "Unexpected error while flushing write-from-behind store (will retry): " +
+                        cacheName, e);
+                }
+            }
+        }
+
+        /**
+         * Removes values from the shard and performs corresponding operation on the underlying
+         * store. Values are grouped to batches of the same operation in order of their first update.
+         */
+        private void flushCache() {
+            boolean failed = false;
+
+            StoreOperation operation = null;
+
+            Map<K, StatefulValue<V>> pending = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+
+            for (Map.Entry<K, StatefulValue<V>> e : shard.map.entrySet()) {
+                StatefulValue<V> val = e.getValue();
+
+                StoreOperation valOp;
+
+                synchronized (val) {
                     ValueStatus status = val.status();
 
-                    if (acquired(status))
-                        // Another thread is helping us, continue to the next entry.
+                    if (status != ValueStatus.NEW && status != ValueStatus.RETRY)
                         continue;
 
                     if (status == ValueStatus.RETRY)
@@ -754,52 +946,53 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
 
                     val.status(ValueStatus.PENDING);
 
-                    // We scan for the next operation and apply batch on operation change. Null means new batch.
-                    if (operation == null)
-                        operation = val.operation();
+                    valOp = val.operation();
+                }
 
-                    if (operation != val.operation()) {
-                        // Operation is changed, so we need to perform a batch.
-                        batch = pending;
-                        pending = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+                if (operation != null && operation != valOp) {
+                    // Operation is changed, so we need to perform a batch.
+                    failed |= !apply(operation, pending);
 
-                        operation = val.operation();
+                    pending = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+                }
 
-                        pending.put(e.getKey(), val);
-                    }
-                    else
-                        pending.put(e.getKey(), val);
+                operation = valOp;
 
-                    if (pending.size() == batchSize) {
-                        batch = pending;
-                        pending = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+                pending.put(e.getKey(), val);
 
-                        operation = null;
-                    }
-                }
-                finally {
-                    val.writeLock().unlock();
-                }
+                if (pending.size() == batchSize) {
+                    failed |= !apply(operation, pending);
 
-                if (batch != null && !batch.isEmpty()) {
-                    applyBatch(batch);
-                    batch = null;
+                    pending = new LinkedHashMap<K, StatefulValue<V>>(batchSize);
+
+                    operation = null;
                 }
             }
 
             // Process the remainder.
             if (!pending.isEmpty())
-                applyBatch(pending);
+                failed |= !apply(operation, pending);
+
+            synchronized (shard) {
+                shard.onFlushResult(failed);
+            }
         }
-    }
 
-    /**
-     * For test purposes only.
-     *
-     * @return Write cache for the underlying store operations.
-     */
-    Map<K, StatefulValue<V>> writeCache() {
-        return writeCache;
+        /**
+         * Applies batch and wakes up writers waiting for buffer space.
+         *
+         * @param operation Batch operation.
+         * @param batch Batch.
+         * @return {@code True} if batch was applied.
+         */
+        private boolean apply(StoreOperation operation, Map<K, StatefulValue<V>> batch) {
+            boolean res = applyBatch(shard, operation, batch);
+
+            if (res && cacheOverflowCntr.get() > 0)
+                shard.wakeUp();
+
+            return res;
+        }
     }
 
     /**
@@ -831,21 +1024,11 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
     }
 
     /**
-     * Checks if given status indicates pending or complete flush operation.
-     *
-     * @param status Status to check.
-     * @return {@code true} if status indicates any pending or complete store update operation.
-     */
-    private boolean acquired(ValueStatus status) {
-        return status == ValueStatus.PENDING || status == ValueStatus.FLUSHED;
-    }
-
-    /**
-     * A state-value-operation trio.
+     * A state-value-operation trio. Access to the fields is synchronized on the instance itself.
      *
      * @param <V> Value type.
      */
-    private static class StatefulValue<V> extends ReentrantReadWriteLock {
+    private static class StatefulValue<V> {
         /** Value. */
         @GridToStringInclude
         private V val;
@@ -856,9 +1039,6 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
         /** Value status. */
         private ValueStatus valStatus;
 
-        /** Condition to wait for flush event */
-        private Condition flushCond = writeLock().newCondition();
-
         /**
          * Creates a state-value pair with {@link ValueStatus#NEW} status.
          *
@@ -916,49 +1096,8 @@ public class GridCacheWriteFromBehindStore<K, V> implements GridCacheStore<K, V>
             this.valStatus = valStatus;
         }
 
-        /**
-         * Awaits a signal on flush condition
-         *
-         * @throws GridInterruptedException If thread was interrupted.
-         */
-        private void waitForFlush() throws GridInterruptedException {
-            U.await(flushCond);
-        }
-
-        /**
-         * Signals flush condition.
-         */
-        @SuppressWarnings({"SignalWithoutCorrespondingAwait"})
-        private void signalFlushed() {
-            flushCond.signalAll();
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public boolean equals(Object o) {
-            if (this == o)
-                return true;
-
-            if (!(o instanceof StatefulValue))
-                return false;
-
-            StatefulValue other = (StatefulValue)o;
-
-            return F.eq(val, other.val) && F.eq(valStatus, other.valStatus);
-        }
-
-        /** {@inheritDoc} */
-        @Override
-        public int hashCode() {
-            int result = val != null ? val.hashCode() : 0;
-
-            result = 31 * result + valStatus.hashCode();
-
-            return result;
-        }
-
         /** {@inheritDoc} */
-        @Override public String toString() {
+        @Override public synchronized String toString() {
             return S.toString(StatefulValue.class, this);
         }
     }
@@ -0,0 +1,476 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.datastructures.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Cache-backed atomic long. Every update is a pessimistic transaction on atomic long key.
+ * <p>
+ * If {@link org.gridgain.grid.cache.GridCacheConfiguration#isAtomicLongStriped()} is enabled,
+ * additions are applied to one of {@link #STRIPES} stripe keys chosen by local node order,
+ * so nodes do not contend for a single key lock, and value of atomic long is the sum of
+ * all stripes. Values returned from additions are then calculated from stripes read
+ * without locks and may not reflect concurrent updates from other nodes. Setting value
+ * locks all stripes.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridCacheAtomicLongImpl extends GridMetadataAwareAdapter implements GridCacheAtomicLong,
+    Externalizable {
+    /** Number of stripes of striped atomic long. */
+    static final int STRIPES = 16;
+
+    /** Deserialization stash. */
+    private static final ThreadLocal<GridTuple3<String, String, String>> stash =
+        new ThreadLocal<GridTuple3<String, String, String>>() {
+            @Override protected GridTuple3<String, String, String> initialValue() {
+                return F.t3();
+            }
+        };
+
+    /** Atomic long name. */
+    private String name;
+
+    /** Atomic long key, holds value or base value of striped atomic long. */
+    private GridCacheAtomicKey key;
+
+    /** Persistent flag. */
+    private boolean persistent;
+
+    /** Stripe keys, {@code null} if not striped. */
+    @GridToStringExclude
+    private List<GridCacheAtomicKey> stripes;
+
+    /** All keys of striped atomic long. */
+    @GridToStringExclude
+    private Collection<GridCacheAtomicKey> allKeys;
+
+    /** Stripe updated by local node. */
+    private GridCacheAtomicKey locStripe;
+
+    /** Removed flag. */
+    private volatile boolean rmvd;
+
+    /** Cache context. */
+    @GridToStringExclude
+    private GridCacheContext ctx;
+
+    /** Data structures manager. */
+    @GridToStringExclude
+    private GridCacheCommunityDataStructuresManager<?, ?> dsMgr;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheAtomicLongImpl() {
+        // No-op.
+    }
+
+    /**
+     * @param name Atomic long name.
+     * @param key Atomic long key.
+     * @param persistent Persistent flag.
+     * @param striped Striped flag.
+     * @param ctx Cache context.
+     * @param dsMgr Data structures manager.
+     */
+    GridCacheAtomicLongImpl(String name, GridCacheAtomicKey key, boolean persistent, boolean striped,
+        GridCacheContext ctx, GridCacheCommunityDataStructuresManager<?, ?> dsMgr) {
+        assert name != null;
+        assert key != null;
+        assert ctx != null;
+        assert dsMgr != null;
+
+        this.name = name;
+        this.key = key;
+        this.persistent = persistent;
+        this.ctx = ctx;
+        this.dsMgr = dsMgr;
+
+        if (striped) {
+            stripes = stripeKeys(name);
+
+            allKeys = new ArrayList<GridCacheAtomicKey>(STRIPES + 1);
+
+            allKeys.add(key);
+            allKeys.addAll(stripes);
+
+            locStripe = stripes.get((int)(ctx.localNode().order() % STRIPES));
+        }
+    }
+
+    /**
+     * @param name Atomic long name.
+     * @return Stripe keys of striped atomic long.
+     */
+    static List<GridCacheAtomicKey> stripeKeys(String name) {
+        List<GridCacheAtomicKey> keys = new ArrayList<GridCacheAtomicKey>(STRIPES);
+
+        for (int i = 0; i < STRIPES; i++)
+            keys.add(new GridCacheAtomicKey(name + '#' + i));
+
+        return keys;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String name() {
+        return name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long get() throws GridException {
+        checkRemoved();
+
+        try {
+            if (stripes == null)
+                return value(dsMgr.cache().get(key));
+
+            return sum(dsMgr.cache().getAll(allKeys));
+        }
+        catch (GridCacheDataStructureRemovedException e) {
+            rmvd = true;
+
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAsync() throws GridException {
+        return ctx.closures().callLocalSafe(new GPC<Long>() {
+            @Override public Long call() throws Exception {
+                return get();
+            }
+        }, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long incrementAndGet() throws GridException {
+        return add(1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> incrementAndGetAsync() throws GridException {
+        return addAsync(1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndIncrement() throws GridException {
+        return add(1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndIncrementAsync() throws GridException {
+        return addAsync(1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long addAndGet(long l) throws GridException {
+        return add(l, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> addAndGetAsync(long l) throws GridException {
+        return addAsync(l, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndAdd(long l) throws GridException {
+        return add(l, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndAddAsync(long l) throws GridException {
+        return addAsync(l, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long decrementAndGet() throws GridException {
+        return add(-1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> decrementAndGetAsync() throws GridException {
+        return addAsync(-1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndDecrement() throws GridException {
+        return add(-1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndDecrementAsync() throws GridException {
+        return addAsync(-1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndSet(long l) throws GridException {
+        return set(l, null, null).get1();
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndSetAsync(final long l) throws GridException {
+        return ctx.closures().callLocalSafe(new GPC<Long>() {
+            @Override public Long call() throws Exception {
+                return getAndSet(l);
+            }
+        }, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean compareAndSet(long l, GridPredicate<Long> p, GridPredicate<Long>... pa)
+        throws GridException {
+        A.notNull(p, "p");
+
+        return set(l, p, pa).get2();
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> compareAndSetAsync(final long l, final GridPredicate<Long> p,
+        final GridPredicate<Long>... ps) throws GridException {
+        return ctx.closures().callLocalSafe(new GPC<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                return compareAndSet(l, p, ps);
+            }
+        }, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removed() {
+        return rmvd;
+    }
+
+    /**
+     * Marks atomic long as removed.
+     */
+    void onRemoved() {
+        rmvd = true;
+    }
+
+    /**
+     * @param l Value to add.
+     * @param updated If {@code true}, then updated value is returned, otherwise previous one.
+     * @return Updated or previous value.
+     * @throws GridException If failed.
+     */
+    private long add(final long l, boolean updated) throws GridException {
+        checkRemoved();
+
+        try {
+            if (stripes == null) {
+                long old = dsMgr.txCall(new Callable<Long>() {
+                    @Override public Long call() throws Exception {
+                        GridCacheAtomicValue val = dsMgr.cache().get(key);
+
+                        long old = value(val);
+
+                        dsMgr.cache().putx(key, val.set(old + l));
+
+                        return old;
+                    }
+                });
+
+                return updated ? old + l : old;
+            }
+
+            dsMgr.txCall(new Callable<Object>() {
+                @Override public Object call() throws Exception {
+                    GridCacheAtomicValue val = dsMgr.cache().get(locStripe);
+
+                    dsMgr.cache().putx(locStripe, new GridCacheAtomicValue(val == null ? l : val.get() + l, persistent));
+
+                    return null;
+                }
+            });
+
+            long sum = get();
+
+            return updated ? sum : sum - l;
+        }
+        catch (GridCacheDataStructureRemovedException e) {
+            rmvd = true;
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param l Value to add.
+     * @param updated If {@code true}, then updated value is returned, otherwise previous one.
+     * @return Future for updated or previous value.
+     * @throws GridException If failed.
+     */
+    private GridFuture<Long> addAsync(final long l, final boolean updated) throws GridException {
+        checkRemoved();
+
+        return ctx.closures().callLocalSafe(new GPC<Long>() {
+            @Override public Long call() throws Exception {
+                return add(l, updated);
+            }
+        }, true);
+    }
+
+    /**
+     * Sets value locking all keys of atomic long.
+     *
+     * @param l New value.
+     * @param p Predicate value should satisfy to be updated, {@code null} to update unconditionally.
+     * @param pa Additional predicates.
+     * @return Previous value and flag indicating whether value was updated.
+     * @throws GridException If failed.
+     */
+    private T2<Long, Boolean> set(final long l, @Nullable final GridPredicate<Long> p,
+        @Nullable final GridPredicate<Long>[] pa) throws GridException {
+        checkRemoved();
+
+        try {
+            return dsMgr.txCall(new Callable<T2<Long, Boolean>>() {
+                @Override public T2<Long, Boolean> call() throws Exception {
+                    GridCacheAtomicValue val;
+                    long old;
+
+                    if (stripes == null) {
+                        val = dsMgr.cache().get(key);
+
+                        old = value(val);
+                    }
+                    else {
+                        Map<GridCacheAtomicKey, GridCacheAtomicValue> vals = dsMgr.cache().getAll(allKeys);
+
+                        old = sum(vals);
+
+                        val = vals.get(key);
+                    }
+
+                    if (p != null && !(p.apply(old) && F.isAll(old, pa)))
+                        return new T2<Long, Boolean>(old, false);
+
+                    dsMgr.cache().putx(key, val.set(l));
+
+                    if (stripes != null)
+                        dsMgr.cache().removeAll(stripes);
+
+                    return new T2<Long, Boolean>(old, true);
+                }
+            });
+        }
+        catch (GridCacheDataStructureRemovedException e) {
+            rmvd = true;
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param val Value of atomic long key.
+     * @return Value.
+     * @throws GridCacheDataStructureRemovedException If value is {@code null}.
+     */
+    private long value(GridCacheAtomicValue val) throws GridCacheDataStructureRemovedException {
+        if (val == null)
+            throw new GridCacheDataStructureRemovedException("Atomic long was removed from cache: " + name);
+
+        return val.get();
+    }
+
+    /**
+     * @param vals Values of all keys of striped atomic long.
+     * @return Sum of values.
+     * @throws GridCacheDataStructureRemovedException If atomic long key is missing.
+     */
+    private long sum(Map<GridCacheAtomicKey, GridCacheAtomicValue> vals)
+        throws GridCacheDataStructureRemovedException {
+        long sum = value(vals.get(key));
+
+        for (GridCacheAtomicKey stripe : stripes) {
+            GridCacheAtomicValue val = vals.get(stripe);
+
+            if (val != null)
+                sum += val.get();
+        }
+
+        return sum;
+    }
+
+    /**
+     * @throws GridCacheDataStructureRemovedException If atomic long was removed.
+     */
+    private void checkRemoved() throws GridCacheDataStructureRemovedException {
+        if (rmvd)
+            throw new GridCacheDataStructureRemovedException("Atomic long was removed from cache: " + name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeString(out, ctx.gridName());
+        U.writeString(out, ctx.namex());
+        U.writeString(out, name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        t.set1(U.readString(in));
+        t.set2(U.readString(in));
+        t.set3(U.readString(in));
+    }
+
+    /**
+     * Reconstructs object on demarshalling.
+     *
+     * @return Reconstructed object.
+     * @throws ObjectStreamException Thrown in case of demarshalling error.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        try {
+            GridKernal grid = (GridKernal)G.grid(t.get1());
+
+            GridCacheAdapter<Object, Object> cache = grid.internalCache(t.get2());
+
+            if (cache == null)
+                throw new IllegalStateException("Failed to find cache for name: " + t.get2());
+
+            GridCacheAtomicLong atomicLong = cache.context().dataStructures().atomicLong(t.get3(), 0L, false, false);
+
+            if (atomicLong == null)
+                throw new IllegalStateException("Atomic long was removed from cache: " + t.get3());
+
+            return atomicLong;
+        }
+        catch (GridException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+        catch (IllegalStateException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheAtomicLongImpl.class, this);
+    }
+}
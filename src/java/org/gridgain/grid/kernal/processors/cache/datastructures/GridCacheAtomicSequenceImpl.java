@@ -0,0 +1,343 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.datastructures.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Cache-backed atomic sequence. Every node reserves ranges of {@link #batchSize()} values
+ * with a single transaction on sequence key and serves increments from reserved range
+ * locally with CAS, so only range reservations are serialized through key lock.
+ * Values are unique across grid, but are not ordered between nodes and values left
+ * in range of removed or stopped node are skipped.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridCacheAtomicSequenceImpl extends GridMetadataAwareAdapter implements GridCacheAtomicSequence,
+    Externalizable {
+    /** Deserialization stash. */
+    private static final ThreadLocal<GridTuple3<String, String, String>> stash =
+        new ThreadLocal<GridTuple3<String, String, String>>() {
+            @Override protected GridTuple3<String, String, String> initialValue() {
+                return F.t3();
+            }
+        };
+
+    /** Sequence name. */
+    private String name;
+
+    /** Sequence key. */
+    private GridCacheAtomicKey key;
+
+    /** Last value served locally. */
+    @GridToStringInclude
+    private final AtomicLong locVal = new AtomicLong();
+
+    /** Upper bound of reserved range, values up to and including it may be served locally. */
+    @GridToStringInclude
+    private volatile long upBound;
+
+    /** Reservation size. */
+    private volatile int batchSize;
+
+    /** Removed flag. */
+    private volatile boolean rmvd;
+
+    /** Reservation lock. */
+    @GridToStringExclude
+    private final Lock reserveLock = new ReentrantLock();
+
+    /** Cache context. */
+    @GridToStringExclude
+    private GridCacheContext ctx;
+
+    /** Data structures manager. */
+    @GridToStringExclude
+    private GridCacheCommunityDataStructuresManager<?, ?> dsMgr;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheAtomicSequenceImpl() {
+        // No-op.
+    }
+
+    /**
+     * @param name Sequence name.
+     * @param key Sequence key.
+     * @param val Current global value of sequence.
+     * @param ctx Cache context.
+     * @param dsMgr Data structures manager.
+     */
+    GridCacheAtomicSequenceImpl(String name, GridCacheAtomicKey key, long val, GridCacheContext ctx,
+        GridCacheCommunityDataStructuresManager<?, ?> dsMgr) {
+        assert name != null;
+        assert key != null;
+        assert ctx != null;
+        assert dsMgr != null;
+
+        this.name = name;
+        this.key = key;
+        this.ctx = ctx;
+        this.dsMgr = dsMgr;
+
+        // Empty range, first update will reserve values after current global value.
+        locVal.set(val);
+        upBound = val;
+
+        batchSize = ctx.config().getAtomicSequenceReserveSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String name() {
+        return name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long get() throws GridException {
+        checkRemoved();
+
+        return locVal.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long incrementAndGet() throws GridException {
+        return update(1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> incrementAndGetAsync() throws GridException {
+        return updateAsync(1, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndIncrement() throws GridException {
+        return update(1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndIncrementAsync() throws GridException {
+        return updateAsync(1, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long addAndGet(long l) throws GridException {
+        return update(l, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> addAndGetAsync(long l) throws GridException {
+        return updateAsync(l, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getAndAdd(long l) throws GridException {
+        return update(l, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Long> getAndAddAsync(long l) throws GridException {
+        return updateAsync(l, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int batchSize() {
+        return batchSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void batchSize(int size) {
+        A.ensure(size > 0, "size > 0");
+
+        batchSize = size;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removed() {
+        return rmvd;
+    }
+
+    /**
+     * Marks sequence as removed.
+     */
+    void onRemoved() {
+        rmvd = true;
+    }
+
+    /**
+     * @param l Value to add.
+     * @param updated If {@code true}, then updated value is returned, otherwise previous one.
+     * @return Updated or previous value.
+     * @throws GridException If failed.
+     */
+    private long update(long l, boolean updated) throws GridException {
+        A.ensure(l > 0, "l > 0");
+
+        checkRemoved();
+
+        while (true) {
+            // Upper bound must be read before local value, as reservation updates them in reverse order.
+            long up = upBound;
+            long cur = locVal.get();
+
+            if (cur + l <= up) {
+                if (locVal.compareAndSet(cur, cur + l))
+                    return updated ? cur + l : cur;
+            }
+            else
+                reserve(l);
+        }
+    }
+
+    /**
+     * @param l Value to add.
+     * @param updated If {@code true}, then updated value is returned, otherwise previous one.
+     * @return Future for updated or previous value.
+     * @throws GridException If failed.
+     */
+    @SuppressWarnings({"unchecked"})
+    private GridFuture<Long> updateAsync(final long l, final boolean updated) throws GridException {
+        A.ensure(l > 0, "l > 0");
+
+        checkRemoved();
+
+        // Do not go to thread pool if value can be served locally.
+        long cur = locVal.get();
+
+        if (cur + l <= upBound && locVal.compareAndSet(cur, cur + l))
+            return new GridFinishedFuture<Long>(ctx.kernalContext(), updated ? cur + l : cur);
+
+        return ctx.closures().callLocalSafe(new GPC<Long>() {
+            @Override public Long call() throws Exception {
+                return update(l, updated);
+            }
+        }, true);
+    }
+
+    /**
+     * Reserves range of values which contains at least given number of values.
+     *
+     * @param l Number of values required.
+     * @throws GridException If failed.
+     */
+    private void reserve(long l) throws GridException {
+        reserveLock.lock();
+
+        try {
+            checkRemoved();
+
+            // Range could be reserved by concurrent thread.
+            if (locVal.get() + l <= upBound)
+                return;
+
+            final long size = Math.max(batchSize, l);
+
+            long start = dsMgr.txCall(new Callable<Long>() {
+                @Override public Long call() throws Exception {
+                    GridCacheAtomicValue val = dsMgr.cache().get(key);
+
+                    if (val == null)
+                        throw new GridCacheDataStructureRemovedException("Sequence was removed from cache: " + name);
+
+                    dsMgr.cache().putx(key, val.set(val.get() + size));
+
+                    return val.get();
+                }
+            });
+
+            // Global value never decreases, so new range never intersects with current one.
+            locVal.set(start);
+            upBound = start + size;
+        }
+        catch (GridCacheDataStructureRemovedException e) {
+            rmvd = true;
+
+            throw e;
+        }
+        finally {
+            reserveLock.unlock();
+        }
+    }
+
+    /**
+     * @throws GridCacheDataStructureRemovedException If sequence was removed.
+     */
+    private void checkRemoved() throws GridCacheDataStructureRemovedException {
+        if (rmvd)
+            throw new GridCacheDataStructureRemovedException("Sequence was removed from cache: " + name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeString(out, ctx.gridName());
+        U.writeString(out, ctx.namex());
+        U.writeString(out, name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        t.set1(U.readString(in));
+        t.set2(U.readString(in));
+        t.set3(U.readString(in));
+    }
+
+    /**
+     * Reconstructs object on demarshalling.
+     *
+     * @return Reconstructed object.
+     * @throws ObjectStreamException Thrown in case of demarshalling error.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        try {
+            GridKernal grid = (GridKernal)G.grid(t.get1());
+
+            GridCacheAdapter<Object, Object> cache = grid.internalCache(t.get2());
+
+            if (cache == null)
+                throw new IllegalStateException("Failed to find cache for name: " + t.get2());
+
+            GridCacheAtomicSequence seq = cache.context().dataStructures().sequence(t.get3(), 0L, false, false);
+
+            if (seq == null)
+                throw new IllegalStateException("Sequence was removed from cache: " + t.get3());
+
+            return seq;
+        }
+        catch (GridException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+        catch (IllegalStateException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheAtomicSequenceImpl.class, this);
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Value of cache-backed atomic data structure. Values are immutable, every
+ * update puts new instance into cache.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheAtomicValue implements GridCacheInternalStorable<Long>, Externalizable {
+    /** Value. */
+    private long val;
+
+    /** Persistent flag. */
+    private boolean persistent;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheAtomicValue() {
+        // No-op.
+    }
+
+    /**
+     * @param val Value.
+     * @param persistent Persistent flag.
+     */
+    public GridCacheAtomicValue(long val, boolean persistent) {
+        this.val = val;
+        this.persistent = persistent;
+    }
+
+    /**
+     * @return Value.
+     */
+    public long get() {
+        return val;
+    }
+
+    /**
+     * @param val New value.
+     * @return Value with the same persistent flag.
+     */
+    public GridCacheAtomicValue set(long val) {
+        return new GridCacheAtomicValue(val, persistent);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean persistent() {
+        return persistent;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Long cached2Store() {
+        return val;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(val);
+        out.writeBoolean(persistent);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        val = in.readLong();
+        persistent = in.readBoolean();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheAtomicValue.class, this);
+    }
+}
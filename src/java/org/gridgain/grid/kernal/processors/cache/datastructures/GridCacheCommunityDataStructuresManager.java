@@ -9,12 +9,26 @@
 
 package org.gridgain.grid.kernal.processors.cache.datastructures;
 
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
 import org.gridgain.grid.cache.datastructures.*;
 import org.gridgain.grid.editions.*;
 import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.gridgain.grid.cache.GridCacheTxConcurrency.*;
+import static org.gridgain.grid.cache.GridCacheTxIsolation.*;
 
 /**
- * Community manager of data structures.
+ * Community manager of data structures. Atomic sequences, atomic longs and queues are
+ * stored in cache under internal keys and updated within pessimistic transactions,
+ * other data structures are available only in Enterprise Edition.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
@@ -23,24 +37,161 @@ public final class GridCacheCommunityDataStructuresManager<K, V> extends GridCac
     /** Error message. */
     private static final String MSG = "Cache data structures";
 
+    /** Number of segments of non-collocated queue. */
+    static final int QUEUE_SEGMENTS = 16;
+
+    /** Local instances of atomic sequences. */
+    private final ConcurrentMap<String, GridCacheAtomicSequenceImpl> seqs =
+        new ConcurrentHashMap<String, GridCacheAtomicSequenceImpl>();
+
+    /** Local instances of atomic longs. */
+    private final ConcurrentMap<String, GridCacheAtomicLongImpl> atomicLongs =
+        new ConcurrentHashMap<String, GridCacheAtomicLongImpl>();
+
+    /** Local instances of queues. */
+    private final ConcurrentMap<String, GridCacheQueueImpl> queues =
+        new ConcurrentHashMap<String, GridCacheQueueImpl>();
+
+    /** Helper for queue priority annotations. */
+    private final GridCacheAnnotationHelper<GridCacheQueuePriority> prioAnn =
+        new GridCacheAnnotationHelper<GridCacheQueuePriority>(GridCacheQueuePriority.class);
+
     /** {@inheritDoc} */
-    @Override public GridCacheAtomicSequence sequence(String name, long initVal, boolean persistent, boolean create) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @Override protected void start0() throws GridException {
+        cctx.io().addHandler(GridCacheQueueNotifyRequest.class, new CI2<UUID, GridCacheQueueNotifyRequest<K, V>>() {
+            @Override public void apply(UUID nodeId, GridCacheQueueNotifyRequest<K, V> req) {
+                onQueueNotify(req.name(), req.queueId());
+            }
+        });
     }
 
     /** {@inheritDoc} */
-    @Override public boolean removeSequence(String name) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @Override protected void onKernalStop0() {
+        // Release threads blocked on queues, queues can not be used after stop.
+        for (GridCacheQueueImpl queue : queues.values())
+            queue.onRemoved();
     }
 
     /** {@inheritDoc} */
-    @Override public GridCacheAtomicLong atomicLong(String name, long initVal, boolean persistent, boolean create) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @Nullable @Override public GridCacheAtomicSequence sequence(final String name, final long initVal,
+        final boolean persistent, final boolean create) throws GridException {
+        A.notNull(name, "name");
+
+        GridCacheAtomicSequenceImpl seq = seqs.get(name);
+
+        if (seq != null && !seq.removed())
+            return seq;
+
+        final GridCacheAtomicKey key = new GridCacheAtomicKey(name);
+
+        Long val = txCall(new Callable<Long>() {
+            @Nullable @Override public Long call() throws Exception {
+                GridCacheAtomicValue v = cache().get(key);
+
+                if (v == null) {
+                    if (!create)
+                        return null;
+
+                    cache().putx(key, v = new GridCacheAtomicValue(initVal, persistent));
+                }
+
+                return v.get();
+            }
+        });
+
+        if (val == null)
+            return null;
+
+        seq = new GridCacheAtomicSequenceImpl(name, key, val, cctx, this);
+
+        while (true) {
+            GridCacheAtomicSequenceImpl old = seqs.putIfAbsent(name, seq);
+
+            if (old == null)
+                return seq;
+
+            if (!old.removed())
+                return old;
+
+            if (seqs.replace(name, old, seq))
+                return seq;
+        }
     }
 
     /** {@inheritDoc} */
-    @Override public boolean removeAtomicLong(String name) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @Override public boolean removeSequence(String name) throws GridException {
+        A.notNull(name, "name");
+
+        GridCacheAtomicSequenceImpl seq = seqs.remove(name);
+
+        if (seq != null)
+            seq.onRemoved();
+
+        return remove(new GridCacheAtomicKey(name), null);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public GridCacheAtomicLong atomicLong(final String name, final long initVal,
+        final boolean persistent, final boolean create) throws GridException {
+        A.notNull(name, "name");
+
+        GridCacheAtomicLongImpl atomicLong = atomicLongs.get(name);
+
+        if (atomicLong != null && !atomicLong.removed())
+            return atomicLong;
+
+        final GridCacheAtomicKey key = new GridCacheAtomicKey(name);
+
+        final boolean striped = cctx.config().isAtomicLongStriped();
+
+        Boolean found = txCall(new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                if (cache().get(key) != null)
+                    return true;
+
+                if (!create)
+                    return false;
+
+                cache().putx(key, new GridCacheAtomicValue(initVal, persistent));
+
+                // Clear stripes which could be left by concurrent updates of removed instance.
+                if (striped)
+                    cache().removeAll(GridCacheAtomicLongImpl.stripeKeys(name));
+
+                return true;
+            }
+        });
+
+        if (!found)
+            return null;
+
+        atomicLong = new GridCacheAtomicLongImpl(name, key, persistent, striped, cctx, this);
+
+        while (true) {
+            GridCacheAtomicLongImpl old = atomicLongs.putIfAbsent(name, atomicLong);
+
+            if (old == null)
+                return atomicLong;
+
+            if (!old.removed())
+                return old;
+
+            if (atomicLongs.replace(name, old, atomicLong))
+                return atomicLong;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removeAtomicLong(String name) throws GridException {
+        A.notNull(name, "name");
+
+        GridCacheAtomicLongImpl atomicLong = atomicLongs.remove(name);
+
+        if (atomicLong != null)
+            atomicLong.onRemoved();
+
+        return remove(new GridCacheAtomicKey(name),
+            cctx.config().isAtomicLongStriped() ? GridCacheAtomicLongImpl.stripeKeys(name) : null);
     }
 
     /** {@inheritDoc} */
@@ -66,14 +217,107 @@ public final class GridCacheCommunityDataStructuresManager<K, V> extends GridCac
     }
 
     /** {@inheritDoc} */
-    @Override public <T> GridCacheQueue<T> queue(String name, GridCacheQueueType type, int capacity,
-        boolean collocated, boolean create) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @SuppressWarnings({"unchecked"})
+    @Nullable @Override public <T> GridCacheQueue<T> queue(final String name, final GridCacheQueueType type,
+        final int capacity, boolean collocated, final boolean create) throws GridException {
+        A.notNull(name, "name", type, "type");
+        A.ensure(capacity > 0, "capacity > 0");
+
+        GridCacheQueueImpl queue = queues.get(name);
+
+        if (queue != null && !queue.removed())
+            return queue;
+
+        final GridCacheQueueKey key = new GridCacheQueueKey(name);
+
+        // Only partitioned cache spreads segments between nodes.
+        final boolean single = collocated || !cctx.isNear();
+
+        GridCacheQueueHeader hdr = txCall(new Callable<GridCacheQueueHeader>() {
+            @Nullable @Override public GridCacheQueueHeader call() throws Exception {
+                GridCacheQueueHeader hdr = (GridCacheQueueHeader)queueCache().get(key);
+
+                if (hdr != null || !create)
+                    return hdr;
+
+                int segs = single ? 1 : Math.min(QUEUE_SEGMENTS, capacity);
+
+                hdr = new GridCacheQueueHeader(GridUuid.randomUuid(), type, capacity, single, segs);
+
+                queueCache().putx(key, hdr);
+
+                Map<Object, Object> map = new HashMap<Object, Object>(segs);
+
+                for (int i = 0; i < segs; i++)
+                    map.put(new GridCacheQueueSegmentKey(hdr.id(), i), new GridCacheQueueSegment(hdr.segmentCapacity(i)));
+
+                queueCache().putAll(map);
+
+                return hdr;
+            }
+        });
+
+        if (hdr == null)
+            return null;
+
+        queue = new GridCacheQueueImpl(name, hdr, cctx, this);
+
+        while (true) {
+            GridCacheQueueImpl old = queues.putIfAbsent(name, queue);
+
+            if (old == null)
+                return queue;
+
+            if (!old.removed() && old.id().equals(hdr.id()))
+                return old;
+
+            if (queues.replace(name, old, queue)) {
+                // Queue was removed and created again.
+                old.onRemoved();
+
+                return queue;
+            }
+        }
     }
 
     /** {@inheritDoc} */
-    @Override public boolean removeQueue(String name, int batchSize) {
-        throw new GridEnterpriseFeatureException(MSG);
+    @Override public boolean removeQueue(final String name, final int batchSize) throws GridException {
+        A.notNull(name, "name");
+
+        return outTx(new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                final GridCacheQueueKey key = new GridCacheQueueKey(name);
+
+                GridCacheQueueHeader hdr = txCall(new Callable<GridCacheQueueHeader>() {
+                    @Nullable @Override public GridCacheQueueHeader call() throws Exception {
+                        GridCacheQueueHeader hdr = (GridCacheQueueHeader)queueCache().get(key);
+
+                        if (hdr != null)
+                            queueCache().removex(key);
+
+                        return hdr;
+                    }
+                });
+
+                GridCacheQueueImpl queue = queues.remove(name);
+
+                if (queue != null && (hdr == null || !queue.id().equals(hdr.id()))) {
+                    queue.onRemoved();
+
+                    queue = null;
+                }
+
+                if (hdr == null)
+                    return false;
+
+                if (queue == null)
+                    queue = new GridCacheQueueImpl(name, hdr, cctx, GridCacheCommunityDataStructuresManager.this);
+
+                queue.removeSegments(batchSize);
+
+                return true;
+            }
+        });
     }
 
     /** {@inheritDoc} */
@@ -99,6 +343,146 @@ public final class GridCacheCommunityDataStructuresManager<K, V> extends GridCac
 
     /** {@inheritDoc} */
     @Override public GridCacheAnnotationHelper<GridCacheQueuePriority> priorityAnnotations() {
-        throw new GridEnterpriseFeatureException(MSG);
+        return prioAnn;
+    }
+
+    /**
+     * Wakes up threads waiting on queue on given nodes.
+     *
+     * @param name Queue name.
+     * @param id Queue ID.
+     * @param nodeIds IDs of nodes to notify.
+     */
+    void notifyQueueWaiters(String name, GridUuid id, @Nullable Collection<UUID> nodeIds) {
+        if (F.isEmpty(nodeIds))
+            return;
+
+        for (UUID nodeId : nodeIds) {
+            if (nodeId.equals(cctx.nodeId())) {
+                onQueueNotify(name, id);
+
+                continue;
+            }
+
+            try {
+                cctx.io().send(nodeId, new GridCacheQueueNotifyRequest<K, V>(name, id));
+            }
+            catch (GridTopologyException ignored) {
+                if (log.isDebugEnabled())
+                    log.debug("Failed to notify queue waiters since node left grid [queue=" + name +
+                        ", nodeId=" + nodeId + ']');
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to notify queue waiters [queue=" + name + ", nodeId=" + nodeId + ']', e);
+            }
+        }
+    }
+
+    /**
+     * @param name Queue name.
+     * @param id Queue ID.
+     */
+    private void onQueueNotify(String name, GridUuid id) {
+        GridCacheQueueImpl queue = queues.get(name);
+
+        if (queue != null && queue.id().equals(id))
+            queue.onNotify();
+    }
+
+    /**
+     * @return Cache storing data structures.
+     */
+    @SuppressWarnings({"unchecked"})
+    GridCacheProjection<GridCacheAtomicKey, GridCacheAtomicValue> cache() {
+        return (GridCacheProjection<GridCacheAtomicKey, GridCacheAtomicValue>)(GridCacheProjection)cctx.cache();
+    }
+
+    /**
+     * @return Cache storing queues.
+     */
+    @SuppressWarnings({"unchecked"})
+    GridCacheProjection<Object, Object> queueCache() {
+        return (GridCacheProjection<Object, Object>)(GridCacheProjection)cctx.cache();
+    }
+
+    /**
+     * Executes closure outside of user transaction. If current thread has a transaction,
+     * closure is executed in system pool.
+     *
+     * @param c Closure.
+     * @return Closure result.
+     * @throws GridException If failed.
+     */
+    <R> R outTx(Callable<R> c) throws GridException {
+        if (cctx.tm().inUserTx())
+            return cctx.closures().callLocalSafe(c, true).get();
+
+        try {
+            return c.call();
+        }
+        catch (GridException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new GridException("Failed to execute data structure operation.", e);
+        }
+    }
+
+    /**
+     * Executes closure within pessimistic transaction. If current thread already has
+     * a transaction, closure is executed in system pool, so that updates of data
+     * structures do not become part of user transaction.
+     *
+     * @param c Closure.
+     * @return Closure result.
+     * @throws GridException If failed.
+     */
+    <R> R txCall(final Callable<R> c) throws GridException {
+        if (cctx.tm().inUserTx()) {
+            return cctx.closures().callLocalSafe(new GPC<R>() {
+                @Override public R call() throws Exception {
+                    return txCall(c);
+                }
+            }, true).get();
+        }
+
+        GridCacheTx tx = cache().txStart(PESSIMISTIC, REPEATABLE_READ);
+
+        try {
+            R res = c.call();
+
+            tx.commit();
+
+            return res;
+        }
+        catch (GridException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new GridException("Failed to update data structure.", e);
+        }
+        finally {
+            tx.end();
+        }
+    }
+
+    /**
+     * @param key Key of data structure.
+     * @param stripes Additional keys of data structure.
+     * @return {@code True} if data structure was found in cache.
+     * @throws GridException If failed.
+     */
+    private boolean remove(final GridCacheAtomicKey key, @Nullable final Collection<GridCacheAtomicKey> stripes)
+        throws GridException {
+        return txCall(new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                boolean rmv = cache().removex(key);
+
+                if (!F.isEmpty(stripes))
+                    cache().removeAll(stripes);
+
+                return rmv;
+            }
+        });
     }
 }
@@ -0,0 +1,149 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.cache.datastructures.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Queue header. Header is created together with queue segments and never changes,
+ * so it is read only once by every queue instance. Identifier of the queue is part
+ * of segment and item keys, so keys of removed queue are never reused by a new
+ * queue with the same name.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueHeader implements Externalizable {
+    /** Queue ID. */
+    private GridUuid id;
+
+    /** Queue type. */
+    private GridCacheQueueType type;
+
+    /** Capacity, {@link Integer#MAX_VALUE} for unbounded queue. */
+    private int cap;
+
+    /** Collocated flag. */
+    private boolean collocated;
+
+    /** Number of segments. */
+    private int segs;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueHeader() {
+        // No-op.
+    }
+
+    /**
+     * @param id Queue ID.
+     * @param type Queue type.
+     * @param cap Capacity.
+     * @param collocated Collocated flag.
+     * @param segs Number of segments.
+     */
+    public GridCacheQueueHeader(GridUuid id, GridCacheQueueType type, int cap, boolean collocated, int segs) {
+        assert id != null;
+        assert type != null;
+        assert cap > 0;
+        assert segs > 0;
+
+        this.id = id;
+        this.type = type;
+        this.cap = cap;
+        this.collocated = collocated;
+        this.segs = segs;
+    }
+
+    /**
+     * @return Queue ID.
+     */
+    public GridUuid id() {
+        return id;
+    }
+
+    /**
+     * @return Queue type.
+     */
+    public GridCacheQueueType type() {
+        return type;
+    }
+
+    /**
+     * @return Capacity, {@link Integer#MAX_VALUE} for unbounded queue.
+     */
+    public int capacity() {
+        return cap;
+    }
+
+    /**
+     * @return {@code True} if queue is bounded.
+     */
+    public boolean bounded() {
+        return cap < Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return Collocated flag.
+     */
+    public boolean collocated() {
+        return collocated;
+    }
+
+    /**
+     * @return Number of segments.
+     */
+    public int segments() {
+        return segs;
+    }
+
+    /**
+     * Splits queue capacity between segments.
+     *
+     * @param seg Segment index.
+     * @return Capacity of segment.
+     */
+    public int segmentCapacity(int seg) {
+        assert seg >= 0 && seg < segs;
+
+        if (!bounded())
+            return Integer.MAX_VALUE;
+
+        return cap / segs + (seg < cap % segs ? 1 : 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeGridUuid(out, id);
+        out.writeByte(type.ordinal());
+        out.writeInt(cap);
+        out.writeBoolean(collocated);
+        out.writeInt(segs);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = U.readGridUuid(in);
+        type = GridCacheQueueType.fromOrdinal(in.readByte());
+        cap = in.readInt();
+        collocated = in.readBoolean();
+        segs = in.readInt();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueHeader.class, this);
+    }
+}
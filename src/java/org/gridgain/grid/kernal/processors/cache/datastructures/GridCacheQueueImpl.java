@@ -0,0 +1,1629 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.datastructures.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.cache.datastructures.GridCacheQueueType.*;
+
+/**
+ * Cache-backed queue. Queue is split into segments, every segment holds its own head and
+ * tail counters (see {@link GridCacheQueueSegment}) and its items are mapped to the same node
+ * as segment key, so an operation locks a single segment and is executed on a single primary
+ * node. Collocated queue has one segment, non-collocated queue has several segments spread
+ * over partitions, nodes rotate segments they add items to and poll items from, so that
+ * concurrent producers and consumers do not contend for the same lock. Ordering of
+ * non-collocated queue is maintained within a segment only.
+ * <p>
+ * Blocking operations do not poll cache. Thread which found queue empty (or full) registers
+ * local node in every segment within the same transaction that checked the segment, and
+ * the node that changes the segment afterwards notifies registered nodes with
+ * {@link GridCacheQueueNotifyRequest}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public final class GridCacheQueueImpl<T> extends GridMetadataAwareAdapter implements GridCacheQueue<T>,
+    Externalizable {
+    /** Default number of items removed in one batch by clear operations. */
+    static final int DFLT_CLEAR_BATCH_SIZE = 100;
+
+    /** Number of items read at once by iterator. */
+    private static final int ITER_BATCH_SIZE = 100;
+
+    /** Deserialization stash. */
+    private static final ThreadLocal<GridTuple3<String, String, String>> stash =
+        new ThreadLocal<GridTuple3<String, String, String>>() {
+            @Override protected GridTuple3<String, String, String> initialValue() {
+                return F.t3();
+            }
+        };
+
+    /** Queue name. */
+    private String name;
+
+    /** Queue header. */
+    private GridCacheQueueHeader hdr;
+
+    /** Segment keys. */
+    @GridToStringExclude
+    private List<GridCacheQueueSegmentKey> segKeys;
+
+    /** Counter used to rotate segments. */
+    @GridToStringExclude
+    private AtomicInteger rr;
+
+    /** Removed flag. */
+    private volatile boolean rmvd;
+
+    /** Mutex for waiting threads. */
+    @GridToStringExclude
+    private final Object mux = new Object();
+
+    /** Number of notifications received, guarded by {@link #mux}. */
+    @GridToStringExclude
+    private long ver;
+
+    /** Cache context. */
+    @GridToStringExclude
+    private GridCacheContext ctx;
+
+    /** Data structures manager. */
+    @GridToStringExclude
+    private GridCacheCommunityDataStructuresManager<?, ?> dsMgr;
+
+    /** Cache storing queue. */
+    @GridToStringExclude
+    private GridCacheProjection<Object, Object> cache;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueImpl() {
+        // No-op.
+    }
+
+    /**
+     * @param name Queue name.
+     * @param hdr Queue header.
+     * @param ctx Cache context.
+     * @param dsMgr Data structures manager.
+     */
+    GridCacheQueueImpl(String name, GridCacheQueueHeader hdr, GridCacheContext ctx,
+        GridCacheCommunityDataStructuresManager<?, ?> dsMgr) {
+        assert name != null;
+        assert hdr != null;
+        assert ctx != null;
+        assert dsMgr != null;
+
+        this.name = name;
+        this.hdr = hdr;
+        this.ctx = ctx;
+        this.dsMgr = dsMgr;
+
+        cache = dsMgr.queueCache();
+
+        segKeys = new ArrayList<GridCacheQueueSegmentKey>(hdr.segments());
+
+        for (int i = 0; i < hdr.segments(); i++)
+            segKeys.add(new GridCacheQueueSegmentKey(hdr.id(), i));
+
+        // Start nodes from different segments.
+        rr = new AtomicInteger((int)ctx.localNode().order());
+    }
+
+    /**
+     * @return Queue ID.
+     */
+    GridUuid id() {
+        return hdr.id();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String name() {
+        return name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridCacheQueueType type() {
+        return hdr.type();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean add(T item) {
+        try {
+            return addx(item);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean addx(T item) throws GridException {
+        A.notNull(item, "item");
+
+        return dsMgr.outTx(addCall(Collections.singletonList(item)));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> addAsync(T item) {
+        A.notNull(item, "item");
+
+        return ctx.closures().callLocalSafe(addCall(Collections.singletonList(item)), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean addAll(Collection<? extends T> items) {
+        try {
+            return addAllx(items);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean addAllx(Collection<? extends T> items) throws GridException {
+        return dsMgr.outTx(addCall(itemList(items)));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> addAllAsync(Collection<? extends T> items) {
+        return ctx.closures().callLocalSafe(addCall(itemList(items)), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean contains(Object item) {
+        try {
+            return containsx(item);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean containsx(Object item) throws GridException {
+        A.notNull(item, "item");
+
+        return containsAllx(Collections.singleton(item));
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean containsAll(Collection<?> items) {
+        try {
+            return containsAllx(items);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean containsAllx(final Collection<?> items) throws GridException {
+        A.notNull(items, "items");
+
+        return dsMgr.outTx(new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                checkRemoved();
+
+                Collection<Object> missing = new HashSet<Object>(items);
+
+                for (QueueIterator it = new QueueIterator(); !missing.isEmpty() && it.hasNextx();)
+                    missing.remove(it.nextx());
+
+                return missing.isEmpty();
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clear() {
+        clear(DFLT_CLEAR_BATCH_SIZE);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearx() throws GridException {
+        clearx(DFLT_CLEAR_BATCH_SIZE);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clear(int batchSize) {
+        try {
+            clearx(batchSize);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearx(int batchSize) throws GridException {
+        dsMgr.outTx(clearCall(batchSize));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> clearAsync() {
+        return ctx.closures().callLocalSafe(clearCall(DFLT_CLEAR_BATCH_SIZE), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean remove(Object item) {
+        try {
+            A.notNull(item, "item");
+
+            return dsMgr.outTx(removeCall(Collections.singleton(item), false, true));
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removex(T item) throws GridException {
+        A.notNull(item, "item");
+
+        return dsMgr.outTx(removeCall(Collections.singleton(item), false, true));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> removeAsync(T item) {
+        A.notNull(item, "item");
+
+        return ctx.closures().callLocalSafe(removeCall(Collections.singleton(item), false, true), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removeAll(Collection<?> items) {
+        try {
+            return removeAllx(items);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removeAllx(Collection<?> items) throws GridException {
+        A.notNull(items, "items");
+
+        return dsMgr.outTx(removeCall(items, false, false));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> removeAllAsync(Collection<?> items) {
+        A.notNull(items, "items");
+
+        return ctx.closures().callLocalSafe(removeCall(items, false, false), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean retainAll(Collection<?> items) {
+        try {
+            return retainAllx(items);
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean retainAllx(Collection<?> items) throws GridException {
+        A.notNull(items, "items");
+
+        return dsMgr.outTx(removeCall(items, true, false));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> retainAllAsync(Collection<?> items) {
+        A.notNull(items, "items");
+
+        return ctx.closures().callLocalSafe(removeCall(items, true, false), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isEmptyx() throws GridException {
+        return sizex() == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Iterator<T> iterator() {
+        return new QueueIterator();
+    }
+
+    /** {@inheritDoc} */
+    @Override public Object[] toArray() {
+        return items().toArray();
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"SuspiciousToArrayCall"})
+    @Override public <T1> T1[] toArray(T1[] a) {
+        return items().toArray(a);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int size() {
+        try {
+            return sizex();
+        }
+        catch (GridException e) {
+            throw wrap(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public int sizex() throws GridException {
+        return dsMgr.outTx(new Callable<Integer>() {
+            @Override public Integer call() throws Exception {
+                checkRemoved();
+
+                long size = 0;
+
+                for (GridCacheQueueSegment seg : segments())
+                    size += seg.size();
+
+                return (int)Math.min(size, Integer.MAX_VALUE);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T poll() throws GridException {
+        return dsMgr.outTx(pollCall(true, true));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> pollAsync() {
+        return ctx.closures().callLocalSafe(pollCall(true, true), true);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T pollLast() throws GridException {
+        return dsMgr.outTx(pollCall(false, true));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> pollLastAsync() {
+        return ctx.closures().callLocalSafe(pollCall(false, true), true);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T peek() throws GridException {
+        return dsMgr.outTx(pollCall(true, false));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> peekAsync() {
+        return ctx.closures().callLocalSafe(pollCall(true, false), true);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T peekLast() throws GridException {
+        return dsMgr.outTx(pollCall(false, false));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> peekLastAsync() {
+        return ctx.closures().callLocalSafe(pollCall(false, false), true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int position(final T item) throws GridException {
+        A.notNull(item, "item");
+
+        checkCollocated();
+
+        return dsMgr.outTx(new Callable<Integer>() {
+            @Override public Integer call() throws Exception {
+                checkRemoved();
+
+                int pos = 0;
+
+                for (QueueIterator it = new QueueIterator(); it.hasNextx(); pos++)
+                    if (item.equals(it.nextx()))
+                        return pos;
+
+                return -1;
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public Collection<T> items(final Integer... positions) throws GridException {
+        A.notNull(positions, "positions");
+
+        checkCollocated();
+
+        return dsMgr.outTx(new Callable<Collection<T>>() {
+            @Override public Collection<T> call() throws Exception {
+                checkRemoved();
+
+                Map<Integer, T> found = new HashMap<Integer, T>();
+
+                for (Integer pos : positions)
+                    if (pos != null)
+                        found.put(pos, null);
+
+                int pos = 0;
+                int cnt = 0;
+
+                for (QueueIterator it = new QueueIterator(); cnt < found.size() && it.hasNextx(); pos++) {
+                    T item = it.nextx();
+
+                    if (found.containsKey(pos)) {
+                        found.put(pos, item);
+
+                        cnt++;
+                    }
+                }
+
+                Collection<T> res = new ArrayList<T>(positions.length);
+
+                for (Integer p : positions) {
+                    T item = found.get(p);
+
+                    if (item != null)
+                        res.add(item);
+                }
+
+                return res;
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override public void put(T item) throws GridException {
+        A.notNull(item, "item");
+
+        dsMgr.outTx(putCall(item, -1));
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean put(T item, long timeout, TimeUnit unit) throws GridException {
+        A.notNull(item, "item", unit, "unit");
+
+        return dsMgr.outTx(putCall(item, Math.max(0, unit.toMillis(timeout))));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> putAsync(T item) {
+        A.notNull(item, "item");
+
+        return ctx.closures().callLocalSafe(putCall(item, -1), false);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T take() throws GridException {
+        return dsMgr.outTx(takeCall(true, true, -1));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T takeLast() throws GridException {
+        return dsMgr.outTx(takeCall(false, true, -1));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T take(long timeout, TimeUnit unit) throws GridException {
+        A.notNull(unit, "unit");
+
+        return dsMgr.outTx(takeCall(true, true, Math.max(0, unit.toMillis(timeout))));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T takeLast(long timeout, TimeUnit unit) throws GridException {
+        A.notNull(unit, "unit");
+
+        return dsMgr.outTx(takeCall(false, true, Math.max(0, unit.toMillis(timeout))));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> takeAsync() {
+        return ctx.closures().callLocalSafe(takeCall(true, true, -1), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> takeLastAsync() {
+        return ctx.closures().callLocalSafe(takeCall(false, true, -1), false);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T get() throws GridException {
+        return dsMgr.outTx(takeCall(true, false, -1));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T getLast() throws GridException {
+        return dsMgr.outTx(takeCall(false, false, -1));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T get(long timeout, TimeUnit unit) throws GridException {
+        A.notNull(unit, "unit");
+
+        return dsMgr.outTx(takeCall(true, false, Math.max(0, unit.toMillis(timeout))));
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public T getLast(long timeout, TimeUnit unit) throws GridException {
+        A.notNull(unit, "unit");
+
+        return dsMgr.outTx(takeCall(false, false, Math.max(0, unit.toMillis(timeout))));
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> getAsync() {
+        return ctx.closures().callLocalSafe(takeCall(true, false, -1), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<T> getLastAsync() {
+        return ctx.closures().callLocalSafe(takeCall(false, false, -1), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int capacity() {
+        return hdr.capacity();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean bounded() {
+        return hdr.bounded();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean collocated() {
+        return hdr.collocated();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean removed() {
+        return rmvd;
+    }
+
+    /**
+     * Marks queue as removed and wakes up waiting threads.
+     */
+    void onRemoved() {
+        rmvd = true;
+
+        onNotify();
+    }
+
+    /**
+     * Wakes up threads waiting for items or room.
+     */
+    void onNotify() {
+        synchronized (mux) {
+            ver++;
+
+            mux.notifyAll();
+        }
+    }
+
+    /**
+     * Removes segments and items of removed queue.
+     *
+     * @param batchSize Number of items removed at once.
+     * @throws GridException If failed.
+     */
+    void removeSegments(int batchSize) throws GridException {
+        if (batchSize <= 0)
+            batchSize = DFLT_CLEAR_BATCH_SIZE;
+
+        for (int i = 0; i < segKeys.size(); i++) {
+            final GridCacheQueueSegmentKey segKey = segKeys.get(i);
+
+            GridCacheQueueSegment seg = dsMgr.txCall(new Callable<GridCacheQueueSegment>() {
+                @Nullable @Override public GridCacheQueueSegment call() throws Exception {
+                    GridCacheQueueSegment seg = (GridCacheQueueSegment)cache.get(segKey);
+
+                    if (seg != null)
+                        cache.removex(segKey);
+
+                    return seg;
+                }
+            });
+
+            if (seg != null) {
+                // Waiters will find out that queue was removed.
+                dsMgr.notifyQueueWaiters(name, hdr.id(), seg.waiters(false));
+                dsMgr.notifyQueueWaiters(name, hdr.id(), seg.waiters(true));
+
+                removeItems(i, ranges(seg), batchSize);
+            }
+        }
+
+        onRemoved();
+    }
+
+    /**
+     * @param items Items to add.
+     * @return Closure adding items.
+     */
+    private Callable<Boolean> addCall(final List<? extends T> items) {
+        return new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                return add0(items, priorities(items));
+            }
+        };
+    }
+
+    /**
+     * @param item Item to put.
+     * @param timeout Timeout in milliseconds, negative to wait without timeout.
+     * @return Closure putting item.
+     */
+    private Callable<Boolean> putCall(final T item, final long timeout) {
+        return new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                return put0(item, timeout);
+            }
+        };
+    }
+
+    /**
+     * @param head If {@code true}, then head item is polled, otherwise tail one.
+     * @param rmv If {@code false}, then item is not removed from queue.
+     * @return Closure polling item.
+     */
+    private Callable<T> pollCall(final boolean head, final boolean rmv) {
+        return new Callable<T>() {
+            @Nullable @Override public T call() throws Exception {
+                return poll0(head, rmv);
+            }
+        };
+    }
+
+    /**
+     * @param head If {@code true}, then head item is taken, otherwise tail one.
+     * @param rmv If {@code false}, then item is not removed from queue.
+     * @param timeout Timeout in milliseconds, negative to wait without timeout.
+     * @return Closure taking item.
+     */
+    private Callable<T> takeCall(final boolean head, final boolean rmv, final long timeout) {
+        return new Callable<T>() {
+            @Nullable @Override public T call() throws Exception {
+                return take0(head, rmv, timeout);
+            }
+        };
+    }
+
+    /**
+     * @param items Items to remove or to retain.
+     * @param retain If {@code true}, then items which are not in given collection are removed.
+     * @param single If {@code true}, then only first matching item is removed.
+     * @return Closure removing items.
+     */
+    private Callable<Boolean> removeCall(final Collection<?> items, final boolean retain, final boolean single) {
+        return new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                checkRemoved();
+
+                boolean changed = false;
+
+                for (QueueIterator it = new QueueIterator(); it.hasNextx();) {
+                    T item = it.nextx();
+
+                    if (items.contains(item) != retain && removeItem(it.key(), item)) {
+                        if (single)
+                            return true;
+
+                        changed = true;
+                    }
+                }
+
+                return changed;
+            }
+        };
+    }
+
+    /**
+     * @param batchSize Number of items removed at once.
+     * @return Closure clearing queue.
+     */
+    private Callable<Boolean> clearCall(final int batchSize) {
+        return new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                checkRemoved();
+
+                for (int i = 0; i < segKeys.size(); i++)
+                    removeItems(i, clearSegment(i), batchSize <= 0 ? DFLT_CLEAR_BATCH_SIZE : batchSize);
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Adds items within single transaction. Items are added to one segment if it has
+     * room for all of them, otherwise bounded queue spreads items between segments.
+     *
+     * @param items Items to add.
+     * @param prios Priorities of items or {@code null} if queue is not a priority one.
+     * @return {@code True} if items were added, {@code false} if queue does not have
+     *      room for all items.
+     * @throws GridException If failed.
+     */
+    private boolean add0(List<? extends T> items, @Nullable int[] prios) throws GridException {
+        checkRemoved();
+
+        if (items.isEmpty())
+            return false;
+
+        int start = nextSegment();
+
+        if (!hdr.bounded())
+            return addToSegment(start, items, prios, false);
+
+        List<GridCacheQueueSegment> segs = segments();
+
+        long room = 0;
+
+        for (int i = 0; i < segs.size(); i++) {
+            int idx = (start + i) % segs.size();
+
+            if (segs.get(idx).room() >= items.size() && addToSegment(idx, items, prios, false))
+                return true;
+
+            room += segs.get(idx).room();
+        }
+
+        return segs.size() > 1 && room >= items.size() && addToSegments(start, items, prios);
+    }
+
+    /**
+     * Adds item waiting for room in bounded queue.
+     *
+     * @param item Item to add.
+     * @param timeout Timeout in milliseconds, negative to wait without timeout.
+     * @return {@code False} if timed out.
+     * @throws GridException If failed.
+     */
+    private boolean put0(T item, long timeout) throws GridException {
+        List<T> items = Collections.singletonList(item);
+
+        int[] prios = priorities(items);
+
+        long end = endTime(timeout);
+
+        while (true) {
+            long v = version();
+
+            if (add0(items, prios))
+                return true;
+
+            // Register as waiting for room unless some segment got room concurrently.
+            int start = nextSegment();
+
+            for (int i = 0; i < segKeys.size(); i++)
+                if (addToSegment((start + i) % segKeys.size(), items, prios, true))
+                    return true;
+
+            if (!await(v, end))
+                return false;
+        }
+    }
+
+    /**
+     * Polls or peeks item without waiting.
+     *
+     * @param head If {@code true}, then head item is polled, otherwise tail one.
+     * @param rmv If {@code false}, then item is not removed from queue.
+     * @return Item or {@code null} if queue is empty.
+     * @throws GridException If failed.
+     */
+    @Nullable private T poll0(boolean head, boolean rmv) throws GridException {
+        checkRemoved();
+
+        List<GridCacheQueueSegment> segs = segments();
+
+        // Peek always starts from the first segment, so that it returns the same item.
+        int start = rmv ? nextSegment() : 0;
+
+        for (int i = 0; i < segs.size(); i++) {
+            int idx = (start + i) % segs.size();
+
+            if (segs.get(idx).size() > 0) {
+                T item = pollSegment(idx, head, rmv, false);
+
+                if (item != null)
+                    return item;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Polls or peeks item waiting for queue to get items.
+     *
+     * @param head If {@code true}, then head item is taken, otherwise tail one.
+     * @param rmv If {@code false}, then item is not removed from queue.
+     * @param timeout Timeout in milliseconds, negative to wait without timeout.
+     * @return Item or {@code null} if timed out.
+     * @throws GridException If failed.
+     */
+    @Nullable private T take0(boolean head, boolean rmv, long timeout) throws GridException {
+        long end = endTime(timeout);
+
+        while (true) {
+            long v = version();
+
+            T item = poll0(head, rmv);
+
+            if (item != null)
+                return item;
+
+            // Register as waiting for items unless some segment got items concurrently.
+            int start = rmv ? nextSegment() : 0;
+
+            for (int i = 0; i < segKeys.size(); i++) {
+                item = pollSegment((start + i) % segKeys.size(), head, rmv, true);
+
+                if (item != null)
+                    return item;
+            }
+
+            if (!await(v, end))
+                return null;
+        }
+    }
+
+    /**
+     * Adds items to segment.
+     *
+     * @param idx Segment index.
+     * @param items Items to add.
+     * @param prios Priorities of items or {@code null} if queue is not a priority one.
+     * @param wait If {@code true} and segment does not have room, then local node is
+     *      registered as waiting for room.
+     * @return {@code True} if items were added, {@code false} if segment does not have room.
+     * @throws GridException If failed.
+     */
+    private boolean addToSegment(final int idx, final List<? extends T> items, @Nullable final int[] prios,
+        final boolean wait) throws GridException {
+        T2<Boolean, Collection<UUID>> res = dsMgr.txCall(new Callable<T2<Boolean, Collection<UUID>>>() {
+            @Override public T2<Boolean, Collection<UUID>> call() throws Exception {
+                GridCacheQueueSegment seg = segment(idx);
+
+                if (seg.room() < items.size()) {
+                    if (wait && !seg.waiters(true).contains(ctx.nodeId())) {
+                        seg = seg.copy();
+
+                        seg.addWaiter(ctx.nodeId(), true);
+
+                        cache.putx(segKeys.get(idx), seg);
+                    }
+
+                    return new T2<Boolean, Collection<UUID>>(false, null);
+                }
+
+                seg = seg.copy();
+
+                cache.putAll(reserve(idx, seg, items, prios, 0, items.size()));
+
+                Collection<UUID> waiters = seg.resetWaiters(false);
+
+                cache.putx(segKeys.get(idx), seg);
+
+                return new T2<Boolean, Collection<UUID>>(true, waiters);
+            }
+        });
+
+        dsMgr.notifyQueueWaiters(name, hdr.id(), res.get2());
+
+        return res.get1();
+    }
+
+    /**
+     * Adds items spreading them between segments of bounded queue.
+     *
+     * @param start Index of segment to start from.
+     * @param items Items to add.
+     * @param prios Priorities of items or {@code null} if queue is not a priority one.
+     * @return {@code True} if items were added, {@code false} if queue does not have room.
+     * @throws GridException If failed.
+     */
+    private boolean addToSegments(final int start, final List<? extends T> items, @Nullable final int[] prios)
+        throws GridException {
+        T2<Boolean, Collection<UUID>> res = dsMgr.txCall(new Callable<T2<Boolean, Collection<UUID>>>() {
+            @Override public T2<Boolean, Collection<UUID>> call() throws Exception {
+                int cnt = segKeys.size();
+
+                List<GridCacheQueueSegment> segs = new ArrayList<GridCacheQueueSegment>(cnt);
+
+                long room = 0;
+
+                // Segments are always locked in the same order to avoid deadlocks.
+                for (int i = 0; i < cnt; i++) {
+                    GridCacheQueueSegment seg = segment(i);
+
+                    segs.add(seg);
+
+                    room += seg.room();
+                }
+
+                if (room < items.size())
+                    return new T2<Boolean, Collection<UUID>>(false, null);
+
+                Collection<UUID> waiters = new GridLeanSet<UUID>();
+
+                for (int i = 0, from = 0; i < cnt && from < items.size(); i++) {
+                    int idx = (start + i) % cnt;
+
+                    GridCacheQueueSegment seg = segs.get(idx);
+
+                    int to = from + Math.min(seg.room(), items.size() - from);
+
+                    if (to == from)
+                        continue;
+
+                    seg = seg.copy();
+
+                    cache.putAll(reserve(idx, seg, items, prios, from, to));
+
+                    Collection<UUID> w = seg.resetWaiters(false);
+
+                    if (w != null)
+                        waiters.addAll(w);
+
+                    cache.putx(segKeys.get(idx), seg);
+
+                    from = to;
+                }
+
+                return new T2<Boolean, Collection<UUID>>(true, waiters);
+            }
+        });
+
+        dsMgr.notifyQueueWaiters(name, hdr.id(), res.get2());
+
+        return res.get1();
+    }
+
+    /**
+     * Polls or peeks item from segment.
+     *
+     * @param idx Segment index.
+     * @param head If {@code true}, then head item is polled, otherwise tail one.
+     * @param rmv If {@code false}, then item is not removed from queue.
+     * @param wait If {@code true} and segment is empty, then local node is registered
+     *      as waiting for items.
+     * @return Item or {@code null} if segment is empty.
+     * @throws GridException If failed.
+     */
+    @Nullable private T pollSegment(final int idx, final boolean head, final boolean rmv, final boolean wait)
+        throws GridException {
+        T2<T, Collection<UUID>> res = dsMgr.txCall(new Callable<T2<T, Collection<UUID>>>() {
+            @SuppressWarnings({"unchecked"})
+            @Override public T2<T, Collection<UUID>> call() throws Exception {
+                GridCacheQueueSegment seg = segment(idx);
+
+                // Items of highest priority are at the head of the queue.
+                Integer prio = seg.priority(head);
+
+                if (prio == null) {
+                    if (wait && !seg.waiters(false).contains(ctx.nodeId())) {
+                        seg = seg.copy();
+
+                        seg.addWaiter(ctx.nodeId(), false);
+
+                        cache.putx(segKeys.get(idx), seg);
+                    }
+
+                    return new T2<T, Collection<UUID>>(null, null);
+                }
+
+                // Head of LIFO queue is the last added item.
+                boolean first = head != (hdr.type() == LIFO);
+
+                long from = seg.head(prio);
+                long to = seg.tail(prio);
+
+                GridCacheQueueItemKey key = null;
+                Object item = null;
+
+                // Skip indexes of items removed from the middle of the queue.
+                for (long i = from; i < to && item == null; i++) {
+                    key = new GridCacheQueueItemKey(hdr.id(), idx, prio, first ? i : from + to - 1 - i);
+
+                    item = cache.get(key);
+                }
+
+                if (item == null)
+                    throw new GridException("Failed to find items of queue segment (were queue items lost?) " +
+                        "[queue=" + name + ", seg=" + seg + ']');
+
+                if (!rmv)
+                    return new T2<T, Collection<UUID>>((T)item, null);
+
+                seg = seg.copy();
+
+                if (first)
+                    seg.pollFirst(prio, key.index());
+                else
+                    seg.pollLast(prio, key.index());
+
+                cache.removex(key);
+
+                Collection<UUID> waiters = seg.resetWaiters(true);
+
+                cache.putx(segKeys.get(idx), seg);
+
+                return new T2<T, Collection<UUID>>((T)item, waiters);
+            }
+        });
+
+        dsMgr.notifyQueueWaiters(name, hdr.id(), res.get2());
+
+        return res.get1();
+    }
+
+    /**
+     * Removes item from the middle of the queue.
+     *
+     * @param key Item key.
+     * @param item Expected item.
+     * @return {@code True} if item was removed, {@code false} if it was concurrently removed.
+     * @throws GridException If failed.
+     */
+    private boolean removeItem(final GridCacheQueueItemKey key, final Object item) throws GridException {
+        T2<Boolean, Collection<UUID>> res = dsMgr.txCall(new Callable<T2<Boolean, Collection<UUID>>>() {
+            @Override public T2<Boolean, Collection<UUID>> call() throws Exception {
+                GridCacheQueueSegment seg = segment(key.segment());
+
+                if (!item.equals(cache.get(key)))
+                    return new T2<Boolean, Collection<UUID>>(false, null);
+
+                seg = seg.copy();
+
+                seg.remove(key.priority(), key.index());
+
+                cache.removex(key);
+
+                Collection<UUID> waiters = seg.resetWaiters(true);
+
+                cache.putx(segKeys.get(key.segment()), seg);
+
+                return new T2<Boolean, Collection<UUID>>(true, waiters);
+            }
+        });
+
+        dsMgr.notifyQueueWaiters(name, hdr.id(), res.get2());
+
+        return res.get1();
+    }
+
+    /**
+     * Removes all items from segment counters. Items are removed from cache by caller.
+     *
+     * @param idx Segment index.
+     * @return Ranges of removed items.
+     * @throws GridException If failed.
+     */
+    private Collection<long[]> clearSegment(final int idx) throws GridException {
+        T2<Collection<long[]>, Collection<UUID>> res =
+            dsMgr.txCall(new Callable<T2<Collection<long[]>, Collection<UUID>>>() {
+                @Override public T2<Collection<long[]>, Collection<UUID>> call() throws Exception {
+                    GridCacheQueueSegment seg = segment(idx);
+
+                    Collection<long[]> ranges = ranges(seg);
+
+                    if (ranges.isEmpty())
+                        return new T2<Collection<long[]>, Collection<UUID>>(ranges, null);
+
+                    seg = seg.copy();
+
+                    seg.clear();
+
+                    Collection<UUID> waiters = seg.resetWaiters(true);
+
+                    cache.putx(segKeys.get(idx), seg);
+
+                    return new T2<Collection<long[]>, Collection<UUID>>(ranges, waiters);
+                }
+            });
+
+        dsMgr.notifyQueueWaiters(name, hdr.id(), res.get2());
+
+        return res.get1();
+    }
+
+    /**
+     * Removes items of cleared segment from cache.
+     *
+     * @param idx Segment index.
+     * @param ranges Ranges of items.
+     * @param batchSize Number of items removed at once.
+     * @throws GridException If failed.
+     */
+    private void removeItems(int idx, Collection<long[]> ranges, int batchSize) throws GridException {
+        assert batchSize > 0;
+
+        Collection<GridCacheQueueItemKey> keys = new ArrayList<GridCacheQueueItemKey>(batchSize);
+
+        for (long[] r : ranges) {
+            for (long i = r[1]; i < r[2]; i++) {
+                keys.add(new GridCacheQueueItemKey(hdr.id(), idx, (int)r[0], i));
+
+                if (keys.size() == batchSize) {
+                    cache.removeAll(keys);
+
+                    keys = new ArrayList<GridCacheQueueItemKey>(batchSize);
+                }
+            }
+        }
+
+        if (!keys.isEmpty())
+            cache.removeAll(keys);
+    }
+
+    /**
+     * @param seg Segment.
+     * @return Priority, head and tail of every bucket of segment, in queue order.
+     */
+    private static Collection<long[]> ranges(GridCacheQueueSegment seg) {
+        Collection<long[]> ranges = new ArrayList<long[]>();
+
+        for (int prio : seg.priorities(true))
+            ranges.add(new long[] {prio, seg.head(prio), seg.tail(prio)});
+
+        return ranges;
+    }
+
+    /**
+     * Reserves indexes for items in segment.
+     *
+     * @param idx Segment index.
+     * @param seg Segment.
+     * @param items Items.
+     * @param prios Priorities of items or {@code null} if queue is not a priority one.
+     * @param from Index of first item to add.
+     * @param to Index following last item to add.
+     * @return Items by keys.
+     */
+    private Map<Object, Object> reserve(int idx, GridCacheQueueSegment seg, List<? extends T> items,
+        @Nullable int[] prios, int from, int to) {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+
+        for (int i = from; i < to; i++) {
+            int prio = prios == null ? 0 : prios[i];
+
+            map.put(new GridCacheQueueItemKey(hdr.id(), idx, prio, seg.add(prio)), items.get(i));
+        }
+
+        return map;
+    }
+
+    /**
+     * Reads and locks segment, must be called within transaction.
+     *
+     * @param idx Segment index.
+     * @return Segment.
+     * @throws GridException If failed or queue was removed.
+     */
+    private GridCacheQueueSegment segment(int idx) throws GridException {
+        GridCacheQueueSegment seg = (GridCacheQueueSegment)cache.get(segKeys.get(idx));
+
+        if (seg == null)
+            throw removedException();
+
+        return seg;
+    }
+
+    /**
+     * Reads segments without locks.
+     *
+     * @return Segments.
+     * @throws GridException If failed or queue was removed.
+     */
+    private List<GridCacheQueueSegment> segments() throws GridException {
+        Map<Object, Object> map = cache.getAll(segKeys);
+
+        List<GridCacheQueueSegment> segs = new ArrayList<GridCacheQueueSegment>(segKeys.size());
+
+        for (GridCacheQueueSegmentKey key : segKeys) {
+            GridCacheQueueSegment seg = (GridCacheQueueSegment)map.get(key);
+
+            if (seg == null)
+                throw removedException();
+
+            segs.add(seg);
+        }
+
+        return segs;
+    }
+
+    /**
+     * @return Index of segment to start from. Segments are rotated, so that concurrent
+     *      operations are spread between segments.
+     */
+    private int nextSegment() {
+        return segKeys.size() == 1 ? 0 : (rr.getAndIncrement() & Integer.MAX_VALUE) % segKeys.size();
+    }
+
+    /**
+     * @param items Items.
+     * @return Priorities of items or {@code null} if queue is not a priority one.
+     * @throws GridException If item does not have priority.
+     */
+    @Nullable private int[] priorities(List<? extends T> items) throws GridException {
+        if (hdr.type() != PRIORITY)
+            return null;
+
+        int[] prios = new int[items.size()];
+
+        for (int i = 0; i < prios.length; i++) {
+            Object prio = dsMgr.priorityAnnotations().annotatedValue(items.get(i));
+
+            if (!(prio instanceof Integer))
+                throw new GridException("Failed to get priority of queue item (annotate field or method of int " +
+                    "type with @GridCacheQueuePriority) [queue=" + name + ", item=" + items.get(i) + ']');
+
+            prios[i] = (Integer)prio;
+        }
+
+        return prios;
+    }
+
+    /**
+     * @param items Items.
+     * @return List of items.
+     */
+    private List<T> itemList(Collection<? extends T> items) {
+        A.notNull(items, "items");
+
+        List<T> list = new ArrayList<T>(items);
+
+        for (T item : list)
+            A.notNull(item, "item");
+
+        return list;
+    }
+
+    /**
+     * @return Items of queue.
+     */
+    private List<T> items() {
+        List<T> items = new ArrayList<T>();
+
+        for (T item : this)
+            items.add(item);
+
+        return items;
+    }
+
+    /**
+     * @return Current number of received notifications.
+     */
+    private long version() {
+        synchronized (mux) {
+            return ver;
+        }
+    }
+
+    /**
+     * Waits for notification.
+     *
+     * @param v Number of notifications received before queue was checked.
+     * @param end End time or {@link Long#MAX_VALUE} to wait without timeout.
+     * @return {@code False} if timed out.
+     * @throws GridException If interrupted or queue was removed.
+     */
+    private boolean await(long v, long end) throws GridException {
+        synchronized (mux) {
+            while (ver == v) {
+                checkRemoved();
+
+                long left = end - System.currentTimeMillis();
+
+                if (left <= 0)
+                    return false;
+
+                try {
+                    if (end == Long.MAX_VALUE)
+                        mux.wait();
+                    else
+                        mux.wait(left);
+                }
+                catch (InterruptedException e) {
+                    throw new GridInterruptedException(e);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param timeout Timeout in milliseconds, negative to wait without timeout.
+     * @return End time or {@link Long#MAX_VALUE} to wait without timeout.
+     */
+    private static long endTime(long timeout) {
+        if (timeout < 0)
+            return Long.MAX_VALUE;
+
+        long end = System.currentTimeMillis() + timeout;
+
+        return end < 0 ? Long.MAX_VALUE : end;
+    }
+
+    /**
+     * @throws GridException If queue is not collocated.
+     */
+    private void checkCollocated() throws GridException {
+        if (!hdr.collocated())
+            throw new GridException("Operation is supported only in collocated mode: " + name);
+    }
+
+    /**
+     * @throws GridCacheDataStructureRemovedException If queue was removed.
+     */
+    private void checkRemoved() throws GridCacheDataStructureRemovedException {
+        if (rmvd)
+            throw new GridCacheDataStructureRemovedException("Queue was removed from cache: " + name);
+    }
+
+    /**
+     * Marks queue as removed.
+     *
+     * @return Exception to throw.
+     */
+    private GridCacheDataStructureRemovedException removedException() {
+        onRemoved();
+
+        return new GridCacheDataStructureRemovedException("Queue was removed from cache: " + name);
+    }
+
+    /**
+     * @param e Checked exception.
+     * @return Runtime exception.
+     */
+    private static GridRuntimeException wrap(GridException e) {
+        if (e instanceof GridCacheDataStructureRemovedException)
+            return new GridCacheDataStructureRemovedRuntimeException(e);
+
+        return new GridRuntimeException(e);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeString(out, ctx.gridName());
+        U.writeString(out, ctx.namex());
+        U.writeString(out, name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        t.set1(U.readString(in));
+        t.set2(U.readString(in));
+        t.set3(U.readString(in));
+    }
+
+    /**
+     * Reconstructs object on demarshalling.
+     *
+     * @return Reconstructed object.
+     * @throws ObjectStreamException Thrown in case of demarshalling error.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        GridTuple3<String, String, String> t = stash.get();
+
+        try {
+            GridKernal grid = (GridKernal)G.grid(t.get1());
+
+            GridCacheAdapter<Object, Object> cache = grid.internalCache(t.get2());
+
+            if (cache == null)
+                throw new IllegalStateException("Failed to find cache for name: " + t.get2());
+
+            GridCacheQueue<Object> queue = cache.context().dataStructures().queue(t.get3(), FIFO, Integer.MAX_VALUE,
+                true, false);
+
+            if (queue == null)
+                throw new IllegalStateException("Queue was removed from cache: " + t.get3());
+
+            return queue;
+        }
+        catch (GridException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+        catch (IllegalStateException e) {
+            throw U.withCause(new InvalidObjectException(e.getMessage()), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueImpl.class, this);
+    }
+
+    /**
+     * Iterator reading items in batches without locks. Items are returned in queue order
+     * segment by segment, iterator does not fail on concurrent updates.
+     */
+    private class QueueIterator implements Iterator<T> {
+        /** Index of current segment. */
+        private int seg = -1;
+
+        /** Ranges of current segment not read yet. */
+        private final Queue<long[]> ranges = new LinkedList<long[]>();
+
+        /** Current range. */
+        private long[] range;
+
+        /** Number of keys of current range read so far. */
+        private long cnt;
+
+        /** Items read but not returned yet. */
+        private final Queue<T2<GridCacheQueueItemKey, T>> batch = new LinkedList<T2<GridCacheQueueItemKey, T>>();
+
+        /** Last returned item. */
+        private T2<GridCacheQueueItemKey, T> cur;
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            try {
+                return dsMgr.outTx(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        return hasNextx();
+                    }
+                });
+            }
+            catch (GridException e) {
+                throw wrap(e);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            cur = batch.poll();
+
+            return cur.get2();
+        }
+
+        /** {@inheritDoc} */
+        @Override public void remove() {
+            if (cur == null)
+                throw new IllegalStateException();
+
+            final T2<GridCacheQueueItemKey, T> t = cur;
+
+            cur = null;
+
+            try {
+                dsMgr.outTx(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        return removeItem(t.get1(), t.get2());
+                    }
+                });
+            }
+            catch (GridException e) {
+                throw wrap(e);
+            }
+        }
+
+        /**
+         * @return {@code True} if iterator has more items.
+         * @throws GridException If failed.
+         */
+        boolean hasNextx() throws GridException {
+            return !batch.isEmpty() || fetch();
+        }
+
+        /**
+         * @return Next item.
+         * @throws GridException If failed.
+         */
+        T nextx() throws GridException {
+            if (!hasNextx())
+                throw new NoSuchElementException();
+
+            cur = batch.poll();
+
+            return cur.get2();
+        }
+
+        /**
+         * @return Key of last returned item.
+         */
+        GridCacheQueueItemKey key() {
+            assert cur != null;
+
+            return cur.get1();
+        }
+
+        /**
+         * Reads next batch of items.
+         *
+         * @return {@code False} if there are no more items.
+         * @throws GridException If failed.
+         */
+        @SuppressWarnings({"unchecked"})
+        private boolean fetch() throws GridException {
+            // Head of LIFO queue is the last added item.
+            boolean first = hdr.type() != LIFO;
+
+            while (batch.isEmpty()) {
+                Collection<GridCacheQueueItemKey> keys = new ArrayList<GridCacheQueueItemKey>(ITER_BATCH_SIZE);
+
+                while (keys.size() < ITER_BATCH_SIZE) {
+                    if (range == null || cnt == range[2] - range[1]) {
+                        range = ranges.poll();
+
+                        cnt = 0;
+
+                        if (range != null)
+                            continue;
+
+                        if (++seg == segKeys.size())
+                            break;
+
+                        GridCacheQueueSegment s = (GridCacheQueueSegment)cache.get(segKeys.get(seg));
+
+                        if (s == null)
+                            throw removedException();
+
+                        ranges.addAll(ranges(s));
+
+                        continue;
+                    }
+
+                    long idx = first ? range[1] + cnt : range[2] - 1 - cnt;
+
+                    keys.add(new GridCacheQueueItemKey(hdr.id(), seg, (int)range[0], idx));
+
+                    cnt++;
+                }
+
+                if (keys.isEmpty())
+                    return false;
+
+                Map<Object, Object> items = cache.getAll(keys);
+
+                for (GridCacheQueueItemKey key : keys) {
+                    Object item = items.get(key);
+
+                    if (item != null)
+                        batch.add(new T2<GridCacheQueueItemKey, T>(key, (T)item));
+                }
+            }
+
+            return true;
+        }
+    }
+}
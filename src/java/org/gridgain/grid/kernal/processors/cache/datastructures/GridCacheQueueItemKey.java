@@ -0,0 +1,136 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.cache.affinity.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Key of queue item. Item is identified by segment, priority bucket and index
+ * within the bucket.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueItemKey implements GridCacheInternal, Externalizable {
+    /** Queue ID. */
+    private GridUuid id;
+
+    /** Segment index. */
+    private int seg;
+
+    /** Priority. */
+    private int prio;
+
+    /** Index within priority bucket. */
+    private long idx;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueItemKey() {
+        // No-op.
+    }
+
+    /**
+     * @param id Queue ID.
+     * @param seg Segment index.
+     * @param prio Priority.
+     * @param idx Index within priority bucket.
+     */
+    public GridCacheQueueItemKey(GridUuid id, int seg, int prio, long idx) {
+        assert id != null;
+
+        this.id = id;
+        this.seg = seg;
+        this.prio = prio;
+        this.idx = idx;
+    }
+
+    /**
+     * @return Segment index.
+     */
+    public int segment() {
+        return seg;
+    }
+
+    /**
+     * @return Priority.
+     */
+    public int priority() {
+        return prio;
+    }
+
+    /**
+     * @return Index within priority bucket.
+     */
+    public long index() {
+        return idx;
+    }
+
+    /**
+     * Items are collocated with key of their segment.
+     *
+     * @return Affinity key.
+     */
+    @GridCacheAffinityMapped
+    public GridCacheQueueSegmentKey affinityKey() {
+        return new GridCacheQueueSegmentKey(id, seg);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeGridUuid(out, id);
+        out.writeInt(seg);
+        out.writeInt(prio);
+        out.writeLong(idx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = U.readGridUuid(in);
+        seg = in.readInt();
+        prio = in.readInt();
+        idx = in.readLong();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof GridCacheQueueItemKey))
+            return false;
+
+        GridCacheQueueItemKey k = (GridCacheQueueItemKey)o;
+
+        return idx == k.idx && seg == k.seg && prio == k.prio && id.equals(k.id);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        int res = id.hashCode();
+
+        res = 31 * res + seg;
+        res = 31 * res + prio;
+        res = 31 * res + (int)(idx ^ (idx >>> 32));
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueItemKey.class, this);
+    }
+}
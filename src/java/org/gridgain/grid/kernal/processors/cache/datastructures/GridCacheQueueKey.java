@@ -0,0 +1,74 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Key of queue header.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueKey implements GridCacheInternal, Externalizable {
+    /** Queue name. */
+    private String name;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueKey() {
+        // No-op.
+    }
+
+    /**
+     * @param name Queue name.
+     */
+    public GridCacheQueueKey(String name) {
+        assert name != null;
+
+        this.name = name;
+    }
+
+    /**
+     * @return Queue name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeString(out, name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        name = U.readString(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        return this == o || o instanceof GridCacheQueueKey && name.equals(((GridCacheQueueKey)o).name);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return name.hashCode();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueKey.class, this);
+    }
+}
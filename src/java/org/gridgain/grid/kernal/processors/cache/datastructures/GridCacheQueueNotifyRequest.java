@@ -0,0 +1,85 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Request sent to nodes registered in queue segment as waiting for items or room
+ * after the segment was changed. Receiving node wakes up threads blocked on the queue.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueNotifyRequest<K, V> extends GridCacheMessage<K, V> {
+    /** Queue name. */
+    private String name;
+
+    /** Queue ID. */
+    private GridUuid id;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueNotifyRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param name Queue name.
+     * @param id Queue ID.
+     */
+    public GridCacheQueueNotifyRequest(String name, GridUuid id) {
+        assert name != null;
+        assert id != null;
+
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * @return Queue name.
+     */
+    String name() {
+        return name;
+    }
+
+    /**
+     * @return Queue ID.
+     */
+    GridUuid queueId() {
+        return id;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        U.writeString(out, name);
+        U.writeGridUuid(out, id);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        name = U.readString(in);
+        id = U.readGridUuid(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueNotifyRequest.class, this);
+    }
+}
@@ -0,0 +1,384 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Queue segment. Holds head and tail counters of every priority bucket of the segment
+ * (queues which are not of {@link org.gridgain.grid.cache.datastructures.GridCacheQueueType#PRIORITY}
+ * type have a single bucket) and nodes waiting for segment to change. Items of bucket are
+ * stored under indexes from head (inclusive) to tail (exclusive), indexes of items removed
+ * from the middle of the queue are left empty and are skipped when bucket head or tail
+ * reaches them.
+ * <p>
+ * Segment is always updated within transaction holding lock on segment key, so that
+ * counters are changed atomically with items. Instances obtained from cache must not
+ * be modified, use {@link #copy()} before update.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueSegment implements Externalizable {
+    /** Capacity. */
+    private int cap;
+
+    /** Number of items. */
+    private int size;
+
+    /** Head of new buckets, never decreases so that indexes of cleared items are not reused. */
+    private long base;
+
+    /** Buckets by priority. */
+    @GridToStringInclude
+    private TreeMap<Integer, Bucket> buckets = new TreeMap<Integer, Bucket>();
+
+    /** Nodes waiting for items. */
+    @GridToStringInclude
+    private Collection<UUID> takeWaiters = new GridLeanSet<UUID>();
+
+    /** Nodes waiting for room. */
+    @GridToStringInclude
+    private Collection<UUID> putWaiters = new GridLeanSet<UUID>();
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueSegment() {
+        // No-op.
+    }
+
+    /**
+     * @param cap Capacity.
+     */
+    public GridCacheQueueSegment(int cap) {
+        assert cap >= 0;
+
+        this.cap = cap;
+    }
+
+    /**
+     * @return Copy of this segment.
+     */
+    public GridCacheQueueSegment copy() {
+        GridCacheQueueSegment s = new GridCacheQueueSegment(cap);
+
+        s.size = size;
+        s.base = base;
+
+        for (Map.Entry<Integer, Bucket> e : buckets.entrySet())
+            s.buckets.put(e.getKey(), e.getValue().copy());
+
+        s.takeWaiters.addAll(takeWaiters);
+        s.putWaiters.addAll(putWaiters);
+
+        return s;
+    }
+
+    /**
+     * @return Capacity.
+     */
+    public int capacity() {
+        return cap;
+    }
+
+    /**
+     * @return Number of items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of items which can be added to segment.
+     */
+    public int room() {
+        return cap - size;
+    }
+
+    /**
+     * @param top If {@code true}, then highest priority is returned, otherwise lowest one.
+     * @return Highest or lowest priority of segment items or {@code null} if segment is empty.
+     */
+    @Nullable public Integer priority(boolean top) {
+        if (buckets.isEmpty())
+            return null;
+
+        return top ? buckets.lastKey() : buckets.firstKey();
+    }
+
+    /**
+     * @param desc If {@code true}, then priorities are returned in descending order.
+     * @return Priorities of segment items.
+     */
+    public Collection<Integer> priorities(boolean desc) {
+        return Collections.unmodifiableCollection(desc ? buckets.descendingKeySet() : buckets.keySet());
+    }
+
+    /**
+     * @param prio Priority.
+     * @return Index of first item of bucket.
+     */
+    public long head(int prio) {
+        return bucket(prio).head;
+    }
+
+    /**
+     * @param prio Priority.
+     * @return Index following last item of bucket.
+     */
+    public long tail(int prio) {
+        return bucket(prio).tail;
+    }
+
+    /**
+     * Reserves index for a new item.
+     *
+     * @param prio Item priority.
+     * @return Index of new item.
+     */
+    public long add(int prio) {
+        assert size < cap;
+
+        Bucket b = buckets.get(prio);
+
+        if (b == null)
+            buckets.put(prio, b = new Bucket(base));
+
+        b.size++;
+
+        size++;
+
+        long idx = b.tail++;
+
+        if (b.tail > base)
+            base = b.tail;
+
+        return idx;
+    }
+
+    /**
+     * Removes item polled from bucket head. Indexes before polled one are empty.
+     *
+     * @param prio Priority.
+     * @param idx Index of polled item.
+     */
+    public void pollFirst(int prio, long idx) {
+        Bucket b = bucket(prio);
+
+        assert idx >= b.head && idx < b.tail;
+
+        b.head = idx + 1;
+
+        onRemoved(prio, b);
+    }
+
+    /**
+     * Removes item polled from bucket tail. Indexes after polled one are empty.
+     *
+     * @param prio Priority.
+     * @param idx Index of polled item.
+     */
+    public void pollLast(int prio, long idx) {
+        Bucket b = bucket(prio);
+
+        assert idx >= b.head && idx < b.tail;
+
+        b.tail = idx;
+
+        onRemoved(prio, b);
+    }
+
+    /**
+     * Removes item from the middle of bucket.
+     *
+     * @param prio Priority.
+     * @param idx Index of removed item.
+     */
+    public void remove(int prio, long idx) {
+        Bucket b = bucket(prio);
+
+        assert idx >= b.head && idx < b.tail;
+
+        if (idx == b.head)
+            b.head++;
+        else if (idx == b.tail - 1)
+            b.tail--;
+
+        onRemoved(prio, b);
+    }
+
+    /**
+     * Removes all items from segment. Items should be removed from cache by caller
+     * using ranges of buckets taken before this call.
+     */
+    public void clear() {
+        buckets.clear();
+
+        size = 0;
+    }
+
+    /**
+     * @param put If {@code true}, then nodes waiting for room are returned, otherwise
+     *      nodes waiting for items.
+     * @return Waiting nodes.
+     */
+    public Collection<UUID> waiters(boolean put) {
+        return Collections.unmodifiableCollection(put ? putWaiters : takeWaiters);
+    }
+
+    /**
+     * @param nodeId Waiting node ID.
+     * @param put If {@code true}, then node waits for room, otherwise for items.
+     */
+    public void addWaiter(UUID nodeId, boolean put) {
+        (put ? putWaiters : takeWaiters).add(nodeId);
+    }
+
+    /**
+     * Removes all waiters which should be notified after segment update.
+     *
+     * @param put If {@code true}, then nodes waiting for room are removed, otherwise
+     *      nodes waiting for items.
+     * @return Removed waiters or {@code null} if there were no waiters.
+     */
+    @Nullable public Collection<UUID> resetWaiters(boolean put) {
+        Collection<UUID> waiters = put ? putWaiters : takeWaiters;
+
+        if (waiters.isEmpty())
+            return null;
+
+        if (put)
+            putWaiters = new GridLeanSet<UUID>();
+        else
+            takeWaiters = new GridLeanSet<UUID>();
+
+        return waiters;
+    }
+
+    /**
+     * @param prio Priority.
+     * @return Bucket.
+     */
+    private Bucket bucket(int prio) {
+        Bucket b = buckets.get(prio);
+
+        assert b != null : "Missing queue bucket [prio=" + prio + ", seg=" + this + ']';
+
+        return b;
+    }
+
+    /**
+     * @param prio Priority.
+     * @param b Bucket item was removed from.
+     */
+    private void onRemoved(int prio, Bucket b) {
+        assert b.size > 0 && size > 0;
+
+        size--;
+
+        if (--b.size == 0)
+            buckets.remove(prio);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(cap);
+        out.writeInt(size);
+        out.writeLong(base);
+        out.writeInt(buckets.size());
+
+        for (Map.Entry<Integer, Bucket> e : buckets.entrySet()) {
+            Bucket b = e.getValue();
+
+            out.writeInt(e.getKey());
+            out.writeLong(b.head);
+            out.writeLong(b.tail);
+            out.writeInt(b.size);
+        }
+
+        U.writeUuids(out, takeWaiters);
+        U.writeUuids(out, putWaiters);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        cap = in.readInt();
+        size = in.readInt();
+        base = in.readLong();
+
+        int cnt = in.readInt();
+
+        for (int i = 0; i < cnt; i++) {
+            int prio = in.readInt();
+
+            Bucket b = new Bucket(in.readLong());
+
+            b.tail = in.readLong();
+            b.size = in.readInt();
+
+            buckets.put(prio, b);
+        }
+
+        takeWaiters.addAll(U.readUuids(in));
+        putWaiters.addAll(U.readUuids(in));
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueSegment.class, this);
+    }
+
+    /**
+     * Items of the same priority.
+     */
+    private static class Bucket {
+        /** Index of first item. */
+        private long head;
+
+        /** Index following last item. */
+        private long tail;
+
+        /** Number of items. */
+        private int size;
+
+        /**
+         * @param head Index of first item.
+         */
+        private Bucket(long head) {
+            this.head = head;
+
+            tail = head;
+        }
+
+        /**
+         * @return Copy of this bucket.
+         */
+        private Bucket copy() {
+            Bucket b = new Bucket(head);
+
+            b.tail = tail;
+            b.size = size;
+
+            return b;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Bucket.class, this);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.datastructures;
+
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
+
+/**
+ * Key of queue segment. Items of a segment are mapped to the same node as
+ * segment key, see {@link GridCacheQueueItemKey#affinityKey()}.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueueSegmentKey implements GridCacheInternal, Externalizable {
+    /** Queue ID. */
+    private GridUuid id;
+
+    /** Segment index. */
+    private int seg;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueueSegmentKey() {
+        // No-op.
+    }
+
+    /**
+     * @param id Queue ID.
+     * @param seg Segment index.
+     */
+    public GridCacheQueueSegmentKey(GridUuid id, int seg) {
+        assert id != null;
+
+        this.id = id;
+        this.seg = seg;
+    }
+
+    /**
+     * @return Queue ID.
+     */
+    public GridUuid id() {
+        return id;
+    }
+
+    /**
+     * @return Segment index.
+     */
+    public int segment() {
+        return seg;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeGridUuid(out, id);
+        out.writeInt(seg);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = U.readGridUuid(in);
+        seg = in.readInt();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof GridCacheQueueSegmentKey))
+            return false;
+
+        GridCacheQueueSegmentKey k = (GridCacheQueueSegmentKey)o;
+
+        return seg == k.seg && id.equals(k.id);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        return 31 * id.hashCode() + seg;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueueSegmentKey.class, this);
+    }
+}
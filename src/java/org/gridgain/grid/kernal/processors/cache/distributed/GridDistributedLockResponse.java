@@ -40,6 +40,10 @@ public class GridDistributedLockResponse<K, V> extends GridDistributedBaseMessag
     @GridToStringInclude
     private List<V> vals;
 
+    /** Versions of entries on responding node, {@code null} if not sent. */
+    @GridToStringInclude
+    private List<GridCacheVersion> entryVers;
+
     /**
      * Empty constructor (required by {@link Externalizable}).
      */
@@ -172,6 +176,33 @@ public class GridDistributedLockResponse<K, V> extends GridDistributedBaseMessag
         this.valBytes.add(valBytes);
     }
 
+    /**
+     * @param val Value.
+     * @param valBytes Value bytes (possibly {@code null}).
+     * @param entryVer Version of entry on responding node.
+     * @param ctx Context.
+     * @throws GridException If failed.
+     */
+    public void addValueBytes(V val, byte[] valBytes, GridCacheVersion entryVer, GridCacheContext<K, V> ctx)
+        throws GridException {
+        addValueBytes(val, valBytes, ctx);
+
+        if (entryVers == null)
+            entryVers = new ArrayList<GridCacheVersion>(vals.size());
+
+        entryVers.add(entryVer);
+
+        assert entryVers.size() == vals.size();
+    }
+
+    /**
+     * @param idx Index.
+     * @return Version of entry on responding node or {@code null} if it was not sent.
+     */
+    @Nullable public GridCacheVersion entryVersion(int idx) {
+        return F.isEmpty(entryVers) ? null : entryVers.get(idx);
+    }
+
     /**
      * @return Values.
      */
@@ -209,6 +240,7 @@ public class GridDistributedLockResponse<K, V> extends GridDistributedBaseMessag
 
         U.writeGridUuid(out, futId);
         U.writeCollection(out, valBytes);
+        U.writeCollection(out, entryVers);
 
         out.writeObject(err);
     }
@@ -219,6 +251,7 @@ public class GridDistributedLockResponse<K, V> extends GridDistributedBaseMessag
 
         futId = U.readGridUuid(in);
         valBytes = U.readList(in);
+        entryVers = U.readList(in);
 
         err = (Throwable)in.readObject();
     }
@@ -41,6 +41,9 @@ public class GridDistributedTxMapping<K, V> implements Externalizable {
     /** DHT version. */
     private GridCacheVersion dhtVer;
 
+    /** Flag indicating that mapped node committed its entries within prepare step. */
+    private boolean onePhaseCommit;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -85,6 +88,20 @@ public class GridDistributedTxMapping<K, V> implements Externalizable {
         explicitLock = true;
     }
 
+    /**
+     * @return {@code True} if mapped node has already committed its entries within prepare step.
+     */
+    public boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
+    /**
+     * Sets one-phase commit flag to {@code true}.
+     */
+    public void markOnePhaseCommit() {
+        onePhaseCommit = true;
+    }
+
     /**
      * @return DHT version.
      */
@@ -46,6 +46,9 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
     /** Preloader. */
     private GridCachePreloader<K, V> preldr;
 
+    /** Batched near reader invalidations. */
+    private GridDhtNearInvalidator<K, V> nearInv;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -57,7 +60,8 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
      * @param ctx Context.
      */
     public GridDhtCache(GridCacheContext<K, V> ctx) {
-        super(ctx, ctx.config().getStartSize());
+        // Segment map by partition, so local partitions do not need to index their entries.
+        super(ctx, new GridCacheConcurrentMap<K, V>(ctx, ctx.config().getStartSize(), 0.75F, ctx.partitions()));
 
         top = new GridDhtPartitionTopologyImpl<K, V>(ctx);
     }
@@ -90,6 +94,8 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
 
         preldr.start();
 
+        nearInv = new GridDhtNearInvalidator<K, V>(ctx);
+
         ctx.io().addHandler(GridNearGetRequest.class, new CI2<UUID, GridNearGetRequest<K, V>>() {
             @Override public void apply(UUID nodeId, GridNearGetRequest<K, V> req) {
                 processNearGetRequest(nodeId, req);
@@ -169,6 +175,9 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
 
         if (preldr != null)
             preldr.stop();
+
+        if (nearInv != null)
+            nearInv.stop();
     }
 
     /** {@inheritDoc} */
@@ -214,6 +223,22 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         return top;
     }
 
+    /**
+     * @return Batched near reader invalidations.
+     */
+    GridDhtNearInvalidator<K, V> nearInvalidator() {
+        return nearInv;
+    }
+
+    /**
+     * @param part Partition.
+     * @return Snapshot of partition entries, possibly including obsolete ones.
+     */
+    @SuppressWarnings({"unchecked"})
+    Collection<GridDhtCacheEntry<K, V>> partitionEntries(int part) {
+        return (Collection<GridDhtCacheEntry<K, V>>)(Collection<?>)map.partitionEntries(part);
+    }
+
     /** {@inheritDoc} */
     @Override public GridCachePreloader<K, V> preloader() {
         return preldr;
@@ -360,6 +385,7 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                     if (tx != null) {
                         try {
                             tx.topologyVersion(req.topologyVersion());
+                            tx.onePhaseCommit(req.onePhaseCommit());
 
                             GridCompoundFuture<Boolean, GridCacheTxEx<K, V>> txFut = null;
 
@@ -2164,7 +2190,7 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                     // Note that we obtain readers before lock is removed.
                     // Even in case if entry would be removed just after lock is removed,
                     // we must send release messages to backups and readers.
-                    Collection<UUID> readers = entry.readers();
+                    Collection<UUID> readers = ctx.isNearInvalidationBatched() ? null : entry.readers();
 
                     // Note that we don't reorder completed versions here,
                     // as there is no point to reorder relative to the version
@@ -35,9 +35,13 @@ import java.util.*;
         }
     };
 
-    /** Reader clients. */
+    /** Empty readers array. */
+    private static final ReaderId[] NO_READERS = new ReaderId[0];
+
+    /** Reader clients. Array is copied on every change, so it can be read without lock. */
     @GridToStringInclude
-    private volatile List<ReaderId<K, V>> readers = Collections.emptyList();
+    @SuppressWarnings({"unchecked"})
+    private volatile ReaderId<K, V>[] readers = NO_READERS;
 
     /** Local partition. */
     private final GridDhtLocalPartition<K, V> locPart;
@@ -71,14 +75,9 @@ import java.util.*;
     }
 
     /** {@inheritDoc} */
-    @Override public boolean markObsolete(GridCacheVersion ver) {
-        boolean rmv = super.markObsolete(ver);
-
-        // Remove this entry from partition mapping.
-        if (rmv)
-            cctx.dht().topology().onRemoved(this);
-
-        return rmv;
+    @Override protected void onMarkedObsolete() {
+        // Remove this entry from partition it was added to.
+        locPart.onRemoved(this);
     }
 
     /**
@@ -247,6 +246,26 @@ import java.util.*;
         return F.viewReadOnly(checkReaders(), R2N);
     }
 
+    /**
+     * Gets readers which should be notified about committed update of this entry.
+     *
+     * @param exclude Node that initiated update (already has the new value).
+     * @return IDs of messages readers were added with, keyed by reader node ID,
+     *      except for the given node.
+     * @throws GridCacheEntryRemovedException If removed.
+     */
+    public Map<UUID, Long> readers(UUID exclude) throws GridCacheEntryRemovedException {
+        Collection<ReaderId<K, V>> rdrs = checkReaders();
+
+        Map<UUID, Long> res = new HashMap<UUID, Long>(rdrs.size(), 1.0f);
+
+        for (ReaderId<K, V> reader : rdrs)
+            if (!reader.nodeId().equals(exclude))
+                res.put(reader.nodeId(), reader.messageId());
+
+        return res;
+    }
+
     /**
      * @param nodeId Node ID.
      * @return reader ID.
@@ -288,6 +307,10 @@ import java.util.*;
             return null;
         }
 
+        // Near entries expire by time-to-live instead of being invalidated, so readers are not tracked.
+        if (cctx.config().getNearEntryTimeToLive() > 0 && !(key instanceof GridCacheInternal))
+            return null;
+
         // If remote node is (primary?) or back up, don't add it as a reader.
         if (U.nodeIds(cctx.affinity(partition(), CU.allNodes(cctx))).contains(nodeId))
             return null;
@@ -310,12 +333,11 @@ import java.util.*;
             if (reader == null) {
                 reader = new ReaderId<K, V>(nodeId, msgId);
 
-                readers = new LinkedList<ReaderId<K, V>>(readers);
+                ReaderId<K, V>[] rdrs = Arrays.copyOf(readers, readers.length + 1);
 
-                readers.add(reader);
+                rdrs[readers.length] = reader;
 
-                // Seal.
-                readers = Collections.unmodifiableList(readers);
+                readers = rdrs;
 
                 txFut = reader.getOrCreateTxFuture(cctx);
 
@@ -405,12 +427,7 @@ import java.util.*;
             if (reader == null || reader.messageId() > msgId)
                 return false;
 
-            readers = new LinkedList<ReaderId<K, V>>(readers);
-
-            readers.remove(reader);
-
-            // Seal.
-            readers = Collections.unmodifiableList(readers);
+            readers = remove(readers, Collections.singleton(reader));
 
             return true;
         }
@@ -426,7 +443,7 @@ import java.util.*;
         lock();
 
         try {
-            readers = Collections.emptyList();
+            readers = NO_READERS;
         }
         finally {
             unlock();
@@ -443,29 +460,23 @@ import java.util.*;
         try {
             checkObsolete();
 
-            if (!readers.isEmpty()) {
-                List<ReaderId> rmv = null;
+            if (readers.length > 0) {
+                Collection<ReaderId> rmv = null;
 
                 for (ReaderId reader : readers) {
                     if (!cctx.discovery().alive(reader.nodeId())) {
                         if (rmv == null)
-                            rmv = new LinkedList<ReaderId>();
+                            rmv = new ArrayList<ReaderId>(readers.length);
 
                         rmv.add(reader);
                     }
                 }
 
-                if (rmv != null) {
-                    readers = new LinkedList<ReaderId<K, V>>(readers);
-
-                    for (ReaderId rdr : rmv)
-                        readers.remove(rdr);
-
-                    readers = Collections.unmodifiableList(readers);
-                }
+                if (rmv != null)
+                    readers = remove(readers, rmv);
             }
 
-            return readers;
+            return Collections.unmodifiableList(Arrays.asList(readers));
         }
         finally {
             unlock();
@@ -479,13 +490,36 @@ import java.util.*;
         try {
             checkReaders();
 
-            return !readers.isEmpty();
+            return readers.length > 0;
         }
         finally {
             unlock();
         }
     }
 
+    /**
+     * @param rdrs Readers.
+     * @param rmv Readers to remove.
+     * @return Copy of readers array without removed readers.
+     */
+    @SuppressWarnings({"unchecked"})
+    private ReaderId<K, V>[] remove(ReaderId<K, V>[] rdrs, Collection<ReaderId> rmv) {
+        if (rdrs.length == rmv.size())
+            return NO_READERS;
+
+        ReaderId<K, V>[] res = new ReaderId[rdrs.length - rmv.size()];
+
+        int i = 0;
+
+        for (ReaderId<K, V> rdr : rdrs)
+            if (!rmv.contains(rdr))
+                res[i++] = rdr;
+
+        assert i == res.length;
+
+        return res;
+    }
+
     /**
      * Sets mappings into entry.
      *
@@ -12,12 +12,13 @@ package org.gridgain.grid.kernal.processors.cache.distributed.dht;
 import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.future.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
@@ -45,9 +46,6 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     @GridToStringExclude
     private final GridFutureAdapter<?> rent;
 
-    /** Entries map. */
-    private final ConcurrentMap<K, GridDhtCacheEntry<K, V>> map = new ConcurrentHashMap<K, GridDhtCacheEntry<K,V>>();
-
     /** Context. */
     private final GridCacheContext<K, V> cctx;
 
@@ -64,6 +62,13 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     /** Lock. */
     private final ReentrantLock lock = new ReentrantLock();
 
+    /** Number of entries which have been added to partition and are not obsolete. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Version of local snapshot this partition was loaded from. */
+    @GridToStringInclude
+    private volatile GridCacheVersion snapshotVer;
+
     /**
      * @param cctx Context.
      * @param id Partition ID.
@@ -100,6 +105,21 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         return state.getReference();
     }
 
+    /**
+     * @return Version of local snapshot this partition was loaded from, or {@code null}
+     *      if partition was not loaded from snapshot or has been fully preloaded since.
+     */
+    @Nullable public GridCacheVersion snapshotVersion() {
+        return snapshotVer;
+    }
+
+    /**
+     * @param snapshotVer Version of local snapshot this partition was loaded from.
+     */
+    public void snapshotVersion(@Nullable GridCacheVersion snapshotVer) {
+        this.snapshotVer = snapshotVer;
+    }
+
     /**
      * @return Reservations.
      */
@@ -108,26 +128,31 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     }
 
     /**
+     * Entries are kept in cache map segment dedicated to this partition,
+     * so this method returns a snapshot of that segment.
+     *
      * @return Entries belonging to partition.
      */
     public Collection<GridDhtCacheEntry<K, V>> entries() {
-        return map.values();
+        return F.view(cctx.dht().partitionEntries(id), new P1<GridDhtCacheEntry<K, V>>() {
+            @Override public boolean apply(GridDhtCacheEntry<K, V> e) {
+                return !e.obsolete();
+            }
+        });
     }
 
     /**
      * @return {@code True} if partition is empty.
      */
     public boolean isEmpty() {
-        return map.isEmpty();
+        return size.get() == 0;
     }
 
     /**
-     * Note that this method has O(N) complexity.
-     *
-     * @return Number of entries in thsis partition.
+     * @return Number of entries in this partition.
      */
     public int size() {
-        return map.size();
+        return size.get();
     }
 
     /**
@@ -147,7 +172,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
 
         assert state != EVICTED : "Adding entry to invalid partition: " + this;
 
-        map.put(entry.key(), entry);
+        size.incrementAndGet();
     }
 
     /**
@@ -156,8 +181,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     void onRemoved(GridDhtCacheEntry<K, V> entry) {
         assert entry.obsolete();
 
-        // Make sure to remove exactly this entry.
-        map.remove(entry.key(), entry);
+        size.decrementAndGet();
 
         // Attempt to evict.
         tryEvict();
@@ -335,7 +359,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
      * @return Future for evict attempt.
      */
     private GridFuture<Boolean> tryEvictAsync() {
-        if (map.isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
+        if (state.getReference() == RENTING && isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
             if (log.isDebugEnabled())
                 log.debug("Evicted partition: " + this);
 
@@ -359,7 +383,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         if (state.getReference() == RENTING && state.getStamp() == 0)
             clearAll();
 
-        if (map.isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
+        if (state.getReference() == RENTING && isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
             if (log.isDebugEnabled())
                 log.debug("Evicted partition: " + this);
 
@@ -391,12 +415,9 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     private void clearAll() {
         GridCacheVersion clearVer = cctx.versions().next();
 
-        for (Iterator<GridDhtCacheEntry<K, V>> it = map.values().iterator(); it.hasNext();) {
-            GridDhtCacheEntry<K, V> cached = it.next();
-
+        for (GridDhtCacheEntry<K, V> cached : entries()) {
             try {
-                if (cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty()))
-                    it.remove();
+                cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty());
             }
             catch (GridException e) {
                 U.error(log, "Failed to clear cache entry for evicted partition: " + cached, e);
@@ -428,7 +449,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         return S.toString(GridDhtLocalPartition.class, this,
             "state", state(),
             "reservations", reservations(),
-            "empty", map.isEmpty(),
+            "empty", isEmpty(),
             "createTime", U.format(createTime));
     }
 }
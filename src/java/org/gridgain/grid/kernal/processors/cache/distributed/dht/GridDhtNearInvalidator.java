@@ -0,0 +1,287 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.dht;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.near.*;
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces invalidations of near readers. Keys updated on primary node are collected
+ * per reader node within {@link GridCacheContext#isNearInvalidationBatched() invalidation window}
+ * and then sent in a single {@link GridNearInvalidateRequest}, so hot keys updated by many
+ * transactions are sent to every reader at most once per window. Once invalidation is sent,
+ * reader is removed from invalidated entries, as it no longer holds their values.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridDhtNearInvalidator<K, V> {
+    /** Cache context. */
+    private final GridCacheContext<K, V> cctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Pending batches by reader node ID. */
+    private final ConcurrentMap<UUID, Batch> batches = new ConcurrentHashMap<UUID, Batch>();
+
+    /**
+     * @param cctx Cache context.
+     */
+    GridDhtNearInvalidator(GridCacheContext<K, V> cctx) {
+        assert cctx != null;
+
+        this.cctx = cctx;
+
+        log = cctx.logger(getClass());
+    }
+
+    /**
+     * Schedules invalidation of given key on reader node.
+     *
+     * @param readerId Reader node ID.
+     * @param key Updated key.
+     * @param ver Committed DHT version of entry.
+     * @param msgId ID of message reader was added to entry with.
+     */
+    void invalidate(UUID readerId, K key, GridCacheVersion ver, long msgId) {
+        while (true) {
+            Batch b = batches.get(readerId);
+
+            if (b == null) {
+                Batch old = batches.putIfAbsent(readerId, b = new Batch(readerId));
+
+                if (old == null)
+                    cctx.time().addTimeoutObject(b);
+                else
+                    b = old;
+            }
+
+            if (b.add(key, ver, msgId))
+                return;
+
+            // Batch has been concurrently flushed.
+            batches.remove(readerId, b);
+        }
+    }
+
+    /**
+     * Cancels all pending invalidations.
+     */
+    void stop() {
+        for (Batch b : batches.values())
+            cctx.time().removeTimeoutObject(b);
+
+        batches.clear();
+    }
+
+    /**
+     * @param readerId Reader node ID.
+     * @param keys Keys to invalidate.
+     */
+    private void send(UUID readerId, Map<K, Invalidation> keys) {
+        GridNode node = cctx.discovery().node(readerId);
+
+        if (node == null) {
+            if (log.isDebugEnabled())
+                log.debug("Skipping near invalidation because reader left grid [readerId=" + readerId +
+                    ", keys=" + keys + ']');
+
+            return;
+        }
+
+        try {
+            Collection<K> keys0 = new ArrayList<K>(keys.size());
+            Collection<GridCacheVersion> vers = new ArrayList<GridCacheVersion>(keys.size());
+
+            for (Map.Entry<K, Invalidation> e : keys.entrySet()) {
+                keys0.add(e.getKey());
+                vers.add(e.getValue().ver);
+            }
+
+            // Reader discards values older than sent versions, even if they arrive after this request.
+            cctx.io().send(node, new GridNearInvalidateRequest<K, V>(keys0, vers));
+
+            removeReader(readerId, keys);
+        }
+        catch (GridTopologyException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Failed to send near invalidation because reader left grid [readerId=" + readerId +
+                    ", keys=" + keys + ']');
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send near invalidation [readerId=" + readerId + ", keys=" + keys + ']', e);
+        }
+    }
+
+    /**
+     * Removes invalidated reader from entries. Reader is kept if it has read entry again
+     * after invalidation was scheduled (i.e. was added with newer message ID).
+     *
+     * @param readerId Reader node ID.
+     * @param keys Invalidated keys.
+     */
+    private void removeReader(UUID readerId, Map<K, Invalidation> keys) {
+        for (Map.Entry<K, Invalidation> e : keys.entrySet()) {
+            while (true) {
+                GridDhtCacheEntry<K, V> cached = cctx.dht().peekExx(e.getKey());
+
+                // Removed entry has no readers.
+                if (cached == null)
+                    break;
+
+                try {
+                    cached.removeReader(readerId, e.getValue().msgId);
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignore) {
+                    if (log.isDebugEnabled())
+                        log.debug("Got removed entry when removing invalidated reader (will retry): " + cached);
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtNearInvalidator.class, this);
+    }
+
+    /**
+     * Keys collected for a single reader within invalidation window.
+     */
+    private class Batch implements GridTimeoutObject {
+        /** */
+        private final GridUuid id = GridUuid.randomUuid();
+
+        /** Reader node ID. */
+        private final UUID readerId;
+
+        /** End time. */
+        private final long endTime = System.currentTimeMillis() + cctx.config().getNearInvalidationWindow();
+
+        /** Invalidations by key, {@code null} once batch has been flushed. */
+        @GridToStringInclude
+        private Map<K, Invalidation> keys = new LinkedHashMap<K, Invalidation>();
+
+        /**
+         * @param readerId Reader node ID.
+         */
+        Batch(UUID readerId) {
+            this.readerId = readerId;
+        }
+
+        /**
+         * @param key Key to add.
+         * @param ver Committed DHT version of entry.
+         * @param msgId ID of message reader was added to entry with.
+         * @return {@code False} if batch has already been flushed.
+         */
+        synchronized boolean add(K key, GridCacheVersion ver, long msgId) {
+            if (keys == null)
+                return false;
+
+            Invalidation inv = keys.get(key);
+
+            if (inv == null)
+                keys.put(key, new Invalidation(ver, msgId));
+            else
+                inv.merge(ver, msgId);
+
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override public GridUuid timeoutId() {
+            return id;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long endTime() {
+            return endTime;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onTimeout() {
+            batches.remove(readerId, this);
+
+            final Map<K, Invalidation> keys;
+
+            synchronized (this) {
+                keys = this.keys;
+
+                this.keys = null;
+            }
+
+            if (F.isEmpty(keys))
+                return;
+
+            // Do not block timeout worker with sending.
+            cctx.closures().runLocalSafe(new GPR() {
+                @Override public void run() {
+                    send(readerId, keys);
+                }
+            });
+        }
+
+        /** {@inheritDoc} */
+        @Override public synchronized String toString() {
+            return S.toString(Batch.class, this);
+        }
+    }
+
+    /**
+     * Pending invalidation of a single key.
+     */
+    private static class Invalidation {
+        /** Latest committed DHT version. */
+        private GridCacheVersion ver;
+
+        /** Latest ID of message reader was added to entry with. */
+        private long msgId;
+
+        /**
+         * @param ver Committed DHT version.
+         * @param msgId ID of message reader was added to entry with.
+         */
+        Invalidation(GridCacheVersion ver, long msgId) {
+            this.ver = ver;
+            this.msgId = msgId;
+        }
+
+        /**
+         * @param ver Committed DHT version.
+         * @param msgId ID of message reader was added to entry with.
+         */
+        void merge(GridCacheVersion ver, long msgId) {
+            if (ver.isGreater(this.ver))
+                this.ver = ver;
+
+            if (msgId > this.msgId)
+                this.msgId = msgId;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Invalidation.class, this);
+        }
+    }
+}
@@ -140,11 +140,6 @@ public interface GridDhtPartitionTopology<K, V> {
      */
     public GridDhtLocalPartition<K, V> onAdded(long topVer, GridDhtCacheEntry<K, V> e);
 
-    /**
-     * @param e Entry removed from cache.
-     */
-    public void onRemoved(GridDhtCacheEntry<K, V> e);
-
     /**
      * @param exchId Exchange ID.
      * @param partMap Update partition map.
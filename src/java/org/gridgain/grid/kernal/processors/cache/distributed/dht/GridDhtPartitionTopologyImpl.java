@@ -499,20 +499,6 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         return loc;
     }
 
-    /** {@inheritDoc} */
-    @Override public void onRemoved(GridDhtCacheEntry<K, V> e) {
-        /*
-         * Make sure not to acquire any locks here as this method
-         * may be called from sensitive synchronization blocks.
-         * ===================================================
-         */
-
-        GridDhtLocalPartition<K, V> loc = localPartition(e.key(), false);
-
-        if (loc != null)
-            loc.onRemoved(e);
-    }
-
     /** {@inheritDoc} */
     @Override public GridDhtPartitionMap localPartitionMap() {
         lock.readLock().lock();
@@ -83,6 +83,9 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
     /** */
     private boolean explicitLock;
 
+    /** Flag indicating that transaction should be committed right after prepare. */
+    private boolean onePhaseCommit;
+
     /** Initialize to {@code true} to be safe. */
     private boolean needsCompletedVers = true;
 
@@ -203,6 +206,20 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
         return explicitLock;
     }
 
+    /**
+     * @return {@code True} if transaction should be committed right after prepare.
+     */
+    boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
+    /**
+     * @param onePhaseCommit {@code True} if transaction should be committed right after prepare.
+     */
+    void onePhaseCommit(boolean onePhaseCommit) {
+        this.onePhaseCommit = onePhaseCommit;
+    }
+
     /**
      * @return DHT thread ID.
      */
@@ -764,6 +781,9 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
 
                 throw new GridException("Invalid transaction state for commit or rollback: " + this);
             }
+
+            if (commit)
+                invalidateNearReaders();
         }
 
         return true;
@@ -772,7 +792,9 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
     /** {@inheritDoc} */
     @SuppressWarnings({"CatchGenericClass", "ThrowableInstanceNeverThrown"})
     @Override public void finish(boolean commit) throws GridException {
-        assert nearFinFutId != null || isInvalidate() || !commit || isSystemInvalidate();
+        // One-phase commit is completed within prepare step and reported with prepare response,
+        // so near node never sends finish request for it.
+        assert nearFinFutId != null || onePhaseCommit || isInvalidate() || !commit || isSystemInvalidate();
         assert nearMiniId != null;
 
         if (log.isDebugEnabled())
@@ -837,6 +859,52 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
 
                 throw new GridException("Invalid transaction state for commit or rollback: " + this);
             }
+
+            if (commit)
+                invalidateNearReaders();
+        }
+    }
+
+    /**
+     * Schedules batched invalidation of near readers of entries updated by this transaction.
+     * Readers are not mapped to transaction in this mode, so this is the only way they get
+     * notified about update. Invalidated readers are removed from entries once invalidation is sent.
+     */
+    private void invalidateNearReaders() {
+        if (!cctx.isNearInvalidationBatched())
+            return;
+
+        GridDhtNearInvalidator<K, V> inv = cctx.dht().nearInvalidator();
+
+        for (GridCacheTxEntry<K, V> txEntry : writeEntries()) {
+            GridCacheOperation op = txEntry.op();
+
+            if (op != CREATE && op != UPDATE && op != DELETE)
+                continue;
+
+            GridCacheEntryEx<K, V> cached = txEntry.cached();
+
+            while (true) {
+                try {
+                    Map<UUID, Long> readers = ((GridDhtCacheEntry<K, V>)cached).readers(nearNodeId);
+
+                    if (!readers.isEmpty()) {
+                        GridCacheVersion ver = cached.version();
+
+                        for (Map.Entry<UUID, Long> reader : readers.entrySet())
+                            inv.invalidate(reader.getKey(), txEntry.key(), ver, reader.getValue());
+                    }
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignore) {
+                    cached = cctx.dht().peekExx(txEntry.key());
+
+                    // Removed entry has no readers.
+                    if (cached == null)
+                        break;
+                }
+            }
         }
     }
 
@@ -1006,6 +1074,16 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
 
                     fut.onError(e);
                 }
+                catch (RuntimeException e) {
+                    U.error(log, "Failed to commit transaction: " + this, e);
+
+                    fut.onError(e);
+                }
+                catch (Error e) {
+                    fut.onError(e);
+
+                    throw e;
+                }
             }
         });
 
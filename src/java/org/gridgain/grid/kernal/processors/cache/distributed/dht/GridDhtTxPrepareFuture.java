@@ -10,6 +10,7 @@
 package org.gridgain.grid.kernal.processors.cache.distributed.dht;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.near.*;
@@ -348,18 +349,24 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
 
         this.err.compareAndSet(null, err);
 
+        GridNearTxPrepareResponse<K, V> onePhaseRes = null;
+
         if (replied.compareAndSet(false, true)) {
             try {
                 if (!tx.nearNodeId().equals(cctx.nodeId())) {
                     // Send reply back to originating near node.
-                    GridDistributedBaseMessage<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
+                    GridNearTxPrepareResponse<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
                         tx.nearFutureId(), tx.nearMiniId(), tx.xidVersion(), tx.invalidPartitions(), this.err.get());
 
                     GridCacheVersion min = tx.minVersion();
 
                     res.completedVersions(cctx.tm().committedVersions(min), cctx.tm().rolledbackVersions(min));
 
-                    cctx.io().send(tx.nearNodeId(), res);
+                    // For one-phase commit reply is sent only after transaction is committed.
+                    if (tx.onePhaseCommit() && this.err.get() == null && F.isEmpty(tx.invalidPartitions()))
+                        onePhaseRes = res;
+                    else
+                        cctx.io().send(tx.nearNodeId(), res);
                 }
             }
             catch (GridException e) {
@@ -380,7 +387,77 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
             }
         }
 
-        return onComplete();
+        boolean done = onComplete();
+
+        if (onePhaseRes != null)
+            commitOnePhase(onePhaseRes);
+
+        return done;
+    }
+
+    /**
+     * Commits prepared transaction without waiting for finish request from near node
+     * and sends prepare response once commit is finished.
+     *
+     * @param res Prepare response to send.
+     */
+    private void commitOnePhase(final GridNearTxPrepareResponse<K, V> res) {
+        // Near node would have sent its transaction ID as commit version.
+        if (!tx.markFinalizing() || !tx.commitVersion(tx.nearXidVersion())) {
+            U.warn(log, "Failed to commit transaction within prepare step (will send regular prepare response): " +
+                tx);
+
+            sendOnePhaseResponse(res);
+
+            return;
+        }
+
+        tx.commitAsync().listenAsync(new CI1<GridFuture<GridCacheTx>>() {
+            @Override public void apply(GridFuture<GridCacheTx> f) {
+                try {
+                    f.get();
+
+                    res.onePhaseCommit(true);
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to commit transaction within prepare step: " + tx, e);
+
+                    res.error(e);
+                }
+                catch (RuntimeException e) {
+                    U.error(log, "Failed to commit transaction within prepare step: " + tx, e);
+
+                    res.error(e);
+                }
+                catch (Error e) {
+                    res.error(e);
+
+                    sendOnePhaseResponse(res);
+
+                    throw e;
+                }
+
+                sendOnePhaseResponse(res);
+            }
+        });
+    }
+
+    /**
+     * @param res Prepare response.
+     */
+    private void sendOnePhaseResponse(GridNearTxPrepareResponse<K, V> res) {
+        try {
+            cctx.io().send(tx.nearNodeId(), res);
+        }
+        catch (GridTopologyException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Near node left before sending prepare response [node=" + tx.nearNodeId() +
+                    ", res=" + res + ']');
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send prepare response to near node [node=" + tx.nearNodeId() +
+                ", res=" + res + ']', e);
+        }
     }
 
     /**
@@ -561,7 +638,8 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
                     log.debug("Mapping entry to DHT nodes [nodes=" + U.toShortString(dhtNodes) +
                         ", entry=" + entry + ']');
 
-                Collection<UUID> readers = cached.readers();
+                // Batched invalidations are sent to readers after commit.
+                Collection<UUID> readers = cctx.isNearInvalidationBatched() ? null : cached.readers();
 
                 Collection<GridNode> nearNodes = null;
 
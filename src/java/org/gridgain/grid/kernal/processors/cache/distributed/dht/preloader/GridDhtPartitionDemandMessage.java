@@ -13,6 +13,7 @@ import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -27,7 +28,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     /** Update sequence. */
     private long updateSeq;
 
-    /** Partition. */
+    /** Partitions in order they should be supplied. */
     @GridToStringInclude
     private Set<Integer> parts;
 
@@ -40,6 +41,10 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     /** Worker ID. */
     private int workerId = -1;
 
+    /** Versions of local partition snapshots. */
+    @GridToStringInclude
+    private Map<Integer, GridCacheVersion> snapVers;
+
     /**
      * @param updateSeq Update sequence for this node.
      */
@@ -58,6 +63,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         topic = copy.topic;
         timeout = copy.timeout;
         workerId = copy.workerId;
+        snapVers = copy.snapVers;
     }
 
     /**
@@ -77,11 +83,26 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
      */
     void addPartition(int p) {
         if (parts == null)
-            parts = new HashSet<Integer>();
+            parts = new LinkedHashSet<Integer>();
 
         parts.add(p);
     }
 
+    /**
+     * Reorders partitions in place, so that collection returned by {@link #partitions()}
+     * reflects new order.
+     *
+     * @param cmp Partition comparator.
+     */
+    void orderPartitions(Comparator<Integer> cmp) {
+        List<Integer> sorted = new ArrayList<Integer>(parts);
+
+        Collections.sort(sorted, cmp);
+
+        parts.clear();
+        parts.addAll(sorted);
+    }
+
 
     /**
      * @return Partition.
@@ -90,6 +111,28 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         return parts;
     }
 
+    /**
+     * @param p Partition.
+     * @param snapVer Version of local snapshot partition was loaded from.
+     */
+    void snapshotVersion(int p, GridCacheVersion snapVer) {
+        assert snapVer != null;
+
+        if (snapVers == null)
+            snapVers = new HashMap<Integer, GridCacheVersion>();
+
+        snapVers.put(p, snapVer);
+    }
+
+    /**
+     * @param p Partition.
+     * @return Version of local snapshot partition was loaded from, or {@code null}
+     *      if partition should be fully supplied.
+     */
+    @Nullable GridCacheVersion snapshotVersion(int p) {
+        return snapVers == null ? null : snapVers.get(p);
+    }
+
     /**
      * @return Update sequence.
      */
@@ -153,6 +196,18 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
 
         U.writeCollection(out, parts);
         U.writeString(out, topic);
+
+        if (snapVers == null)
+            out.writeInt(-1);
+        else {
+            out.writeInt(snapVers.size());
+
+            for (Map.Entry<Integer, GridCacheVersion> e : snapVers.entrySet()) {
+                out.writeInt(e.getKey());
+
+                CU.writeVersion(out, e.getValue());
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -163,9 +218,21 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         updateSeq = in.readLong();
         timeout = in.readLong();
 
-        parts = U.readSet(in);
+        Collection<Integer> parts = U.readCollection(in);
+
+        // Preserve order partitions were demanded in.
+        this.parts = parts == null ? null : new LinkedHashSet<Integer>(parts);
         topic = U.readString(in);
 
+        int size = in.readInt();
+
+        if (size >= 0) {
+            snapVers = new HashMap<Integer, GridCacheVersion>(size, 1.0f);
+
+            for (int i = 0; i < size; i++)
+                snapVers.put(in.readInt(), CU.readVersion(in));
+        }
+
         assert !F.isEmpty(parts);
         assert !F.isEmpty(topic);
         assert workerId >= 0;
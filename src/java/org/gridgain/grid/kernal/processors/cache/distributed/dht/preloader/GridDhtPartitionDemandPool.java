@@ -87,16 +87,38 @@ public class GridDhtPartitionDemandPool<K, V> {
     /** */
     private int poolSize;
 
+    /** Local partition snapshots. */
+    private final GridDhtPartitionSnapshotStore<K, V> snapStore;
+
+    /** Number of local accesses to partitions while they were preloaded. */
+    private final AtomicLongArray accessCnts;
+
+    /** Number of partitions assigned for preloading. */
+    private final AtomicInteger totalParts = new AtomicInteger();
+
+    /** Number of assigned partitions which were preloaded or skipped. */
+    private final AtomicInteger doneParts = new AtomicInteger();
+
+    /** Number of bytes received since assignment. */
+    private final AtomicLong rcvdBytes = new AtomicLong();
+
+    /** Assignment time. */
+    private volatile long assignTime;
+
     /**
      * @param cctx Cache context.
      * @param busyLock Shutdown lock.
+     * @param snapStore Local partition snapshots.
      */
-    public GridDhtPartitionDemandPool(GridCacheContext<K, V> cctx, ReadWriteLock busyLock) {
+    public GridDhtPartitionDemandPool(GridCacheContext<K, V> cctx, ReadWriteLock busyLock,
+        GridDhtPartitionSnapshotStore<K, V> snapStore) {
         assert cctx != null;
         assert busyLock != null;
+        assert snapStore != null;
 
         this.cctx = cctx;
         this.busyLock = busyLock;
+        this.snapStore = snapStore;
 
         log = cctx.logger(getClass());
 
@@ -120,6 +142,8 @@ public class GridDhtPartitionDemandPool<K, V> {
         syncFut = new SyncFuture(dmdWorkers);
 
         timeout = new AtomicLong(cctx.gridConfig().getNetworkTimeout());
+
+        accessCnts = new AtomicLongArray(cctx.partitions());
     }
 
     /**
@@ -171,6 +195,94 @@ public class GridDhtPartitionDemandPool<K, V> {
         return poolSize;
     }
 
+    /**
+     * Records local access to a partition, which is used to order preloaded partitions
+     * if {@link GridCachePreloadOrder#ACCESS} order is configured.
+     *
+     * @param p Partition.
+     */
+    void onAccess(int p) {
+        if (p >= 0 && p < accessCnts.length())
+            accessCnts.incrementAndGet(p);
+    }
+
+    /**
+     * @return Number of partitions assigned for preloading.
+     */
+    int totalPartitions() {
+        return totalParts.get();
+    }
+
+    /**
+     * @return Number of assigned partitions which have not been preloaded yet.
+     */
+    int remainingPartitions() {
+        return Math.max(0, totalParts.get() - doneParts.get());
+    }
+
+    /**
+     * @return Number of bytes received since partitions were assigned.
+     */
+    long receivedBytes() {
+        return rcvdBytes.get();
+    }
+
+    /**
+     * @return Preload rate in bytes per second.
+     */
+    long rate() {
+        long elapsed = System.currentTimeMillis() - assignTime;
+
+        return elapsed > 0 ? rcvdBytes.get() * 1000 / elapsed : 0;
+    }
+
+    /**
+     * Estimates remaining preload time from average time of partitions preloaded so far.
+     *
+     * @return Estimated time in milliseconds or {@code -1} if there is not enough data yet.
+     */
+    long estimatedTimeRemaining() {
+        int total = totalParts.get();
+        int done = doneParts.get();
+
+        if (done >= total)
+            return 0;
+
+        if (done == 0)
+            return -1;
+
+        return (System.currentTimeMillis() - assignTime) * (total - done) / done;
+    }
+
+    /**
+     * Orders demanded partitions according to configured {@link GridCachePreloadOrder}.
+     *
+     * @param d Demand message.
+     */
+    private void orderPartitions(GridDhtPartitionDemandMessage<K, V> d) {
+        GridCachePreloadOrder order = cctx.config().getPreloadOrder();
+
+        Collection<Integer> parts = d.partitions();
+
+        if (order == GridCachePreloadOrder.DEFAULT || parts.size() < 2)
+            return;
+
+        // Take snapshot, as access counts and owners change concurrently.
+        final Map<Integer, Long> prio = new HashMap<Integer, Long>(parts.size(), 1.0f);
+
+        for (Integer p : parts)
+            // Fewer owners or more accesses come first.
+            prio.put(p, order == GridCachePreloadOrder.BACKUPS ? top.owners(p).size() : -accessCnts.get(p));
+
+        d.orderPartitions(new Comparator<Integer>() {
+            @Override public int compare(Integer p1, Integer p2) {
+                int res = prio.get(p1).compareTo(prio.get(p2));
+
+                return res != 0 ? res : p1.compareTo(p2);
+            }
+        });
+    }
+
     /**
      * Resend partition map.
      */
@@ -418,6 +530,20 @@ public class GridDhtPartitionDemandPool<K, V> {
         if (log.isDebugEnabled())
             log.debug("Adding partition assignments: " + assigns);
 
+        int total = 0;
+
+        for (GridDhtPartitionDemandMessage<K, V> d : assigns.values()) {
+            orderPartitions(d);
+
+            total += d.partitions().size();
+        }
+
+        totalParts.set(total);
+        doneParts.set(0);
+        rcvdBytes.set(0);
+
+        assignTime = System.currentTimeMillis();
+
         synchronized (dmdWorkers) {
             for (DemandWorker w : dmdWorkers) {
                 w.addAssignments(assigns);
@@ -566,6 +692,112 @@ public class GridDhtPartitionDemandPool<K, V> {
             return true;
         }
 
+        /**
+         * Loads demanded partitions from local snapshots, so that supplier
+         * sends full values only for entries changed after snapshot.
+         *
+         * @param d Demand message.
+         * @param topVer Topology version.
+         */
+        private void loadSnapshots(GridDhtPartitionDemandMessage<K, V> d, long topVer) {
+            for (Integer p : d.partitions()) {
+                GridDhtLocalPartition<K, V> part = top.localPartition(p, topVer, false);
+
+                if (part == null || part.state() != MOVING || !part.reserve())
+                    continue;
+
+                try {
+                    // Check state again after reservation.
+                    if (part.state() == MOVING) {
+                        GridCacheVersion snapVer = snapStore.load(part);
+
+                        if (snapVer != null)
+                            d.snapshotVersion(p, snapVer);
+                    }
+                }
+                finally {
+                    part.release();
+                }
+            }
+        }
+
+        /**
+         * Clears local entry if it was loaded from snapshot and its version
+         * differs from the one on supplier.
+         *
+         * @param key Key.
+         * @param ver Version on supplier.
+         * @param snapVer Snapshot version.
+         * @return {@code True} if local entry is missing or has been cleared, so that
+         *      its value has to be demanded from supplier.
+         * @throws GridException If failed.
+         */
+        private boolean clearIfChanged(K key, GridCacheVersion ver, GridCacheVersion snapVer) throws GridException {
+            GridCacheEntryEx<K, V> cached = cctx.dht().peekEx(key);
+
+            // Entry could be committed on supplier after snapshot was taken, or be evicted locally.
+            if (cached == null)
+                return true;
+
+            try {
+                GridCacheVersion curVer = cached.version();
+
+                // Entries updated after snapshot are newer than anything supplier has.
+                if (curVer.equals(ver) || curVer.isGreater(snapVer))
+                    return false;
+
+                cached.clear(cctx.versions().next(), cctx.isSwapEnabled(), true, CU.<K, V>empty());
+
+                return true;
+            }
+            catch (GridCacheEntryRemovedException ignored) {
+                return true;
+            }
+        }
+
+        /**
+         * Reconciles partition loaded from snapshot with supplier after the last
+         * supply message: removes entries that are gone on supplier and re-fetches
+         * entries that have diverged.
+         *
+         * @param part Partition.
+         * @param snapVer Snapshot version.
+         * @param seen Keys received from supplier.
+         * @param stale Keys that diverged from supplier.
+         * @param topVer Topology version.
+         * @throws GridException If failed.
+         */
+        private void finishSnapshot(GridDhtLocalPartition<K, V> part, GridCacheVersion snapVer,
+            @Nullable Collection<K> seen, @Nullable Collection<K> stale, long topVer) throws GridException {
+            Collection<K> rmv = new LinkedList<K>();
+
+            for (GridDhtCacheEntry<K, V> e : part.entries()) {
+                if (seen == null || !seen.contains(e.key())) {
+                    try {
+                        if (!e.isNewLocked() && !e.version().isGreater(snapVer))
+                            rmv.add(e.key());
+                    }
+                    catch (GridCacheEntryRemovedException ignored) {
+                        // No-op.
+                    }
+                }
+            }
+
+            snapStore.clear(rmv);
+
+            if (!F.isEmpty(stale)) {
+                snapStore.clear(stale);
+
+                cctx.preloader().request(stale, topVer).get();
+            }
+
+            part.snapshotVersion(null);
+
+            if (log.isDebugEnabled())
+                log.debug("Reconciled partition loaded from snapshot [part=" + part.id() + ", removed=" +
+                    rmv.size() + ", refetched=" + (stale == null ? 0 : stale.size()) + ']');
+        }
+
         /**
          * @param idx Unique index for this topic.
          * @return Topic name for partition.
@@ -604,6 +836,15 @@ public class GridDhtPartitionDemandPool<K, V> {
             if (isCancelled() || topologyChanged())
                 return missed;
 
+            if (snapStore.enabled())
+                loadSnapshots(d, topVer);
+
+            // Keys received for partitions loaded from snapshots.
+            Map<Integer, Collection<K>> seenKeys = new HashMap<Integer, Collection<K>>();
+
+            // Keys that diverged from supplier since snapshot.
+            Map<Integer, Collection<K>> staleKeys = new HashMap<Integer, Collection<K>>();
+
             cctx.io().addOrderedHandler(d.topic(), new CI2<UUID, GridDhtPartitionSupplyMessage<K, V>>() {
                 @Override public void apply(UUID nodeId, GridDhtPartitionSupplyMessage<K, V> msg) {
                     addMessage(new SupplyMessage<K, V>(nodeId, msg));
@@ -623,6 +864,9 @@ public class GridDhtPartitionDemandPool<K, V> {
                     // Create copy.
                     d = new GridDhtPartitionDemandMessage<K, V>(d);
 
+                    // Priorities may have changed since previous partition was demanded.
+                    orderPartitions(d);
+
                     long timeout = GridDhtPartitionDemandPool.this.timeout.get();
 
                     d.timeout(timeout);
@@ -696,6 +940,10 @@ public class GridDhtPartitionDemandPool<K, V> {
 
                         GridDhtPartitionSupplyMessage<K, V> supply = s.supply();
 
+                        rcvdBytes.addAndGet(supply.messageSize());
+
+                        int remainingCnt = remaining.size();
+
                         // Check whether there were class loading errors on unmarshalling.
                         if (supply.classError() != null) {
                             if (log.isDebugEnabled())
@@ -727,6 +975,17 @@ public class GridDhtPartitionDemandPool<K, V> {
                                     try {
                                         Collection<Integer> invalidParts = new GridLeanSet<Integer>();
 
+                                        GridCacheVersion snapVer = d.snapshotVersion(p);
+
+                                        Collection<K> seen = null;
+
+                                        if (snapVer != null) {
+                                            seen = seenKeys.get(p);
+
+                                            if (seen == null)
+                                                seenKeys.put(p, seen = new HashSet<K>());
+                                        }
+
                                         // Loop through all received entries and try to preload them.
                                         for (GridCacheEntryInfo<K, V> entry : e.getValue()) {
                                             if (!invalidParts.contains(p)) {
@@ -739,6 +998,27 @@ public class GridDhtPartitionDemandPool<K, V> {
                                                     continue;
                                                 }
 
+                                                if (snapVer != null) {
+                                                    seen.add(entry.key());
+
+                                                    boolean demand = clearIfChanged(entry.key(), entry.version(),
+                                                        snapVer);
+
+                                                    // Digest of entry that has not changed since snapshot.
+                                                    if (entry.value() == null && entry.valueBytes() == null) {
+                                                        if (demand) {
+                                                            Collection<K> stale = staleKeys.get(p);
+
+                                                            if (stale == null)
+                                                                staleKeys.put(p, stale = new LinkedList<K>());
+
+                                                            stale.add(entry.key());
+                                                        }
+
+                                                        continue;
+                                                    }
+                                                }
+
                                                 if (!preloadEntry(node, p, entry)) {
                                                     invalidParts.add(p);
 
@@ -758,6 +1038,10 @@ public class GridDhtPartitionDemandPool<K, V> {
                                         if (last) {
                                             remaining.remove(p);
 
+                                            if (snapVer != null)
+                                                finishSnapshot(part, snapVer, seenKeys.remove(p),
+                                                    staleKeys.remove(p), topVer);
+
                                             top.own(part);
 
                                             if (log.isDebugEnabled())
@@ -790,6 +1074,8 @@ public class GridDhtPartitionDemandPool<K, V> {
 
                         remaining.removeAll(s.supply().missed());
 
+                        doneParts.addAndGet(remainingCnt - remaining.size());
+
                         // Only request partitions based on latest topology version.
                         missed.addAll(F.view(s.supply().missed(), new P1<Integer>() {
                             @Override public boolean apply(Integer p) {
@@ -159,7 +159,12 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
         out.writeLong(nodeOrder);
         out.writeLong(updateSeq);
 
-        U.writeMap(out, this);
+        out.writeInt(size());
+
+        // Map key is always equal to node ID of partition map, so
+        // partition maps are written directly without keys.
+        for (GridDhtPartitionMap m : values())
+            m.writeExternal(out);
     }
 
     /** {@inheritDoc} */
@@ -169,7 +174,15 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
         nodeOrder = in.readLong();
         updateSeq = in.readLong();
 
-        putAll(U.<UUID, GridDhtPartitionMap>readMap(in));
+        int size = in.readInt();
+
+        for (int i = 0; i < size; i++) {
+            GridDhtPartitionMap m = new GridDhtPartitionMap();
+
+            m.readExternal(in);
+
+            put(m.nodeId(), m);
+        }
     }
 
     /** {@inheritDoc} */
@@ -16,7 +16,9 @@ import java.io.*;
 import java.util.*;
 
 /**
- * Partition map.
+ * Partition map. Map is serialized as run-length encoded array holding one byte
+ * of state per partition, which makes partition exchange messages small even
+ * for large number of partitions.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
@@ -110,7 +112,38 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
 
         out.writeLong(updateSeq);
 
-        U.writeMap(out, this);
+        out.writeInt(size());
+
+        if (isEmpty())
+            return;
+
+        int max = 0;
+
+        for (Integer p : keySet())
+            max = Math.max(max, p);
+
+        // One byte per partition: 0 if partition is absent, state ordinal plus one otherwise.
+        byte[] states = new byte[max + 1];
+
+        for (Map.Entry<Integer, GridDhtPartitionState> e : entrySet())
+            states[e.getKey()] = (byte)(e.getValue().ordinal() + 1);
+
+        writeVarInt(out, states.length);
+
+        for (int i = 0; i < states.length;) {
+            byte state = states[i];
+
+            int run = 1;
+
+            while (i + run < states.length && states[i + run] == state)
+                run++;
+
+            writeVarInt(out, run);
+
+            out.writeByte(state);
+
+            i += run;
+        }
     }
 
     /** {@inheritDoc} */
@@ -119,7 +152,69 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
 
         updateSeq = in.readLong();
 
-        putAll(U.<Integer, GridDhtPartitionState>readMap(in));
+        int size = in.readInt();
+
+        if (size == 0)
+            return;
+
+        int len = readVarInt(in);
+
+        for (int i = 0; i < len;) {
+            int run = readVarInt(in);
+
+            byte state = in.readByte();
+
+            if (state != 0) {
+                GridDhtPartitionState s = GridDhtPartitionState.fromOrdinal(state - 1);
+
+                if (s == null)
+                    throw new IOException("Invalid partition state ordinal: " + (state - 1));
+
+                for (int p = i; p < i + run; p++)
+                    put(p, s);
+            }
+
+            i += run;
+        }
+
+        assert size() == size : "Invalid partition map size [expected=" + size + ", actual=" + size() + ']';
+    }
+
+    /**
+     * Writes non-negative integer using 7 bits per byte.
+     *
+     * @param out Output.
+     * @param val Value.
+     * @throws IOException If failed.
+     */
+    private static void writeVarInt(DataOutput out, int val) throws IOException {
+        assert val >= 0;
+
+        while ((val & ~0x7F) != 0) {
+            out.writeByte((val & 0x7F) | 0x80);
+
+            val >>>= 7;
+        }
+
+        out.writeByte(val);
+    }
+
+    /**
+     * @param in Input.
+     * @return Value written with {@link #writeVarInt(DataOutput, int)}.
+     * @throws IOException If failed.
+     */
+    private static int readVarInt(DataInput in) throws IOException {
+        int val = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+
+            val |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return val;
+        }
     }
 
     /** {@inheritDoc} */
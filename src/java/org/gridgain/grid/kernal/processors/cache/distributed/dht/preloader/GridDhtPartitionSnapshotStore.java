@@ -0,0 +1,373 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.dht.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.thread.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.worker.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.gridgain.grid.kernal.processors.cache.distributed.dht.GridDhtPartitionState.*;
+
+/**
+ * Local on-disk store of partition snapshots. Every owned partition is written into
+ * its own file together with snapshot version. After restart, partition is loaded from
+ * its file and suppliers send full values only for entries updated after snapshot version,
+ * and only keys with versions for the rest of the entries, so that demander can detect
+ * entries that were removed or changed while this node was down.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridDhtPartitionSnapshotStore<K, V> {
+    /** Snapshot file format version. */
+    private static final int FORMAT_VER = 1;
+
+    /** Snapshot file extension. */
+    private static final String FILE_EXT = ".snapshot";
+
+    /** Snapshot thread name. */
+    private static final String SNAPSHOT_THREAD_NAME = "partition-snapshot-worker";
+
+    /** Cache context. */
+    private final GridCacheContext<K, V> cctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Partition topology. */
+    private final GridDhtPartitionTopology<K, V> top;
+
+    /** Snapshot folder, {@code null} if snapshots are disabled. */
+    private final File dir;
+
+    /** Partitions that have already been loaded from disk since node start. */
+    private final Collection<Integer> loaded = new GridConcurrentHashSet<Integer>();
+
+    /** Mutex to prevent concurrent snapshots. */
+    private final Object mux = new Object();
+
+    /** Periodic snapshot thread. */
+    private GridThread snapshotThread;
+
+    /**
+     * @param cctx Cache context.
+     */
+    GridDhtPartitionSnapshotStore(GridCacheContext<K, V> cctx) {
+        assert cctx != null;
+
+        this.cctx = cctx;
+
+        log = cctx.logger(getClass());
+
+        top = cctx.dht().topology();
+
+        String path = cctx.config().getPartitionSnapshotPath();
+
+        if (path != null) {
+            File root = new File(path);
+
+            if (!root.isAbsolute())
+                root = !F.isEmpty(U.getGridGainHome()) ? new File(U.getGridGainHome(), path) :
+                    new File(System.getProperty("java.io.tmpdir"), path);
+
+            dir = new File(root, cctx.namexx());
+        }
+        else
+            dir = null;
+    }
+
+    /**
+     * @return {@code True} if partition snapshots are enabled.
+     */
+    boolean enabled() {
+        return dir != null;
+    }
+
+    /**
+     * @throws GridException If snapshot folder could not be created.
+     */
+    void start() throws GridException {
+        if (!enabled())
+            return;
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new GridException("Failed to create partition snapshot folder: " + dir.getAbsolutePath());
+
+        if (cctx.config().getPartitionSnapshotFrequency() > 0) {
+            snapshotThread = new GridThread(new SnapshotWorker());
+
+            snapshotThread.setPriority(Thread.NORM_PRIORITY - 1);
+
+            snapshotThread.start();
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Started partition snapshot store: " + dir.getAbsolutePath());
+    }
+
+    /**
+     * Stops periodic snapshots and writes final snapshot of owned partitions.
+     */
+    void stop() {
+        if (!enabled())
+            return;
+
+        U.interrupt(snapshotThread);
+        U.join(snapshotThread, log);
+
+        snapshot();
+    }
+
+    /**
+     * Writes all partitions owned by local node to disk.
+     */
+    void snapshot() {
+        if (!enabled())
+            return;
+
+        synchronized (mux) {
+            long start = System.currentTimeMillis();
+
+            int cnt = 0;
+
+            for (GridDhtLocalPartition<K, V> part : top.localPartitions()) {
+                if (part.state() != OWNING || !part.reserve())
+                    continue;
+
+                try {
+                    // Partition could have been rented before reservation.
+                    if (part.state() == OWNING) {
+                        write(part);
+
+                        cnt++;
+                    }
+                }
+                catch (IOException e) {
+                    U.error(log, "Failed to write partition snapshot: " + part, e);
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to write partition snapshot: " + part, e);
+                }
+                finally {
+                    part.release();
+                }
+            }
+
+            if (log.isDebugEnabled())
+                log.debug("Written partition snapshots [cache=" + cctx.namexx() + ", parts=" + cnt + ", time=" +
+                    (System.currentTimeMillis() - start) + "ms]");
+        }
+    }
+
+    /**
+     * @param part Partition to write.
+     * @throws IOException If write failed.
+     * @throws GridException If marshalling failed.
+     */
+    private void write(GridDhtLocalPartition<K, V> part) throws IOException, GridException {
+        // Entries updated after this point will have greater versions.
+        GridCacheVersion snapVer = cctx.versions().last();
+
+        File tmp = new File(dir, fileName(part.id()) + ".tmp");
+
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+
+        try {
+            out.writeInt(FORMAT_VER);
+            out.writeInt(part.id());
+
+            CU.writeVersion(out, snapVer);
+
+            for (GridDhtCacheEntry<K, V> e : part.entries()) {
+                GridCacheEntryInfo<K, V> info = e.info();
+
+                if (info == null || info.value() == null)
+                    continue;
+
+                info.marshal(cctx);
+
+                out.writeBoolean(true);
+
+                info.writeExternal(out);
+            }
+
+            out.writeBoolean(false);
+        }
+        finally {
+            U.close(out, log);
+        }
+
+        File file = new File(dir, fileName(part.id()));
+
+        if ((file.exists() && !file.delete()) || !tmp.renameTo(file))
+            throw new GridException("Failed to replace partition snapshot file: " + file.getAbsolutePath());
+    }
+
+    /**
+     * Loads partition from its snapshot file, if there is one and it has not been
+     * loaded since node start. Partition must be in {@code MOVING} state and reserved.
+     *
+     * @param part Partition to load.
+     * @return Snapshot version, or {@code null} if partition was not loaded.
+     */
+    @Nullable GridCacheVersion load(GridDhtLocalPartition<K, V> part) {
+        if (!enabled())
+            return null;
+
+        GridCacheVersion snapVer = part.snapshotVersion();
+
+        // Partition has already been loaded, but not preloaded yet.
+        if (snapVer != null)
+            return snapVer;
+
+        if (!loaded.add(part.id()))
+            return null;
+
+        File file = new File(dir, fileName(part.id()));
+
+        if (!file.exists())
+            return null;
+
+        long start = System.currentTimeMillis();
+
+        Collection<K> keys = new LinkedList<K>();
+
+        ObjectInputStream in = null;
+
+        try {
+            in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            if (in.readInt() != FORMAT_VER || in.readInt() != part.id()) {
+                U.warn(log, "Ignoring partition snapshot with unexpected header: " + file.getAbsolutePath());
+
+                return null;
+            }
+
+            snapVer = CU.readVersion(in);
+
+            while (in.readBoolean()) {
+                GridCacheEntryInfo<K, V> info = new GridCacheEntryInfo<K, V>();
+
+                info.readExternal(in);
+
+                info.unmarshal(cctx, cctx.deploy().localLoader());
+
+                GridCacheEntryEx<K, V> cached = cctx.dht().entryEx(info.key());
+
+                try {
+                    if (cached.initialValue(info.value(), info.valueBytes(), info.version(), info.ttl(),
+                        info.expireTime(), info.metrics())) {
+                        cctx.evicts().touch(cached);
+
+                        keys.add(info.key());
+                    }
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Entry has been concurrently removed while loading snapshot (will ignore): " +
+                            cached);
+                }
+            }
+
+            part.snapshotVersion(snapVer);
+
+            if (log.isDebugEnabled())
+                log.debug("Loaded partition from snapshot [part=" + part.id() + ", entries=" + keys.size() +
+                    ", snapVer=" + snapVer + ", time=" + (System.currentTimeMillis() - start) + "ms]");
+
+            return snapVer;
+        }
+        catch (GridDhtInvalidPartitionException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Partition became invalid while loading snapshot (will ignore): " + part.id());
+        }
+        catch (IOException e) {
+            U.error(log, "Failed to load partition snapshot (partition will be fully preloaded): " + part, e);
+        }
+        catch (ClassNotFoundException e) {
+            U.error(log, "Failed to load partition snapshot (partition will be fully preloaded): " + part, e);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to load partition snapshot (partition will be fully preloaded): " + part, e);
+        }
+        finally {
+            U.close(in, log);
+        }
+
+        // Entries loaded without snapshot version can not be verified by suppliers.
+        clear(keys);
+
+        return null;
+    }
+
+    /**
+     * @param keys Keys to clear.
+     */
+    void clear(Iterable<K> keys) {
+        GridCacheVersion clearVer = cctx.versions().next();
+
+        for (K key : keys) {
+            GridCacheEntryEx<K, V> cached = cctx.dht().peekEx(key);
+
+            try {
+                if (cached != null && !cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty()))
+                    U.warn(log, "Failed to clear entry loaded from partition snapshot (entry is in use): " + cached);
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to clear entry loaded from partition snapshot: " + cached, e);
+            }
+        }
+    }
+
+    /**
+     * @param part Partition.
+     * @return Snapshot file name.
+     */
+    private String fileName(int part) {
+        return "part-" + part + FILE_EXT;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtPartitionSnapshotStore.class, this);
+    }
+
+    /**
+     * Periodically writes partition snapshots.
+     */
+    private class SnapshotWorker extends GridWorker {
+        /**
+         * Default constructor.
+         */
+        private SnapshotWorker() {
+            super(cctx.gridName(), SNAPSHOT_THREAD_NAME, log);
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings({"BusyWait"})
+        @Override protected void body() throws InterruptedException, GridInterruptedException {
+            while (!isCancelled()) {
+                Thread.sleep(cctx.config().getPartitionSnapshotFrequency());
+
+                snapshot();
+            }
+        }
+    }
+}
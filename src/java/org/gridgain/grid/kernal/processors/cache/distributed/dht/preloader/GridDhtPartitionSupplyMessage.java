@@ -238,6 +238,13 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
 
         infoBytes = U.readIntKeyMap(in);
 
+        for (Collection<byte[]> c : infoBytes.values()) {
+            msgSize += 4;
+
+            for (byte[] bytes : c)
+                msgSize += bytes.length;
+        }
+
         assert workerId >= 0;
         assert updateSeq > 0;
     }
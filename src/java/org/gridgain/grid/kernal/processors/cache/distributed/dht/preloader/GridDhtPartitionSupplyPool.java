@@ -23,6 +23,7 @@ import org.gridgain.grid.util.worker.*;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
 import static org.gridgain.grid.kernal.processors.cache.distributed.dht.GridDhtPartitionState.*;
@@ -52,6 +53,12 @@ public class GridDhtPartitionSupplyPool<K, V> {
     /** */
     private final LinkedBlockingDeque<DemandMessage<K, V>> queue = new LinkedBlockingDeque<DemandMessage<K, V>>();
 
+    /** Time before which next batch may not be sent, shared by all workers to enforce rate limit. */
+    private final AtomicLong nextSendTime = new AtomicLong();
+
+    /** Total number of supplied bytes. */
+    private final AtomicLong suppliedBytes = new AtomicLong();
+
     /**
      * @param cctx Cache context.
      * @param busyLock Shutdown lock.
@@ -102,6 +109,39 @@ public class GridDhtPartitionSupplyPool<K, V> {
         return cctx.config().getPreloadThreadPoolSize();
     }
 
+    /**
+     * @return Total number of bytes supplied to other nodes.
+     */
+    long suppliedBytes() {
+        return suppliedBytes.get();
+    }
+
+    /**
+     * Reserves time slot for sending a batch within configured rate limit.
+     *
+     * @param size Batch size in bytes.
+     * @return Time in milliseconds to wait before sending the batch.
+     */
+    private long reserve(int size) {
+        long rate = cctx.config().getPreloadRateLimit();
+
+        if (rate <= 0)
+            return 0;
+
+        long cost = size * 1000L / rate;
+
+        while (true) {
+            long now = System.currentTimeMillis();
+
+            long next = nextSendTime.get();
+
+            long start = Math.max(now, next);
+
+            if (nextSendTime.compareAndSet(next, start + cost))
+                return start - now;
+        }
+    }
+
     /**
      * @return {@code true} if entered to busy state.
      */
@@ -243,6 +283,9 @@ public class GridDhtPartitionSupplyPool<K, V> {
                             continue;
                         }
 
+                        // Demander has loaded partition from local snapshot.
+                        GridCacheVersion snapVer = d.snapshotVersion(part);
+
                         try {
                             for (GridCacheEntryEx<K, V> e : loc.entries()) {
                                 if (!cctx.belongs(part, node)) {
@@ -267,13 +310,28 @@ public class GridDhtPartitionSupplyPool<K, V> {
 
                                     watch.step("SUPPLY_SENT");
 
+                                    // Pause only between batches, as the last batch is acknowledged by demander.
+                                    long throttle = cctx.config().getPreloadThrottle();
+
+                                    if (throttle > 0)
+                                        U.sleep(throttle);
+
                                     s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(), d.updateSequence());
                                 }
 
                                 GridCacheEntryInfo<K, V> info = e.info();
 
-                                if (info != null && info.value() != null)
+                                if (info != null && info.value() != null) {
+                                    // Send only key and version for entries that
+                                    // have not changed since demander's snapshot.
+                                    if (snapVer != null && !info.version().isGreater(snapVer)) {
+                                        info.value(null);
+                                        info.valueBytes(null);
+                                        info.metrics(null);
+                                    }
+
                                     s.addEntry(part, info, cctx);
+                                }
                             }
 
                             // Mark as last supply message.
@@ -313,11 +371,23 @@ public class GridDhtPartitionSupplyPool<K, V> {
         private boolean reply(GridNode n, GridDhtPartitionDemandMessage<K, V> d, GridDhtPartitionSupplyMessage<K, V> s)
             throws GridException {
             try {
+                long delay = reserve(s.messageSize());
+
+                if (delay > 0) {
+                    if (log.isDebugEnabled())
+                        log.debug("Delaying partition supply to keep preload rate limit [node=" + n.id() +
+                            ", delay=" + delay + ']');
+
+                    U.sleep(delay);
+                }
+
                 if (log.isDebugEnabled())
                     log.debug("Replying to partition demand [node=" + n.id() + ", demand=" + d + ", supply=" + s + ']');
 
                 cctx.io().sendOrderedMessage(n, d.topic(), cctx.io().messageId(d.topic(), n.id()), s, d.timeout());
 
+                suppliedBytes.addAndGet(s.messageSize());
+
                 return true;
             }
             catch (GridTopologyException ignore) {
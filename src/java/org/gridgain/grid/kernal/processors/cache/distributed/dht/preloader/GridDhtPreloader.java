@@ -10,6 +10,7 @@
 package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
 import org.gridgain.grid.events.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.dht.*;
@@ -56,6 +57,9 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
     /** Partition demanders. */
     private GridDhtPartitionDemandPool<K, V> demandPool;
 
+    /** Local partition snapshots. */
+    private GridDhtPartitionSnapshotStore<K, V> snapStore;
+
     /** Start future. */
     private final GridFutureAdapter<?> startFut;
 
@@ -192,8 +196,10 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
                 }
             });
 
+        snapStore = new GridDhtPartitionSnapshotStore<K, V>(cctx);
+
         supplyPool = new GridDhtPartitionSupplyPool<K, V>(cctx, busyLock);
-        demandPool = new GridDhtPartitionDemandPool<K, V>(cctx, busyLock);
+        demandPool = new GridDhtPartitionDemandPool<K, V>(cctx, busyLock, snapStore);
 
         cctx.events().addListener(discoLsnr, EVT_NODE_JOINED, EVT_NODE_LEFT, EVT_NODE_FAILED);
     }
@@ -222,6 +228,8 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
 
         GridDhtPartitionsExchangeFuture<K, V> fut = exchangeFuture(exchId, discoEvt);
 
+        snapStore.start();
+
         supplyPool.start();
         demandPool.start(fut);
 
@@ -265,6 +273,9 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
         if (log.isDebugEnabled())
             log.debug("DHT preloader onKernalStop callback.");
 
+        // Write final snapshot while partitions are still owned.
+        snapStore.stop();
+
         cctx.events().removeListener(discoLsnr);
 
         // Acquire write busy lock.
@@ -293,6 +304,48 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
         return (List<GridFuture<?>>)(List)exchFuts.values();
     }
 
+    /**
+     * @return Number of partitions assigned for preloading on local node.
+     */
+    public int preloadTotalPartitions() {
+        return demandPool == null ? 0 : demandPool.totalPartitions();
+    }
+
+    /**
+     * @return Number of assigned partitions which have not been preloaded yet.
+     */
+    public int preloadRemainingPartitions() {
+        return demandPool == null ? 0 : demandPool.remainingPartitions();
+    }
+
+    /**
+     * @return Number of bytes received since partitions were assigned for preloading.
+     */
+    public long preloadReceivedBytes() {
+        return demandPool == null ? 0 : demandPool.receivedBytes();
+    }
+
+    /**
+     * @return Preload rate in bytes per second.
+     */
+    public long preloadRate() {
+        return demandPool == null ? 0 : demandPool.rate();
+    }
+
+    /**
+     * @return Estimated time in milliseconds until preloading finishes, or {@code -1} if unknown.
+     */
+    public long preloadEstimatedTimeRemaining() {
+        return demandPool == null ? -1 : demandPool.estimatedTimeRemaining();
+    }
+
+    /**
+     * @return Total number of bytes supplied to other nodes.
+     */
+    public long preloadSuppliedBytes() {
+        return supplyPool == null ? 0 : supplyPool.suppliedBytes();
+    }
+
     /**
      * @return {@code true} if entered to busy state.
      */
@@ -613,6 +666,11 @@ public class GridDhtPreloader<K, V> extends GridCachePreloaderAdapter<K, V> {
     @Override public GridDhtFuture<Object> request(Collection<? extends K> keys, long topVer) {
         final GridDhtForceKeysFuture<K, V> fut = new GridDhtForceKeysFuture<K, V>(cctx, topVer, keys);
 
+        // Keys are forced when they are accessed before their partitions are preloaded.
+        if (demandPool != null && cctx.config().getPreloadOrder() == GridCachePreloadOrder.ACCESS)
+            for (K key : keys)
+                demandPool.onAccess(cctx.partition(key));
+
         forceKeyFuts.put(fut.futureId(), fut);
 
         if (startFut.isDone())
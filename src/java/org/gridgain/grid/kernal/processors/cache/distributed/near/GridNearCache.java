@@ -36,9 +36,26 @@ import static org.gridgain.grid.cache.GridCacheTxConcurrency.*;
  * @version 3.6.0c.13012012
  */
 public class GridNearCache<K, V> extends GridDistributedCacheAdapter<K, V> {
+    /** Maximum number of remembered invalidations. */
+    private static final int MAX_INVALIDATIONS = 10240;
+
     /** DHT cache. */
     private GridDhtCache<K, V> dht;
 
+    /**
+     * Committed DHT versions of recently invalidated keys. Values read before invalidation
+     * may arrive after it, so they are not loaded if their version is older.
+     */
+    private final GridConcurrentLinkedHashMap<K, GridCacheVersion> invalidations =
+        new GridConcurrentLinkedHashMap<K, GridCacheVersion>(128, 0.75f, 16, false,
+            new P2<GridConcurrentLinkedHashMap<K, GridCacheVersion>,
+                GridConcurrentLinkedHashMap.HashEntry<K, GridCacheVersion>>() {
+                @Override public boolean apply(GridConcurrentLinkedHashMap<K, GridCacheVersion> map,
+                    GridConcurrentLinkedHashMap.HashEntry<K, GridCacheVersion> e) {
+                    return map.sizex() > MAX_INVALIDATIONS;
+                }
+            });
+
     /** Near has key. */
     private GridPredicate<? super K> nearHasKey = new P1<K>() {
         @Override public boolean apply(K k) {
@@ -115,6 +132,12 @@ public class GridNearCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                 processLockResponse(nodeId, res);
             }
         });
+
+        ctx.io().addHandler(GridNearInvalidateRequest.class, new CI2<UUID, GridNearInvalidateRequest<K, V>>() {
+            @Override public void apply(UUID nodeId, GridNearInvalidateRequest<K, V> req) {
+                processInvalidateRequest(nodeId, req);
+            }
+        });
     }
 
     /**
@@ -669,6 +692,90 @@ public class GridNearCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         return tx;
     }
 
+    /**
+     * Evicts near entries updated on primary node. Entries which are locked or
+     * used by transactions are not evicted and will be updated by them.
+     *
+     * @param nodeId Sender ID.
+     * @param req Request.
+     */
+    private void processInvalidateRequest(UUID nodeId, GridNearInvalidateRequest<K, V> req) {
+        if (req.classError() != null) {
+            if (log.isDebugEnabled())
+                log.debug("Failed to unmarshal near invalidate request (will ignore) [nodeId=" + nodeId +
+                    ", err=" + req.classError() + ']');
+
+            return;
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Processing near invalidate request [nodeId=" + nodeId + ", req=" + req + ']');
+
+        GridCacheVersion obsoleteVer = null;
+
+        Iterator<GridCacheVersion> vers = req.versions().iterator();
+
+        for (K key : req.keys()) {
+            GridCacheVersion ver = vers.next();
+
+            onInvalidated(key, ver);
+
+            GridNearCacheEntry<K, V> entry = peekExx(key);
+
+            if (entry == null)
+                continue;
+
+            try {
+                GridCacheVersion dhtVer = entry.dhtVersion();
+
+                // Entry already holds committed or newer value.
+                if (dhtVer != null && dhtVer.isGreaterEqual(ver))
+                    continue;
+            }
+            catch (GridCacheEntryRemovedException ignore) {
+                continue;
+            }
+
+            if (obsoleteVer == null)
+                obsoleteVer = ctx.versions().next();
+
+            try {
+                if (entry.evictInternal(false, obsoleteVer, null))
+                    removeIfObsolete(key);
+                else if (log.isDebugEnabled())
+                    log.debug("Near entry was not invalidated (it is in use): " + entry);
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to invalidate near entry: " + entry, e);
+            }
+        }
+    }
+
+    /**
+     * @param key Invalidated key.
+     * @param ver Committed DHT version.
+     */
+    private void onInvalidated(K key, GridCacheVersion ver) {
+        while (true) {
+            GridCacheVersion old = invalidations.putIfAbsent(key, ver);
+
+            if (old == null || !ver.isGreater(old) || invalidations.replace(key, old, ver))
+                return;
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @param ver DHT version of value read from primary node.
+     * @return {@code True} if key was invalidated with newer version, so value must not
+     *      be loaded into near cache.
+     */
+    boolean invalidatedAfter(K key, @Nullable GridCacheVersion ver) {
+        GridCacheVersion invVer = invalidations.get(key);
+
+        return invVer != null && (ver == null || ver.isLess(invVer));
+    }
+
     /**
      * @param nodeId Sender ID.
      * @param res Response.
@@ -159,6 +159,11 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
                 this.ver = ver;
                 this.dhtVer = dhtVer;
 
+                if (cctx.config().getNearEntryTimeToLive() > 0) {
+                    ttl = nearTtl(ttl);
+                    expireTime = toExpireTime(ttl);
+                }
+
                 return true;
             }
         }
@@ -199,8 +204,8 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
                     if (!markObsolete(dhtVer, true)) {
                         this.val = val;
                         this.valBytes = isStoreValueBytes() ? valBytes : null;
-                        this.expireTime = expireTime;
-                        this.ttl = ttl;
+                        this.ttl = nearTtl(ttl);
+                        this.expireTime = this.ttl == ttl ? expireTime : toExpireTime(this.ttl);
                         this.primaryNodeId = primaryNodeId;
                     }
                 }
@@ -368,6 +373,30 @@ public class GridNearCacheEntry<K, V> extends GridDistributedCacheEntry<K, V> {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override protected void update(@Nullable V val, @Nullable byte[] valBytes, long expireTime, long ttl,
+        GridCacheVersion ver, GridCacheMetricsAdapter metrics) {
+        long nearTtl = nearTtl(ttl);
+
+        if (nearTtl != ttl)
+            super.update(val, valBytes, toExpireTime(nearTtl), nearTtl, ver, metrics);
+        else
+            super.update(val, valBytes, expireTime, ttl, ver, metrics);
+    }
+
+    /**
+     * Near entries are not invalidated by primary node if near entry time to live
+     * is configured, so value time to live is capped by it.
+     *
+     * @param ttl Time to live of value.
+     * @return Time to live to use for near entry.
+     */
+    private long nearTtl(long ttl) {
+        long nearTtl = cctx.config().getNearEntryTimeToLive();
+
+        return nearTtl > 0 && (ttl == 0 || ttl > nearTtl) ? nearTtl : ttl;
+    }
+
     /** {@inheritDoc} */
     @Override protected void updateIndex(V val) throws GridException {
         // No-op: queries are disabled for near cache.
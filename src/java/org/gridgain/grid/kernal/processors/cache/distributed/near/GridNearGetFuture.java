@@ -406,7 +406,8 @@ public final class GridNearGetFuture<K, V> extends GridCompoundIdentityFuture<Ma
 
             for (GridCacheEntryInfo<K, V> info : infos) {
                 // Entries available locally in DHT should not loaded into near cache for reading.
-                if (!ctx.localNodeId().equals(nodeId)) {
+                // Values read before concurrent update was invalidated are not loaded either.
+                if (!ctx.localNodeId().equals(nodeId) && !cache().invalidatedAfter(info.key(), info.version())) {
                     while (true) {
                         try {
                             GridNearCacheEntry<K, V> entry = cache().entryExx(info.key());
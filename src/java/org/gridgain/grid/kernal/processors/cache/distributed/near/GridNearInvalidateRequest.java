@@ -0,0 +1,116 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.near;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Request sent by primary node to near reader to invalidate keys updated within
+ * invalidation window. Keys updated by several transactions are sent only once,
+ * together with the latest committed DHT version of every key.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridNearInvalidateRequest<K, V> extends GridCacheMessage<K, V> implements GridCacheDeployable {
+    /** Keys to invalidate. */
+    @GridToStringInclude
+    private Collection<K> keys;
+
+    /** Serialized keys. */
+    @GridToStringExclude
+    private Collection<byte[]> keyBytes;
+
+    /** Committed DHT versions of keys, in the same order as keys. */
+    @GridToStringInclude
+    private Collection<GridCacheVersion> vers;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridNearInvalidateRequest() {
+        // No-op.
+    }
+
+    /**
+     * @param keys Keys to invalidate.
+     * @param vers Committed DHT versions of keys, in the same order as keys.
+     */
+    public GridNearInvalidateRequest(Collection<K> keys, Collection<GridCacheVersion> vers) {
+        assert !F.isEmpty(keys);
+        assert vers != null && vers.size() == keys.size();
+
+        this.keys = keys;
+        this.vers = vers;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        prepareObjects(keys, ctx);
+
+        keyBytes = marshalCollection(keys, ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        keys = unmarshalCollection(keyBytes, ctx, ldr);
+    }
+
+    /**
+     * @return Keys to invalidate.
+     */
+    Collection<K> keys() {
+        return keys;
+    }
+
+    /**
+     * @return Committed DHT versions of keys, in the same order as keys.
+     */
+    Collection<GridCacheVersion> versions() {
+        return vers;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean ignoreClassErrors() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        U.writeCollection(out, keyBytes);
+        U.writeCollection(out, vers);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        keyBytes = U.readCollection(in);
+        vers = U.readCollection(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNearInvalidateRequest.class, this);
+    }
+}
@@ -302,6 +302,13 @@ public final class GridNearTxFinishFuture<K, V> extends GridCompoundIdentityFutu
      */
     @SuppressWarnings({"unchecked"})
     private void finish(GridDistributedTxMapping<K, V> m) {
+        if (m.onePhaseCommit()) {
+            if (log.isDebugEnabled())
+                log.debug("Skipping finish request for mapping committed within prepare step: " + m);
+
+            return;
+        }
+
         GridRichNode n = m.node();
 
         assert !m.empty();
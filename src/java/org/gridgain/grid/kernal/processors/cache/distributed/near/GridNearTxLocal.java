@@ -52,6 +52,9 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
     /** */
     private boolean syncRollback;
 
+    /** Flag indicating that prepare may be merged with commit on a single primary node. */
+    private volatile boolean onePhaseCommit;
+
     /** DHT mappings. */
     private ConcurrentMap<UUID, GridDistributedTxMapping<K, V>> mappings =
         new ConcurrentHashMap<UUID, GridDistributedTxMapping<K, V>>(16, 0.75f, 1);
@@ -235,6 +238,14 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         return false;
     }
 
+    /**
+     * @return {@code True} if prepare was started by commit, so it may be merged
+     *      with commit if transaction maps to a single primary node.
+     */
+    boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean syncCommit() {
         return syncCommit;
@@ -536,6 +547,11 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         if (log.isDebugEnabled())
             log.debug("Committing near local tx: " + this);
 
+        // If prepare was not invoked explicitly, then it cannot be followed
+        // by rollback, so primary node may commit right after prepare.
+        if (prepFut.get() == null)
+            onePhaseCommit = true;
+
         prepareAsync();
 
         GridNearTxFinishFuture<K, V> fut = commitFut.get();
@@ -278,6 +278,30 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
         return f.getClass().equals(MiniFuture.class);
     }
 
+    /**
+     * Checks whether prepare and commit can be merged into one step. This is possible only
+     * for optimistic transactions which map to exactly one remote primary node and have
+     * no explicitly locked entries.
+     *
+     * @param mappings Mappings.
+     * @return {@code True} if primary node should commit right after prepare.
+     */
+    private boolean onePhaseCommit(Collection<GridDistributedTxMapping<K, V>> mappings) {
+        if (!tx.optimistic() || tx.ec() || mappings.size() != 1)
+            return false;
+
+        GridDistributedTxMapping<K, V> m = F.first(mappings);
+
+        if (m.node().isLocal() || m.explicitLock())
+            return false;
+
+        for (GridCacheTxEntry<K, V> e : m.entries())
+            if (e.explicitVersion() != null)
+                return false;
+
+        return true;
+    }
+
     /**
      * Completeness callback.
      */
@@ -300,7 +324,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
     void prepare() {
         prepare(
             tx.optimistic() && tx.serializable() ? tx.readEntries() : Collections.<GridCacheTxEntry<K, V>>emptyList(),
-            tx.writeEntries(), Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+            tx.writeEntries(), Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(), tx.onePhaseCommit());
 
         markInitialized();
     }
@@ -309,10 +333,11 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
      * @param reads Read entries.
      * @param writes Write entries.
      * @param mapped Previous mappings.
+     * @param onePhaseCommit Whether prepare may be merged with commit if all keys map to single remote node.
      */
     @SuppressWarnings({"unchecked"})
     private void prepare(Iterable<GridCacheTxEntry<K, V>> reads, Iterable<GridCacheTxEntry<K, V>> writes,
-        Map<UUID, GridDistributedTxMapping<K, V>> mapped) {
+        Map<UUID, GridDistributedTxMapping<K, V>> mapped, boolean onePhaseCommit) {
         Collection<GridRichNode> nodes = CU.allNodes(cctx, tx.topologyVersion());
 
         ConcurrentMap<UUID, GridDistributedTxMapping<K, V>> mappings =
@@ -336,6 +361,9 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
         cctx.mvcc().recheckPendingLocks();
 
+        if (onePhaseCommit)
+            onePhaseCommit = onePhaseCommit(mappings.values());
+
         // Create mini futures.
         for (final GridDistributedTxMapping<K, V> m : mappings.values()) {
             if (isDone())
@@ -347,7 +375,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
             GridNearTxPrepareRequest<K, V> req = new GridNearTxPrepareRequest<K, V>(futId, tx.topologyVersion(), tx,
                 tx.optimistic() && tx.serializable() ? m.reads() : null, m.writes(), tx.syncCommit(),
-                tx.syncRollback());
+                tx.syncRollback(), onePhaseCommit);
 
             // If this is the primary node for the keys.
             if (n.isLocal()) {
@@ -388,7 +416,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
                                 // Remap.
                                 prepare(readRemaps, writeRemaps,
-                                    Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+                                    Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(), false);
                             }
 
                             if (!m.empty()) {
@@ -584,7 +612,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                 tx.removeMapping(m.node().id());
 
                 // Remap.
-                prepare(m.reads(), m.writes(), new T2<UUID, GridDistributedTxMapping<K, V>>(m.node().id(), m));
+                prepare(m.reads(), m.writes(), new T2<UUID, GridDistributedTxMapping<K, V>>(m.node().id(), m), false);
 
                 onDone(tx);
             }
@@ -613,7 +641,14 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                         addRemaps(m.node().id(), invalidParts, m.writes(), writeRemaps);
 
                         // Remap.
-                        prepare(readRemaps, writeRemaps, Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+                        prepare(readRemaps, writeRemaps, Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(),
+                            false);
+                    }
+
+                    if (res.onePhaseCommit()) {
+                        assert F.isEmpty(invalidParts);
+
+                        m.markOnePhaseCommit();
                     }
 
                     if (!m.empty()) {
@@ -38,6 +38,9 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
     @GridToStringInclude
     private Collection<Integer> invalidParts;
 
+    /** Flag indicating that transaction was committed on primary node within prepare step. */
+    private boolean onePhaseCommit;
+
     /**
      * Empty constructor required by {@link Externalizable}.
      */
@@ -95,6 +98,20 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         return invalidParts;
     }
 
+    /**
+     * @return {@code True} if transaction was committed on primary node within prepare step.
+     */
+    public boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
+    /**
+     * @param onePhaseCommit {@code True} if transaction was committed on primary node within prepare step.
+     */
+    public void onePhaseCommit(boolean onePhaseCommit) {
+        this.onePhaseCommit = onePhaseCommit;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
@@ -109,6 +126,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         CU.writeVersion(out, dhtVer);
 
         U.writeIntCollection(out, invalidParts);
+
+        out.writeBoolean(onePhaseCommit);
     }
 
     /** {@inheritDoc} */
@@ -123,6 +142,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
 
         invalidParts = U.readIntSet(in);
 
+        onePhaseCommit = in.readBoolean();
+
         assert futId != null;
         assert miniId != null;
         assert dhtVer != null;
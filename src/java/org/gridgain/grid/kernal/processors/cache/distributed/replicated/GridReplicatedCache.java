@@ -265,7 +265,18 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
                                 ctx.tm().committedVersions(msg.version()),
                                 ctx.tm().rolledbackVersions(msg.version()));
 
-                            res.addValueBytes(entry.rawGet(), msg.returnValue(i) ? entry.valueBytes(null) : null, ctx);
+                            if (ctx.config().isReplicatedPrimaryLocking()) {
+                                // Read version first, so that value is never older than reported version.
+                                GridCacheVersion ver = entry.version();
+
+                                // Requesting node may not have applied commits which this node has already
+                                // applied, so it will refresh its value if this version is newer.
+                                res.addValueBytes(entry.rawGet(), msg.returnValue(i) ? entry.valueBytes(null) : null,
+                                    ver, ctx);
+                            }
+                            else
+                                res.addValueBytes(entry.rawGet(), msg.returnValue(i) ? entry.valueBytes(null) : null,
+                                    ctx);
 
                             // Entry is legit.
                             break;
@@ -645,11 +656,17 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
                     assert set;
                 }
 
+                // Commits are applied in order of commit versions, so local versions
+                // must not fall behind versions of transactions committed elsewhere.
+                if (ctx.config().isReplicatedPrimaryLocking())
+                    ctx.versions().onReceived(nodeId, req.commitVersion());
+
                 Collection<GridCacheTxEntry<K, V>> writeEntries = req.writes();
 
                 if (!F.isEmpty(writeEntries)) {
-                    // In OPTIMISTIC mode, we get the values at PREPARE stage.
-                    assert tx.concurrency() == PESSIMISTIC;
+                    // In OPTIMISTIC mode, we get the values at PREPARE stage,
+                    // unless locks were acquired on primary nodes only.
+                    assert tx.concurrency() == PESSIMISTIC || ctx.config().isReplicatedPrimaryLocking();
 
                     for (GridCacheTxEntry<K, V> entry : writeEntries) {
                         // Unmarshal write entries.
@@ -663,6 +680,9 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
                             U.warn(log, "Received entry to commit that was not present in transaction [entry=" +
                                 entry + ", tx=" + tx + ']');
                     }
+
+                    if (ctx.config().isReplicatedPrimaryLocking())
+                        lockReplicaEntries(tx);
                 }
 
                 // Add completed versions.
@@ -719,10 +739,160 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
 
         if (fut != null)
             fut.onResult(nodeId);
+        // Replicas which were not waited for may reply after commit future is done.
+        else if (ctx.config().isReplicatedPrimaryLocking()) {
+            if (log.isDebugEnabled())
+                log.debug("Received finish response for completed transaction: " + msg);
+        }
         else
             U.warn(log, "Received finish response for unknown transaction: " + msg);
     }
 
+    /**
+     * Acquires locks for transaction entries which were locked only on their primary nodes,
+     * so that committed values can be applied on this node.
+     *
+     * @param tx Remote transaction.
+     * @throws GridException If failed.
+     */
+    private void lockReplicaEntries(GridReplicatedTxRemote<K, V> tx) throws GridException {
+        for (GridCacheTxEntry<K, V> txEntry : tx.writeEntries()) {
+            while (true) {
+                GridCacheEntryEx<K, V> cached = txEntry.cached();
+
+                try {
+                    GridCacheVersion ver = txEntry.explicitVersion() != null ? txEntry.explicitVersion() :
+                        tx.xidVersion();
+
+                    if (!cached.hasLockCandidate(ver)) {
+                        // Explicit lock is held only on primary node, replica is locked by transaction itself.
+                        txEntry.explicitVersion(null);
+
+                        if (!cached.tmLock(tx, tx.timeout()))
+                            throw new GridException("Failed to lock replica entry for transaction [entry=" + cached +
+                                ", tx=" + tx + ']');
+                    }
+
+                    break;
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Got removed entry while locking replica entry (will retry): " + txEntry);
+
+                    txEntry.cached(entryEx(txEntry.key()), txEntry.keyBytes());
+                }
+                catch (GridDistributedLockCancelledException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Attempted to lock replica entry for cancelled transaction (will ignore): " + tx);
+
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets remote primary nodes for given keys. Primary node of every key is chosen among all cache
+     * nodes by highest hash of node ID and affinity key, so that all nodes agree on primary nodes
+     * within the same topology version. Keys move to other primary nodes whenever nodes join or
+     * leave, so transaction pins topology version its keys were mapped on (see
+     * {@link #primaryNodes(Collection, GridReplicatedTxLocal)}) and is rolled back if topology
+     * changes before commit. Replicas apply commits in order of commit versions, so transactions
+     * which locked the same key on different primary nodes can not leave replicas different.
+     *
+     * @param keys Keys.
+     * @return Remote primary nodes in current topology.
+     */
+    Collection<GridRichNode> primaryNodes(Collection<? extends K> keys) {
+        return mapPrimaryNodes(keys).get2();
+    }
+
+    /**
+     * Gets remote primary nodes for given keys and pins topology version they were mapped on
+     * for transaction.
+     *
+     * @param keys Keys.
+     * @param tx Transaction.
+     * @return Remote primary nodes.
+     * @throws GridTopologyException If topology changed after transaction mapped its other keys.
+     */
+    Collection<GridRichNode> primaryNodes(Collection<? extends K> keys, GridReplicatedTxLocal<K, V> tx)
+        throws GridTopologyException {
+        T2<Long, Collection<GridRichNode>> t = mapPrimaryNodes(keys);
+
+        if (!tx.pinPrimaryTopology(t.get1()))
+            throw new GridTopologyException("Failed to map transaction keys to primary nodes since topology " +
+                "changed after transaction locked other keys (retry transaction) [topVer=" + t.get1() +
+                ", tx=" + tx + ']');
+
+        return t.get2();
+    }
+
+    /**
+     * @param keys Keys.
+     * @return Topology version and remote primary nodes for given keys in this topology.
+     */
+    private T2<Long, Collection<GridRichNode>> mapPrimaryNodes(Collection<? extends K> keys) {
+        while (true) {
+            long topVer = ctx.discovery().topologyVersion();
+
+            Collection<GridRichNode> nodes = CU.allNodes(ctx);
+
+            Map<UUID, GridRichNode> primaries = new LinkedHashMap<UUID, GridRichNode>();
+
+            for (K key : keys) {
+                GridRichNode primary = primaryNode(key, nodes);
+
+                if (primary != null && !primary.id().equals(locNodeId))
+                    primaries.put(primary.id(), primary);
+            }
+
+            // Retry if nodes were read from newer topology.
+            if (topVer == ctx.discovery().topologyVersion())
+                return new T2<Long, Collection<GridRichNode>>(topVer, primaries.values());
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @param nodes Cache nodes.
+     * @return Primary node for key or {@code null} if there are no nodes.
+     */
+    @Nullable private GridRichNode primaryNode(K key, Iterable<GridRichNode> nodes) {
+        Object affKey = ctx.config().getAffinityMapper().affinityKey(key);
+
+        long keyHash = affKey == null ? 0 : affKey.hashCode();
+
+        GridRichNode primary = null;
+
+        long max = 0;
+
+        for (GridRichNode n : nodes) {
+            long w = mix(n.id().getMostSignificantBits() ^ mix(n.id().getLeastSignificantBits() ^ keyHash));
+
+            if (primary == null || w > max) {
+                primary = n;
+                max = w;
+            }
+        }
+
+        return primary;
+    }
+
+    /**
+     * @param h Hash.
+     * @return Mixed hash.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+
     /**
      * @param key Cache key.
      * @return Replicated cache entry.
@@ -747,7 +917,24 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
         if (keys.isEmpty())
             return new GridFinishedFuture<Boolean>(ctx.kernalContext(), true);
 
-        Collection<GridRichNode> nodes = ctx.remoteNodes(keys);
+        Collection<GridRichNode> nodes;
+
+        // With primary locking request carries all keys, but is sent to their primary nodes only.
+        // Other nodes lock entries once transaction commits.
+        if (ctx.config().isReplicatedPrimaryLocking()) {
+            if (tx instanceof GridReplicatedTxLocal) {
+                try {
+                    nodes = primaryNodes(keys, (GridReplicatedTxLocal<K, V>)tx);
+                }
+                catch (GridTopologyException e) {
+                    return new GridFinishedFuture<Boolean>(ctx.kernalContext(), e);
+                }
+            }
+            else
+                nodes = primaryNodes(keys);
+        }
+        else
+            nodes = ctx.remoteNodes(keys);
 
         final GridReplicatedLockFuture<K, V> fut = new GridReplicatedLockFuture<K, V>(ctx, keys, tx, this, nodes, timeout,
             filter);
@@ -513,6 +513,13 @@ public final class GridReplicatedLockFuture<K, V> extends GridFutureAdapter<Bool
                             entry.initialValue(res.value(i), res.valueBytes(i), lockVer, entry.ttl(), entry.expireTime(),
                                 (GridCacheMetricsAdapter)entry.metrics());
 
+                            GridCacheVersion primVer = res.entryVersion(i);
+
+                            // Primary node may have applied commit of previous lock owner which has
+                            // not been applied locally yet, so take its value to avoid lost update.
+                            if (primVer != null)
+                                refresh(entry, res.value(i), primVer);
+
                             // Sync up remote candidates.
                             entry.addRemoteCandidates(
                                 res.candidatesByIndex(i),
@@ -546,6 +553,33 @@ public final class GridReplicatedLockFuture<K, V> extends GridFutureAdapter<Bool
         }
     }
 
+    /**
+     * Sets value received from primary node if its version is newer than local one.
+     *
+     * @param entry Entry.
+     * @param val Value on primary node.
+     * @param primVer Version of entry on primary node.
+     * @throws GridException If failed.
+     * @throws GridCacheEntryRemovedException If entry was removed.
+     */
+    private void refresh(GridDistributedCacheEntry<K, V> entry, V val, GridCacheVersion primVer)
+        throws GridException, GridCacheEntryRemovedException {
+        while (true) {
+            GridCacheVersion ver = entry.version();
+
+            if (!primVer.isGreater(ver))
+                return;
+
+            if (entry.versionedValue(val, ver, primVer)) {
+                if (log.isDebugEnabled())
+                    log.debug("Refreshed entry with value from primary node [entry=" + entry +
+                        ", primVer=" + primVer + ']');
+
+                return;
+            }
+        }
+    }
+
     /**
      * Readies all locks whenever all replies are received.
      */
@@ -55,6 +55,12 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
     /** Nodes to expect replies from. */
     private Collection<UUID> nodes;
 
+    /** Replicas which some of replies are expected from, {@code null} if all replies are expected. */
+    private Collection<UUID> replicas;
+
+    /** Number of replica replies to wait for. */
+    private AtomicInteger replicaAcks;
+
     /** Error. */
     @GridToStringExclude
     private AtomicReference<Throwable> err = new AtomicReference<Throwable>(null);
@@ -104,6 +110,43 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
         log = U.logger(ctx, logRef, GridReplicatedTxCommitFuture.class);
     }
 
+    /**
+     * Creates future which waits for replies from primary nodes and from configured
+     * number of other replicas.
+     *
+     * @param cctx Cache context.
+     * @param tx Cache transaction.
+     * @param nodes Nodes enlisted into transaction.
+     * @param primaries Primary nodes of transaction keys.
+     */
+    public GridReplicatedTxCommitFuture(
+        GridCacheContext<K, V> cctx,
+        GridCacheTxLocalEx<K, V> tx,
+        Collection<? extends GridNode> nodes,
+        Collection<? extends GridNode> primaries) {
+        this(cctx, tx, nodes);
+
+        if (isSync()) {
+            Collection<UUID> primaryIds = F.nodeIds(primaries);
+
+            replicas = new ConcurrentLinkedQueue<UUID>();
+
+            for (Iterator<UUID> it = this.nodes.iterator(); it.hasNext();) {
+                UUID id = it.next();
+
+                if (!primaryIds.contains(id)) {
+                    replicas.add(id);
+
+                    it.remove();
+                }
+            }
+
+            int acks = cctx.config().getReplicatedCommitAcks();
+
+            replicaAcks = new AtomicInteger(acks < 0 || acks > replicas.size() ? replicas.size() : acks);
+        }
+    }
+
     /**
      * @return {@code True} if sync commit or rollback.
      */
@@ -123,6 +166,14 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
                 if (cctx.discovery().node(id) == null)
                     it.remove();
             }
+
+            if (replicas != null) {
+                for (UUID id : replicas) {
+                    // Left replica will never reply.
+                    if (cctx.discovery().node(id) == null)
+                        onReplicaResult(id);
+                }
+            }
         }
 
         checkLocks(null);
@@ -142,7 +193,15 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
      * @return Nodes to expect replies from.
      */
     @Override public Collection<? extends GridNode> nodes() {
-        return cctx.discovery().nodes(nodes);
+        if (replicas == null)
+            return cctx.discovery().nodes(nodes);
+
+        Collection<UUID> ids = new ArrayList<UUID>(nodes);
+
+        if (replicaAcks.get() > 0)
+            ids.addAll(replicas);
+
+        return cctx.discovery().nodes(ids);
     }
 
     /** {@inheritDoc} */
@@ -182,6 +241,12 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
                 }
             }
 
+        if (replicas != null && replicas.contains(nodeId)) {
+            onResult(nodeId);
+
+            return true;
+        }
+
         return false;
     }
 
@@ -190,13 +255,29 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
      */
     void onResult(UUID nodeId) {
         if (nodes != null) {
-            nodes.remove(nodeId);
+            if (!nodes.remove(nodeId))
+                onReplicaResult(nodeId);
 
-            if (nodes.isEmpty() && released.get())
+            if (replied() && released.get())
                 onComplete();
         }
     }
 
+    /**
+     * @param nodeId Replica node ID.
+     */
+    private void onReplicaResult(UUID nodeId) {
+        if (replicas != null && replicas.remove(nodeId))
+            replicaAcks.decrementAndGet();
+    }
+
+    /**
+     * @return {@code True} if all expected replies were received.
+     */
+    private boolean replied() {
+        return nodes.isEmpty() && (replicaAcks == null || replicaAcks.get() <= 0);
+    }
+
     /**
      * Completes this future.
      */
@@ -209,7 +290,7 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
      */
     public void onTxFinished() {
         if (released.compareAndSet(false, true)) {
-            if (nodes != null && nodes.isEmpty())
+            if (nodes != null && replied())
                 onComplete();
         }
     }
@@ -329,7 +410,7 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
             try {
                 tx.finish(true);
 
-                if (!tx.syncCommit() || nodes.isEmpty())
+                if (!tx.syncCommit() || replied())
                     onComplete();
             }
             catch (GridCacheTxTimeoutException e) {
@@ -353,7 +434,7 @@ public final class GridReplicatedTxCommitFuture<K, V> extends GridFutureAdapter<
         try {
             tx.finish(false);
 
-            if (!tx.syncRollback() || nodes.isEmpty())
+            if (!tx.syncRollback() || replied())
                 onComplete();
         }
         catch (GridException e) {
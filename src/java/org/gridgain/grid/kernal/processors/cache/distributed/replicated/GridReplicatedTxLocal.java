@@ -47,6 +47,9 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
     private final AtomicReference<GridReplicatedTxCommitFuture<K, V>> rollbackFut =
         new AtomicReference<GridReplicatedTxCommitFuture<K, V>>();
 
+    /** Topology version primary nodes of transaction keys were mapped on, {@code -1} if not mapped yet. */
+    private final AtomicLong primaryTopVer = new AtomicLong(-1);
+
     /** */
     private boolean syncCommit;
 
@@ -155,6 +158,58 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         return cctx.remoteNodes(allKeys);
     }
 
+    /**
+     * @return {@code True} if locks are acquired on primary nodes only.
+     */
+    private boolean primaryLocking() {
+        return cctx.config().isReplicatedPrimaryLocking() && !ec();
+    }
+
+    /**
+     * @return Remote primary nodes for transaction keys in current topology.
+     */
+    private Collection<GridRichNode> resolvePrimaryNodes() {
+        initializeKeys();
+
+        if (allKeys.isEmpty())
+            return Collections.emptyList();
+
+        return ((GridReplicatedCache<K, V>)cctx.cache()).primaryNodes(allKeys);
+    }
+
+    /**
+     * @return Remote primary nodes for transaction keys.
+     * @throws GridTopologyException If topology changed after transaction mapped its keys.
+     */
+    private Collection<GridRichNode> mapPrimaryNodes() throws GridTopologyException {
+        initializeKeys();
+
+        if (allKeys.isEmpty())
+            return Collections.emptyList();
+
+        return ((GridReplicatedCache<K, V>)cctx.cache()).primaryNodes(allKeys, this);
+    }
+
+    /**
+     * Pins topology version primary nodes of transaction keys are mapped on. All keys of
+     * transaction must be mapped on the same topology version.
+     *
+     * @param topVer Topology version.
+     * @return {@code False} if transaction keys were already mapped on another topology version.
+     */
+    boolean pinPrimaryTopology(long topVer) {
+        return primaryTopVer.compareAndSet(-1, topVer) || primaryTopVer.get() == topVer;
+    }
+
+    /**
+     * @return {@code True} if topology did not change since transaction keys were mapped to primary nodes.
+     */
+    private boolean primaryTopologyValid() {
+        long topVer = primaryTopVer.get();
+
+        return topVer < 0 || topVer == cctx.discovery().topologyVersion();
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings({"ThrowableInstanceNeverThrown"})
     @Override public boolean finishEC(boolean commit) throws GridException {
@@ -225,7 +280,7 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         assert fin != null;
 
         Collection<? extends GridNode> nodes =
-            commit ?
+            commit && !primaryLocking() ?
                 prep == null ? Collections.<GridNode>emptyList() : prep.nodes() :
                 fin.txNodes();
 
@@ -257,8 +312,10 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
                 if (!allKeys.isEmpty() && !nodes.isEmpty()) {
                     assert !fin.trackable() || cctx.mvcc().hasFuture(fin);
 
-                    // We write during commit only for pessimistic transactions.
-                    Collection<GridCacheTxEntry<K, V>> writeEntries = pessimistic() ? writeEntries() : null;
+                    // We write during commit only for pessimistic transactions, or when
+                    // optimistic transaction was prepared on primary nodes only.
+                    Collection<GridCacheTxEntry<K, V>> writeEntries =
+                        pessimistic() || (commit && primaryLocking()) ? writeEntries() : null;
 
                     boolean reply = (syncCommit && commit) || (syncRollback && !commit);
 
@@ -369,11 +426,35 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         GridReplicatedTxPrepareFuture<K, V> fut = prepareFut.get();
 
         if (fut == null) {
-            Collection<GridRichNode> nodeGrp = resolveNodes();
+            Collection<GridRichNode> nodeGrp;
+
+            GridTopologyException mapErr = null;
+
+            // Optimistic transaction with primary locking is prepared on primary nodes only.
+            if (optimistic() && primaryLocking()) {
+                try {
+                    nodeGrp = mapPrimaryNodes();
+                }
+                catch (GridTopologyException e) {
+                    nodeGrp = Collections.emptyList();
+
+                    mapErr = e;
+                }
+            }
+            else
+                nodeGrp = resolveNodes();
 
             // Future must be created before any exception can be thrown.
             if (!prepareFut.compareAndSet(null, fut = new GridReplicatedTxPrepareFuture<K, V>(cctx, this, nodeGrp)))
                 return prepareFut.get();
+
+            if (mapErr != null) {
+                setRollbackOnly();
+
+                fut.onError(new GridCacheTxRollbackException("Failed to prepare transaction: " + this, mapErr));
+
+                return fut;
+            }
         }
 
         if (!state(PREPARING)) {
@@ -521,7 +602,9 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
 
         if (fin == null)
             // Future must be created before any exception can be thrown.
-            if (!commitFut.compareAndSet(null, fin = new GridReplicatedTxCommitFuture<K, V>(cctx, this, prep.nodes())))
+            if (!commitFut.compareAndSet(null, fin = primaryLocking() ?
+                new GridReplicatedTxCommitFuture<K, V>(cctx, this, resolveNodes(), resolvePrimaryNodes()) :
+                new GridReplicatedTxCommitFuture<K, V>(cctx, this, prep.nodes())))
                 return commitFut.get();
 
         assert allKeys != null;
@@ -571,6 +654,20 @@ class GridReplicatedTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
                     return;
                 }
 
+                if (primaryLocking()) {
+                    // Keys could move to other primary nodes and get locked there by other transactions.
+                    if (!primaryTopologyValid()) {
+                        fut.onError(new GridCacheTxRollbackException("Failed to commit transaction since topology " +
+                            "changed after its keys were locked on primary nodes (retry transaction): " + this));
+
+                        return;
+                    }
+
+                    // Replicas apply commits in order of commit versions, so transaction gets
+                    // version which is newer than versions of transactions committed before.
+                    commitVersion(cctx.versions().next());
+                }
+
                 if (!state(COMMITTING)) {
                     GridCacheTxState state = state();
 
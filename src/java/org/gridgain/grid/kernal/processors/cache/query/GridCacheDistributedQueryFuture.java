@@ -0,0 +1,287 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Distributed query future. Results of ordered queries are merged from
+ * per-node sorted streams, so that user receives them in global order.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDistributedQueryFuture<K, V, R> extends GridCacheQueryFutureAdapter<K, V, R> {
+    /** Request ID. */
+    private long reqId;
+
+    /** IDs of nodes which have not sent their last page yet. */
+    @GridToStringInclude
+    private final Collection<UUID> subgrid = new HashSet<UUID>();
+
+    /** Comparator of merged results, {@code null} if results are not ordered. */
+    private Comparator<Object> cmp;
+
+    /** Received but not yet merged results per node. */
+    @GridToStringExclude
+    private Map<UUID, LinkedList<Object>> bufs;
+
+    /** Nodes which have sent all their results into merge buffers. */
+    @GridToStringExclude
+    private Collection<UUID> drained;
+
+    /** Number of buffered pages per node which have not been requested again yet. */
+    @GridToStringExclude
+    private Map<UUID, Integer> bufPages;
+
+    /**
+     * @param ctx Cache context.
+     * @param reqId Request ID.
+     * @param qry Query.
+     * @param nodes Query nodes.
+     * @param loc Local query or not.
+     * @param single Single result or not.
+     * @param rmtRdcOnly {@code true} for reduce query when using remote reducer only,
+     *      otherwise it is always {@code false}.
+     * @param pageLsnr Page listener.
+     */
+    @SuppressWarnings({"unchecked"})
+    protected GridCacheDistributedQueryFuture(GridCacheContext<K, V> ctx, long reqId,
+        GridCacheQueryBaseAdapter<K, V> qry, Iterable<GridRichNode> nodes, boolean loc, boolean single,
+        boolean rmtRdcOnly, @Nullable GridInClosure2<UUID, Collection<R>> pageLsnr) {
+        super(ctx, qry, loc, single, rmtRdcOnly, pageLsnr);
+
+        assert reqId > 0;
+
+        this.reqId = reqId;
+
+        for (GridNode node : nodes)
+            subgrid.add(node.id());
+
+        // Only plain queries return cache entries, which comparator is defined for.
+        if (qry instanceof GridCacheQueryAdapter && qry.orderBy() != null && !single) {
+            final Comparator<Map.Entry<K, V>> entryCmp = qry.orderBy();
+
+            cmp = new Comparator<Object>() {
+                @Override public int compare(Object o1, Object o2) {
+                    return entryCmp.compare((Map.Entry<K, V>)o1, (Map.Entry<K, V>)o2);
+                }
+            };
+
+            bufs = new HashMap<UUID, LinkedList<Object>>(subgrid.size(), 1.0f);
+
+            for (UUID nodeId : subgrid)
+                bufs.put(nodeId, new LinkedList<Object>());
+
+            drained = new HashSet<UUID>(subgrid.size(), 1.0f);
+
+            bufPages = new HashMap<UUID, Integer>(subgrid.size(), 1.0f);
+        }
+    }
+
+    /**
+     * @return Request ID.
+     */
+    long requestId() {
+        return reqId;
+    }
+
+    /**
+     * @return IDs of nodes which query is still running on.
+     */
+    Collection<UUID> remainingNodes() {
+        synchronized (mux) {
+            return new ArrayList<UUID>(subgrid);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected Collection<?> mergePage(@Nullable UUID nodeId, Collection<?> data, boolean finished) {
+        assert Thread.holdsLock(mux);
+
+        if (cmp == null)
+            return super.mergePage(nodeId, data, finished);
+
+        nodeId = nodeId(nodeId);
+
+        LinkedList<Object> buf = bufs.get(nodeId);
+
+        if (buf == null)
+            return Collections.emptyList();
+
+        buf.addAll(data);
+
+        if (finished)
+            drained.add(nodeId);
+        else {
+            Integer pages = bufPages.get(nodeId);
+
+            bufPages.put(nodeId, pages == null ? 1 : pages + 1);
+        }
+
+        Collection<Object> res = new ArrayList<Object>(data.size());
+
+        // Result can be released only when every node still sending results has buffered some.
+        while (true) {
+            LinkedList<Object> min = null;
+
+            for (Map.Entry<UUID, LinkedList<Object>> e : bufs.entrySet()) {
+                LinkedList<Object> b = e.getValue();
+
+                if (b.isEmpty()) {
+                    if (drained.contains(e.getKey()))
+                        continue;
+
+                    // Merge waits for this node, so its pages are requested once merged results are consumed.
+                    Integer pages = bufPages.remove(e.getKey());
+
+                    if (pages != null)
+                        demandOnConsume(e.getKey(), pages);
+
+                    return res;
+                }
+
+                if (min == null || cmp.compare(b.getFirst(), min.getFirst()) < 0)
+                    min = b;
+            }
+
+            if (min == null)
+                return res;
+
+            res.add(min.removeFirst());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean onLastPage(UUID nodeId) {
+        assert Thread.holdsLock(mux);
+
+        subgrid.remove(nodeId(nodeId));
+
+        return subgrid.isEmpty();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onNodeLeft(UUID evtNodeId) {
+        boolean found;
+
+        synchronized (mux) {
+            found = subgrid.contains(evtNodeId);
+        }
+
+        if (found) {
+            if (log.isDebugEnabled())
+                log.debug("Node left grid during query execution [nodeId=" + evtNodeId + ", qry=" + qry + ']');
+
+            onPage(evtNodeId, null, new GridTopologyException("Node left grid during query execution: " +
+                evtNodeId), true);
+        }
+    }
+
+    /**
+     * Fails query because request could not be sent to some of the nodes. Query is
+     * stopped on nodes it has already been sent to.
+     *
+     * @param unqueried IDs of nodes query request was not sent to.
+     * @param err Error.
+     */
+    void onSendFailed(Collection<UUID> unqueried, Throwable err) {
+        synchronized (mux) {
+            subgrid.removeAll(unqueried);
+        }
+
+        locWindow.close();
+
+        GridFuture<?> locFut = this.locFut;
+
+        if (locFut != null) {
+            try {
+                locFut.cancel();
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to cancel local query: " + qry, e);
+            }
+        }
+
+        // Sends cancel requests to remaining nodes.
+        onDone(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void cancelQuery() throws GridException {
+        locWindow.close();
+
+        GridFuture<?> locFut = this.locFut;
+
+        if (locFut != null)
+            locFut.cancel();
+
+        ((GridCacheDistributedQueryManager<K, V>)cctx.queries()).cancelRemoteQuery(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void requestPages(Map<UUID, Integer> pages) {
+        GridCacheDistributedQueryManager<K, V> mgr = (GridCacheDistributedQueryManager<K, V>)cctx.queries();
+
+        for (Map.Entry<UUID, Integer> e : pages.entrySet()) {
+            UUID nodeId = e.getKey();
+
+            if (nodeId == null || nodeId.equals(cctx.nodeId()))
+                locWindow.release(e.getValue());
+            else
+                mgr.requestPages(this, nodeId, e.getValue());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override void clear() {
+        if (bufs != null) {
+            for (LinkedList<Object> buf : bufs.values())
+                buf.clear();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean onDone(Collection<R> res, Throwable err) {
+        if (super.onDone(res, err)) {
+            GridCacheDistributedQueryManager<K, V> mgr = (GridCacheDistributedQueryManager<K, V>)cctx.queries();
+
+            // Stop query on other nodes if it has failed on any of them.
+            if (err != null)
+                mgr.cancelRemoteQuery(this);
+            else
+                mgr.removeQueryFuture(reqId);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param nodeId Sender node ID, {@code null} for local node.
+     * @return Node ID.
+     */
+    private UUID nodeId(@Nullable UUID nodeId) {
+        return nodeId == null ? cctx.nodeId() : nodeId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheDistributedQueryFuture.class, this, super.toString());
+    }
+}
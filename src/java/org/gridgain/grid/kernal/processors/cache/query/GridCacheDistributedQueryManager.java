@@ -0,0 +1,521 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.query.*;
+import org.gridgain.grid.events.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.cache.GridCacheFlag.*;
+
+/**
+ * Distributed query manager for replicated and partitioned caches. Query is sent
+ * to every node of the query projection, which runs it against its local index
+ * and sends result pages back to the querying node. Unless all results are kept
+ * by querying node, every node sends only limited number of pages ahead of
+ * consumer and waits for consumed pages to be acknowledged before sending more.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheDistributedQueryManager<K, V> extends GridCacheQueryManager<K, V> {
+    /** Request ID generator. */
+    private final AtomicLong reqIdGen = new AtomicLong();
+
+    /** Query futures on querying node. */
+    private final ConcurrentMap<Long, GridCacheDistributedQueryFuture<K, V, ?>> futs =
+        new ConcurrentHashMap<Long, GridCacheDistributedQueryFuture<K, V, ?>>();
+
+    /** Page windows of queries executed for remote nodes, keyed by sender ID and request ID. */
+    private final ConcurrentMap<GridTuple2<UUID, Long>, GridCacheQueryPageWindow> rmtQrys =
+        new ConcurrentHashMap<GridTuple2<UUID, Long>, GridCacheQueryPageWindow>();
+
+    /** Queries cancelled before their requests have been processed. */
+    private final Collection<GridTuple2<UUID, Long>> cancelled =
+        new GridBoundedLinkedHashSet<GridTuple2<UUID, Long>>(1024);
+
+    /** Request handler. */
+    private final CI2<UUID, GridCacheQueryRequest<K, V>> reqHnd = new CI2<UUID, GridCacheQueryRequest<K, V>>() {
+        @Override public void apply(UUID nodeId, GridCacheQueryRequest<K, V> req) {
+            processQueryRequest(nodeId, req);
+        }
+    };
+
+    /** Response handler. */
+    private final CI2<UUID, GridCacheQueryResponse<K, V>> resHnd = new CI2<UUID, GridCacheQueryResponse<K, V>>() {
+        @Override public void apply(UUID nodeId, GridCacheQueryResponse<K, V> res) {
+            processQueryResponse(nodeId, res);
+        }
+    };
+
+    /** Discovery listener. */
+    private final GridLocalEventListener discoLsnr = new GridLocalEventListener() {
+        @Override public void onEvent(GridEvent evt) {
+            assert evt instanceof GridDiscoveryEvent;
+            assert evt.type() == EVT_NODE_FAILED || evt.type() == EVT_NODE_LEFT;
+
+            UUID nodeId = ((GridDiscoveryEvent)evt).eventNodeId();
+
+            for (GridCacheDistributedQueryFuture<K, V, ?> fut : futs.values())
+                fut.onNodeLeft(nodeId);
+
+            for (Iterator<Map.Entry<GridTuple2<UUID, Long>, GridCacheQueryPageWindow>> it =
+                rmtQrys.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<GridTuple2<UUID, Long>, GridCacheQueryPageWindow> e = it.next();
+
+                if (nodeId.equals(e.getKey().get1())) {
+                    e.getValue().close();
+
+                    it.remove();
+                }
+            }
+        }
+    };
+
+    /** {@inheritDoc} */
+    @Override public void start0() throws GridException {
+        super.start0();
+
+        assert cctx.config().getCacheMode() != GridCacheMode.LOCAL;
+
+        cctx.io().addHandler(GridCacheQueryRequest.class, reqHnd);
+        cctx.io().addHandler(GridCacheQueryResponse.class, resHnd);
+
+        cctx.events().addListener(discoLsnr, EVT_NODE_FAILED, EVT_NODE_LEFT);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onKernalStop0() {
+        cctx.events().removeListener(discoLsnr);
+
+        cctx.io().removeHandler(GridCacheQueryRequest.class, reqHnd);
+        cctx.io().removeHandler(GridCacheQueryResponse.class, resHnd);
+    }
+
+    /** {@inheritDoc} */
+    @Override void onCancelAtStop() {
+        for (GridCacheDistributedQueryFuture<K, V, ?> fut : futs.values()) {
+            try {
+                fut.cancel();
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to cancel running query on stop: " + fut.query(), e);
+            }
+        }
+
+        for (GridCacheQueryPageWindow w : rmtQrys.values())
+            w.close();
+
+        rmtQrys.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override void onWaitAtStop() {
+        for (GridCacheDistributedQueryFuture<K, V, ?> fut : futs.values()) {
+            try {
+                fut.get();
+            }
+            catch (GridException e) {
+                if (log.isDebugEnabled())
+                    log.debug("Query failed while waiting for it on stop [qry=" + fut.query() + ", err=" + e + ']');
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public <R> GridCacheQueryFuture<R> queryLocal(GridCacheQueryBaseAdapter<K, V> qry, boolean single,
+        boolean rmtRdcOnly, @Nullable GridInClosure2<UUID, Collection<R>> pageLsnr) {
+        if (log.isDebugEnabled())
+            log.debug("Executing query on local node: " + qry);
+
+        GridCacheLocalQueryFuture<K, V, R> fut =
+            new GridCacheLocalQueryFuture<K, V, R>(cctx, qry, true, single, rmtRdcOnly, pageLsnr);
+
+        try {
+            validateQuery(qry);
+        }
+        catch (GridException e) {
+            fut.onDone(e);
+        }
+
+        return fut;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"unchecked"})
+    @Override public <R> GridCacheQueryFuture<R> queryDistributed(GridCacheQueryBaseAdapter<K, V> qry,
+        Collection<GridRichNode> nodes, boolean single, boolean rmtOnly,
+        @Nullable GridInClosure2<UUID, Collection<R>> pageLsnr) {
+        assert !F.isEmpty(nodes);
+
+        if (log.isDebugEnabled())
+            log.debug("Executing distributed query [qry=" + qry + ", nodes=" + U.nodeIds(nodes) + ']');
+
+        long reqId = reqIdGen.incrementAndGet();
+
+        GridCacheDistributedQueryFuture<K, V, R> fut =
+            new GridCacheDistributedQueryFuture<K, V, R>(cctx, reqId, qry, nodes, false, single, rmtOnly, pageLsnr);
+
+        try {
+            validateQuery(qry);
+        }
+        catch (GridException e) {
+            fut.onDone(e);
+
+            return fut;
+        }
+
+        futs.put(reqId, fut);
+
+        GridClosure<Object[], ?> trans = null;
+        GridClosure<Object[], ?> rdc = null;
+
+        if (qry instanceof GridCacheTransformQueryAdapter)
+            trans = ((GridCacheTransformQueryAdapter)qry).remoteTransformer();
+        else if (qry instanceof GridCacheReduceQueryAdapter)
+            rdc = ((GridCacheReduceQueryAdapter)qry).remoteReducer();
+
+        Collection<UUID> unqueried = new HashSet<UUID>(U.nodeIds(nodes));
+
+        for (GridRichNode node : nodes) {
+            if (node.id().equals(cctx.nodeId())) {
+                // Query may wait for its results to be consumed, so it is not run in system pool.
+                fut.locFut = cctx.closures().runLocalSafe(
+                    new GridCacheQueryFutureAdapter.LocalQueryRunnable<K, V, R>(this, fut, single), false);
+
+                unqueried.remove(node.id());
+
+                continue;
+            }
+
+            try {
+                cctx.io().send(node, new GridCacheQueryRequest<K, V>(reqId, qry, trans, rdc, single,
+                    fut.pagesInFlight()));
+
+                unqueried.remove(node.id());
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to send query request (query will be cancelled) [nodeId=" + node.id() +
+                    ", qry=" + qry + ']', e);
+
+                // Stop query on nodes it has been sent to, the rest are never queried.
+                fut.onSendFailed(unqueried, e);
+
+                break;
+            }
+        }
+
+        return fut;
+    }
+
+    /**
+     * @param reqId Request ID.
+     */
+    void removeQueryFuture(long reqId) {
+        futs.remove(reqId);
+    }
+
+    /**
+     * Sends cancel request to remote nodes which are still running given query.
+     *
+     * @param fut Query future.
+     */
+    void cancelRemoteQuery(GridCacheDistributedQueryFuture<K, V, ?> fut) {
+        futs.remove(fut.requestId());
+
+        GridCacheQueryRequest<K, V> req = new GridCacheQueryRequest<K, V>(fut.requestId());
+
+        for (UUID nodeId : fut.remainingNodes()) {
+            if (nodeId.equals(cctx.nodeId()))
+                continue;
+
+            try {
+                cctx.io().send(nodeId, req);
+            }
+            catch (GridTopologyException ignored) {
+                // Query is stopped on left node anyway.
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to send query cancel request [nodeId=" + nodeId + ", req=" + req + ']', e);
+            }
+        }
+    }
+
+    /**
+     * Lets remote node send more pages of given query.
+     *
+     * @param fut Query future.
+     * @param nodeId Remote node ID.
+     * @param pages Number of consumed pages.
+     */
+    void requestPages(GridCacheDistributedQueryFuture<K, V, ?> fut, UUID nodeId, int pages) {
+        try {
+            cctx.io().send(nodeId, new GridCacheQueryRequest<K, V>(fut.requestId(), pages));
+        }
+        catch (GridTopologyException ignored) {
+            // Future is notified by discovery listener.
+        }
+        catch (GridException e) {
+            fut.onPage(nodeId, null, e, true);
+        }
+    }
+
+    /**
+     * @param nodeId Sender node ID.
+     * @param req Query request.
+     */
+    @SuppressWarnings({"unchecked"})
+    private void processQueryRequest(UUID nodeId, GridCacheQueryRequest<K, V> req) {
+        GridTuple2<UUID, Long> key = F.t(nodeId, req.id());
+
+        if (req.cancel()) {
+            if (log.isDebugEnabled())
+                log.debug("Received query cancel request [nodeId=" + nodeId + ", reqId=" + req.id() + ']');
+
+            synchronized (cancelled) {
+                GridCacheQueryPageWindow w = rmtQrys.remove(key);
+
+                if (w != null)
+                    w.close();
+                else
+                    cancelled.add(key);
+            }
+
+            return;
+        }
+
+        if (req.demand() > 0) {
+            GridCacheQueryPageWindow w = rmtQrys.get(key);
+
+            if (w != null)
+                w.release(req.demand());
+
+            return;
+        }
+
+        final GridCacheQueryInfo<K, V> qryInfo;
+
+        try {
+            qryInfo = remoteQueryInfo(nodeId, req);
+        }
+        catch (Throwable e) {
+            U.error(log, "Failed to prepare query for execution [nodeId=" + nodeId + ", req=" + req + ']', e);
+
+            sendResponse(nodeId, new GridCacheQueryResponse<K, V>(req.id(), e));
+
+            return;
+        }
+
+        synchronized (cancelled) {
+            if (cancelled.remove(key)) {
+                if (log.isDebugEnabled())
+                    log.debug("Query was cancelled before it has started: " + req);
+
+                return;
+            }
+
+            rmtQrys.put(key, new GridCacheQueryPageWindow(req.pagesInFlight(), cctx.queryIdleTimeout()));
+        }
+
+        // Query may wait for its results to be consumed, so it is not run in system pool.
+        cctx.closures().runLocalSafe(new GridRunnable() {
+            @Override public void run() {
+                runQuery(qryInfo);
+            }
+        }, false);
+    }
+
+    /**
+     * @param nodeId Sender node ID.
+     * @param req Query request.
+     * @return Query info.
+     * @throws GridException If query could not be created.
+     */
+    @SuppressWarnings({"unchecked"})
+    private GridCacheQueryInfo<K, V> remoteQueryInfo(UUID nodeId, GridCacheQueryRequest<K, V> req)
+        throws GridException {
+        GridCacheQueryAdapter<K, V> qry = new GridCacheQueryAdapter<K, V>(cctx, req.queryId(), req.type(),
+            req.clause(), req.className(), req.projectionFilter(),
+            req.cloneValues() ? F.asList(CLONE) : Collections.<GridCacheFlag>emptyList());
+
+        qry.arguments(req.arguments());
+        qry.setClosureArguments(req.closureArguments());
+        qry.pageSize(req.pageSize());
+        qry.includeBackups(req.includeBackups());
+        qry.readThrough(req.readThrough());
+        qry.orderBy(req.orderBy());
+        qry.limit(req.limit());
+
+        validateQuery(qry);
+
+        Object[] args = req.closureArguments();
+
+        GridPredicate<K> keyFilter = req.keyFilter() == null ? null : (GridPredicate<K>)req.keyFilter().apply(args);
+
+        GridPredicate<V> valFilter = req.valueFilter() == null ? null :
+            (GridPredicate<V>)req.valueFilter().apply(args);
+
+        GridPredicate<GridCacheEntry<K, V>> prjPred = req.projectionFilter() == null ?
+            F.<GridCacheEntry<K, V>>alwaysTrue() : req.projectionFilter();
+
+        GridClosure<V, Object> trans = req.transformer() == null ? null :
+            (GridClosure<V, Object>)req.transformer().apply(args);
+
+        GridReducer<Map.Entry<K, V>, Object> rdc = req.reducer() == null ? null :
+            (GridReducer<Map.Entry<K, V>, Object>)req.reducer().apply(args);
+
+        return new GridCacheQueryInfo<K, V>(
+            false,
+            req.single(),
+            keyFilter,
+            valFilter,
+            prjPred,
+            trans,
+            rdc,
+            qry,
+            req.pageSize(),
+            req.readThrough(),
+            req.cloneValues(),
+            req.includeBackups(),
+            null,
+            nodeId,
+            req.id()
+        );
+    }
+
+    /**
+     * @param nodeId Sender node ID.
+     * @param res Query response.
+     */
+    private void processQueryResponse(UUID nodeId, GridCacheQueryResponse<K, V> res) {
+        GridCacheDistributedQueryFuture<K, V, ?> fut = futs.get(res.requestId());
+
+        if (fut == null) {
+            if (log.isDebugEnabled())
+                log.debug("Received query response for unknown or completed query [nodeId=" + nodeId +
+                    ", res=" + res + ']');
+
+            return;
+        }
+
+        fut.onPage(nodeId, res.data(), res.error(), res.isFinished());
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean onPageReady(boolean loc, GridCacheQueryInfo<K, V> qryInfo,
+        @Nullable Collection<?> data, boolean finished, Throwable e) {
+        if (loc) {
+            GridCacheQueryFutureAdapter<K, V, ?> fut = qryInfo.localQueryFuture();
+
+            assert fut != null;
+
+            if (e != null)
+                fut.onPage(null, null, e, true);
+            else {
+                if (!fut.localWindow().acquire()) {
+                    if (fut.localWindow().expired())
+                        fut.onPage(null, null, idleTimeoutError(), true);
+
+                    return false;
+                }
+
+                fut.onPage(null, data, null, finished);
+            }
+
+            return !fut.isDone();
+        }
+
+        GridTuple2<UUID, Long> key = F.t(qryInfo.senderId(), qryInfo.requestId());
+
+        GridCacheQueryPageWindow w = rmtQrys.get(key);
+
+        // Wait until querying node has consumed previously sent pages.
+        if (w == null) {
+            if (log.isDebugEnabled())
+                log.debug("Query was cancelled by querying node (will stop execution): " + qryInfo);
+
+            return false;
+        }
+
+        if (e == null && !w.acquire()) {
+            if (w.expired()) {
+                rmtQrys.remove(key, w);
+
+                U.warn(log, "Querying node did not consume query results within idle timeout " +
+                    "(will stop execution): " + qryInfo);
+
+                sendResponse(qryInfo.senderId(),
+                    new GridCacheQueryResponse<K, V>(qryInfo.requestId(), idleTimeoutError()));
+            }
+            else if (log.isDebugEnabled())
+                log.debug("Query was cancelled by querying node (will stop execution): " + qryInfo);
+
+            return false;
+        }
+
+        if (finished)
+            rmtQrys.remove(key);
+
+        GridCacheQueryResponse<K, V> res = e != null ?
+            new GridCacheQueryResponse<K, V>(qryInfo.requestId(), e) :
+            new GridCacheQueryResponse<K, V>(qryInfo.requestId(), data, finished);
+
+        if (!sendResponse(qryInfo.senderId(), res)) {
+            rmtQrys.remove(key);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param nodeId Querying node ID.
+     * @param res Query response.
+     * @return {@code True} if response was sent.
+     */
+    private boolean sendResponse(UUID nodeId, GridCacheQueryResponse<K, V> res) {
+        try {
+            cctx.io().send(nodeId, res);
+
+            return true;
+        }
+        catch (GridTopologyException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Querying node left grid (will stop query execution): " + nodeId);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send query response [nodeId=" + nodeId + ", res=" + res + ']', e);
+        }
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void printMemoryStats() {
+        X.println(">>> ");
+        X.println(">>> Distributed query manager memory stats [grid=" + cctx.gridName() + ", cache=" +
+            cctx.name() + ']');
+        X.println(">>>   futsSize: " + futs.size());
+        X.println(">>>   rmtQrysSize: " + rmtQrys.size());
+    }
+}
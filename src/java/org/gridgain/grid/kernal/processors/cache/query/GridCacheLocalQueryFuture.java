@@ -44,11 +44,14 @@ public class GridCacheLocalQueryFuture<K, V, R> extends GridCacheQueryFutureAdap
         boolean loc, boolean single, boolean rmtRdcOnly, @Nullable GridInClosure2<UUID, Collection<R>> pageLsnr) {
         super(ctx, qry, loc, single, rmtRdcOnly, pageLsnr);
 
-        locFut = ctx.closures().runLocalSafe(new LocalQueryRunnable<K, V, R>(ctx.queries(), this, single), true);
+        // Query may wait for its results to be consumed, so it is not run in system pool.
+        locFut = ctx.closures().runLocalSafe(new LocalQueryRunnable<K, V, R>(ctx.queries(), this, single), false);
     }
 
     /** {@inheritDoc} */
     @Override protected void cancelQuery() throws GridException {
+        locWindow.close();
+
         locFut.cancel();
     }
 
@@ -37,10 +37,19 @@ public class GridCacheLocalQueryManager<K, V> extends GridCacheQueryManager<K, V
 
         if (e != null)
             fut.onPage(null, null, e, true);
-        else
+        else {
+            // Wait until consumer lets more results in.
+            if (!fut.localWindow().acquire()) {
+                if (fut.localWindow().expired())
+                    fut.onPage(null, null, idleTimeoutError(), true);
+
+                return false;
+            }
+
             fut.onPage(null, data, null, finished);
+        }
 
-        return true;
+        return !fut.isDone();
     }
 
     /** {@inheritDoc} */
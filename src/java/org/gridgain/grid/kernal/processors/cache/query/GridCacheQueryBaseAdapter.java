@@ -88,6 +88,9 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
     /** */
     private volatile int pageSize = GridCacheQuery.DFLT_PAGE_SIZE;
 
+    /** */
+    private volatile int pagesInFlight = GridCacheQuery.DFLT_PAGES_IN_FLIGHT;
+
     /** */
     private volatile long timeout;
 
@@ -112,6 +115,12 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
     /** */
     private volatile boolean clone;
 
+    /** Comparator of query results. */
+    private volatile Comparator<Map.Entry<K, V>> cmp;
+
+    /** Maximum number of query results, {@code 0} if not limited. */
+    private volatile int limit;
+
     /** Query metrics.*/
     private volatile GridCacheQueryMetricsAdapter metrics;
 
@@ -190,12 +199,15 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
         args = qry.args;
         closureArgs = qry.closureArgs;
         pageSize = qry.pageSize;
+        pagesInFlight = qry.pagesInFlight;
         timeout = qry.timeout;
         keepAll = qry.keepAll;
         incBackups = qry.incBackups;
         dedup = qry.dedup;
         readThrough = qry.readThrough;
         clone = qry.clone;
+        cmp = qry.cmp;
+        limit = qry.limit;
 
         log = U.logger(cctx.kernalContext(), logRef, GridCacheQueryBaseAdapter.class);
 
@@ -280,6 +292,20 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public int pagesInFlight() {
+        return pagesInFlight;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void pagesInFlight(int pagesInFlight) {
+        synchronized (mux) {
+            checkSealed();
+
+            this.pagesInFlight = pagesInFlight < 1 ? GridCacheQuery.DFLT_PAGES_IN_FLIGHT : pagesInFlight;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public long timeout() {
         return timeout;
@@ -348,6 +374,42 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
         return clone;
     }
 
+    /**
+     * @param cmp Comparator of query results.
+     */
+    public void orderBy(@Nullable Comparator<Map.Entry<K, V>> cmp) {
+        synchronized (mux) {
+            checkSealed();
+
+            this.cmp = cmp;
+        }
+    }
+
+    /**
+     * @return Comparator of query results.
+     */
+    @Nullable public Comparator<Map.Entry<K, V>> orderBy() {
+        return cmp;
+    }
+
+    /**
+     * @param limit Maximum number of query results, {@code 0} if not limited.
+     */
+    public void limit(int limit) {
+        synchronized (mux) {
+            checkSealed();
+
+            this.limit = limit < 0 ? 0 : limit;
+        }
+    }
+
+    /**
+     * @return Maximum number of query results, {@code 0} if not limited.
+     */
+    public int limit() {
+        return limit;
+    }
+
     /** {@inheritDoc} */
     @Override public void readThrough(boolean readThrough) {
         synchronized (mux) {
@@ -522,7 +584,7 @@ public abstract class GridCacheQueryBaseAdapter<K, V> extends GridMetadataAwareA
             log.debug("Executing query [query=" + this + ", nodes=" + nodes + ']');
 
         try {
-            cctx.deploy().registerClasses(cls, rmtKeyFilter, rmtValFilter, prjFilter);
+            cctx.deploy().registerClasses(cls, rmtKeyFilter, rmtValFilter, prjFilter, cmp);
 
             registerClasses();
 
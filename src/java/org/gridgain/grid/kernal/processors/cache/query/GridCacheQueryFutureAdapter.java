@@ -53,7 +53,10 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
     private final Collection<K> keys = new HashSet<K>();
 
     /** */
-    private final Queue<Collection<Object>> queue = new LinkedList<Collection<Object>>();
+    private final Queue<Page> queue = new LinkedList<Page>();
+
+    /** Pages to request from nodes once next enqueued page is consumed. */
+    private Map<UUID, Integer> demand;
 
     /** */
     protected final Collection<Object> allColl = new LinkedList<Object>();
@@ -88,6 +91,9 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
     /** */
     protected GridFuture<?> locFut;
 
+    /** Window of pages local node sends ahead of consumer. */
+    protected GridCacheQueryPageWindow locWindow;
+
     /** */
     private GridInClosure2<UUID, Collection<R>> pageLsnr;
 
@@ -120,6 +126,8 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
 
         log = U.logger(ctx, logRef, GridCacheQueryFutureAdapter.class);
 
+        locWindow = new GridCacheQueryPageWindow(pagesInFlight(), cctx.queryIdleTimeout());
+
         startTime = System.currentTimeMillis();
 
         long timeout = qry.timeout();
@@ -152,10 +160,28 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
         return qry;
     }
 
+    /**
+     * @return Window of pages local node sends ahead of consumer.
+     */
+    GridCacheQueryPageWindow localWindow() {
+        return locWindow;
+    }
+
+    /**
+     * @return Number of pages each node may send ahead of consumer, {@code 0} if not limited.
+     */
+    int pagesInFlight() {
+        // All results are kept anyway, so there is no reason to wait for consumer.
+        return qry.keepAll() ? 0 : qry.pagesInFlight();
+    }
+
     /** {@inheritDoc} */
     @Override public boolean onDone(Collection<R> res, Throwable err) {
         cctx.time().removeTimeoutObject(this);
 
+        // Local query execution may be waiting for results to be consumed.
+        locWindow.close();
+
         qry.onExecuted(res, err, startTime(), duration());
 
         return super.onDone(res, err);
@@ -231,37 +257,53 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
     private Iterator<R> internalIterator() throws GridException {
         checkError();
 
-        synchronized (mux) {
-            while (iter == null || !iter.hasNext()) {
-                Collection<Object> c = queue.poll();
+        while (true) {
+            Map<UUID, Integer> consumed = null;
 
-                if (c != null)
-                    iter = new TypedIterator<R>(c.iterator());
+            synchronized (mux) {
+                while (iter == null || !iter.hasNext()) {
+                    Page p = queue.poll();
 
-                if (isDone() && queue.peek() == null)
-                    break;
+                    if (p != null) {
+                        iter = new TypedIterator<R>(p.data.iterator());
 
-                if (c == null && !isDone()) {
-                    long timeout = qry.timeout();
+                        consumed = mergeDemand(consumed, p.demand);
+                    }
 
-                    long waitTime = timeout == 0 ?
-                        Long.MAX_VALUE : timeout - (System.currentTimeMillis() - startTime);
+                    if (isDone() && queue.peek() == null)
+                        break;
 
-                    if (waitTime <= 0)
-                        continue;
+                    if (p == null && !isDone()) {
+                        // Nodes may be waiting for consumed pages to be acknowledged.
+                        if (consumed != null)
+                            break;
 
-                    try {
-                        mux.wait(waitTime);
-                    }
-                    catch (InterruptedException e) {
-                        throw new GridException("Query was interrupted: " + qry, e);
+                        long timeout = qry.timeout();
+
+                        long waitTime = timeout == 0 ?
+                            Long.MAX_VALUE : timeout - (System.currentTimeMillis() - startTime);
+
+                        if (waitTime <= 0)
+                            continue;
+
+                        try {
+                            mux.wait(waitTime);
+                        }
+                        catch (InterruptedException e) {
+                            throw new GridException("Query was interrupted: " + qry, e);
+                        }
                     }
+
+                    checkError();
                 }
 
-                checkError();
+                if (consumed == null)
+                    return iter;
             }
 
-            return iter;
+            // Request next pages outside of synchronization.
+            if (!isDone())
+                requestPages(consumed);
         }
     }
 
@@ -279,11 +321,60 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
     protected void enqueue(Collection<?> col) {
         assert Thread.holdsLock(mux);
 
-        queue.add((Collection<Object>)col);
+        queue.add(new Page((Collection<Object>)col, demand));
+
+        demand = null;
 
         cnt += col.size();
     }
 
+    /**
+     * Requests more pages from given node once next enqueued page is consumed.
+     *
+     * @param nodeId Node ID, {@code null} for local node.
+     * @param pages Number of pages.
+     */
+    protected void demandOnConsume(@Nullable UUID nodeId, int pages) {
+        assert Thread.holdsLock(mux);
+
+        if (pages > 0 && pagesInFlight() > 0)
+            demand = mergeDemand(demand, Collections.singletonMap(nodeId, pages));
+    }
+
+    /**
+     * @param m1 Number of pages to request from nodes, possibly {@code null}.
+     * @param m2 Number of pages to request from nodes, possibly {@code null}.
+     * @return Merged numbers of pages.
+     */
+    @Nullable private Map<UUID, Integer> mergeDemand(@Nullable Map<UUID, Integer> m1,
+        @Nullable Map<UUID, Integer> m2) {
+        if (m1 == null)
+            return m2 == null ? null : new HashMap<UUID, Integer>(m2);
+
+        if (m2 != null) {
+            for (Map.Entry<UUID, Integer> e : m2.entrySet()) {
+                Integer pages = m1.get(e.getKey());
+
+                m1.put(e.getKey(), pages == null ? e.getValue() : pages + e.getValue());
+            }
+        }
+
+        return m1;
+    }
+
+    /**
+     * Lets nodes send more pages after previously sent ones have been consumed.
+     * Default implementation serves local node only.
+     *
+     * @param pages Number of consumed pages per node ID, local node has {@code null} ID.
+     */
+    protected void requestPages(Map<UUID, Integer> pages) {
+        Integer locPages = pages.get(null);
+
+        if (locPages != null)
+            locWindow.release(locPages);
+    }
+
     /**
      * @param col Query data collection.
      * @return If dedup flag is {@code true} deduplicated collection (considering keys),
@@ -317,6 +408,14 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
             log.debug("Received query result page [nodeId=" + nodeId + ", qryId=" + qry.id + ", data=" + data +
                 ", err=" + err + ", finished=" + finished + "]");
 
+        if (isDone()) {
+            if (log.isDebugEnabled())
+                log.debug("Ignoring query result page for completed query [nodeId=" + nodeId + ", qryId=" +
+                    qry.id + ']');
+
+            return;
+        }
+
         if (err != null)
             synchronized (mux) {
                 enqueue(Collections.emptyList());
@@ -336,13 +435,21 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
                 pageLsnr.apply(nodeId, (Collection<R>)data);
 
             if (locRdc == null) {
+                boolean limitReached = false;
+
                 synchronized (mux) {
+                    data = limit(mergePage(nodeId, data, finished));
+
                     enqueue(data);
 
                     if (qry.keepAll())
                         allColl.addAll(maskNulls((Collection<Object>)data));
 
-                    if (finished && onLastPage(nodeId)) {
+                    boolean last = finished && onLastPage(nodeId);
+
+                    limitReached = !last && qry.limit() > 0 && cnt >= qry.limit();
+
+                    if (last || limitReached) {
                         clear();
 
                         onDone((Collection<R>)(qry.keepAll() ? unmaskNulls(allColl) : data));
@@ -350,6 +457,16 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
 
                     mux.notifyAll();
                 }
+
+                // Other nodes may still be running the query.
+                if (limitReached) {
+                    try {
+                        cancelQuery();
+                    }
+                    catch (GridException e) {
+                        U.error(log, "Failed to cancel query after receiving required number of results: " + qry, e);
+                    }
+                }
             }
             else {
                 synchronized (mux) {
@@ -372,6 +489,45 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
         }
     }
 
+    /**
+     * Called for every received page of query results. Implementations may
+     * hold back received results and return them with later pages, for example
+     * to merge ordered results from several nodes.
+     *
+     * @param nodeId Sender node ID.
+     * @param data Page data.
+     * @param finished Whether this is last page from sender node.
+     * @return Results which should be returned to user.
+     */
+    protected Collection<?> mergePage(@Nullable UUID nodeId, Collection<?> data, boolean finished) {
+        assert Thread.holdsLock(mux);
+
+        if (!finished)
+            demandOnConsume(nodeId, 1);
+
+        return data;
+    }
+
+    /**
+     * @param col Results which should be returned to user.
+     * @return Given results, truncated if query results number is limited.
+     */
+    private Collection<?> limit(Collection<?> col) {
+        assert Thread.holdsLock(mux);
+
+        int limit = qry.limit();
+
+        if (limit <= 0 || cnt + col.size() <= limit)
+            return col;
+
+        Collection<Object> res = new ArrayList<Object>(Math.max(limit - cnt, 0));
+
+        for (Iterator<?> it = col.iterator(); it.hasNext() && res.size() + cnt < limit;)
+            res.add(it.next());
+
+        return res;
+    }
+
     /**
      * @param col Collection.
      * @return Collection with masked {@code null} values.
@@ -572,6 +728,26 @@ public abstract class GridCacheQueryFutureAdapter<K, V, R> extends GridFutureAda
         }
     }
 
+    /**
+     * Page of results together with pages which should be requested from nodes once it is consumed.
+     */
+    private static class Page {
+        /** Results. */
+        private final Collection<Object> data;
+
+        /** Number of pages to request per node ID, {@code null} if none. */
+        private final Map<UUID, Integer> demand;
+
+        /**
+         * @param data Results.
+         * @param demand Number of pages to request per node ID, {@code null} if none.
+         */
+        private Page(Collection<Object> data, @Nullable Map<UUID, Integer> demand) {
+            this.data = data;
+            this.demand = demand;
+        }
+    }
+
     /**
      * Iterator that converts elements of wrapped iterator to required type.
      *
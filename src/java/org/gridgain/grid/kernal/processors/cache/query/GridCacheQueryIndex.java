@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
 import static org.gridgain.grid.cache.GridCacheConfiguration.*;
+import static org.gridgain.grid.cache.GridCacheMode.*;
 import static org.gridgain.grid.cache.query.GridCacheQueryType.*;
 
 /**
@@ -72,6 +73,16 @@ public class GridCacheQueryIndex<K, V> {
     /** */
     private static final String KEY_CLS_LDR_FIELD_NAME = "_key_cls_ldr";
 
+    /** */
+    private static final String PARTITION_FIELD_NAME = "_part";
+
+    /** Condition on partition column with partitions bound as array parameter. */
+    private static final String PARTITION_COND = "{0}." + PARTITION_FIELD_NAME + " IN (SELECT X FROM TABLE(X INT=?))";
+
+    /** Keywords which end {@code WHERE} clause. */
+    private static final String[] WHERE_END = {"GROUP BY", "HAVING", "ORDER BY", "LIMIT", "OFFSET", "UNION",
+        "MINUS", "EXCEPT", "INTERSECT", "FOR UPDATE"};
+
     /** */
     private static final String ANALYZE_THREAD_NAME = "query-index-analyzer";
 
@@ -758,6 +769,18 @@ public class GridCacheQueryIndex<K, V> {
     }
 
 
+    /**
+     * Binds key partition to SQL statement.
+     *
+     * @param stmt SQL statement.
+     * @param idx Index in prepared statement.
+     * @param key Key.
+     * @throws SQLException In case of SQL error.
+     */
+    private void bindPartition(PreparedStatement stmt, int idx, K key) throws SQLException {
+        stmt.setInt(idx, cctx.config().getCacheMode() == LOCAL ? 0 : cctx.partition(key));
+    }
+
     /**
      * Binds cache version object to SQL statement.
      *
@@ -880,7 +903,8 @@ public class GridCacheQueryIndex<K, V> {
             bindKeyClassLoader(stmt, 2, key, table);
             bindVersion(stmt, 3, ver, table);
             bindValue(stmt, 4, val, table);
-            bindFields(stmt, 6, val, val.getClass());
+            bindPartition(stmt, 6, key);
+            bindFields(stmt, 7, val, val.getClass());
 
             int updated = stmt.executeUpdate();
 
@@ -1053,11 +1077,15 @@ public class GridCacheQueryIndex<K, V> {
      *
      * @param qry Query.
      * @param loc Local query or not.
+     * @param parts Partitions to query, {@code null} to query all partitions.
      * @return Iterator of found values.
      * @throws GridException In case of error.
      */
-    Iterator<GridCacheQueryIndexRow<K, V>> queryText(GridCacheQueryBaseAdapter qry, boolean loc) throws
-        GridException {
+    Iterator<GridCacheQueryIndexRow<K, V>> queryText(GridCacheQueryBaseAdapter qry, boolean loc,
+        @Nullable int[] parts) throws GridException {
+        if (parts != null && parts.length == 0)
+            return Collections.<GridCacheQueryIndexRow<K, V>>emptyList().iterator();
+
         createSchemaIfAbsent();
 
         Connection conn = connectionForThread(false);
@@ -1096,6 +1124,16 @@ public class GridCacheQueryIndex<K, V> {
                     " FROM " + func + "('" + qry.clause() + "', " + Integer.MAX_VALUE + ", 0) FT," + fullTabName +
                     " WHERE FT.table='" + tabName + "' AND " + fullTabName + '.' + KEY_FIELD_NAME + "=FT.KEYS[0]";
 
+                // Statement is created for every query, so partitions are given as literals.
+                if (parts != null) {
+                    SB partList = new SB();
+
+                    for (int p : parts)
+                        partList.a(partList.length() == 0 ? "" : ",").a(p);
+
+                    sql += " AND " + fullTabName + '.' + PARTITION_FIELD_NAME + " IN (" + partList + ')';
+                }
+
                 stmt = conn.createStatement();
 
                 // Need to update "schemaSet" flag to enforce schema to be set during the next call.
@@ -1109,7 +1147,7 @@ public class GridCacheQueryIndex<K, V> {
 
                 ResultSet rs = stmt.executeQuery(sql);
 
-                return new ResultSetIterator(rs, stmt);
+                return new ResultSetIterator(rs, stmt, null);
             }
             catch (SQLException e) {
                 // NOTE: The statement must not be closed in block "finally",
@@ -1128,14 +1166,22 @@ public class GridCacheQueryIndex<K, V> {
     }
 
     /**
-     * Performs sql query.
+     * Performs sql query. If partitions are given, condition on partition column is added
+     * to query clause, so that rows of other partitions are skipped by index scan. Queries
+     * with explicit {@code FROM} are not rewritten and their rows are filtered by partition
+     * column while iterating.
      *
      * @param query Query.
      * @param loc Local query or not.
+     * @param parts Partitions to query, {@code null} to query all partitions.
      * @return Iterator of found values.
      * @throws GridException In case of error.
      */
-    Iterator<GridCacheQueryIndexRow<K, V>> querySql(GridCacheQueryBaseAdapter query, boolean loc) throws GridException {
+    Iterator<GridCacheQueryIndexRow<K, V>> querySql(GridCacheQueryBaseAdapter query, boolean loc,
+        @Nullable int[] parts) throws GridException {
+        if (parts != null && parts.length == 0)
+            return Collections.<GridCacheQueryIndexRow<K, V>>emptyList().iterator();
+
         createSchemaIfAbsent();
 
         ClassLoader ldr = cctx.deploy().isGlobalLoader() || !loc ?
@@ -1159,9 +1205,11 @@ public class GridCacheQueryIndex<K, V> {
 
         PreparedStatement stmt = query.preparedStatementForThread();
 
+        boolean partCond = parts != null && whereClause(query.clause());
+
         try {
             if (stmt == null) {
-                stmt = prepareStatement(conn, query.clause(), table, /* limit */ 0, /* offset */ 0);
+                stmt = prepareStatement(conn, query.clause(), table, /* limit */ 0, /* offset */ 0, partCond);
 
                 query.preparedStatementForThread(stmt);
             }
@@ -1171,9 +1219,18 @@ public class GridCacheQueryIndex<K, V> {
         }
 
         try {
-            if (!F.isEmpty(query.arguments())) {
-                int idx = 1;
+            int idx = 1;
+
+            if (partCond) {
+                Integer[] arr = new Integer[parts.length];
+
+                for (int i = 0; i < parts.length; i++)
+                    arr[i] = parts[i];
+
+                stmt.setObject(idx++, arr);
+            }
 
+            if (!F.isEmpty(query.arguments())) {
                 for (Object arg : query.arguments()) {
                     if (!arg.getClass().isArray() && DBTypeEnum.fromClass(arg.getClass()) == DBTypeEnum.BINARY) {
                         GridByteArrayOutputStream out = streamCache.get();
@@ -1194,7 +1251,7 @@ public class GridCacheQueryIndex<K, V> {
 
             ResultSet rs = stmt.executeQuery();
 
-            return new ResultSetIterator(rs, null);
+            return new ResultSetIterator(rs, null, parts != null && !partCond ? parts : null);
         }
         catch (SQLException e) {
             onSqlException();
@@ -1211,12 +1268,16 @@ public class GridCacheQueryIndex<K, V> {
      * @param table Table to use.
      * @param limit Limit.
      * @param offset Offset.
+     * @param partCond Whether to add condition on partition column, which is then
+     *      the first statement parameter. Query must be {@link #whereClause(String) where clause}.
      * @return Prepared statement.
      * @throws GridException In case of error.
      * @throws SQLException In case of error.
      */
     private PreparedStatement prepareStatement(Connection conn, String query, TableDescriptor table, int limit,
-        int offset) throws GridException, SQLException {
+        int offset, boolean partCond) throws GridException, SQLException {
+        assert !partCond || whereClause(query);
+
         boolean needSelect = true;
 
         String str = query.trim().toUpperCase();
@@ -1241,12 +1302,21 @@ public class GridCacheQueryIndex<K, V> {
                 else
                     throw new GridException(errMsg);
             }
+            else if (partCond) {
+                String cond = MessageFormat.format(PARTITION_COND, table.fullTableName());
+
+                int end = whereEnd(query);
+
+                query = "FROM " + table.fullTableName() + " WHERE " + cond + " AND (" + query.substring(0, end) +
+                    ") " + query.substring(end);
+            }
             else
                 query = "FROM " + table.fullTableName() + " WHERE " + query;
         }
 
+        // Partition column is read when backup rows are skipped while iterating.
         String ptrn = "SELECT {0}." + KEY_FIELD_NAME + ", {0}." + KEY_CLS_LDR_FIELD_NAME +
-            ", {0}." + VERSION_FIELD_NAME + ", {0}." + VALUE_FIELD_NAME;
+            ", {0}." + VERSION_FIELD_NAME + ", {0}." + VALUE_FIELD_NAME + ", {0}." + PARTITION_FIELD_NAME;
 
         String sql = needSelect ? MessageFormat.format(ptrn, table.fullTableName()) + ' ' + query : query;
 
@@ -1260,6 +1330,75 @@ public class GridCacheQueryIndex<K, V> {
         return conn.prepareStatement(sql);
     }
 
+    /**
+     * @param query Query clause.
+     * @return {@code True} if query is just a {@code WHERE} clause, so that query
+     *      statement is built by index.
+     */
+    private boolean whereClause(String query) {
+        String str = query.trim().toUpperCase();
+
+        return !str.startsWith("FROM") && !str.startsWith("SELECT");
+    }
+
+    /**
+     * Finds where condition of the query clause ends, skipping string literals,
+     * quoted identifiers and parentheses.
+     *
+     * @param query Query clause.
+     * @return Index of first keyword which ends condition or length of query.
+     */
+    private int whereEnd(String query) {
+        String str = query.toUpperCase();
+
+        int depth = 0;
+
+        char quote = 0;
+
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+
+                continue;
+            }
+
+            switch (c) {
+                case '\'':
+                case '"':
+                    quote = c;
+
+                    break;
+
+                case '(':
+                    depth++;
+
+                    break;
+
+                case ')':
+                    depth--;
+
+                    break;
+
+                default:
+                    if (depth == 0 && (i == 0 || Character.isWhitespace(str.charAt(i - 1)))) {
+                        for (String kw : WHERE_END) {
+                            if (str.startsWith(kw, i)) {
+                                int next = i + kw.length();
+
+                                if (next == str.length() || !Character.isJavaIdentifierPart(str.charAt(next)))
+                                    return i;
+                            }
+                        }
+                    }
+            }
+        }
+
+        return str.length();
+    }
+
     /**
      * Check if this value class must be registered first in SPI and register it if necessary.
      *
@@ -1369,7 +1508,8 @@ public class GridCacheQueryIndex<K, V> {
                 name.equals(VALUE_FIELD_NAME) ||
                 name.equals(VALUE_STRING_FIELD_NAME) ||
                 name.equals(VERSION_FIELD_NAME) ||
-                name.equals(KEY_CLS_LDR_FIELD_NAME))
+                name.equals(KEY_CLS_LDR_FIELD_NAME) ||
+                name.equals(PARTITION_FIELD_NAME))
                 throw new GridException(MessageFormat.format(ptrn, name));
 
             if (names.contains(name))
@@ -1402,7 +1542,8 @@ public class GridCacheQueryIndex<K, V> {
             .a(KEY_CLS_LDR_FIELD_NAME).a(' ').a("VARCHAR,")
             .a(VERSION_FIELD_NAME).a(' ').a("VARCHAR,")
             .a(VALUE_FIELD_NAME).a(' ').a(valTypeStr).a(',')
-            .a(VALUE_STRING_FIELD_NAME).a(' ').a("VARCHAR(").a(Integer.MAX_VALUE).a(")");
+            .a(VALUE_STRING_FIELD_NAME).a(' ').a("VARCHAR(").a(Integer.MAX_VALUE).a("),")
+            .a(PARTITION_FIELD_NAME).a(' ').a("INT");
 
         for (QueryTypeProperty prop : table.type().properties())
             sql.a(',').a(prop.name()).a(' ').a(dbTypeFromClass(prop.type()));
@@ -1426,6 +1567,20 @@ public class GridCacheQueryIndex<K, V> {
     private int createSimpleIndexes(TableDescriptor table, Statement stmt) throws SQLException {
         DBTypeEnum valType = DBTypeEnum.fromClass(table.type().valueClass());
 
+        // Partition index lets queries skip rows of partitions which are not queried.
+        if (cctx.config().getCacheMode() != LOCAL) {
+            SB sql = new SB();
+
+            sql.a("CREATE INDEX ").a(table.fullTableName()).a("Partition");
+            sql.a(" ON ").a(table.fullTableName());
+            sql.a("( " + PARTITION_FIELD_NAME + " )");
+
+            if (log.isDebugEnabled())
+                log.debug("Creating index with SQL: " + sql);
+
+            stmt.executeUpdate(sql.toString());
+        }
+
         // Create index for value if it is of primitive type and can be queried.
         if (valType != DBTypeEnum.BINARY) {
             SB sql = new SB();
@@ -2508,7 +2663,7 @@ public class GridCacheQueryIndex<K, V> {
                 SB mergeSql = new SB();
 
                 mergeSql.a("MERGE INTO ");
-                mergeSql.a(table.fullTableName()).a(" VALUES (?,?,?,?,?");
+                mergeSql.a(table.fullTableName()).a(" VALUES (?,?,?,?,?,?");
 
                 for (int i = 0; i < table.type().properties().size(); i++)
                     mergeSql.a(",?");
@@ -2672,17 +2827,28 @@ public class GridCacheQueryIndex<K, V> {
         /** */
         private GridCacheQueryIndexRow<K, V> next;
 
+        /** Partitions rows should belong to, {@code null} if all rows are returned. */
+        private BitSet parts;
+
         /**
          * @param rs Result set.
          * @param stmt Statement to close at the end (if provided).
+         * @param parts Partitions rows should belong to, {@code null} if all rows are returned.
          * @throws GridException In case of error.
          */
-        ResultSetIterator(ResultSet rs, Statement stmt) throws GridException {
+        ResultSetIterator(ResultSet rs, Statement stmt, @Nullable int[] parts) throws GridException {
             this.rs = rs;
             this.stmt = stmt;
 
+            if (parts != null) {
+                this.parts = new BitSet();
+
+                for (int p : parts)
+                    this.parts.set(p);
+            }
+
             try {
-                if (rs.next())
+                if (nextRow())
                     next = loadRow();
                 else {
                     U.close(rs, log);
@@ -2696,6 +2862,21 @@ public class GridCacheQueryIndex<K, V> {
             }
         }
 
+        /**
+         * Moves result set to next row of required partitions.
+         *
+         * @return {@code True} if there is next row.
+         * @throws SQLException In case of SQL error.
+         */
+        private boolean nextRow() throws SQLException {
+            while (rs.next()) {
+                if (parts == null || parts.get(rs.getInt(PARTITION_FIELD_NAME)))
+                    return true;
+            }
+
+            return false;
+        }
+
         /**
          * Loads row from result set.
          *
@@ -2756,7 +2937,7 @@ public class GridCacheQueryIndex<K, V> {
             GridCacheQueryIndexRow<K, V> res = next;
 
             try {
-                if (!rs.isClosed() && rs.next())
+                if (!rs.isClosed() && nextRow())
                     next = loadRow();
                 else {
                     next = null;
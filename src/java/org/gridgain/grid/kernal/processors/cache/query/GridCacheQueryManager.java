@@ -50,6 +50,9 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
     /** */
     private GridCacheQueryIndex<K, V> idx;
 
+    /** Partitions local node is primary for, together with topology version they were computed for. */
+    private volatile GridTuple2<Long, int[]> primaryParts;
+
     /** Busy lock. */
     protected final GridBusyLock busyLock = new GridBusyLock();
 
@@ -233,29 +236,49 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
         @Nullable GridInClosure2<UUID, Collection<R>> pageLsnr);
 
     /**
-     * Performs query.
+     * Performs query. Unless backups are included, only rows of partitions
+     * local node is primary for are returned.
      *
      * @param qry Query.
      * @param loc Local query or not.
+     * @param incBackups Whether to include backup entries.
      * @return Collection of found keys.
      * @throws GridException In case of error.
      */
-    private Iterator<GridCacheQueryIndexRow<K, V>> executeQuery(GridCacheQueryBaseAdapter qry, boolean loc) throws
-        GridException {
-        return qry.type() == SQL ? idx.querySql(qry, loc) : qry.type() == SCAN ? scanIterator(qry, loc) :
-            idx.queryText(qry, loc);
+    private Iterator<GridCacheQueryIndexRow<K, V>> executeQuery(GridCacheQueryBaseAdapter qry, boolean loc,
+        boolean incBackups) throws GridException {
+        int[] parts = cctx.config().getCacheMode() == LOCAL || incBackups ? null : primaryPartitions();
+
+        return qry.type() == SQL ? idx.querySql(qry, loc, parts) : qry.type() == SCAN ?
+            scanIterator(qry, loc, parts) : idx.queryText(qry, loc, parts);
+    }
+
+    /**
+     * @return Partitions local node is primary for.
+     */
+    private int[] primaryPartitions() {
+        long topVer = cctx.discovery().topologyVersion();
+
+        GridTuple2<Long, int[]> t = primaryParts;
+
+        // Affinity is computed once per partition and topology version rather than for every row.
+        if (t == null || t.get1() != topVer)
+            primaryParts = t = F.t(topVer, U.toIntArray(cctx.primaryPartitions(cctx.localNode(), topVer)));
+
+        return t.get2();
     }
 
     /**
      *
      * @param qry query
      * @param loc {@code true} if local query.
+     * @param parts Partitions to scan, {@code null} to scan all partitions.
      * @return Full-scan row iterator.
      * @throws GridException If failed to get iterator.
      */
     @SuppressWarnings({"unchecked"})
-    private Iterator<GridCacheQueryIndexRow<K, V>> scanIterator(GridCacheQueryBaseAdapter qry, boolean loc)
-        throws GridException {
+    private Iterator<GridCacheQueryIndexRow<K, V>> scanIterator(GridCacheQueryBaseAdapter qry, boolean loc,
+        @Nullable int[] parts) throws GridException {
         ClassLoader ldr = loc ? cctx.deploy().localLoader() : cctx.deploy().globalLoader();
 
         final Class qryCls;
@@ -267,8 +290,17 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
             throw new GridException("Failed to create scan query iterator on node: " + cctx.nodeId(), e);
         }
 
+        final BitSet partSet = parts == null ? null : new BitSet();
+
+        if (parts != null)
+            for (int p : parts)
+                partSet.set(p);
+
         P1<GridCacheEntry<K, V>> clsPred = new P1<GridCacheEntry<K, V>>() {
             @Override public boolean apply(GridCacheEntry<K, V> e) {
+                if (partSet != null && !partSet.get(e.partition()))
+                    return false;
+
                 V val = e.peek();
 
                 return val != null && (qryCls == null || qryCls.isAssignableFrom(val.getClass()));
@@ -345,13 +377,9 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
 
             int pageSize = qryInfo.pageSize();
 
-            boolean readThrough = qryInfo.readThrough();
-
-            boolean incBackups = qryInfo.includeBackups();
-
             Map<K, Object> map = new LinkedHashMap<K, Object>(pageSize);
 
-            Iterator<GridCacheQueryIndexRow<K, V>> iter = executeQuery(qry, loc);
+            Iterator<GridCacheQueryIndexRow<K, V>> iter = executeQuery(qry, loc, qryInfo.includeBackups());
 
             GridCacheAdapter<K, V> cache = cctx.cache();
 
@@ -359,98 +387,59 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
                 log.debug("Received index iterator [qryId=" + qryId + ", iterHasNext=" + iter.hasNext() +
                     ", cacheSize=" + cache.keySize() + ']');
 
-            int cnt = 0;
+            int limit = qry.limit();
 
-            boolean stop = false;
-
-            while (iter.hasNext()) {
-                GridCacheQueryIndexRow<K, V> row = iter.next();
+            Comparator<Map.Entry<K, V>> cmp = qry.orderBy();
 
-                K key = row.key();
+            // SQL rows come in order defined by query clause, rows
+            // of other queries have to be sorted before sending.
+            boolean sorted = cmp != null && qry.type() != SQL && !single;
 
-                if (cctx.config().getCacheMode() != LOCAL && !incBackups && !cctx.primary(cctx.localNode(), key)) {
-                    if (log.isDebugEnabled())
-                        log.debug("Ignoring backup element [qryId=" + qryId + ", row=" + row +
-                            ", cacheMode=" + cctx.config().getCacheMode() + ", incBackups=" + incBackups +
-                            ", primary=" + cctx.primary(cctx.localNode(), key) + ']');
+            if (sorted)
+                iter = sortedRows(iter, cmp, limit, qryInfo, keyFilter, valFilter, prjFilter);
 
-                    continue;
-                }
-
-                if (!F.isAll(key, keyFilter))
-                    continue;
-
-                V val = row.value();
-
-                if (val == null) {
-                    assert row.valueBytes() != null;
-
-                    GridCacheEntryEx<K, V> entry = cache.entryEx(key);
-
-                    boolean unmarshal;
-
-                    try {
-                        GridCachePeekMode[] oldExcl = cctx.excludePeekModes(TX);
-
-                        try {
-                            val = readThrough ?
-                                entry.peek(DB_SWAP_GLOBAL, prjFilter) :
-                                entry.peek(SWAP_GLOBAL, prjFilter);
-                        }
-                        finally {
-                            cctx.excludePeekModes(oldExcl);
-                        }
-
-                        if (qry.cloneValues())
-                            val = cctx.cloneValue(val);
-
-                        GridCacheVersion ver = entry.version();
+            int cnt = 0;
 
-                        unmarshal = !row.version().equals(ver.id().toString() + ver.order());
-                    }
-                    catch (GridCacheEntryRemovedException ignored) {
-                        // If entry has been removed concurrently we have to unmarshal from bytes.
-                        unmarshal = true;
-                    }
+            int total = 0;
 
-                    if (unmarshal)
-                        val = (V)U.unmarshal(cctx.marshaller(), new GridByteArrayList(row.valueBytes()),
-                            loc ? cctx.deploy().localLoader() : cctx.deploy().globalLoader());
-                }
+            boolean stop = false;
 
-                if (log.isDebugEnabled())
-                    log.debug("Record [qryId=" + qryId + ", key=" + row.key() + ", val=" + val + ", incBackups=" +
-                        incBackups + "priNode=" + CU.primaryNode(cctx, row.key()).id8() +
-                        ", node=" + cctx.grid().localNode().id8() + ']');
+            while (iter.hasNext()) {
+                GridCacheQueryIndexRow<K, V> row = iter.next();
 
-                if (val == null || !F.isAll(val, valFilter)) {
-                    if (log.isDebugEnabled())
-                        log.debug("Unsuitable record value [qryId=" + qryId + ", val=" + val + ']');
+                // Sorted rows have already been filtered.
+                V val = sorted ? row.value() : acceptedValue(row, qryInfo, keyFilter, valFilter, prjFilter);
 
+                if (val == null)
                     continue;
-                }
 
                 map.put(row.key(), trans == null ? val : trans.apply(val));
 
                 if (single)
                     break;
 
-                if (++cnt == pageSize || !iter.hasNext()) {
+                boolean last = ++total == limit;
+
+                if (++cnt == pageSize || last || !iter.hasNext()) {
                     if (rdc == null) {
-                        boolean finished = !iter.hasNext();
+                        boolean finished = last || !iter.hasNext();
+
+                        Collection<?> page;
 
                         if (loc)
-                            onPageReady(loc, qryInfo, map.entrySet(), finished, null);
+                            page = map.entrySet();
                         else {
                             // Put GridCacheQueryResponseEntry as map value to avoid using any new container.
                             for (Map.Entry entry : map.entrySet())
                                 entry.setValue(new GridCacheQueryResponseEntry(entry.getKey(), entry.getValue()));
 
-                            if (!onPageReady(loc, qryInfo, map.values(), finished, null))
-                                // Finish processing on any error.
-                                return;
+                            page = map.values();
                         }
 
+                        if (!onPageReady(loc, qryInfo, page, finished, null))
+                            // Finish processing on any error or if query was cancelled.
+                            return;
+
                         cnt = 0;
 
                         if (finished)
@@ -467,7 +456,7 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
 
                     map = new LinkedHashMap<K, Object>(pageSize);
 
-                    if (stop)
+                    if (stop || last)
                         break; // while
                 }
             }
@@ -504,14 +493,186 @@ public abstract class GridCacheQueryManager<K, V> extends GridCacheManager<K, V>
     }
 
     /**
-     * Called when data for page is ready.
+     * Checks query row against query filters and gets its value.
+     *
+     * @param row Query row.
+     * @param qryInfo Query info.
+     * @param keyFilter Key filter.
+     * @param valFilter Value filter.
+     * @param prjFilter Projection filter.
+     * @return Row value or {@code null} if row does not pass query filters.
+     * @throws GridException In case of error.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable private V acceptedValue(GridCacheQueryIndexRow<K, V> row, GridCacheQueryInfo<K, V> qryInfo,
+        @Nullable GridPredicate<Object> keyFilter, @Nullable GridPredicate<Object> valFilter,
+        GridPredicate<GridCacheEntry<K, V>>[] prjFilter) throws GridException {
+        int qryId = qryInfo.query().id();
+
+        boolean loc = qryInfo.local();
+
+        boolean incBackups = qryInfo.includeBackups();
+
+        K key = row.key();
+
+        // Backup rows have already been skipped by executeQuery().
+        if (!F.isAll(key, keyFilter))
+            return null;
+
+        V val = row.value();
+
+        if (val == null) {
+            assert row.valueBytes() != null;
+
+            GridCacheEntryEx<K, V> entry = cctx.cache().entryEx(key);
+
+            boolean unmarshal;
+
+            try {
+                GridCachePeekMode[] oldExcl = cctx.excludePeekModes(TX);
+
+                try {
+                    val = qryInfo.readThrough() ?
+                        entry.peek(DB_SWAP_GLOBAL, prjFilter) :
+                        entry.peek(SWAP_GLOBAL, prjFilter);
+                }
+                finally {
+                    cctx.excludePeekModes(oldExcl);
+                }
+
+                if (qryInfo.query().cloneValues())
+                    val = cctx.cloneValue(val);
+
+                GridCacheVersion ver = entry.version();
+
+                unmarshal = !row.version().equals(ver.id().toString() + ver.order());
+            }
+            catch (GridCacheEntryRemovedException ignored) {
+                // If entry has been removed concurrently we have to unmarshal from bytes.
+                unmarshal = true;
+            }
+
+            if (unmarshal)
+                val = (V)U.unmarshal(cctx.marshaller(), new GridByteArrayList(row.valueBytes()),
+                    loc ? cctx.deploy().localLoader() : cctx.deploy().globalLoader());
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Record [qryId=" + qryId + ", key=" + row.key() + ", val=" + val + ", incBackups=" +
+                incBackups + "priNode=" + CU.primaryNode(cctx, row.key()).id8() +
+                ", node=" + cctx.grid().localNode().id8() + ']');
+
+        if (val == null || !F.isAll(val, valFilter)) {
+            if (log.isDebugEnabled())
+                log.debug("Unsuitable record value [qryId=" + qryId + ", val=" + val + ']');
+
+            return null;
+        }
+
+        return val;
+    }
+
+    /**
+     * Filters and sorts query rows. If number of results is limited, only first
+     * {@code limit} rows are kept while iterating, otherwise all rows are sorted.
+     *
+     * @param iter Query rows.
+     * @param cmp Comparator.
+     * @param limit Maximum number of rows, {@code 0} if not limited.
+     * @param qryInfo Query info.
+     * @param keyFilter Key filter.
+     * @param valFilter Value filter.
+     * @param prjFilter Projection filter.
+     * @return Sorted rows which passed query filters.
+     * @throws GridException In case of error.
+     */
+    private Iterator<GridCacheQueryIndexRow<K, V>> sortedRows(Iterator<GridCacheQueryIndexRow<K, V>> iter,
+        final Comparator<Map.Entry<K, V>> cmp, int limit, GridCacheQueryInfo<K, V> qryInfo,
+        @Nullable GridPredicate<Object> keyFilter, @Nullable GridPredicate<Object> valFilter,
+        GridPredicate<GridCacheEntry<K, V>>[] prjFilter) throws GridException {
+        Comparator<GridCacheQueryIndexRow<K, V>> rowCmp = new Comparator<GridCacheQueryIndexRow<K, V>>() {
+            @Override public int compare(GridCacheQueryIndexRow<K, V> r1, GridCacheQueryIndexRow<K, V> r2) {
+                return cmp.compare(F.t(r1.key(), r1.value()), F.t(r2.key(), r2.value()));
+            }
+        };
+
+        if (limit > 0) {
+            // Heap head is the greatest of kept rows, so it is replaced by any smaller one.
+            PriorityQueue<GridCacheQueryIndexRow<K, V>> heap =
+                new PriorityQueue<GridCacheQueryIndexRow<K, V>>(Math.min(limit, 1024), Collections.reverseOrder(rowCmp));
+
+            while (iter.hasNext()) {
+                GridCacheQueryIndexRow<K, V> row = accepted(iter.next(), qryInfo, keyFilter, valFilter, prjFilter);
+
+                if (row == null)
+                    continue;
+
+                if (heap.size() < limit)
+                    heap.add(row);
+                else if (rowCmp.compare(row, heap.peek()) < 0) {
+                    heap.poll();
+
+                    heap.add(row);
+                }
+            }
+
+            List<GridCacheQueryIndexRow<K, V>> rows = new ArrayList<GridCacheQueryIndexRow<K, V>>(heap);
+
+            Collections.sort(rows, rowCmp);
+
+            return rows.iterator();
+        }
+
+        List<GridCacheQueryIndexRow<K, V>> rows = new ArrayList<GridCacheQueryIndexRow<K, V>>();
+
+        while (iter.hasNext()) {
+            GridCacheQueryIndexRow<K, V> row = accepted(iter.next(), qryInfo, keyFilter, valFilter, prjFilter);
+
+            if (row != null)
+                rows.add(row);
+        }
+
+        Collections.sort(rows, rowCmp);
+
+        return rows.iterator();
+    }
+
+    /**
+     * @param row Query row.
+     * @param qryInfo Query info.
+     * @param keyFilter Key filter.
+     * @param valFilter Value filter.
+     * @param prjFilter Projection filter.
+     * @return Row with resolved value or {@code null} if row does not pass query filters.
+     * @throws GridException In case of error.
+     */
+    @Nullable private GridCacheQueryIndexRow<K, V> accepted(GridCacheQueryIndexRow<K, V> row,
+        GridCacheQueryInfo<K, V> qryInfo, @Nullable GridPredicate<Object> keyFilter,
+        @Nullable GridPredicate<Object> valFilter, GridPredicate<GridCacheEntry<K, V>>[] prjFilter)
+        throws GridException {
+        V val = acceptedValue(row, qryInfo, keyFilter, valFilter, prjFilter);
+
+        return val == null ? null : new GridCacheQueryIndexRow<K, V>(row.key(), val, null, null);
+    }
+
+    /**
+     * @return Error to complete query with if its consumer was idle for too long.
+     */
+    protected GridException idleTimeoutError() {
+        return new GridException("Query results were not consumed within idle timeout (query will be stopped) " +
+            "[timeout=" + cctx.queryIdleTimeout() + ']');
+    }
+
+    /**
+     * Called when data for page is ready. Implementations may block until
+     * querying node is ready to receive the page.
      *
      * @param loc Local query or not.
      * @param qryInfo Query info.
      * @param data Result data.
      * @param finished Last page or not.
      * @param e Exception in case of error.
-     * @return {@code true} if page was processed right.
+     * @return {@code true} if page was processed right and query execution should continue.
      */
     protected abstract boolean onPageReady(boolean loc, GridCacheQueryInfo<K, V> qryInfo, @Nullable Collection<?> data,
         boolean finished, @Nullable Throwable e);
@@ -0,0 +1,126 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.typedef.internal.*;
+
+/**
+ * Window of query result pages which node executing query may send ahead of consumer.
+ * Executing thread takes a permit before sending every page and waits if there are
+ * none left. Permits are returned as querying node consumes pages. Window expires if
+ * consumer does not return permits within idle timeout, so that queries whose
+ * iterators were abandoned do not hold executing threads forever.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridCacheQueryPageWindow {
+    /** Number of pages which can be sent without waiting. */
+    private int permits;
+
+    /** Time to wait for permits in milliseconds. */
+    private final long idleTimeout;
+
+    /** Closed flag. */
+    private boolean closed;
+
+    /** Expired flag. */
+    private boolean expired;
+
+    /**
+     * @param permits Number of pages which can be sent without waiting, {@code 0}
+     *      if number of pages is not limited.
+     * @param idleTimeout Time to wait for permits in milliseconds.
+     */
+    GridCacheQueryPageWindow(int permits, long idleTimeout) {
+        assert permits >= 0;
+        assert idleTimeout > 0;
+
+        this.permits = permits == 0 ? Integer.MAX_VALUE : permits;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Waits until next page can be sent. If no permits are returned within idle
+     * timeout, window is closed and marked as {@link #expired()}.
+     *
+     * @return {@code True} if page can be sent, {@code false} if window was
+     *      closed, has expired or waiting thread was interrupted.
+     */
+    synchronized boolean acquire() {
+        long end = System.currentTimeMillis() + idleTimeout;
+
+        // Protect against overflow.
+        if (end < 0)
+            end = Long.MAX_VALUE;
+
+        try {
+            while (permits == 0 && !closed) {
+                long left = end - System.currentTimeMillis();
+
+                if (left <= 0) {
+                    closed = true;
+                    expired = true;
+
+                    break;
+                }
+
+                wait(left);
+            }
+        }
+        catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+
+        if (closed)
+            return false;
+
+        if (permits != Integer.MAX_VALUE)
+            permits--;
+
+        return true;
+    }
+
+    /**
+     * @param pages Number of consumed pages.
+     */
+    synchronized void release(int pages) {
+        assert pages > 0;
+
+        if (permits != Integer.MAX_VALUE) {
+            permits += pages;
+
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return {@code True} if consumer did not return permits within idle timeout.
+     */
+    synchronized boolean expired() {
+        return expired;
+    }
+
+    /**
+     * Closes window, so that executing thread stops.
+     */
+    synchronized void close() {
+        closed = true;
+
+        notifyAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized String toString() {
+        return S.toString(GridCacheQueryPageWindow.class, this);
+    }
+}
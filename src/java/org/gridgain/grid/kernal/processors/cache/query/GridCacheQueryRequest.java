@@ -0,0 +1,487 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.query.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Distributed query request. Also used to cancel query which is being executed on remote node
+ * or to let it send more result pages after previous ones have been consumed.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueryRequest<K, V> extends GridCacheMessage<K, V> {
+    /** Request ID. */
+    private long id;
+
+    /** Cancel flag. */
+    private boolean cancel;
+
+    /** Number of consumed pages which remote node may send more of. */
+    private int demand;
+
+    /** Query ID. */
+    private int qryId;
+
+    /** Query type. */
+    private GridCacheQueryType type;
+
+    /** Query clause. */
+    private String clause;
+
+    /** Query class name. */
+    private String clsName;
+
+    /** Remote key filter factory. */
+    @GridToStringInclude
+    private GridClosure<Object[], GridPredicate<? super K>> keyFilter;
+
+    /** */
+    private byte[] keyFilterBytes;
+
+    /** Remote value filter factory. */
+    @GridToStringInclude
+    private GridClosure<Object[], GridPredicate<? super V>> valFilter;
+
+    /** */
+    private byte[] valFilterBytes;
+
+    /** Projection filter. */
+    @GridToStringInclude
+    private GridPredicate<GridCacheEntry<K, V>> prjFilter;
+
+    /** */
+    private byte[] prjFilterBytes;
+
+    /** Remote transformer factory. */
+    @GridToStringInclude
+    private GridClosure<Object[], ?> trans;
+
+    /** */
+    private byte[] transBytes;
+
+    /** Remote reducer factory. */
+    @GridToStringInclude
+    private GridClosure<Object[], ?> rdc;
+
+    /** */
+    private byte[] rdcBytes;
+
+    /** Comparator of query results. */
+    @GridToStringInclude
+    private Comparator<Map.Entry<K, V>> cmp;
+
+    /** */
+    private byte[] cmpBytes;
+
+    /** Query arguments. */
+    @GridToStringInclude
+    private Object[] args;
+
+    /** */
+    private byte[] argsBytes;
+
+    /** Closure arguments. */
+    @GridToStringInclude
+    private Object[] closureArgs;
+
+    /** */
+    private byte[] closureArgsBytes;
+
+    /** */
+    private int pageSize;
+
+    /** */
+    private int limit;
+
+    /** */
+    private int pagesInFlight;
+
+    /** */
+    private boolean incBackups;
+
+    /** */
+    private boolean readThrough;
+
+    /** */
+    private boolean clone;
+
+    /** */
+    private boolean single;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueryRequest() {
+        // No-op.
+    }
+
+    /**
+     * Creates cancel request.
+     *
+     * @param id Request ID.
+     */
+    GridCacheQueryRequest(long id) {
+        this.id = id;
+
+        cancel = true;
+    }
+
+    /**
+     * Creates page demand request.
+     *
+     * @param id Request ID.
+     * @param demand Number of consumed pages.
+     */
+    GridCacheQueryRequest(long id, int demand) {
+        assert demand > 0;
+
+        this.id = id;
+        this.demand = demand;
+    }
+
+    /**
+     * @param id Request ID.
+     * @param qry Query.
+     * @param trans Remote transformer factory.
+     * @param rdc Remote reducer factory.
+     * @param single Single result or not.
+     * @param pagesInFlight Number of pages remote node may send ahead of consumer, {@code 0} if not limited.
+     */
+    GridCacheQueryRequest(long id, GridCacheQueryBaseAdapter<K, V> qry, @Nullable GridClosure<Object[], ?> trans,
+        @Nullable GridClosure<Object[], ?> rdc, boolean single, int pagesInFlight) {
+        this.id = id;
+        this.trans = trans;
+        this.rdc = rdc;
+        this.single = single;
+        this.pagesInFlight = pagesInFlight;
+
+        qryId = qry.id();
+        type = qry.type();
+        clause = qry.clause();
+        clsName = qry.className();
+        keyFilter = qry.remoteKeyFilter();
+        valFilter = qry.remoteValueFilter();
+        prjFilter = qry.projectionFilter();
+        cmp = qry.orderBy();
+        args = qry.arguments();
+        closureArgs = qry.getClosureArguments();
+        pageSize = qry.pageSize();
+        limit = qry.limit();
+        incBackups = qry.includeBackups();
+        readThrough = qry.readThrough();
+        clone = qry.cloneValues();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        keyFilterBytes = marshal(keyFilter, ctx);
+        valFilterBytes = marshal(valFilter, ctx);
+        prjFilterBytes = marshal(prjFilter, ctx);
+        transBytes = marshal(trans, ctx);
+        rdcBytes = marshal(rdc, ctx);
+        cmpBytes = marshal(cmp, ctx);
+
+        if (args != null)
+            prepareObjects(Arrays.asList(args), ctx);
+
+        argsBytes = marshal(args, ctx);
+
+        if (closureArgs != null)
+            prepareObjects(Arrays.asList(closureArgs), ctx);
+
+        closureArgsBytes = marshal(closureArgs, ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        keyFilter = unmarshal(keyFilterBytes, ctx, ldr);
+        valFilter = unmarshal(valFilterBytes, ctx, ldr);
+        prjFilter = unmarshal(prjFilterBytes, ctx, ldr);
+        trans = unmarshal(transBytes, ctx, ldr);
+        rdc = unmarshal(rdcBytes, ctx, ldr);
+        cmp = unmarshal(cmpBytes, ctx, ldr);
+        args = unmarshal(argsBytes, ctx, ldr);
+        closureArgs = unmarshal(closureArgsBytes, ctx, ldr);
+    }
+
+    /**
+     * @param o Object to marshal.
+     * @param ctx Context.
+     * @return Marshalled object or {@code null} if object is {@code null}.
+     * @throws GridException If failed.
+     */
+    @Nullable private byte[] marshal(@Nullable Object o, GridCacheContext<K, V> ctx) throws GridException {
+        if (o == null)
+            return null;
+
+        prepareObject(o, ctx);
+
+        return CU.marshal(ctx, o).getEntireArray();
+    }
+
+    /**
+     * @param bytes Bytes to unmarshal.
+     * @param ctx Context.
+     * @param ldr Class loader.
+     * @return Unmarshalled object or {@code null} if bytes are {@code null}.
+     * @throws GridException If failed.
+     */
+    @Nullable private <T> T unmarshal(@Nullable byte[] bytes, GridCacheContext<K, V> ctx, ClassLoader ldr)
+        throws GridException {
+        return bytes == null ? null : U.<T>unmarshal(ctx.marshaller(), new GridByteArrayList(bytes), ldr);
+    }
+
+    /**
+     * @return Request ID.
+     */
+    long id() {
+        return id;
+    }
+
+    /**
+     * @return {@code True} if this is cancel request.
+     */
+    boolean cancel() {
+        return cancel;
+    }
+
+    /**
+     * @return Number of consumed pages for page demand request, {@code 0} otherwise.
+     */
+    int demand() {
+        return demand;
+    }
+
+    /**
+     * @return Query ID.
+     */
+    int queryId() {
+        return qryId;
+    }
+
+    /**
+     * @return Query type.
+     */
+    GridCacheQueryType type() {
+        return type;
+    }
+
+    /**
+     * @return Query clause.
+     */
+    String clause() {
+        return clause;
+    }
+
+    /**
+     * @return Query class name.
+     */
+    String className() {
+        return clsName;
+    }
+
+    /**
+     * @return Remote key filter factory.
+     */
+    GridClosure<Object[], GridPredicate<? super K>> keyFilter() {
+        return keyFilter;
+    }
+
+    /**
+     * @return Remote value filter factory.
+     */
+    GridClosure<Object[], GridPredicate<? super V>> valueFilter() {
+        return valFilter;
+    }
+
+    /**
+     * @return Projection filter.
+     */
+    GridPredicate<GridCacheEntry<K, V>> projectionFilter() {
+        return prjFilter;
+    }
+
+    /**
+     * @return Remote transformer factory.
+     */
+    GridClosure<Object[], ?> transformer() {
+        return trans;
+    }
+
+    /**
+     * @return Remote reducer factory.
+     */
+    GridClosure<Object[], ?> reducer() {
+        return rdc;
+    }
+
+    /**
+     * @return Comparator of query results.
+     */
+    Comparator<Map.Entry<K, V>> orderBy() {
+        return cmp;
+    }
+
+    /**
+     * @return Query arguments.
+     */
+    Object[] arguments() {
+        return args;
+    }
+
+    /**
+     * @return Closure arguments.
+     */
+    Object[] closureArguments() {
+        return closureArgs;
+    }
+
+    /**
+     * @return Page size.
+     */
+    int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return Maximum number of query results, {@code 0} if not limited.
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * @return Number of pages remote node may send ahead of consumer, {@code 0} if not limited.
+     */
+    int pagesInFlight() {
+        return pagesInFlight;
+    }
+
+    /**
+     * @return {@code True} if backup entries should be included into query result.
+     */
+    boolean includeBackups() {
+        return incBackups;
+    }
+
+    /**
+     * @return {@code True} if read-through behaviour is enabled.
+     */
+    boolean readThrough() {
+        return readThrough;
+    }
+
+    /**
+     * @return {@code True} if values should be cloned.
+     */
+    boolean cloneValues() {
+        return clone;
+    }
+
+    /**
+     * @return Single result or not.
+     */
+    boolean single() {
+        return single;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        out.writeLong(id);
+        out.writeBoolean(cancel);
+        out.writeInt(demand);
+
+        if (cancel || demand > 0)
+            return;
+
+        out.writeInt(qryId);
+        out.writeByte(type.ordinal());
+
+        U.writeString(out, clause);
+        U.writeString(out, clsName);
+
+        U.writeByteArray(out, keyFilterBytes);
+        U.writeByteArray(out, valFilterBytes);
+        U.writeByteArray(out, prjFilterBytes);
+        U.writeByteArray(out, transBytes);
+        U.writeByteArray(out, rdcBytes);
+        U.writeByteArray(out, cmpBytes);
+        U.writeByteArray(out, argsBytes);
+        U.writeByteArray(out, closureArgsBytes);
+
+        out.writeInt(pageSize);
+        out.writeInt(limit);
+        out.writeInt(pagesInFlight);
+        out.writeBoolean(incBackups);
+        out.writeBoolean(readThrough);
+        out.writeBoolean(clone);
+        out.writeBoolean(single);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        id = in.readLong();
+        cancel = in.readBoolean();
+        demand = in.readInt();
+
+        if (cancel || demand > 0)
+            return;
+
+        qryId = in.readInt();
+        type = GridCacheQueryType.fromOrdinal(in.readByte());
+
+        clause = U.readString(in);
+        clsName = U.readString(in);
+
+        keyFilterBytes = U.readByteArray(in);
+        valFilterBytes = U.readByteArray(in);
+        prjFilterBytes = U.readByteArray(in);
+        transBytes = U.readByteArray(in);
+        rdcBytes = U.readByteArray(in);
+        cmpBytes = U.readByteArray(in);
+        argsBytes = U.readByteArray(in);
+        closureArgsBytes = U.readByteArray(in);
+
+        pageSize = in.readInt();
+        limit = in.readInt();
+        pagesInFlight = in.readInt();
+        incBackups = in.readBoolean();
+        readThrough = in.readBoolean();
+        clone = in.readBoolean();
+        single = in.readBoolean();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueryRequest.class, this);
+    }
+}
@@ -0,0 +1,162 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Page of distributed query results.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridCacheQueryResponse<K, V> extends GridCacheMessage<K, V> {
+    /** Request ID. */
+    private long reqId;
+
+    /** Last page flag. */
+    private boolean finished;
+
+    /** Page data. */
+    @GridToStringInclude
+    private Collection<Object> data;
+
+    /** Serialized page data. */
+    @GridToStringExclude
+    private Collection<byte[]> dataBytes;
+
+    /** Error. */
+    private Throwable err;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheQueryResponse() {
+        // No-op.
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param data Page data.
+     * @param finished Last page flag.
+     */
+    @SuppressWarnings({"unchecked"})
+    GridCacheQueryResponse(long reqId, @Nullable Collection<?> data, boolean finished) {
+        this.reqId = reqId;
+        this.data = (Collection<Object>)data;
+        this.finished = finished;
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param err Error.
+     */
+    GridCacheQueryResponse(long reqId, Throwable err) {
+        this.reqId = reqId;
+        this.err = err;
+
+        finished = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pMarshal(GridCacheContext<K, V> ctx) throws GridException {
+        super.p2pMarshal(ctx);
+
+        if (data != null) {
+            // Page entries are GridGain classes, so deployment is taken from keys and values.
+            for (Object o : data) {
+                if (o instanceof GridCacheQueryResponseEntry) {
+                    GridCacheQueryResponseEntry e = (GridCacheQueryResponseEntry)o;
+
+                    prepareObject(e.getKey(), ctx);
+                    prepareObject(e.getValue(), ctx);
+                }
+            }
+        }
+
+        dataBytes = marshalCollection(data, ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
+        super.p2pUnmarshal(ctx, ldr);
+
+        data = unmarshalCollection(dataBytes, ctx, ldr);
+    }
+
+    /**
+     * @return Request ID.
+     */
+    long requestId() {
+        return reqId;
+    }
+
+    /**
+     * @return Page data.
+     */
+    @Nullable Collection<Object> data() {
+        return data;
+    }
+
+    /**
+     * @return Last page flag.
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return Error.
+     */
+    @Nullable Throwable error() {
+        return err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean ignoreClassErrors() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+
+        out.writeLong(reqId);
+        out.writeBoolean(finished);
+
+        U.writeCollection(out, dataBytes);
+
+        out.writeObject(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+
+        reqId = in.readLong();
+        finished = in.readBoolean();
+
+        dataBytes = U.readCollection(in);
+
+        err = (Throwable)in.readObject();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheQueryResponse.class, this);
+    }
+}
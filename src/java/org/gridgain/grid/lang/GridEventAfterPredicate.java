@@ -0,0 +1,55 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.typedef.internal.*;
+
+/**
+ * Event predicate that evaluates to {@code true} for events produced after given
+ * timestamp. Event storage SPI implementations may recognize this predicate and
+ * skip events recorded before given time without checking them (see
+ * {@link GridFunc#eventAfter(long)}).
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridEventAfterPredicate extends GridPredicate<GridEvent> {
+    /** Timestamp. */
+    private final long tstamp;
+
+    /**
+     * @param tstamp Timestamp, only events produced after it are accepted.
+     */
+    public GridEventAfterPredicate(long tstamp) {
+        A.ensure(tstamp > 0, "tstamp > 0");
+
+        this.tstamp = tstamp;
+    }
+
+    /**
+     * @return Timestamp, only events produced after it are accepted.
+     */
+    public long timestamp() {
+        return tstamp;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean apply(GridEvent e) {
+        assert e != null;
+
+        return e.timestamp() > tstamp;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridEventAfterPredicate.class, this);
+    }
+}
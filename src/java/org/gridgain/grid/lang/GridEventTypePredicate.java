@@ -0,0 +1,67 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.util.*;
+
+/**
+ * Event predicate that evaluates to {@code true} for events of given types. Event storage
+ * SPI implementations may recognize this predicate and look up events by type instead
+ * of checking every stored event (see {@link GridFunc#eventType(int...)}).
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridEventTypePredicate extends GridPredicate<GridEvent> {
+    /** Sorted event types. */
+    @GridToStringInclude
+    private final int[] types;
+
+    /**
+     * Creates predicate for given event types. Implementation will make a defensive copy.
+     *
+     * @param types Event types, at least one must be provided.
+     */
+    public GridEventTypePredicate(int... types) {
+        A.notNull(types, "types");
+        A.ensure(types.length > 0, "types.length > 0");
+
+        this.types = types.clone();
+
+        Arrays.sort(this.types);
+    }
+
+    /**
+     * Gets sorted array of event types this predicate is based on. Note that for performance
+     * reasons this method returns the internal array that <b>should not</b> be modified by
+     * the caller.
+     *
+     * @return Event types.
+     */
+    public int[] types() {
+        return types;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean apply(GridEvent e) {
+        assert e != null;
+
+        return Arrays.binarySearch(types, e.type()) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridEventTypePredicate.class, this);
+    }
+}
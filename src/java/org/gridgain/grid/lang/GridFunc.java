@@ -8684,21 +8684,7 @@ public class GridFunc {
      * @return Event predicate.
      */
     public static GridPredicate<GridEvent> eventType(@Nullable final int... types) {
-        return isEmpty(types) ? F.<GridEvent>alwaysFalse() : new GridPredicate<GridEvent>() {
-            @Override public boolean apply(GridEvent e) {
-                assert e != null;
-
-                assert types != null;
-
-                for (int t : types) {
-                    if (e.type() == t) {
-                        return true;
-                    }
-                }
-
-                return false;
-            }
-        };
+        return isEmpty(types) ? F.<GridEvent>alwaysFalse() : new GridEventTypePredicate(types);
     }
 
     /**
@@ -8733,13 +8719,7 @@ public class GridFunc {
     public static GridPredicate<GridEvent> eventAfter(final long tstamp) {
         A.ensure(tstamp > 0, "tstamp > 0");
 
-        return new GridPredicate<GridEvent>() {
-            @Override public boolean apply(GridEvent e) {
-                assert e != null;
-
-                return e.timestamp() > tstamp;
-            }
-        };
+        return new GridEventAfterPredicate(tstamp);
     }
 
     /**
@@ -0,0 +1,153 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.communication.tcp;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Compresses and decompresses TCP messages. Deflaters and inflaters hold native
+ * memory and are expensive to create, so they are pooled and reused.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridTcpCommunicationCompressor {
+    /** Pooled deflaters. */
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<Deflater>();
+
+    /** Pooled inflaters. */
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<Inflater>();
+
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /**
+     * Compresses message bytes.
+     *
+     * @param data Marshalled message.
+     * @param len Message length.
+     * @return Compressed message or {@code null} if compression does not make message smaller.
+     */
+    @Nullable GridTcpCompressedMessage compress(byte[] data, int len) {
+        Deflater deflater = deflaters.poll();
+
+        if (deflater == null)
+            deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            deflater.setInput(data, 0, len);
+            deflater.finish();
+
+            // Output is only useful if it is smaller than input.
+            byte[] out = new byte[len];
+
+            int cnt = 0;
+
+            while (!deflater.finished() && cnt < out.length)
+                cnt += deflater.deflate(out, cnt, out.length - cnt);
+
+            return deflater.finished() && cnt < len ? new GridTcpCompressedMessage(out, cnt, len) : null;
+        }
+        finally {
+            deflater.reset();
+
+            release(deflater);
+        }
+    }
+
+    /**
+     * Decompresses message bytes.
+     *
+     * @param msg Compressed message.
+     * @return Marshalled message.
+     * @throws GridException If compressed bytes are corrupted.
+     */
+    byte[] decompress(GridTcpCompressedMessage msg) throws GridException {
+        Inflater inflater = inflaters.poll();
+
+        if (inflater == null)
+            inflater = new Inflater();
+
+        try {
+            inflater.setInput(msg.data(), 0, msg.length());
+
+            byte[] out = new byte[msg.originalLength()];
+
+            int cnt = 0;
+
+            while (cnt < out.length) {
+                int n = inflater.inflate(out, cnt, out.length - cnt);
+
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+
+                cnt += n;
+            }
+
+            if (cnt != out.length)
+                throw new GridException("Failed to decompress TCP message (unexpected length) [expected=" +
+                    out.length + ", actual=" + cnt + ']');
+
+            return out;
+        }
+        catch (DataFormatException e) {
+            throw new GridException("Failed to decompress TCP message.", e);
+        }
+        finally {
+            inflater.reset();
+
+            release(inflater);
+        }
+    }
+
+    /**
+     * Releases native resources of pooled deflaters and inflaters.
+     */
+    void close() {
+        closed = true;
+
+        for (Deflater deflater = deflaters.poll(); deflater != null; deflater = deflaters.poll())
+            deflater.end();
+
+        for (Inflater inflater = inflaters.poll(); inflater != null; inflater = inflaters.poll())
+            inflater.end();
+    }
+
+    /**
+     * @param deflater Deflater to return to the pool.
+     */
+    private void release(Deflater deflater) {
+        if (closed)
+            deflater.end();
+        else
+            deflaters.offer(deflater);
+    }
+
+    /**
+     * @param inflater Inflater to return to the pool.
+     */
+    private void release(Inflater inflater) {
+        if (closed)
+            inflater.end();
+        else
+            inflaters.offer(inflater);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridTcpCommunicationCompressor.class, this);
+    }
+}
@@ -65,6 +65,7 @@ import static org.gridgain.grid.GridEventType.*;
  * <li>Direct or heap buffer allocation (see {@link #setDirectBuffer(boolean)})</li>
  * <li>Count of selectors and selector threads for NIO server (see {@link #setSelectorsCount(int)})</li>
  * <li>Maximum count of open clients per remote node (see {@link #setMaxOpenClients(int)})</li>
+ * <li>Message compression threshold (see {@link #setCompressionThreshold(int)})</li>
  * </ul>
  * <h2 class="header">Java Example</h2>
  * GridTcpCommunicationSpi is used by default and should be explicitly configured
@@ -126,6 +127,15 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** Node attribute that is mapped to node's external ports numbers (value is <tt>comm.tcp.ext-ports</tt>). */
     public static final String ATTR_EXT_PORTS = "comm.tcp.ext-ports";
 
+    /**
+     * Node attribute that is mapped to flag indicating that node accepts compressed
+     * messages (value is <tt>comm.tcp.compress</tt>).
+     */
+    public static final String ATTR_COMPRESS = "comm.tcp.compress";
+
+    /** Default message compression threshold (value is <tt>0</tt>, compression is disabled). */
+    public static final int DFLT_COMPRESS_THRESHOLD = 0;
+
     /** Default port which node sets listener to (value is <tt>47100</tt>). */
     public static final int DFLT_PORT = 47100;
 
@@ -185,7 +195,7 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     private int connTimeout = DFLT_CONN_TIMEOUT;
 
     /** NIO server. */
-    private GridNioServer nioSrvr;
+    private GridNioServer<GridTcpCommunicationMessage> nioSrvr;
 
     /** Number of threads responsible for handling messages. */
     private int msgThreads = DFLT_MSG_THREADS;
@@ -211,6 +221,12 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** NIO pool. */
     private ThreadPoolExecutor nioExec;
 
+    /** Message compression threshold. */
+    private int compressThreshold = DFLT_COMPRESS_THRESHOLD;
+
+    /** Message compressor. */
+    private GridTcpCommunicationCompressor compressor;
+
     /** Port resolver. */
     private GridSpiPortResolver portRsvr;
 
@@ -226,6 +242,27 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
     /** Sent bytes count. */
     private final AtomicLong sentBytesCnt = new AtomicLong();
 
+    /** Count of messages compression was tried for. */
+    private final AtomicInteger compressAttemptsCnt = new AtomicInteger();
+
+    /** Count of messages sent compressed. */
+    private final AtomicInteger compressedMsgsCnt = new AtomicInteger();
+
+    /** Size of messages compression was tried for, before compression. */
+    private final AtomicLong compressInBytesCnt = new AtomicLong();
+
+    /** Size of messages compression was tried for, as sent. */
+    private final AtomicLong compressOutBytesCnt = new AtomicLong();
+
+    /** Total compression time in nanoseconds. */
+    private final AtomicLong compressTime = new AtomicLong();
+
+    /** Count of received compressed messages. */
+    private final AtomicInteger decompressedMsgsCnt = new AtomicInteger();
+
+    /** Total decompression time in nanoseconds. */
+    private final AtomicLong decompressTime = new AtomicLong();
+
     /** Discovery listener. */
     private final GridLocalEventListener discoLsnr = new GridLocalEventListener() {
         @Override public void onEvent(GridEvent evt) {
@@ -424,6 +461,28 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         return selectorsCnt;
     }
 
+    /**
+     * Sets size of marshalled message starting from which messages are sent compressed.
+     * Messages are compressed only for nodes which accept compressed messages, and only
+     * if compression makes them smaller. Compression trades CPU time for network bandwidth,
+     * so it is worth enabling when network is slower than compression, e.g. between racks.
+     * <p>
+     * {@code 0} disables compression.
+     * <p>
+     * If not provided, default value is {@link #DFLT_COMPRESS_THRESHOLD}.
+     *
+     * @param compressThreshold Compression threshold in bytes.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setCompressionThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCompressionThreshold() {
+        return compressThreshold;
+    }
+
     /** {@inheritDoc} */
     @Override public void setListener(GridMessageListener lsnr) {
         this.lsnr = lsnr;
@@ -505,12 +564,46 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         return rcvdBytesCnt.get();
     }
 
+    /** {@inheritDoc} */
+    @Override public int getCompressedMessagesCount() {
+        return compressedMsgsCnt.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getCompressionRatio() {
+        long in = compressInBytesCnt.get();
+
+        return in == 0 ? 1 : (double)compressOutBytesCnt.get() / in;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getAverageCompressionTime() {
+        int cnt = compressAttemptsCnt.get();
+
+        return cnt == 0 ? 0 : compressTime.get() / 1000000.0d / cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getDecompressedMessagesCount() {
+        return decompressedMsgsCnt.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getAverageDecompressionTime() {
+        int cnt = decompressedMsgsCnt.get();
+
+        return cnt == 0 ? 0 : decompressTime.get() / 1000000.0d / cnt;
+    }
+
     /** {@inheritDoc} */
     @Override public Map<String, Object> getNodeAttributes() throws GridSpiException {
         assertParameter(localPort > 1023, "localPort > 1023");
         assertParameter(localPort <= 0xffff, "localPort < 0xffff");
         assertParameter(localPortRange >= 0, "localPortRange >= 0");
         assertParameter(msgThreads > 0, "msgThreads > 0");
+        assertParameter(compressThreshold >= 0, "compressThreshold >= 0");
+
+        compressor = new GridTcpCommunicationCompressor();
 
         nioExec = new ThreadPoolExecutor(msgThreads, msgThreads, Long.MAX_VALUE, TimeUnit.MILLISECONDS,
             new LinkedBlockingQueue<Runnable>(), new GridSpiThreadFactory(gridName, "grid-nio-msg-handler", log));
@@ -547,7 +640,8 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         return F.asMap(
             createSpiAttributeName(ATTR_ADDR), localHost,
             createSpiAttributeName(ATTR_PORT), boundTcpPort,
-            createSpiAttributeName(ATTR_EXT_PORTS), extPorts);
+            createSpiAttributeName(ATTR_EXT_PORTS), extPorts,
+            createSpiAttributeName(ATTR_COMPRESS), true);
     }
 
     /** {@inheritDoc} */
@@ -567,6 +661,7 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
             log.debug(configInfo("localPortRange", localPortRange));
             log.debug(configInfo("idleConnTimeout", idleConnTimeout));
             log.debug(configInfo("directBuf", directBuf));
+            log.debug(configInfo("compressThreshold", compressThreshold));
         }
 
         registerMBean(gridName, this, GridTcpCommunicationSpiMBean.class);
@@ -597,40 +692,59 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
      * @return Server socket.
      * @throws GridException Thrown if it's not possible to create tpcSrvr socket.
      */
-    private GridNioServer resetServer() throws GridException {
+    private GridNioServer<GridTcpCommunicationMessage> resetServer() throws GridException {
         int maxPort = localPort + localPortRange;
 
-        GridNioServerListener lsnr = new GridNioServerListener() {
-            /** Cached class loader. */
-            private final ClassLoader clsLdr = getClass().getClassLoader();
+        GridNioServerListener<GridTcpCommunicationMessage> lsnr =
+            new GridNioServerListener<GridTcpCommunicationMessage>() {
+                /** Cached class loader. */
+                private final ClassLoader clsLdr = getClass().getClassLoader();
 
-            /** {@inheritDoc} */
-            @Override public void onMessage(byte[] data) {
-                try {
-                    GridTcpCommunicationMessage msg = U.unmarshal(marsh,
-                        new GridByteArrayList(data, data.length), clsLdr);
+                /** {@inheritDoc} */
+                @Nullable @Override public GridTcpCommunicationMessage onRead(InputStream in, int len) {
+                    try {
+                        Object msg = U.unmarshal(marsh, in, clsLdr);
 
-                    rcvdMsgsCnt.incrementAndGet();
+                        rcvdMsgsCnt.incrementAndGet();
 
-                    rcvdBytesCnt.addAndGet(data.length);
+                        rcvdBytesCnt.addAndGet(len);
 
-                    notifyListener(msg);
+                        if (msg instanceof GridTcpCompressedMessage) {
+                            long start = System.nanoTime();
+
+                            byte[] data = compressor.decompress((GridTcpCompressedMessage)msg);
+
+                            decompressTime.addAndGet(System.nanoTime() - start);
+
+                            decompressedMsgsCnt.incrementAndGet();
+
+                            msg = U.unmarshal(marsh, new GridByteArrayList(data, data.length), clsLdr);
+                        }
+
+                        return (GridTcpCommunicationMessage)msg;
+                    }
+                    catch (GridException e) {
+                        U.error(log, "Failed to deserialize TCP message.", e);
+
+                        return null;
+                    }
                 }
-                catch (GridException e) {
-                    U.error(log, "Failed to deserialize TCP message.", e);
+
+                /** {@inheritDoc} */
+                @Override public void onMessage(GridTcpCommunicationMessage msg) {
+                    notifyListener(msg);
                 }
-            }
-        };
+            };
 
-        GridNioServer srvr = null;
+        GridNioServer<GridTcpCommunicationMessage> srvr = null;
 
         // If bound TPC port was not set yet, then find first
         // available port.
         if (boundTcpPort < 0)
             for (int port = localPort; port < maxPort; port++)
                 try {
-                    srvr = new GridNioServer(localHost, port, lsnr, log, nioExec, selectorsCnt, gridName,
-                        directBuf, false);
+                    srvr = new GridNioServer<GridTcpCommunicationMessage>(localHost, port, lsnr, log, nioExec,
+                        msgThreads, selectorsCnt, gridName, directBuf, false);
 
                     boundTcpPort = port;
 
@@ -670,6 +784,9 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         // Stop NIO thread pool.
         U.shutdownNow(getClass(), nioExec, log);
 
+        if (compressor != null)
+            compressor.close();
+
         U.interrupt(idleClientWorker);
         U.join(idleClientWorker, log);
 
@@ -786,6 +903,10 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
 
                 GridByteArrayList buf = U.marshal(marsh, new GridTcpCommunicationMessage(nodeId, msg));
 
+                if (compressThreshold > 0 && buf.getSize() >= compressThreshold &&
+                    Boolean.TRUE.equals(node.attribute(createSpiAttributeName(ATTR_COMPRESS))))
+                    buf = compress(buf);
+
                 client.sendMessage(buf.getInternalArray(), buf.getSize());
 
                 sentMsgsCnt.incrementAndGet();
@@ -801,6 +922,33 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
         }
     }
 
+    /**
+     * Compresses marshalled message.
+     *
+     * @param buf Marshalled message.
+     * @return Marshalled compressed message or passed in message if compression does not make it smaller.
+     * @throws GridException If marshalling failed.
+     */
+    private GridByteArrayList compress(GridByteArrayList buf) throws GridException {
+        long start = System.nanoTime();
+
+        GridTcpCompressedMessage compressed = compressor.compress(buf.getInternalArray(), buf.getSize());
+
+        GridByteArrayList res = compressed != null ? U.marshal(marsh, compressed) : buf;
+
+        compressTime.addAndGet(System.nanoTime() - start);
+
+        compressAttemptsCnt.incrementAndGet();
+
+        compressInBytesCnt.addAndGet(buf.getSize());
+        compressOutBytesCnt.addAndGet(res.getSize());
+
+        if (compressed != null)
+            compressedMsgsCnt.incrementAndGet();
+
+        return res;
+    }
+
     /**
      * Returns existing or just created client to node.
      *
@@ -188,6 +188,54 @@ public interface GridTcpCommunicationSpiMBean extends GridSpiManagementMBean {
     @GridMBeanDescription("Received bytes count.")
     public long getReceivedBytesCount();
 
+    /**
+     * Gets size of marshalled message starting from which messages are sent compressed.
+     *
+     * @return Compression threshold in bytes, {@code 0} if compression is disabled.
+     */
+    @GridMBeanDescription("Size of marshalled message starting from which messages are sent compressed.")
+    public int getCompressionThreshold();
+
+    /**
+     * Gets count of messages sent compressed.
+     *
+     * @return Count of messages sent compressed.
+     */
+    @GridMBeanDescription("Count of messages sent compressed.")
+    public int getCompressedMessagesCount();
+
+    /**
+     * Gets ratio of sent size to original size of messages compression was tried for.
+     *
+     * @return Compression ratio, {@code 1} if no messages were compressed.
+     */
+    @GridMBeanDescription("Ratio of sent size to original size of messages compression was tried for.")
+    public double getCompressionRatio();
+
+    /**
+     * Gets average time spent compressing a message.
+     *
+     * @return Average compression time in milliseconds.
+     */
+    @GridMBeanDescription("Average compression time in milliseconds.")
+    public double getAverageCompressionTime();
+
+    /**
+     * Gets count of received compressed messages.
+     *
+     * @return Count of received compressed messages.
+     */
+    @GridMBeanDescription("Count of received compressed messages.")
+    public int getDecompressedMessagesCount();
+
+    /**
+     * Gets average time spent decompressing a message.
+     *
+     * @return Average decompression time in milliseconds.
+     */
+    @GridMBeanDescription("Average decompression time in milliseconds.")
+    public double getAverageDecompressionTime();
+
     /**
      * Gets port resolver for ports mapping determination.
      *
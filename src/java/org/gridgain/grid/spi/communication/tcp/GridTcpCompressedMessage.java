@@ -0,0 +1,97 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.communication.tcp;
+
+import org.gridgain.grid.typedef.internal.*;
+import java.io.*;
+
+/**
+ * Compressed TCP message. Holds deflated bytes of marshalled
+ * {@link GridTcpCommunicationMessage}. Sent only to nodes which
+ * have {@link GridTcpCommunicationSpi#ATTR_COMPRESS} attribute set.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridTcpCompressedMessage implements Externalizable {
+    /** Compressed bytes. */
+    private byte[] data;
+
+    /** Number of compressed bytes. */
+    private int len;
+
+    /** Size of message before compression. */
+    private int origLen;
+
+    /**
+     * No-op constructor to support {@link Externalizable} interface.
+     * This constructor is not meant to be used for other purposes.
+     */
+    public GridTcpCompressedMessage() {
+        /* No-op. */
+    }
+
+    /**
+     * @param data Compressed bytes.
+     * @param len Number of compressed bytes.
+     * @param origLen Size of message before compression.
+     */
+    GridTcpCompressedMessage(byte[] data, int len, int origLen) {
+        assert data != null;
+        assert len <= data.length;
+
+        this.data = data;
+        this.len = len;
+        this.origLen = origLen;
+    }
+
+    /**
+     * @return Compressed bytes.
+     */
+    byte[] data() {
+        return data;
+    }
+
+    /**
+     * @return Number of compressed bytes.
+     */
+    int length() {
+        return len;
+    }
+
+    /**
+     * @return Size of message before compression.
+     */
+    int originalLength() {
+        return origLen;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(origLen);
+        out.writeInt(len);
+        out.write(data, 0, len);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        origLen = in.readInt();
+        len = in.readInt();
+
+        data = new byte[len];
+
+        in.readFully(data);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridTcpCompressedMessage.class, this);
+    }
+}
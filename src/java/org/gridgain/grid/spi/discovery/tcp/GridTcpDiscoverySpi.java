@@ -187,6 +187,12 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
     /** Default max heartbeats count node can miss without initiating status check (value is <tt>1</tt>). */
     public static final int DFLT_MAX_MISSED_HEARTBEATS = 1;
 
+    /** Default number of heartbeats after which node publishes full metrics (value is <tt>10</tt>). */
+    public static final int DFLT_METRICS_FULL_REFRESH_FREQ = 10;
+
+    /** Default relative change of node load and memory metrics to publish them (value is <tt>0.05</tt>). */
+    public static final double DFLT_METRICS_UPDATE_THRESHOLD = 0.05;
+
     /** Default value for thread priority (value is <tt>10</tt>). */
     public static final int DFLT_THREAD_PRI = 10;
 
@@ -242,6 +248,15 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
     /** Max heartbeats count node can miss without initiating status check. */
     private int maxMissedHbs = DFLT_MAX_MISSED_HEARTBEATS;
 
+    /** Number of heartbeats after which node publishes full metrics. */
+    private int metricsFullRefreshFreq = DFLT_METRICS_FULL_REFRESH_FREQ;
+
+    /** Relative change of node load and memory metrics to publish them. */
+    private double metricsUpdateThreshold = DFLT_METRICS_UPDATE_THRESHOLD;
+
+    /** Local metrics encoder for heartbeats (accessed only by message worker). */
+    private GridTcpDiscoveryMetricsEncoder metricsEncoder;
+
     /** Thread priority for all threads started by SPI. */
     @SuppressWarnings({"FieldAccessedSynchronizedAndUnsynchronized"})
     private int threadPri = DFLT_THREAD_PRI;
@@ -567,6 +582,47 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         this.maxMissedHbs = maxMissedHbs;
     }
 
+    /** {@inheritDoc} */
+    @Override public int getMetricsFullRefreshFrequency() {
+        return metricsFullRefreshFreq;
+    }
+
+    /**
+     * Sets number of heartbeats after which node publishes its full metrics. In between,
+     * heartbeats carry only changes against the last full metrics, and only if metrics
+     * have changed significantly (see {@link #setMetricsUpdateThreshold(double)}).
+     * <p>
+     * This property is ignored if metrics store is used.
+     * <p>
+     * If not provided, default value is {@link #DFLT_METRICS_FULL_REFRESH_FREQ}.
+     *
+     * @param metricsFullRefreshFreq Number of heartbeats between full metrics.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setMetricsFullRefreshFrequency(int metricsFullRefreshFreq) {
+        this.metricsFullRefreshFreq = metricsFullRefreshFreq;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getMetricsUpdateThreshold() {
+        return metricsUpdateThreshold;
+    }
+
+    /**
+     * Sets relative change of CPU load and memory metrics after which node publishes its
+     * metrics with the next heartbeat. Changes of job counters are always published.
+     * <p>
+     * This property is ignored if metrics store is used.
+     * <p>
+     * If not provided, default value is {@link #DFLT_METRICS_UPDATE_THRESHOLD}.
+     *
+     * @param metricsUpdateThreshold Relative change threshold, {@code 0} to publish any change.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setMetricsUpdateThreshold(double metricsUpdateThreshold) {
+        this.metricsUpdateThreshold = metricsUpdateThreshold;
+    }
+
     /** {@inheritDoc} */
     @Override public long getStatisticsPrintFrequency() {
         return statsPrintFreq;
@@ -696,6 +752,11 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         return stats.pendingMessagesDiscarded();
     }
 
+    /** {@inheritDoc} */
+    @Override public long getReusedMessageBodies() {
+        return stats.reusedMessageBodies();
+    }
+
     /** {@inheritDoc} */
     @Override public long getAvgMessageProcessingTime() {
         return stats.avgMessageProcessingTime();
@@ -843,6 +904,9 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         sockTimeoutWorker = new SocketTimeoutWorker();
         sockTimeoutWorker.start();
 
+        // First heartbeat after (re)join will carry full metrics.
+        metricsEncoder = new GridTcpDiscoveryMetricsEncoder(metricsFullRefreshFreq, metricsUpdateThreshold);
+
         msgWorker = new MessageWorker();
         msgWorker.start();
 
@@ -954,6 +1018,8 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         assertParameter(reconCnt > 0, "reconnectCnt > 0");
         assertParameter(hbFreq > 0, "heartbeatFreq > 0");
         assertParameter(maxMissedHbs > 0, "maxMissedHeartbeats > 0");
+        assertParameter(metricsFullRefreshFreq > 0, "metricsFullRefreshFrequency > 0");
+        assertParameter(metricsUpdateThreshold >= 0, "metricsUpdateThreshold >= 0");
         assertParameter(threadPri > 0, "threadPri > 0");
         assertParameter(statsPrintFreq >= 0, "statsPrintFreq >= 0");
 
@@ -977,6 +1043,8 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
             log.debug(configInfo("ipFinderCleanFreq", storesCleanFreq));
             log.debug(configInfo("heartbeatFreq", hbFreq));
             log.debug(configInfo("maxMissedHeartbeats", maxMissedHbs));
+            log.debug(configInfo("metricsFullRefreshFrequency", metricsFullRefreshFreq));
+            log.debug(configInfo("metricsUpdateThreshold", metricsUpdateThreshold));
             log.debug(configInfo("metricsStore", metricsStore));
             log.debug(configInfo("topStore", topStore));
             log.debug(configInfo("statsPrintFreq", statsPrintFreq));
@@ -1584,6 +1652,10 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
 
     /**
      * Writes message to the socket limiting write time to {@link #getSocketTimeout()}.
+     * <p>
+     * Message is written as header, body length and marshalled body. If message body
+     * has not changed since it was received or last sent, previously marshalled bytes
+     * are written as is.
      *
      * @param sock Socket.
      * @param msg Message.
@@ -1595,10 +1667,30 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         assert sock != null;
         assert msg != null;
 
-        // Marshall message first to perform only write after.
-        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        byte[] body = msg.body();
+
+        if (body == null) {
+            ByteArrayOutputStream bodyOut = new ByteArrayOutputStream();
+
+            marsh.marshal(msg, bodyOut);
+
+            msg.body(body = bodyOut.toByteArray());
+        }
+        else
+            stats.onMessageBodyReused();
+
+        // Prepare whole message first to perform only write after.
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(GridTcpDiscoveryAbstractMessage.HEADER_SIZE + 4 +
+            body.length);
+
+        DataOutputStream dout = new DataOutputStream(bout);
 
-        marsh.marshal(msg, bout);
+        msg.writeHeader(dout);
+
+        dout.writeInt(body.length);
+        dout.write(body);
+
+        dout.flush();
 
         SocketTimeoutObject obj = new SocketTimeoutObject(sock, System.currentTimeMillis() + sockTimeout);
 
@@ -1713,8 +1805,8 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
      * @throws IOException If IO failed or read timed out.
      * @throws GridException If unmarshalling failed.
      */
-    @SuppressWarnings({"RedundantTypeArguments"})
-    private <T> T readMessage(Socket sock) throws IOException, GridException {
+    private <T extends GridTcpDiscoveryAbstractMessage> T readMessage(Socket sock)
+        throws IOException, GridException {
         assert sock != null;
 
         int timeout = sock.getSoTimeout();
@@ -1722,7 +1814,7 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         try {
             sock.setSoTimeout((int)netTimeout);
 
-            return marsh.<T>unmarshal(sock.getInputStream(), dfltClsLdr);
+            return this.<T>readMessage(sock.getInputStream());
         }
         finally {
             // Quietly restore timeout.
@@ -1735,6 +1827,44 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
         }
     }
 
+    /**
+     * Reads message written by {@link #writeToSocket(Socket, GridTcpDiscoveryAbstractMessage)}.
+     * Received body is kept with the message, so it can be forwarded to the next node
+     * without marshalling if message is not changed by local node.
+     *
+     * @param in Input stream.
+     * @return Message.
+     * @throws IOException If IO failed.
+     * @throws GridException If unmarshalling failed.
+     */
+    @SuppressWarnings({"unchecked"})
+    private <T extends GridTcpDiscoveryAbstractMessage> T readMessage(InputStream in)
+        throws IOException, GridException {
+        DataInputStream din = new DataInputStream(in);
+
+        // Header is read into buffer and applied after body is unmarshalled.
+        byte[] hdr = new byte[GridTcpDiscoveryAbstractMessage.HEADER_SIZE];
+
+        din.readFully(hdr);
+
+        int len = din.readInt();
+
+        if (len < 0)
+            throw new IOException("Invalid discovery message length: " + len);
+
+        byte[] body = new byte[len];
+
+        din.readFully(body);
+
+        GridTcpDiscoveryAbstractMessage msg = marsh.unmarshal(new ByteArrayInputStream(body), dfltClsLdr);
+
+        msg.readHeader(new DataInputStream(new ByteArrayInputStream(hdr)));
+
+        msg.body(body);
+
+        return (T)msg;
+    }
+
     /**
      * Notify external listener on discovery event.
      *
@@ -3475,11 +3605,17 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
             long tstamp = System.currentTimeMillis();
 
             if (!msg.metrics().isEmpty() && spiStateCopy() == CONNECTED)
-                for (Map.Entry<UUID, GridNodeMetrics> e : msg.metrics().entrySet()) {
+                for (Map.Entry<UUID, byte[]> e : msg.metrics().entrySet()) {
                     GridTcpDiscoveryNode node = ring.node(e.getKey());
 
                     if (node != null) {
-                        node.setMetrics(e.getValue());
+                        GridNodeMetrics metrics = GridTcpDiscoveryMetricsEncoder.decode(node, e.getValue());
+
+                        if (metrics != null)
+                            node.setMetrics(metrics);
+                        else if (log.isDebugEnabled())
+                            log.debug("Received metrics delta before full metrics (will wait for full metrics): " +
+                                node.id());
 
                         node.lastUpdateTime(tstamp);
 
@@ -3495,7 +3631,7 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
                     msg.metrics().get(locNodeId) == null) && spiStateCopy() == CONNECTED)
 
                     // Message is on its first ring or just created on coordinator.
-                    msg.setMetrics(locNodeId, metricsProvider.getMetrics());
+                    msg.setMetrics(locNodeId, metricsEncoder.encode(metricsProvider.getMetrics()));
                 else
                     // Message is on its second ring.
                     msg.removeMetrics(locNodeId);
@@ -4034,7 +4170,7 @@ public class GridTcpDiscoverySpi extends GridSpiAdapter implements GridDiscovery
 
                 while (!isInterrupted()) {
                     try {
-                        GridTcpDiscoveryAbstractMessage msg = marsh.unmarshal(sock.getInputStream(), dfltClsLdr);
+                        GridTcpDiscoveryAbstractMessage msg = readMessage(sock.getInputStream());
 
                         msg.senderNodeId(nodeId);
 
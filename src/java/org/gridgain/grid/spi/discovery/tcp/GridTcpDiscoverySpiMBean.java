@@ -98,6 +98,22 @@ public interface GridTcpDiscoverySpiMBean extends GridSpiManagementMBean {
     @GridMBeanDescription("Max missed heartbeats.")
     public int getMaxMissedHeartbeats();
 
+    /**
+     * Gets number of heartbeats after which node publishes its full metrics.
+     *
+     * @return Number of heartbeats between full metrics.
+     */
+    @GridMBeanDescription("Number of heartbeats between full metrics.")
+    public int getMetricsFullRefreshFrequency();
+
+    /**
+     * Gets relative change of CPU load and memory metrics after which node publishes them.
+     *
+     * @return Relative change threshold.
+     */
+    @GridMBeanDescription("Relative change of load and memory metrics to publish them.")
+    public double getMetricsUpdateThreshold();
+
     /**
      * Gets thread priority. All threads within SPI will be started with it.
      *
@@ -179,6 +195,15 @@ public interface GridTcpDiscoverySpiMBean extends GridSpiManagementMBean {
     @GridMBeanDescription("Pending messages discarded.")
     public long getPendingMessagesDiscarded();
 
+    /**
+     * Gets count of messages that were forwarded as previously marshalled bytes
+     * because their body had not changed.
+     *
+     * @return Count of messages sent without marshalling.
+     */
+    @GridMBeanDescription("Messages sent without marshalling.")
+    public long getReusedMessageBodies();
+
     /**
      * Gets avg message processing time.
      *
@@ -0,0 +1,280 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.discovery.tcp.internal;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.spi.discovery.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import static org.gridgain.grid.spi.discovery.GridDiscoveryMetricsHelper.*;
+
+/**
+ * Encodes local node metrics for heartbeat messages. Metrics are published in one of
+ * three forms:
+ * <ul>
+ * <li>Empty array if metrics have not changed significantly since they were last published.</li>
+ * <li>Full metrics, which become the new base for subsequent deltas. Full metrics are
+ *      published on first heartbeat and then on every {@code fullFreq} heartbeat.</li>
+ * <li>Delta against the last full metrics: bitmap of changed 4-byte words of
+ *      serialized metrics followed by changed words.</li>
+ * </ul>
+ * Receiving nodes keep the last full metrics of every node (see
+ * {@link GridTcpDiscoveryNode#metricsBase()}) and apply deltas to it, so they
+ * see exactly the metrics the sending node has published.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+public class GridTcpDiscoveryMetricsEncoder {
+    /** Full metrics. */
+    private static final byte FULL = 1;
+
+    /** Delta against last full metrics. */
+    private static final byte DELTA = 2;
+
+    /** Number of 4-byte words in serialized metrics. */
+    private static final int WORDS = METRICS_SIZE / 4;
+
+    /** Size of changed words bitmap. */
+    private static final int BITMAP_SIZE = (WORDS + 7) / 8;
+
+    /** Empty metrics update. */
+    private static final byte[] UNCHANGED = new byte[0];
+
+    /** Full metrics are published on every {@code fullFreq} heartbeat. */
+    private final int fullFreq;
+
+    /** Relative change of load and memory metrics which is considered significant. */
+    private final double threshold;
+
+    /** Last published full metrics. */
+    private byte[] base;
+
+    /** Sequence number of last published full metrics. */
+    private int baseSeq;
+
+    /** Copy of last published metrics (caller may keep updating the instance it passes in). */
+    private GridNodeMetrics last;
+
+    /** Heartbeats since last full metrics. */
+    private int cnt;
+
+    /**
+     * @param fullFreq Full metrics are published on every {@code fullFreq} heartbeat.
+     * @param threshold Relative change of load and memory metrics which is considered significant.
+     */
+    public GridTcpDiscoveryMetricsEncoder(int fullFreq, double threshold) {
+        assert fullFreq > 0;
+        assert threshold >= 0;
+
+        this.fullFreq = fullFreq;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Encodes current metrics of local node.
+     *
+     * @param metrics Current metrics.
+     * @return Encoded metrics.
+     */
+    public byte[] encode(GridNodeMetrics metrics) {
+        assert metrics != null;
+
+        if (base == null || ++cnt >= fullFreq) {
+            base = new byte[METRICS_SIZE];
+
+            serialize(base, 0, metrics);
+
+            baseSeq++;
+
+            cnt = 0;
+
+            last = deserialize(base, 0);
+
+            byte[] data = new byte[5 + METRICS_SIZE];
+
+            data[0] = FULL;
+
+            U.intToBytes(baseSeq, data, 1);
+
+            System.arraycopy(base, 0, data, 5, METRICS_SIZE);
+
+            return data;
+        }
+
+        if (!changed(last, metrics))
+            return UNCHANGED;
+
+        byte[] cur = new byte[METRICS_SIZE];
+
+        serialize(cur, 0, metrics);
+
+        last = deserialize(cur, 0);
+
+        byte[] bitmap = new byte[BITMAP_SIZE];
+
+        int changed = 0;
+
+        for (int w = 0; w < WORDS; w++) {
+            if (!wordEquals(base, cur, w)) {
+                bitmap[w >>> 3] |= 1 << (w & 7);
+
+                changed++;
+            }
+        }
+
+        byte[] data = new byte[5 + BITMAP_SIZE + changed * 4];
+
+        data[0] = DELTA;
+
+        U.intToBytes(baseSeq, data, 1);
+
+        System.arraycopy(bitmap, 0, data, 5, BITMAP_SIZE);
+
+        int off = 5 + BITMAP_SIZE;
+
+        for (int w = 0; w < WORDS; w++) {
+            if ((bitmap[w >>> 3] & (1 << (w & 7))) != 0) {
+                System.arraycopy(cur, w * 4, data, off, 4);
+
+                off += 4;
+            }
+        }
+
+        assert off == data.length;
+
+        return data;
+    }
+
+    /**
+     * Decodes metrics published by remote node.
+     *
+     * @param node Node that published metrics.
+     * @param data Encoded metrics.
+     * @return Decoded metrics or {@code null} if metrics could not be decoded
+     *      because full metrics they are based on were not received.
+     */
+    @Nullable public static GridNodeMetrics decode(GridTcpDiscoveryNode node, byte[] data) {
+        assert node != null;
+        assert data != null;
+
+        if (data.length == 0) {
+            byte[] last = node.lastMetrics();
+
+            // Same values with new update time.
+            return last != null ? deserialize(last, 0) : null;
+        }
+
+        int seq = U.bytesToInt(data, 1);
+
+        if (data[0] == FULL) {
+            byte[] base = new byte[METRICS_SIZE];
+
+            System.arraycopy(data, 5, base, 0, METRICS_SIZE);
+
+            node.metricsBase(base, seq);
+            node.lastMetrics(base);
+
+            return deserialize(base, 0);
+        }
+
+        assert data[0] == DELTA;
+
+        byte[] base = node.metricsBase();
+
+        // Full metrics this delta is based on were missed, wait for the next ones.
+        if (base == null || node.metricsBaseSequence() != seq)
+            return null;
+
+        byte[] cur = base.clone();
+
+        int off = 5 + BITMAP_SIZE;
+
+        for (int w = 0; w < WORDS; w++) {
+            if ((data[5 + (w >>> 3)] & (1 << (w & 7))) != 0) {
+                System.arraycopy(data, off, cur, w * 4, 4);
+
+                off += 4;
+            }
+        }
+
+        node.lastMetrics(cur);
+
+        return deserialize(cur, 0);
+    }
+
+    /**
+     * Checks whether metrics have changed significantly. Counters and sizes which change
+     * by discrete steps are compared exactly, load and memory metrics are compared with
+     * configured threshold. Time counters such as up time are not checked, they are
+     * updated together with other changes and with every full metrics.
+     *
+     * @param prev Last published metrics.
+     * @param cur Current metrics.
+     * @return {@code True} if metrics should be published.
+     */
+    private boolean changed(GridNodeMetrics prev, GridNodeMetrics cur) {
+        return prev.getCurrentActiveJobs() != cur.getCurrentActiveJobs() ||
+            prev.getCurrentWaitingJobs() != cur.getCurrentWaitingJobs() ||
+            prev.getCurrentRejectedJobs() != cur.getCurrentRejectedJobs() ||
+            prev.getCurrentCancelledJobs() != cur.getCurrentCancelledJobs() ||
+            prev.getMaximumActiveJobs() != cur.getMaximumActiveJobs() ||
+            prev.getMaximumWaitingJobs() != cur.getMaximumWaitingJobs() ||
+            prev.getTotalExecutedJobs() != cur.getTotalExecutedJobs() ||
+            prev.getTotalRejectedJobs() != cur.getTotalRejectedJobs() ||
+            prev.getTotalCancelledJobs() != cur.getTotalCancelledJobs() ||
+            prev.getTotalCpus() != cur.getTotalCpus() ||
+            prev.getHeapMemoryMaximum() != cur.getHeapMemoryMaximum() ||
+            prev.getLastDataVersion() != cur.getLastDataVersion() ||
+            Math.abs(prev.getCurrentCpuLoad() - cur.getCurrentCpuLoad()) > threshold ||
+            Math.abs(prev.getAverageCpuLoad() - cur.getAverageCpuLoad()) > threshold ||
+            changed(prev.getHeapMemoryUsed(), cur.getHeapMemoryUsed()) ||
+            changed(prev.getHeapMemoryCommitted(), cur.getHeapMemoryCommitted()) ||
+            changed(prev.getNonHeapMemoryUsed(), cur.getNonHeapMemoryUsed()) ||
+            changed(prev.getCurrentThreadCount(), cur.getCurrentThreadCount()) ||
+            changed(prev.getCurrentJobWaitTime(), cur.getCurrentJobWaitTime()) ||
+            changed(prev.getCurrentJobExecuteTime(), cur.getCurrentJobExecuteTime()) ||
+            changed(prev.getFileSystemUsableSpace(), cur.getFileSystemUsableSpace());
+    }
+
+    /**
+     * @param prev Previous value.
+     * @param cur Current value.
+     * @return {@code True} if relative change is greater than threshold.
+     */
+    private boolean changed(long prev, long cur) {
+        if (prev == cur)
+            return false;
+
+        long max = Math.max(Math.abs(prev), Math.abs(cur));
+
+        return (double)Math.abs(cur - prev) / max > threshold;
+    }
+
+    /**
+     * @param a First array.
+     * @param b Second array.
+     * @param w Word index.
+     * @return {@code True} if words are equal.
+     */
+    private static boolean wordEquals(byte[] a, byte[] b, int w) {
+        int off = w * 4;
+
+        return a[off] == b[off] && a[off + 1] == b[off + 1] && a[off + 2] == b[off + 2] && a[off + 3] == b[off + 3];
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridTcpDiscoveryMetricsEncoder.class, this);
+    }
+}
@@ -89,6 +89,18 @@ public class GridTcpDiscoveryNode extends GridMetadataAwareAdapter implements Gr
     @GridToStringExclude
     private boolean visible;
 
+    /** Last full metrics published by node in heartbeats (transient). */
+    @GridToStringExclude
+    private byte[] metricsBase;
+
+    /** Sequence number of last full metrics published by node (transient). */
+    @GridToStringExclude
+    private int metricsBaseSeq;
+
+    /** Last metrics published by node in heartbeats (transient). */
+    @GridToStringExclude
+    private byte[] lastMetrics;
+
     /**
      * Public default no-arg constructor for {@link Externalizable} interface.
      */
@@ -242,6 +254,55 @@ public class GridTcpDiscoveryNode extends GridMetadataAwareAdapter implements Gr
         return Collections.emptyList();
     }
 
+    /**
+     * Gets last full metrics published by node in heartbeat messages.
+     *
+     * @return Serialized metrics or {@code null} if none were received yet.
+     */
+    @Nullable public byte[] metricsBase() {
+        return metricsBase;
+    }
+
+    /**
+     * Gets sequence number of last full metrics published by node.
+     *
+     * @return Sequence number.
+     */
+    public int metricsBaseSequence() {
+        return metricsBaseSeq;
+    }
+
+    /**
+     * Sets last full metrics published by node in heartbeat messages.
+     *
+     * @param metricsBase Serialized metrics.
+     * @param metricsBaseSeq Sequence number.
+     */
+    public void metricsBase(byte[] metricsBase, int metricsBaseSeq) {
+        assert metricsBase != null;
+
+        this.metricsBase = metricsBase;
+        this.metricsBaseSeq = metricsBaseSeq;
+    }
+
+    /**
+     * Gets last metrics published by node in heartbeat messages.
+     *
+     * @return Serialized metrics or {@code null} if none were received yet.
+     */
+    @Nullable public byte[] lastMetrics() {
+        return lastMetrics;
+    }
+
+    /**
+     * Sets last metrics published by node in heartbeat messages.
+     *
+     * @param lastMetrics Serialized metrics.
+     */
+    public void lastMetrics(byte[] lastMetrics) {
+        this.lastMetrics = lastMetrics;
+    }
+
     /**
      * Gets node last update time.
      *
@@ -128,6 +128,9 @@ public class GridTcpDiscoveryStatistics {
     /** Pending messages discarded count. */
     private int pendingMsgsDiscarded;
 
+    /** Number of messages sent without marshalling. */
+    private long reusedMsgBodies;
+
     /** Average put to topology store time. */
     private long avgTopStorePutTime;
 
@@ -442,6 +445,13 @@ public class GridTcpDiscoveryStatistics {
         pendingMsgsDiscarded++;
     }
 
+    /**
+     * Increments count of messages sent without marshalling.
+     */
+    public synchronized void onMessageBodyReused() {
+        reusedMsgBodies++;
+    }
+
     /**
      * Increments socket readers created count.
      */
@@ -604,6 +614,15 @@ public class GridTcpDiscoveryStatistics {
         return pendingMsgsDiscarded;
     }
 
+    /**
+     * Gets count of messages that were sent without marshalling.
+     *
+     * @return Count of messages sent as previously marshalled bytes.
+     */
+    public synchronized long reusedMessageBodies() {
+        return reusedMsgBodies;
+    }
+
     /**
      * Gets nodes joined count.
      *
@@ -11,17 +11,28 @@ package org.gridgain.grid.spi.discovery.tcp.messages;
 
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
 
 /**
  * Base class to implement discovery messages.
+ * <p>
+ * Message ID, verification flag, verifier node ID and topology version form message
+ * header which is sent outside of marshalled message body. Header may be changed
+ * by any node in the ring without invalidating body, so messages that were not changed
+ * otherwise are forwarded as bytes received from previous node. Subclasses must call
+ * {@link #resetBody()} whenever they change any other state that is written to body.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
 public abstract class GridTcpDiscoveryAbstractMessage implements Externalizable {
+    /** Size of header in bytes: message ID, verifier node ID, verified flag and topology version. */
+    public static final int HEADER_SIZE = 24 + 17 + 1 + 8;
+
     /** Sender of the message (transient). */
     private UUID senderNodeId;
 
@@ -37,6 +48,10 @@ public abstract class GridTcpDiscoveryAbstractMessage implements Externalizable
     /** Topology version. */
     private long topVer;
 
+    /** Marshalled message body (transient). */
+    @GridToStringExclude
+    private byte[] body;
+
     /**
      * Default no-arg constructor for {@link Externalizable} interface.
      */
@@ -136,6 +151,74 @@ public abstract class GridTcpDiscoveryAbstractMessage implements Externalizable
         this.topVer = topVer;
     }
 
+    /**
+     * Gets marshalled message body, if it is still valid.
+     *
+     * @return Marshalled body or {@code null} if message has to be marshalled.
+     */
+    @Nullable public byte[] body() {
+        return body;
+    }
+
+    /**
+     * Sets marshalled message body.
+     *
+     * @param body Marshalled body.
+     */
+    public void body(@Nullable byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * Resets marshalled message body after message state was changed.
+     */
+    protected void resetBody() {
+        body = null;
+    }
+
+    /**
+     * Writes message header of fixed {@link #HEADER_SIZE} size.
+     *
+     * @param out Output.
+     * @throws IOException If failed.
+     */
+    public void writeHeader(DataOutput out) throws IOException {
+        out.writeLong(id.globalId().getMostSignificantBits());
+        out.writeLong(id.globalId().getLeastSignificantBits());
+        out.writeLong(id.localId());
+
+        out.writeBoolean(verifierNodeId != null);
+        out.writeLong(verifierNodeId != null ? verifierNodeId.getMostSignificantBits() : 0);
+        out.writeLong(verifierNodeId != null ? verifierNodeId.getLeastSignificantBits() : 0);
+
+        out.writeBoolean(verified);
+        out.writeLong(topVer);
+    }
+
+    /**
+     * Reads message header and applies it to this message. Header may be newer than
+     * message body in case if it was changed by any of the preceding nodes.
+     *
+     * @param in Input.
+     * @throws IOException If failed.
+     */
+    public void readHeader(DataInput in) throws IOException {
+        GridUuid id = new GridUuid(new UUID(in.readLong(), in.readLong()), in.readLong());
+
+        if (!this.id.equals(id))
+            throw new IOException("Message header does not match body [hdrId=" + id + ", bodyId=" + this.id + ']');
+
+        boolean hasVerifier = in.readBoolean();
+
+        long most = in.readLong();
+        long least = in.readLong();
+
+        verifierNodeId = hasVerifier ? new UUID(most, least) : null;
+
+        verified = in.readBoolean();
+        topVer = in.readLong();
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         U.writeGridUuid(out, id);
@@ -59,6 +59,8 @@ public class GridTcpDiscoveryHandshakeResponse extends GridTcpDiscoveryAbstractM
      */
     public void order(long order) {
         this.order = order;
+
+        resetBody();
     }
 
     /** {@inheritDoc} */
@@ -9,7 +9,7 @@
 
 package org.gridgain.grid.spi.discovery.tcp.messages;
 
-import org.gridgain.grid.*;
+import org.gridgain.grid.spi.discovery.tcp.internal.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
 
@@ -30,6 +30,10 @@ import java.util.*;
  * When message reaches coordinator second time it is discarded (it finishes the
  * second pass).
  * <p>
+ * Metrics are encoded by {@link GridTcpDiscoveryMetricsEncoder}: node adds
+ * either full metrics, delta against its last full metrics or empty array
+ * if its metrics have not changed significantly.
+ * <p>
  * If topology uses metrics store then message makes only one pass and metrics map
  * is always empty. Nodes exchange their metrics using metrics store.
  * <p>
@@ -41,9 +45,9 @@ import java.util.*;
  * @version 3.6.0c.13012012
  */
 public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMessage {
-    /** Map to store nodes metrics. */
+    /** Map to store encoded nodes metrics. */
     @GridToStringExclude
-    private Map<UUID, GridNodeMetrics> metrics = new HashMap<UUID, GridNodeMetrics>();
+    private Map<UUID, byte[]> metrics = new HashMap<UUID, byte[]>();
 
     /**
      * Public default no-arg constructor for {@link Externalizable} interface.
@@ -65,13 +69,15 @@ public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMe
      * Sets metrics for particular node.
      *
      * @param nodeId Node ID.
-     * @param metrics Node metrics.
+     * @param metrics Encoded node metrics.
      */
-    public void setMetrics(UUID nodeId, GridNodeMetrics metrics) {
+    public void setMetrics(UUID nodeId, byte[] metrics) {
         assert nodeId != null;
         assert metrics != null;
 
         this.metrics.put(nodeId, metrics);
+
+        resetBody();
     }
 
     /**
@@ -83,6 +89,8 @@ public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMe
         assert nodeId != null;
 
         metrics.remove(nodeId);
+
+        resetBody();
     }
 
     /**
@@ -90,7 +98,7 @@ public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMe
      *
      * @return Metrics map.
      */
-    public Map<UUID, GridNodeMetrics> metrics() {
+    public Map<UUID, byte[]> metrics() {
         return metrics;
     }
 
@@ -99,8 +107,10 @@ public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMe
      *
      * @param metrics Metrics map (unmodifiable).
      */
-    public void metrics(Map<UUID, GridNodeMetrics> metrics) {
+    public void metrics(Map<UUID, byte[]> metrics) {
         this.metrics = metrics;
+
+        resetBody();
     }
 
     /**
@@ -129,14 +139,24 @@ public class GridTcpDiscoveryHeartbeatMessage extends GridTcpDiscoveryAbstractMe
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
 
-        U.writeMap(out, metrics);
+        out.writeInt(metrics.size());
+
+        for (Map.Entry<UUID, byte[]> e : metrics.entrySet()) {
+            U.writeUuid(out, e.getKey());
+            U.writeByteArray(out, e.getValue());
+        }
     }
 
     /** {@inheritDoc} */
     @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         super.readExternal(in);
 
-        metrics = U.readMap(in);
+        int size = in.readInt();
+
+        metrics = new HashMap<UUID, byte[]>(size * 2, 0.75f);
+
+        for (int i = 0; i < size; i++)
+            metrics.put(U.readUuid(in), U.readByteArray(in));
     }
 
     /** {@inheritDoc} */
@@ -67,6 +67,8 @@ public class GridTcpDiscoveryJoinRequestMessage extends GridTcpDiscoveryAbstract
      */
     public void responded(boolean responded) {
         this.responded = responded;
+
+        resetBody();
     }
 
     /** {@inheritDoc} */
@@ -83,6 +83,8 @@ public class GridTcpDiscoveryNodeAddedMessage extends GridTcpDiscoveryAbstractMe
      */
     public void messages(@Nullable Collection<GridTcpDiscoveryAbstractMessage> msgs) {
         this.msgs = msgs;
+
+        resetBody();
     }
 
     /**
@@ -101,6 +103,8 @@ public class GridTcpDiscoveryNodeAddedMessage extends GridTcpDiscoveryAbstractMe
      */
     public void topology(@Nullable Collection<GridTcpDiscoveryNode> top) {
         this.top = top;
+
+        resetBody();
     }
 
     /** {@inheritDoc} */
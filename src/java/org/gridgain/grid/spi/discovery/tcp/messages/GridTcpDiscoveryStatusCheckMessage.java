@@ -78,6 +78,8 @@ public class GridTcpDiscoveryStatusCheckMessage extends GridTcpDiscoveryAbstract
      */
     public void status(int status) {
         this.status = status;
+
+        resetBody();
     }
 
     /** {@inheritDoc} */
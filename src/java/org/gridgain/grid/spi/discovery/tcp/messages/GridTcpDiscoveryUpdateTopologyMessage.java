@@ -90,6 +90,8 @@ public class GridTcpDiscoveryUpdateTopologyMessage extends GridTcpDiscoveryAbstr
      */
     public void processed(boolean processed) {
         this.processed = processed;
+
+        resetBody();
     }
 
     /**
@@ -110,6 +112,8 @@ public class GridTcpDiscoveryUpdateTopologyMessage extends GridTcpDiscoveryAbstr
         assert id != null;
 
         addedNodeIds.add(id);
+
+        resetBody();
     }
 
     /** {@inheritDoc} */
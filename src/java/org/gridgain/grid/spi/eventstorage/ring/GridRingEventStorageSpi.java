@@ -0,0 +1,652 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.eventstorage.ring;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.resources.*;
+import org.gridgain.grid.spi.*;
+import org.gridgain.grid.spi.eventstorage.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.GridEventType.*;
+
+/**
+ * Bounded in-memory {@link GridEventStorageSpi} implementation. Events are kept in
+ * pre-allocated ring buffers, so memory used by this SPI does not depend on event rate:
+ * once {@link #setCapacity(int) capacity} is reached, new events overwrite the oldest ones.
+ * <p>
+ * Ring buffer is split into {@link #setStripes(int) stripes}. Recording thread writes into
+ * stripe chosen by its thread ID modulo number of stripes, so several threads may share
+ * a stripe; they claim slots with CAS operations and never lock. Every stripe also keeps
+ * two indexes:
+ * <ul>
+ * <li>Chain of events of the same type, used for queries with
+ *      {@link GridFunc#eventType(int...)} predicate.</li>
+ * <li>First event recorded within every {@link #setTimeBucketMs(long) time bucket}, used
+ *      for queries with {@link GridFunc#eventAfter(long)} predicate.</li>
+ * </ul>
+ * Queries without any of these predicates scan all stored events, as
+ * {@link org.gridgain.grid.spi.eventstorage.memory.GridMemoryEventStorageSpi} does. All
+ * predicates are applied to every returned event. Events are returned in order of their
+ * timestamps.
+ * <p>
+ * <h1 class="header">Configuration</h1>
+ * <h2 class="header">Mandatory</h2>
+ * This SPI has no mandatory configuration parameters.
+ * <h2 class="header">Optional</h2>
+ * The following configuration parameters are optional:
+ * <ul>
+ * <li>Maximum number of stored events (see {@link #setCapacity(int)})</li>
+ * <li>Number of stripes (see {@link #setStripes(int)})</li>
+ * <li>Event time-to-live value (see {@link #setExpireAgeMs(long)})</li>
+ * <li>Time bucket size (see {@link #setTimeBucketMs(long)})</li>
+ * <li>{@link #setFilter(GridPredicate)} - Event filter that should be used for decision to accept event.</li>
+ * </ul>
+ * <h2 class="header">Java Example</h2>
+ * <pre name="code" class="java">
+ * GridRingEventStorageSpi spi = new GridRingEventStorageSpi();
+ *
+ * // Keep at most 50000 events.
+ * spi.setCapacity(50000);
+ *
+ * GridConfigurationAdapter cfg = new GridConfigurationAdapter();
+ *
+ * // Override default event storage SPI.
+ * cfg.setEventStorageSpi(spi);
+ *
+ * // Starts grid.
+ * G.start(cfg);
+ * </pre>
+ * <h2 class="header">Spring Example</h2>
+ * GridRingEventStorageSpi can be configured from Spring XML configuration file:
+ * <pre name="code" class="xml">
+ * &lt;bean id="grid.custom.cfg" class="org.gridgain.grid.GridConfigurationAdapter" singleton="true"&gt;
+ *         ...
+ *         &lt;property name="eventStorageSpi"&gt;
+ *             &lt;bean class="org.gridgain.grid.spi.eventstorage.ring.GridRingEventStorageSpi"&gt;
+ *                 &lt;property name="capacity" value="50000"/&gt;
+ *             &lt;/bean&gt;
+ *         &lt;/property&gt;
+ *         ...
+ * &lt;/bean&gt;
+ * </pre>
+ * <p>
+ * <img src="http://www.gridgain.com/images/spring-small.png">
+ * <br>
+ * For information about Spring framework visit <a href="http://www.springframework.org/">www.springframework.org</a>
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ * @see GridEventStorageSpi
+ */
+@GridSpiInfo(
+    author = "GridGain Systems",
+    url = "www.gridgain.com",
+    email = "support@gridgain.com",
+    version = "3.6.0c.13012012")
+@GridSpiMultipleInstancesSupport(true)
+public class GridRingEventStorageSpi extends GridSpiAdapter implements GridEventStorageSpi,
+    GridRingEventStorageSpiMBean {
+    /** Default maximum number of stored events (value is {@code 10000}). */
+    public static final int DFLT_CAPACITY = 10000;
+
+    /** Default number of stripes (value is number of available processors). */
+    public static final int DFLT_STRIPES = Runtime.getRuntime().availableProcessors();
+
+    /** Default event time to live value in milliseconds (value is {@link Long#MAX_VALUE}). */
+    public static final long DFLT_EXPIRE_AGE_MS = Long.MAX_VALUE;
+
+    /** Default time bucket size in milliseconds (value is {@code 1000}). */
+    public static final long DFLT_TIME_BUCKET_MS = 1000;
+
+    /** Number of time buckets kept by every stripe. */
+    private static final int BUCKETS = 128;
+
+    /** Comparator of events by timestamp. */
+    private static final Comparator<GridEvent> TSTAMP_CMP = new Comparator<GridEvent>() {
+        @Override public int compare(GridEvent e1, GridEvent e2) {
+            return e1.timestamp() < e2.timestamp() ? -1 : e1.timestamp() > e2.timestamp() ? 1 : 0;
+        }
+    };
+
+    /** */
+    @GridLoggerResource
+    private GridLogger log;
+
+    /** Maximum number of stored events. */
+    private int cap = DFLT_CAPACITY;
+
+    /** Number of stripes. */
+    private int stripesCnt = DFLT_STRIPES;
+
+    /** Event time-to-live value in milliseconds. */
+    private long expireAgeMs = DFLT_EXPIRE_AGE_MS;
+
+    /** Time bucket size in milliseconds. */
+    private long timeBucketMs = DFLT_TIME_BUCKET_MS;
+
+    /** Configured event predicate filter. */
+    private GridPredicate<GridEvent> filter;
+
+    /** Stripes. */
+    @GridToStringExclude
+    private Stripe[] stripes;
+
+    /**
+     * Gets filter for events to be recorded.
+     *
+     * @return Filter to use.
+     */
+    public GridPredicate<GridEvent> getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sets filter for events to be recorded.
+     *
+     * @param filter Filter to use.
+     * @see GridJexlPredicate
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setFilter(GridPredicate<GridEvent> filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Sets maximum number of stored events. Memory for event references is allocated
+     * on SPI start and oldest events are overwritten once this limit is reached.
+     * <p>
+     * If not provided, default value is {@link #DFLT_CAPACITY}.
+     *
+     * @param cap Maximum number of stored events.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setCapacity(int cap) {
+        this.cap = cap;
+    }
+
+    /**
+     * Sets number of stripes. Every recording thread writes into one of the stripes,
+     * and capacity is divided between stripes evenly.
+     * <p>
+     * If not provided, default value is {@link #DFLT_STRIPES}.
+     *
+     * @param stripesCnt Number of stripes.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setStripes(int stripesCnt) {
+        this.stripesCnt = stripesCnt;
+    }
+
+    /**
+     * Sets events expiration time. Events that exceed this age are not returned
+     * by queries and are eventually overwritten by new events.
+     * <p>
+     * If not provided, default value is {@link #DFLT_EXPIRE_AGE_MS}.
+     *
+     * @param expireAgeMs Expiration time in milliseconds.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setExpireAgeMs(long expireAgeMs) {
+        this.expireAgeMs = expireAgeMs;
+    }
+
+    /**
+     * Sets size of time buckets used to look up events recorded after given time.
+     * Every stripe remembers first event of last {@code 128} buckets.
+     * <p>
+     * If not provided, default value is {@link #DFLT_TIME_BUCKET_MS}.
+     *
+     * @param timeBucketMs Time bucket size in milliseconds.
+     */
+    @GridSpiConfiguration(optional = true)
+    public void setTimeBucketMs(long timeBucketMs) {
+        this.timeBucketMs = timeBucketMs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCapacity() {
+        return cap;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getStripes() {
+        return stripesCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getExpireAgeMs() {
+        return expireAgeMs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getTimeBucketMs() {
+        return timeBucketMs;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getSize() {
+        long size = 0;
+
+        Stripe[] stripes = this.stripes;
+
+        if (stripes != null)
+            for (Stripe s : stripes)
+                size += s.size();
+
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getRecordedCount() {
+        long cnt = 0;
+
+        Stripe[] stripes = this.stripes;
+
+        if (stripes != null)
+            for (Stripe s : stripes)
+                cnt += s.cursor.get();
+
+        return cnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void spiStart(String gridName) throws GridSpiException {
+        // Start SPI start stopwatch.
+        startStopwatch();
+
+        assertParameter(stripesCnt > 0, "stripes > 0");
+        assertParameter(cap >= stripesCnt, "capacity >= stripes");
+        assertParameter(expireAgeMs > 0, "expireAgeMs > 0");
+        assertParameter(timeBucketMs > 0, "timeBucketMs > 0");
+
+        // Ack parameters.
+        if (log.isDebugEnabled()) {
+            log.debug(configInfo("capacity", cap));
+            log.debug(configInfo("stripes", stripesCnt));
+            log.debug(configInfo("expireAgeMs", expireAgeMs));
+            log.debug(configInfo("timeBucketMs", timeBucketMs));
+        }
+
+        Stripe[] stripes = new Stripe[stripesCnt];
+
+        int stripeCap = (cap + stripesCnt - 1) / stripesCnt;
+
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe(stripeCap);
+
+        this.stripes = stripes;
+
+        registerMBean(gridName, this, GridRingEventStorageSpiMBean.class);
+
+        // Ack ok start.
+        if (log.isDebugEnabled())
+            log.debug(startInfo());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void spiStop() throws GridSpiException {
+        unregisterMBean();
+
+        // Reset events.
+        clearAll();
+
+        // Ack ok stop.
+        if (log.isDebugEnabled())
+            log.debug(stopInfo());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearAll() {
+        Stripe[] stripes = this.stripes;
+
+        if (stripes != null)
+            for (Stripe s : stripes)
+                s.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void record(GridEvent evt) throws GridSpiException {
+        assert evt != null;
+
+        Stripe[] stripes = this.stripes;
+
+        assert stripes != null;
+
+        // Filter out events.
+        if (filter == null || filter.apply(evt)) {
+            stripes[(int)(Thread.currentThread().getId() % stripes.length)].add(evt);
+
+            // Make sure to filter out metrics updates to prevent log from flooding.
+            if (evt.type() != EVT_NODE_METRICS_UPDATED && log.isDebugEnabled())
+                log.debug("Event recorded: " + evt);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<GridEvent> localEvents(GridPredicate<? super GridEvent>... p) {
+        Stripe[] stripes = this.stripes;
+
+        // In case when no predicates provided - we return an empty
+        // collection, same as memory event storage SPI does.
+        if (p.length == 0 || stripes == null)
+            return Collections.emptyList();
+
+        int[] types = null;
+        long after = 0;
+
+        for (GridPredicate<? super GridEvent> pred : p) {
+            if (pred instanceof GridEventTypePredicate) {
+                int[] t = ((GridEventTypePredicate)pred).types();
+
+                if (types == null || t.length < types.length)
+                    types = t;
+            }
+            else if (pred instanceof GridEventAfterPredicate)
+                after = Math.max(after, ((GridEventAfterPredicate)pred).timestamp());
+        }
+
+        long minTstamp = expireAgeMs == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - expireAgeMs;
+
+        List<GridEvent> res = new ArrayList<GridEvent>();
+
+        for (Stripe s : stripes)
+            s.collect(types, after, minTstamp, p, res);
+
+        Collections.sort(res, TSTAMP_CMP);
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridRingEventStorageSpi.class, this);
+    }
+
+    /**
+     * Recorded event.
+     */
+    private static class Slot {
+        /** Sequence number within stripe. */
+        private final long seq;
+
+        /** Event. */
+        private final GridEvent evt;
+
+        /** Sequence number of previous event of the same type, set before slot is published. */
+        private long prev = -1;
+
+        /**
+         * @param seq Sequence number within stripe.
+         * @param evt Event.
+         */
+        private Slot(long seq, GridEvent evt) {
+            this.seq = seq;
+            this.evt = evt;
+        }
+    }
+
+    /**
+     * First event recorded within time bucket.
+     */
+    private static class Bucket {
+        /** Bucket number, i.e. timestamp divided by bucket size. */
+        private final long id;
+
+        /** Sequence number of first event. */
+        private final long seq;
+
+        /**
+         * @param id Bucket number.
+         * @param seq Sequence number of first event.
+         */
+        private Bucket(long id, long seq) {
+            this.id = id;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * Ring buffer stripe. Events are written without locks: every writer claims sequence
+     * number and writes its event into slot for that number.
+     */
+    private class Stripe {
+        /** Capacity. */
+        private final int stripeCap;
+
+        /** Slots. */
+        private final AtomicReferenceArray<Slot> slots;
+
+        /** Next sequence number. */
+        private final AtomicLong cursor = new AtomicLong();
+
+        /** Events with sequence numbers less than this one have been cleared. */
+        private volatile long clearSeq;
+
+        /** Sequence number of last event by event type. */
+        private final ConcurrentMap<Integer, AtomicLong> lastByType = new ConcurrentHashMap<Integer, AtomicLong>();
+
+        /** Time buckets. */
+        private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<Bucket>(BUCKETS);
+
+        /**
+         * @param stripeCap Capacity.
+         */
+        private Stripe(int stripeCap) {
+            this.stripeCap = stripeCap;
+
+            slots = new AtomicReferenceArray<Slot>(stripeCap);
+        }
+
+        /**
+         * @param evt Event to add.
+         */
+        void add(GridEvent evt) {
+            long seq = cursor.getAndIncrement();
+
+            Slot slot = new Slot(seq, evt);
+
+            int idx = (int)(seq % stripeCap);
+
+            AtomicLong last = lastByType(evt.type());
+
+            boolean linked = false;
+
+            while (true) {
+                Slot old = slots.get(idx);
+
+                // Concurrent writer has wrapped around and has already written newer event.
+                if (old != null && old.seq > seq) {
+                    // Unlink event which was never written, unless newer event has been linked already.
+                    if (linked)
+                        last.compareAndSet(seq, slot.prev);
+
+                    return;
+                }
+
+                // Link must be set before slot is published, so that readers can follow the chain.
+                if (!linked) {
+                    slot.prev = last.getAndSet(seq);
+
+                    linked = true;
+                }
+
+                if (slots.compareAndSet(idx, old, slot))
+                    break;
+            }
+
+            long bucketId = evt.timestamp() / timeBucketMs;
+
+            int bucketIdx = (int)(bucketId % BUCKETS);
+
+            Bucket b = buckets.get(bucketIdx);
+
+            if (b == null || b.id < bucketId)
+                buckets.compareAndSet(bucketIdx, b, new Bucket(bucketId, seq));
+        }
+
+        /**
+         * @param type Event type.
+         * @return Sequence number of last event of given type.
+         */
+        private AtomicLong lastByType(int type) {
+            AtomicLong last = lastByType.get(type);
+
+            if (last == null) {
+                AtomicLong old = lastByType.putIfAbsent(type, last = new AtomicLong(-1));
+
+                if (old != null)
+                    last = old;
+            }
+
+            return last;
+        }
+
+        /**
+         * Gets sequence number of first event that may have been produced after given time.
+         * Search starts from first event of the bucket preceding the bucket of given time
+         * to account for events recorded slightly out of timestamp order.
+         *
+         * @param after Timestamp.
+         * @return Sequence number to start search from.
+         */
+        private long firstAfter(long after) {
+            long bucketId = after / timeBucketMs;
+
+            Bucket best = null;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                Bucket b = buckets.get(i);
+
+                if (b != null && b.id < bucketId && (best == null || b.id > best.id))
+                    best = b;
+            }
+
+            return best == null ? 0 : best.seq;
+        }
+
+        /**
+         * Collects events that satisfy all predicates.
+         *
+         * @param types Event types to look up, {@code null} if any type matches.
+         * @param after Only events produced after this timestamp match, {@code 0} if any time matches.
+         * @param minTstamp Events produced before this timestamp have expired.
+         * @param p Predicates.
+         * @param res Collection to add matching events to.
+         */
+        void collect(@Nullable int[] types, long after, long minTstamp, GridPredicate<? super GridEvent>[] p,
+            Collection<GridEvent> res) {
+            long end = cursor.get();
+
+            long start = Math.max(Math.max(end - stripeCap, 0), clearSeq);
+
+            if (after > 0)
+                start = Math.max(start, firstAfter(after));
+
+            if (types != null) {
+                for (int type : types) {
+                    AtomicLong last = lastByType.get(type);
+
+                    if (last == null)
+                        continue;
+
+                    Collection<GridEvent> found = new ArrayList<GridEvent>();
+
+                    boolean scan = false;
+
+                    for (long seq = last.get(); seq >= start; ) {
+                        Slot slot = slots.get((int)(seq % stripeCap));
+
+                        // Event has not been published yet or was never written because slot was
+                        // wrapped, so its link cannot be followed.
+                        if (slot == null || slot.seq != seq) {
+                            scan = true;
+
+                            break;
+                        }
+
+                        accept(slot.evt, minTstamp, p, found);
+
+                        seq = slot.prev;
+                    }
+
+                    if (scan) {
+                        // Fall back to scanning the whole stripe, so that no older events are lost.
+                        found.clear();
+
+                        for (long seq = start; seq < end; seq++) {
+                            Slot slot = slots.get((int)(seq % stripeCap));
+
+                            if (slot != null && slot.seq == seq && slot.evt.type() == type)
+                                accept(slot.evt, minTstamp, p, found);
+                        }
+                    }
+
+                    res.addAll(found);
+                }
+            }
+            else {
+                for (long seq = start; seq < end; seq++) {
+                    Slot slot = slots.get((int)(seq % stripeCap));
+
+                    if (slot != null && slot.seq == seq)
+                        accept(slot.evt, minTstamp, p, res);
+                }
+            }
+        }
+
+        /**
+         * @param evt Event.
+         * @param minTstamp Events produced before this timestamp have expired.
+         * @param p Predicates.
+         * @param res Collection to add event to if it matches.
+         */
+        private void accept(GridEvent evt, long minTstamp, GridPredicate<? super GridEvent>[] p,
+            Collection<GridEvent> res) {
+            if (evt.timestamp() >= minTstamp && F.isAll(evt, p))
+                res.add(evt);
+        }
+
+        /**
+         * @return Number of stored events.
+         */
+        long size() {
+            long end = cursor.get();
+
+            return end - Math.max(Math.max(end - stripeCap, 0), clearSeq);
+        }
+
+        /**
+         * Removes all stored events.
+         */
+        void clear() {
+            long seq = cursor.get();
+
+            clearSeq = seq;
+
+            // Release references to cleared events.
+            for (int i = 0; i < stripeCap; i++) {
+                Slot slot = slots.get(i);
+
+                if (slot != null && slot.seq < seq)
+                    slots.compareAndSet(i, slot, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.eventstorage.ring;
+
+import org.gridgain.grid.spi.*;
+import org.gridgain.grid.util.mbean.*;
+
+/**
+ * Management bean for {@link GridRingEventStorageSpi}.
+ * Beside properties defined for every SPI bean this one gives access to:
+ * <ul>
+ * <li>Maximum number of stored events (see {@link #getCapacity()})</li>
+ * <li>Number of ring buffer stripes (see {@link #getStripes()})</li>
+ * <li>Event expiration time (see {@link #getExpireAgeMs()})</li>
+ * <li>Time bucket size (see {@link #getTimeBucketMs()})</li>
+ * <li>Method that removes all stored events (see {@link #clearAll()})</li>
+ * </ul>
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+@GridMBeanDescription("MBean that provides access to ring buffer event storage SPI configuration.")
+public interface GridRingEventStorageSpiMBean extends GridSpiManagementMBean {
+    /**
+     * Gets maximum number of stored events. Oldest events are overwritten
+     * by new ones when this limit is reached.
+     *
+     * @return Maximum number of stored events.
+     */
+    @GridMBeanDescription("Maximum number of stored events.")
+    public int getCapacity();
+
+    /**
+     * Gets number of ring buffer stripes events are recorded to.
+     *
+     * @return Number of stripes.
+     */
+    @GridMBeanDescription("Number of ring buffer stripes.")
+    public int getStripes();
+
+    /**
+     * Gets event time-to-live value. Events older than this value
+     * are not returned by queries.
+     *
+     * @return Event time-to-live.
+     */
+    @GridMBeanDescription("Event time-to-live value.")
+    public long getExpireAgeMs();
+
+    /**
+     * Gets size of time buckets used to look up events by time.
+     *
+     * @return Time bucket size in milliseconds.
+     */
+    @GridMBeanDescription("Time bucket size in milliseconds.")
+    public long getTimeBucketMs();
+
+    /**
+     * Gets number of events currently stored, including expired ones
+     * that have not been overwritten yet.
+     *
+     * @return Number of stored events.
+     */
+    @GridMBeanDescription("Number of stored events.")
+    public long getSize();
+
+    /**
+     * Gets total number of events recorded since SPI start.
+     *
+     * @return Total number of recorded events.
+     */
+    @GridMBeanDescription("Total number of recorded events.")
+    public long getRecordedCount();
+
+    /**
+     * Removes all stored events.
+     */
+    @GridMBeanDescription("Removes all stored events.")
+    public void clearAll();
+}
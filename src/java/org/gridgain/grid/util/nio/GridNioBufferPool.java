@@ -0,0 +1,117 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util.nio;
+
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Pool of receive buffers shared by all connections of NIO server. Buffers are
+ * grouped by power of two sizes. Buffers larger than maximum pooled size are
+ * allocated for every message.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.13012012
+ */
+class GridNioBufferPool {
+    /** Smallest pooled buffer size is {@code 2^MIN_SHIFT}. */
+    private static final int MIN_SHIFT = 10;
+
+    /** Largest pooled buffer size is {@code 2^maxShift}. */
+    private final int maxShift;
+
+    /** Maximum total size of pooled buffers. */
+    private final long maxBytes;
+
+    /** Total size of pooled buffers. */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /** Pooled buffers by size. */
+    private final Queue<byte[]>[] buckets;
+
+    /**
+     * @param maxBufSize Maximum size of pooled buffer.
+     * @param maxBytes Maximum total size of pooled buffers.
+     */
+    @SuppressWarnings({"unchecked"})
+    GridNioBufferPool(int maxBufSize, long maxBytes) {
+        assert maxBufSize >= 1 << MIN_SHIFT;
+        assert maxBytes > 0;
+
+        this.maxBytes = maxBytes;
+
+        maxShift = shift(maxBufSize);
+
+        buckets = new Queue[maxShift - MIN_SHIFT + 1];
+
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new ConcurrentLinkedQueue<byte[]>();
+    }
+
+    /**
+     * @param size Required size.
+     * @return Buffer which is at least of required size.
+     */
+    byte[] acquire(int size) {
+        assert size > 0;
+
+        int shift = shift(size);
+
+        if (shift > maxShift)
+            return new byte[size];
+
+        byte[] buf = buckets[shift - MIN_SHIFT].poll();
+
+        if (buf != null) {
+            bytes.addAndGet(-buf.length);
+
+            return buf;
+        }
+
+        return new byte[1 << shift];
+    }
+
+    /**
+     * Returns buffer to the pool.
+     *
+     * @param buf Buffer taken with {@link #acquire(int)}.
+     */
+    void release(byte[] buf) {
+        int len = buf.length;
+
+        // Skip arrays which were not allocated by this pool.
+        if (Integer.bitCount(len) != 1 || len < 1 << MIN_SHIFT || len > 1 << maxShift)
+            return;
+
+        if (bytes.addAndGet(len) > maxBytes) {
+            bytes.addAndGet(-len);
+
+            return;
+        }
+
+        buckets[Integer.numberOfTrailingZeros(len) - MIN_SHIFT].offer(buf);
+    }
+
+    /**
+     * @param size Buffer size.
+     * @return Shift of the smallest pooled size which is not less than given size.
+     */
+    private static int shift(int size) {
+        return size <= 1 << MIN_SHIFT ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridNioBufferPool.class, this);
+    }
+}
@@ -24,17 +24,33 @@ import java.nio.channels.*;
 import java.nio.channels.spi.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * NIO server with improved functionality. There can be several selectors and several reading threads.
+ * <p>
+ * Every connection is assigned to a stripe, and messages of a stripe are delivered one
+ * at a time, so messages received over the same connection are delivered in order.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
-public class GridNioServer {
+public class GridNioServer<T> {
     /** Time, which server will wait before retry operation. */
     private static final long ERR_WAIT_TIME = 2000;
 
+    /** Size of read buffer. Messages which arrive whole in a single read are parsed right from it. */
+    private static final int READ_BUF_SIZE = 8 << 10;
+
+    /** Maximum size of pooled receive buffer. */
+    private static final int POOL_MAX_BUF_SIZE = 1 << 20;
+
+    /** Maximum total size of pooled receive buffers. */
+    private static final long POOL_MAX_BYTES = 16 << 20;
+
+    /** Maximum number of messages stripe delivers before yielding its thread. */
+    private static final int STRIPE_BATCH = 64;
+
     /** Accept worker thread. */
     private GridThread acceptThread;
 
@@ -45,7 +61,7 @@ public class GridNioServer {
     private final GridNioReadWorker[] readWorkers;
 
     /** Message listener. */
-    private final GridNioServerListener listener;
+    private final GridNioServerListener<T> listener;
 
     /** Logger. */
     private final GridLogger log;
@@ -53,8 +69,17 @@ public class GridNioServer {
     /** Grid name. */
     private final String gridName;
 
-    /** Worker pool. */
-    private final GridWorkerPool workerPool;
+    /** Executor delivering messages. */
+    private final Executor exec;
+
+    /** Delivery stripes. */
+    private final Stripe[] stripes;
+
+    /** Index of stripe for the next connection. */
+    private final AtomicInteger stripeIdx = new AtomicInteger();
+
+    /** Receive buffer pool. */
+    private final GridNioBufferPool bufPool = new GridNioBufferPool(POOL_MAX_BUF_SIZE, POOL_MAX_BYTES);
 
     /** Closed flag. */
     private volatile boolean closed;
@@ -81,19 +106,23 @@ public class GridNioServer {
      * @param listener Listener.
      * @param log Log.
      * @param exec Executor.
+     * @param stripeCnt Count of delivery stripes, usually equal to number of executor threads.
      * @param selectorCnt Count of selectors and selecting threads.
      * @param gridName Grid name.
      * @param directBuf Direct buffer flag.
      * @param syncNotification {@code true} if listener should be notified within NIO thread.
      * @throws GridException If failed.
      */
-    public GridNioServer(InetAddress addr, int port, GridNioServerListener listener, GridLogger log, Executor exec,
-        int selectorCnt, String gridName, boolean directBuf, boolean syncNotification) throws GridException {
+    @SuppressWarnings({"unchecked"})
+    public GridNioServer(InetAddress addr, int port, GridNioServerListener<T> listener, GridLogger log, Executor exec,
+        int stripeCnt, int selectorCnt, String gridName, boolean directBuf, boolean syncNotification)
+        throws GridException {
         assert addr != null;
         assert port > 0 && port < 0xffff;
         assert listener != null;
         assert log != null;
         assert exec != null;
+        assert stripeCnt > 0;
         assert selectorCnt > 0;
 
         this.listener = listener;
@@ -101,8 +130,12 @@ public class GridNioServer {
         this.gridName = gridName;
         this.directBuf = directBuf;
         this.syncNotification = syncNotification;
+        this.exec = exec;
+
+        stripes = new GridNioServer.Stripe[stripeCnt];
 
-        workerPool = new GridWorkerPool(exec, log);
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe();
 
         // This method will throw exception if address already in use.
         Selector acceptSelector = createSelector(addr, port);
@@ -113,7 +146,7 @@ public class GridNioServer {
 
         acceptThread = new GridThread(new GridNioAcceptWorker(gridName, "nio-acceptor", log, acceptSelector));
 
-        readWorkers = new GridNioReadWorker[selectorCnt];
+        readWorkers = new GridNioServer.GridNioReadWorker[selectorCnt];
         readThreads = new GridThread[selectorCnt];
 
         for (int i = 0; i < readWorkers.length; i++) {
@@ -150,8 +183,6 @@ public class GridNioServer {
             U.join(acceptThread, log);
 
             U.joinThreads(Arrays.asList(readThreads), log);
-
-            workerPool.join(false);
         }
     }
 
@@ -223,6 +254,9 @@ public class GridNioServer {
         /** Buffer for reading. */
         private final ByteBuffer readBuf;
 
+        /** Stream to parse messages right from read buffer. */
+        private final ByteBufferInputStream readIn = new ByteBufferInputStream();
+
         /** Selector to select read events. */
         private Selector selector;
 
@@ -237,7 +271,7 @@ public class GridNioServer {
 
             this.selector = selector;
 
-            readBuf = directBuf ? ByteBuffer.allocateDirect(8 << 10) : ByteBuffer.allocate(8 << 10);
+            readBuf = directBuf ? ByteBuffer.allocateDirect(READ_BUF_SIZE) : ByteBuffer.allocate(READ_BUF_SIZE);
         }
 
         /** {@inheritDoc} */
@@ -292,7 +326,9 @@ public class GridNioServer {
 
                     while ((sockCh = registrationRequests.poll()) != null) {
                         try {
-                            sockCh.register(selector, SelectionKey.OP_READ, new GridNioServerBuffer());
+                            int stripe = (stripeIdx.getAndIncrement() & Integer.MAX_VALUE) % stripes.length;
+
+                            sockCh.register(selector, SelectionKey.OP_READ, new GridNioServerBuffer(stripe));
                         }
                         catch (ClosedChannelException e) {
                             log().warning("Client connection was unexpectedly closed: " + sockCh.socket()
@@ -333,10 +369,9 @@ public class GridNioServer {
          * Processes keys selected by a selector.
          *
          * @param keys Selected keys.
-         * @throws GridException If executor has thrown an exception.
          * @throws ClosedByInterruptException If this thread was interrupted while reading data.
          */
-        private void processSelectedKeys(Set<SelectionKey> keys) throws GridException, ClosedByInterruptException {
+        private void processSelectedKeys(Set<SelectionKey> keys) throws ClosedByInterruptException {
             for (Iterator<SelectionKey> iter = keys.iterator(); iter.hasNext();) {
                 SelectionKey key = iter.next();
 
@@ -379,29 +414,50 @@ public class GridNioServer {
 
                         GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
 
+                        Stripe stripe = stripes[nioBuf.stripe()];
+
                         // We have size let's test if we have object
                         while (readBuf.remaining() > 0) {
-                            // Always write into the buffer.
-                            nioBuf.read(readBuf);
+                            if (nioBuf.isEmpty() && readBuf.remaining() >= 4) {
+                                int pos = readBuf.position();
+
+                                int size = readBuf.getInt(pos);
+
+                                // Message arrived whole, so parse it without copying.
+                                if (size > 0 && size <= readBuf.remaining() - 4) {
+                                    if (log.isDebugEnabled())
+                                        log.debug("Read full message from client socket: " + rmtAddr);
+
+                                    int lim = readBuf.limit();
+
+                                    readBuf.position(pos + 4);
+                                    readBuf.limit(pos + 4 + size);
+
+                                    T msg = parse(readIn.reset(readBuf), size);
+
+                                    readBuf.limit(lim);
+                                    readBuf.position(pos + 4 + size);
+
+                                    if (msg != null)
+                                        deliver(stripe, msg, null, 0);
+
+                                    continue;
+                                }
+                            }
+
+                            nioBuf.read(readBuf, bufPool);
 
                             if (nioBuf.isFilled()) {
                                 if (log.isDebugEnabled())
                                     log.debug("Read full message from client socket: " + rmtAddr);
 
-                                // Copy array so we can keep reading into the same buffer.
-                                final byte[] data = nioBuf.getMessageBytes().getArray();
+                                // Array is passed on, so we can keep reading into the same buffer.
+                                byte[] data = nioBuf.getMessageBytes();
+                                int size = nioBuf.getMessageSize();
 
                                 nioBuf.reset();
 
-                                if (syncNotification)
-                                    listener.onMessage(data);
-                                else {
-                                    workerPool.execute(new GridWorker(gridName, "grid-nio-worker", log) {
-                                        @Override protected void body() {
-                                            listener.onMessage(data);
-                                        }
-                                    });
-                                }
+                                deliver(stripe, null, data, size);
                             }
                         }
                     }
@@ -421,6 +477,199 @@ public class GridNioServer {
         }
     }
 
+    /**
+     * Parses message with listener.
+     *
+     * @param in Message bytes.
+     * @param len Message length.
+     * @return Parsed message or {@code null} if message should be skipped.
+     */
+    @SuppressWarnings({"CatchGenericClass"})
+    @Nullable private T parse(InputStream in, int len) {
+        try {
+            return listener.onRead(in, len);
+        }
+        catch (Throwable e) {
+            U.error(log, "Runtime error caught during NIO message parsing.", e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Delivers message in NIO thread if synchronous notification is enabled, or
+     * hands it over to connection stripe otherwise.
+     *
+     * @param stripe Connection stripe.
+     * @param msg Parsed message or {@code null} if message is not parsed yet.
+     * @param data Message bytes if message is not parsed yet.
+     * @param len Message length.
+     */
+    private void deliver(Stripe stripe, @Nullable T msg, @Nullable byte[] data, int len) {
+        if (syncNotification)
+            deliver(msg, data, len);
+        else
+            stripe.add(new Delivery<T>(msg, data, len));
+    }
+
+    /**
+     * @param msg Parsed message or {@code null} if message is not parsed yet.
+     * @param data Message bytes if message is not parsed yet.
+     * @param len Message length.
+     */
+    @SuppressWarnings({"CatchGenericClass"})
+    private void deliver(@Nullable T msg, @Nullable byte[] data, int len) {
+        if (data != null) {
+            msg = parse(new ByteArrayInputStream(data, 0, len), len);
+
+            bufPool.release(data);
+        }
+
+        if (msg != null) {
+            try {
+                listener.onMessage(msg);
+            }
+            catch (Throwable e) {
+                U.error(log, "Runtime error caught during NIO message processing: " + msg, e);
+            }
+        }
+    }
+
+    /**
+     * Message waiting for delivery.
+     */
+    private static class Delivery<T> {
+        /** Parsed message. */
+        private final T msg;
+
+        /** Message bytes if message is not parsed yet. */
+        private final byte[] data;
+
+        /** Message length. */
+        private final int len;
+
+        /**
+         * @param msg Parsed message.
+         * @param data Message bytes if message is not parsed yet.
+         * @param len Message length.
+         */
+        Delivery(@Nullable T msg, @Nullable byte[] data, int len) {
+            this.msg = msg;
+            this.data = data;
+            this.len = len;
+        }
+    }
+
+    /**
+     * Queue of messages delivered one at a time by executor threads. At most one
+     * thread runs stripe at any moment.
+     */
+    private class Stripe implements Runnable {
+        /** Messages waiting for delivery. */
+        private final Queue<Delivery<T>> queue = new ConcurrentLinkedQueue<Delivery<T>>();
+
+        /** Whether stripe is submitted to executor or running. */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * @param d Message to deliver.
+         */
+        void add(Delivery<T> d) {
+            queue.add(d);
+
+            schedule();
+        }
+
+        /**
+         * Submits stripe to executor unless it is already submitted.
+         */
+        private void schedule() {
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    exec.execute(this);
+                }
+                catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+
+                    if (!closed)
+                        U.error(log, "Failed to deliver NIO messages due to execution rejection (will deliver " +
+                            "them in NIO thread instead).", e);
+
+                    run();
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            for (int i = 0; i < STRIPE_BATCH; i++) {
+                Delivery<T> d = queue.poll();
+
+                if (d == null)
+                    break;
+
+                deliver(d.msg, d.data, d.len);
+            }
+
+            scheduled.set(false);
+
+            // Messages added after the last poll or left after batch are delivered by next run.
+            schedule();
+        }
+    }
+
+    /**
+     * Input stream over remaining bytes of a buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        /** Buffer. */
+        private ByteBuffer buf;
+
+        /**
+         * @param buf Buffer to read from.
+         * @return This stream.
+         */
+        ByteBufferInputStream reset(ByteBuffer buf) {
+            this.buf = buf;
+
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xff : -1;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int read(byte[] b, int off, int len) {
+            int remaining = buf.remaining();
+
+            if (remaining == 0)
+                return len == 0 ? 0 : -1;
+
+            if (len > remaining)
+                len = remaining;
+
+            buf.get(b, off, len);
+
+            return len;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long skip(long n) {
+            int skip = (int)Math.min(Math.max(n, 0), buf.remaining());
+
+            buf.position(buf.position() + skip);
+
+            return skip;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int available() {
+            return buf.remaining();
+        }
+    }
+
     /**
      * A separate thread that will accept incoming connections and schedule read to some worker.
      */
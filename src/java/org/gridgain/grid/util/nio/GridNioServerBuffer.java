@@ -9,25 +9,57 @@
 
 package org.gridgain.grid.util.nio;
 
-import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.io.*;
 import java.nio.*;
 
 /**
- * NIO server buffer.
+ * NIO server buffer. Holds state of a single connection: stripe messages are delivered
+ * on and message which did not fit into read buffer. Message bytes are kept in array
+ * taken from buffer pool only while message is being read.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
 class GridNioServerBuffer {
-    /** Preallocate 8K. */
-    private GridByteArrayList msgBytes = new GridByteArrayList(1024 << 3);
+    /** Index of stripe delivering messages of this connection. */
+    private final int stripe;
+
+    /** Message size bytes read so far. */
+    private final byte[] hdr = new byte[4];
+
+    /** Number of message size bytes read so far. */
+    private int hdrCnt;
+
+    /** Message bytes. */
+    private byte[] data;
+
+    /** Number of message bytes read so far. */
+    private int cnt;
 
     /** */
     private int msgSize = -1;
 
+    /**
+     * @param stripe Index of stripe delivering messages of this connection.
+     */
+    GridNioServerBuffer(int stripe) {
+        this.stripe = stripe;
+    }
+
+    /**
+     * @return Index of stripe delivering messages of this connection.
+     */
+    int stripe() {
+        return stripe;
+    }
+
     /** */
     void reset() {
-        msgBytes.reset();
+        data = null;
+        cnt = 0;
+        hdrCnt = 0;
 
         msgSize = -1;
     }
@@ -40,56 +72,58 @@ class GridNioServerBuffer {
     int getMessageSize() { return msgSize; }
 
     /**
-     * Gets message bytes read so far.
+     * Gets message bytes read so far. Array may be longer than message.
      *
      * @return Message bytes read so far.
      */
-    GridByteArrayList getMessageBytes() { return msgSize < 0 ? null : msgBytes; }
+    byte[] getMessageBytes() { return data; }
+
+    /**
+     * Checks whether no part of the next message was read yet.
+     *
+     * @return {@code True} if buffer is empty.
+     */
+    boolean isEmpty() { return msgSize < 0 && hdrCnt == 0; }
 
     /**
      * Checks whether the byte array is filled.
      *
      * @return Flag indicating whether byte array is filled or not.
      */
-    boolean isFilled() { return msgSize > 0 && msgBytes.getSize() == msgSize; }
+    boolean isFilled() { return msgSize > 0 && cnt == msgSize; }
 
     /**
      * @param buf Buffer.
+     * @param pool Pool to take message array from.
+     * @throws IOException If message size is invalid.
      */
-    void read(ByteBuffer buf) {
+    void read(ByteBuffer buf, GridNioBufferPool pool) throws IOException {
         if (msgSize < 0) {
-            int remaining = buf.remaining();
+            while (hdrCnt < 4 && buf.hasRemaining())
+                hdr[hdrCnt++] = buf.get();
 
-            if (remaining > 0) {
-                int missing = 4 - msgBytes.getSize();
+            if (hdrCnt < 4)
+                return;
 
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
+            msgSize = U.bytesToInt(hdr, 0);
 
-                assert msgBytes.getSize() <= 4;
+            if (msgSize <= 0)
+                throw new IOException("Invalid message size: " + msgSize);
 
-                if (msgBytes.getSize() == 4) {
-                    msgSize = msgBytes.getInt(0);
-
-                    assert msgSize > 0;
-
-                    msgBytes.reset();
-
-                    // Allocate required size.
-                    msgBytes.allocate(msgSize);
-                }
-            }
+            data = pool.acquire(msgSize);
         }
 
         int remaining = buf.remaining();
 
-        // If there are more bytes in buffer.
-        if (remaining > 0) {
-            int missing = msgSize - msgBytes.getSize();
+        // Read only up to message size.
+        int missing = msgSize - cnt;
+
+        if (remaining > 0 && missing > 0) {
+            int len = missing < remaining ? missing : remaining;
+
+            buf.get(data, cnt, len);
 
-            // Read only up to message size.
-            if (missing > 0) {
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
-            }
+            cnt += len;
         }
     }
 }
@@ -9,6 +9,9 @@
 
 package org.gridgain.grid.util.nio;
 
+import org.jetbrains.annotations.*;
+
+import java.io.*;
 import java.util.*;
 
 /**
@@ -17,9 +20,23 @@ import java.util.*;
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.13012012
  */
-public interface GridNioServerListener extends EventListener {
+public interface GridNioServerListener<T> extends EventListener {
+    /**
+     * Parses received message. Messages which arrived whole in a single read are parsed
+     * in NIO thread right from the read buffer, others are parsed before delivery.
+     * Stream must not be used after this method returns.
+     *
+     * @param in Message bytes.
+     * @param len Message length.
+     * @return Parsed message or {@code null} if message should be skipped.
+     */
+    @Nullable public T onRead(InputStream in, int len);
+
     /**
-     * @param data Data.
+     * Delivers parsed message. Messages received over the same connection are
+     * delivered one at a time in order of their arrival.
+     *
+     * @param msg Message.
      */
-    public void onMessage(byte[] data);
+    public void onMessage(T msg);
 }